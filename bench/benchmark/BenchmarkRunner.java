@@ -0,0 +1,536 @@
+package benchmark;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal benchmark harness in the spirit of JMH, with no dependencies besides the JDK.
+ * <p>
+ * Two modes are supported:
+ * <ul>
+ *   <li>{@link #average} — a fresh state per iteration; the operation is called repeatedly for the iteration
+ *       time (or up to a cap) and the score is the mean time per call. For fast operations
+ *       ({@code get*ById}, {@code create*}, updates).</li>
+ *   <li>{@link #singleShot} — a fresh state per measured call, for operations that consume their state
+ *       ({@code removeAll*}) or take milliseconds.</li>
+ * </ul>
+ * Each benchmark runs warm-up iterations first (results discarded), then measurement iterations. Besides
+ * time, the harness reports bytes allocated per call by the measuring thread (like JMH's
+ * {@code gc.alloc.rate.norm}), single-shot runs also the peak heap growth during the call, and states that
+ * implement {@link SecondaryMetrics} add their own counters. States that are {@link AutoCloseable} are closed
+ * after their iteration (like JMH's {@code @TearDown(Level.Iteration)}), e.g. to delete their files. Results are
+ * printed as a table and can be written as JSON and compared against a stored baseline; a suite's
+ * {@code main} ends with {@link #finish()}.
+ * <p>
+ * Command line options (see {@link #parseOptions(String[])}): {@code -wi <n>} warm-up iterations,
+ * {@code -i <n>} measurement iterations, {@code -r <ms>} iteration time, {@code -f <regex>} run only matching
+ * benchmark names, {@code -p <name>=<v1>,<v2>} override a parameter's values, {@code -json <file>} write
+ * results, {@code -baseline <file>} compare with earlier JSON results and {@code -threshold <fraction>}
+ * the slowdown that counts as a regression (default {@code 0.10}).
+ * <p>
+ * The harness runs everything in the current JVM, so results are only comparable between runs with the
+ * same JVM flags on the same machine. For stable numbers use a quiet machine and a fixed heap
+ * ({@code -Xms}/{@code -Xmx}).
+ */
+public final class BenchmarkRunner {
+
+    /** Calls between two clock reads in {@link #average} mode. */
+    private static final int CHECK_INTERVAL = 256;
+
+    /** A measured operation on a state. */
+    @FunctionalInterface
+    public interface Operation<S> {
+        /**
+         * Runs one call.
+         *
+         * @param state      the benchmark state
+         * @param invocation the index of the call within the iteration
+         * @return a result to consume, or {@code null}
+         */
+        Object run(S state, int invocation);
+    }
+
+    /**
+     * Implemented by benchmark states that count something besides time (e.g. bytes written). The values are
+     * read after every measured iteration and averaged, like JMH's secondary results.
+     */
+    public interface SecondaryMetrics {
+        /**
+         * Returns the counters of the iteration that just ended, normalized per call.
+         *
+         * @param calls measured calls in the iteration
+         * @return metric name to value, in report order
+         */
+        Map<String, Double> secondaryMetrics(long calls);
+    }
+
+    /**
+     * Run configuration.
+     *
+     * @param warmupIterations      iterations run before measuring
+     * @param measurementIterations measured iterations
+     * @param iterationMillis       length of an iteration in {@link #average} mode
+     * @param include               benchmarks to run (matched against the name)
+     * @param params                parameter values overriding the defaults of a suite
+     * @param jsonOutput            where to write JSON results; {@code null} to skip
+     * @param baseline              earlier JSON results to compare with; {@code null} to skip
+     * @param threshold             relative slowdown against the baseline that counts as a regression
+     */
+    public record Options(int warmupIterations, int measurementIterations, long iterationMillis,
+                          Pattern include, Map<String, List<String>> params, Path jsonOutput,
+                          Path baseline, double threshold) {
+    }
+
+    /**
+     * Score of one benchmark with one set of parameters.
+     *
+     * @param name        the benchmark name
+     * @param params      parameter values
+     * @param mode        {@code "avgt"} or {@code "ss"}
+     * @param nanosPerOp  per-iteration (or per-call) scores, nanoseconds per operation
+     * @param bytesPerOp  bytes allocated per operation, averaged over all measured calls
+     * @param secondary   further averaged metrics (peak heap, {@link SecondaryMetrics} counters)
+     */
+    public record Result(String name, Map<String, String> params, String mode, double[] nanosPerOp,
+                         double bytesPerOp, Map<String, Double> secondary) {
+
+        /** @return the benchmark name with its parameters, which identifies it across runs */
+        public String key() {
+            return name + " " + formatParams(params);
+        }
+
+        /** @return allocation rate in MB per second of measured time */
+        public double allocationRateMBps() {
+            return bytesPerOp / mean() * 1e9 / 1e6;
+        }
+
+        /** @return the mean score in nanoseconds per call */
+        public double mean() {
+            return Arrays.stream(nanosPerOp).average().orElse(Double.NaN);
+        }
+
+        /** @return the sample standard deviation of the scores */
+        public double stdDev() {
+            if (nanosPerOp.length < 2) {
+                return 0;
+            }
+            double mean = mean();
+            double sum = 0;
+            for (double score : nanosPerOp) {
+                sum += (score - mean) * (score - mean);
+            }
+            return Math.sqrt(sum / (nanosPerOp.length - 1));
+        }
+    }
+
+    private final Options options;
+    private final Blackhole blackhole = new Blackhole();
+    private final List<Result> results = new ArrayList<>();
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * Creates a runner.
+     *
+     * @param options the run configuration
+     */
+    public BenchmarkRunner(Options options) {
+        this.options = options;
+    }
+
+    /**
+     * Parses command line options; unknown options are rejected.
+     *
+     * @param args the arguments
+     * @return the options
+     * @throws IllegalArgumentException if an option is unknown or has no valid value
+     */
+    public static Options parseOptions(String[] args) {
+        int warmup = 3;
+        int measurement = 5;
+        long millis = 1000;
+        Pattern include = Pattern.compile(".*");
+        Map<String, List<String>> params = new LinkedHashMap<>();
+        Path json = null;
+        Path baseline = null;
+        double threshold = 0.10;
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "-wi" -> warmup = Integer.parseInt(value);
+                case "-i" -> measurement = Integer.parseInt(value);
+                case "-r" -> millis = Long.parseLong(value);
+                case "-f" -> include = Pattern.compile(value);
+                case "-json" -> json = Path.of(value);
+                case "-baseline" -> baseline = Path.of(value);
+                case "-threshold" -> threshold = Double.parseDouble(value);
+                case "-p" -> {
+                    int eq = value.indexOf('=');
+                    if (eq < 1) {
+                        throw new IllegalArgumentException("Expected -p name=v1,v2: " + value);
+                    }
+                    params.put(value.substring(0, eq), List.of(value.substring(eq + 1).split(",")));
+                }
+                default -> throw new IllegalArgumentException("Unknown option: " + option);
+            }
+        }
+        if (warmup < 0 || measurement < 1 || millis < 1 || threshold <= 0) {
+            throw new IllegalArgumentException("Iteration counts, time and threshold must be positive");
+        }
+        return new Options(warmup, measurement, millis, include, params, json, baseline, threshold);
+    }
+
+    /** @return the run configuration */
+    public Options options() {
+        return options;
+    }
+
+    /**
+     * Returns the values of an integer parameter: the ones given with {@code -p}, or the defaults.
+     *
+     * @param name     the parameter name
+     * @param defaults the suite's default values
+     * @return the values to run
+     */
+    public int[] intParam(String name, int... defaults) {
+        List<String> values = options.params().get(name);
+        return values == null ? defaults : values.stream().mapToInt(Integer::parseInt).toArray();
+    }
+
+    /**
+     * Measures the mean time of an operation called repeatedly on a state that is rebuilt for every iteration.
+     *
+     * @param name     the benchmark name
+     * @param params   parameter values, for the report
+     * @param setup    builds the state (not measured)
+     * @param maxCalls upper bound on calls per iteration, so that growing states stay near their
+     *                 nominal size
+     * @param op       the measured operation
+     */
+    public <S> void average(String name, Map<String, ?> params, Supplier<S> setup, int maxCalls,
+                            Operation<S> op) {
+        if (!options.include().matcher(name).find()) {
+            return;
+        }
+        long budget = options.iterationMillis() * 1_000_000;
+        double[] scores = new double[options.measurementIterations()];
+        Map<String, Double> secondary = new LinkedHashMap<>();
+        long allocated = 0;
+        long measuredCalls = 0;
+        for (int iteration = -options.warmupIterations(); iteration < scores.length; iteration++) {
+            S state = setup.get();
+            settle();
+            long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            long elapsed;
+            int calls = 0;
+            do {
+                int end = Math.min(calls + CHECK_INTERVAL, maxCalls);
+                for (; calls < end; calls++) {
+                    blackhole.consume(op.run(state, calls));
+                }
+                elapsed = System.nanoTime() - start;
+            } while (elapsed < budget && calls < maxCalls);
+            long allocatedDelta = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            blackhole.publish();
+            if (iteration >= 0) {
+                scores[iteration] = (double) elapsed / calls;
+                allocated += allocatedDelta;
+                measuredCalls += calls;
+                collect(state, calls, secondary);
+            }
+            tearDown(name, state);
+        }
+        record(name, params, "avgt", scores, (double) allocated / measuredCalls, average(secondary, scores.length));
+    }
+
+    /**
+     * Measures single calls, each on a freshly built state.
+     *
+     * @param name   the benchmark name
+     * @param params parameter values, for the report
+     * @param setup  builds the state (not measured)
+     * @param op     the measured operation
+     */
+    public <S> void singleShot(String name, Map<String, ?> params, Supplier<S> setup, Operation<S> op) {
+        singleShot(name, params, setup, 1, op);
+    }
+
+    /**
+     * Measures single calls, each on a freshly built state, where one call performs several operations
+     * (like JMH's {@code @OperationsPerInvocation}): scores and allocation are reported per operation.
+     * Also reports {@code heap.peak.B}, the growth of the heap's peak usage during the call (the sum of the
+     * peaks of all heap pools, so an upper estimate).
+     *
+     * @param name              the benchmark name
+     * @param params            parameter values, for the report
+     * @param setup             builds the state (not measured)
+     * @param operationsPerCall operations performed by one call, e.g. items loaded
+     * @param op                the measured operation
+     */
+    public <S> void singleShot(String name, Map<String, ?> params, Supplier<S> setup, int operationsPerCall,
+                               Operation<S> op) {
+        if (!options.include().matcher(name).find()) {
+            return;
+        }
+        double[] scores = new double[options.measurementIterations()];
+        Map<String, Double> secondary = new LinkedHashMap<>();
+        long allocated = 0;
+        for (int iteration = -options.warmupIterations(); iteration < scores.length; iteration++) {
+            S state = setup.get();
+            settle();
+            long heapBefore = resetHeapPeak();
+            long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            blackhole.consume(op.run(state, 0));
+            long elapsed = System.nanoTime() - start;
+            long allocatedDelta = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            long heapPeak = heapPeak() - heapBefore;
+            blackhole.publish();
+            if (iteration >= 0) {
+                scores[iteration] = (double) elapsed / operationsPerCall;
+                allocated += allocatedDelta;
+                secondary.merge("heap.peak.B", (double) heapPeak, Double::sum);
+                collect(state, operationsPerCall, secondary);
+            }
+            tearDown(name, state);
+        }
+        record(name, params, "ss", scores, (double) allocated / scores.length / operationsPerCall,
+                average(secondary, scores.length));
+    }
+
+    /**
+     * Ends a suite: prints the report, writes the JSON results and compares them with the baseline. Exits the
+     * JVM with status 1 if there are regressions.
+     *
+     * @throws IOException if the JSON results cannot be written or the baseline cannot be read
+     */
+    public void finish() throws IOException {
+        printReport(System.out);
+        writeJson();
+        List<String> regressions = compareWithBaseline(System.out);
+        if (!regressions.isEmpty()) {
+            System.out.println("Regressions: " + regressions);
+            System.exit(1);
+        }
+    }
+
+    /** @return the results so far, in run order */
+    public List<Result> results() {
+        return List.copyOf(results);
+    }
+
+    /**
+     * Prints the results as a table.
+     *
+     * @param out where to print
+     */
+    public void printReport(PrintStream out) {
+        out.printf(Locale.ROOT, "%-40s %-28s %5s %4s %14s %12s %12s%n",
+                "Benchmark", "Params", "Mode", "Cnt", "Score", "Error", "B/op");
+        for (Result result : results) {
+            out.printf(Locale.ROOT, "%-40s %-28s %5s %4d %14.1f %12.1f %12.1f  ns/op%n",
+                    result.name(), formatParams(result.params()), result.mode(), result.nanosPerOp().length,
+                    result.mean(), result.stdDev(), result.bytesPerOp());
+            result.secondary().forEach((metric, value) ->
+                    out.printf(Locale.ROOT, "  %-66s %24.1f%n", result.name() + ":" + metric, value));
+        }
+    }
+
+    /**
+     * Compares the results with the configured baseline, if any, and prints the comparison. Benchmarks missing
+     * from either side are skipped.
+     *
+     * @param out where to print
+     * @return keys of the benchmarks slower than the baseline by more than the threshold
+     * @throws IOException if the baseline cannot be read
+     */
+    public List<String> compareWithBaseline(PrintStream out) throws IOException {
+        if (options.baseline() == null) {
+            return List.of();
+        }
+        Map<String, Double> baseline = readScores(Files.readString(options.baseline(), StandardCharsets.UTF_8));
+        List<String> regressions = new ArrayList<>();
+        out.printf(Locale.ROOT, "%nComparison with %s (threshold +%.0f%%):%n",
+                options.baseline(), options.threshold() * 100);
+        for (Result result : results) {
+            Double before = baseline.get(result.key());
+            if (before == null || before <= 0) {
+                continue;
+            }
+            double change = (result.mean() - before) / before;
+            boolean regression = change > options.threshold();
+            if (regression) {
+                regressions.add(result.key());
+            }
+            out.printf(Locale.ROOT, "  %-68s %14.1f -> %14.1f  %+7.1f%%%s%n", result.key(), before, result.mean(),
+                    change * 100, regression ? "  REGRESSION" : "");
+        }
+        return regressions;
+    }
+
+    /**
+     * Reads the scores from JSON written by {@link #toJson(List)}: one result per line.
+     *
+     * @param json the file contents
+     * @return result key (see {@link Result#key()}) to score
+     */
+    static Map<String, Double> readScores(String json) {
+        Pattern line = Pattern.compile(
+                "\\{\"benchmark\":\"([^\"]*)\",\"params\":\\{([^}]*)},.*?\"score\":([-0-9.Ee]+|null)");
+        Pattern param = Pattern.compile("\"([^\"]*)\":\"([^\"]*)\"");
+        Map<String, Double> scores = new LinkedHashMap<>();
+        for (String text : json.split("\n")) {
+            Matcher matcher = line.matcher(text);
+            if (!matcher.find() || matcher.group(3).equals("null")) {
+                continue;
+            }
+            Map<String, String> params = new LinkedHashMap<>();
+            Matcher p = param.matcher(matcher.group(2));
+            while (p.find()) {
+                params.put(p.group(1), p.group(2));
+            }
+            scores.put(matcher.group(1) + " " + formatParams(params), Double.parseDouble(matcher.group(3)));
+        }
+        return scores;
+    }
+
+    /**
+     * Writes the results as a JSON array to the configured file, if any.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public void writeJson() throws IOException {
+        if (options.jsonOutput() != null) {
+            Files.writeString(options.jsonOutput(), toJson(results), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Serializes results as a JSON array of {@code {"benchmark":..,"params":{..},"mode":..,"score":..,
+     * "error":..,"bytesPerOp":..,"allocRateMBps":..,"secondary":{..},"samples":[..]}}, one result per line.
+     *
+     * @param results the results
+     * @return JSON text
+     */
+    public static String toJson(List<Result> results) {
+        StringBuilder out = new StringBuilder("[\n");
+        for (int i = 0; i < results.size(); i++) {
+            Result result = results.get(i);
+            out.append("  {\"benchmark\":\"").append(result.name()).append("\",\"params\":{");
+            int field = 0;
+            for (Map.Entry<String, String> param : result.params().entrySet()) {
+                out.append(field++ > 0 ? "," : "")
+                        .append('"').append(param.getKey()).append("\":\"").append(param.getValue()).append('"');
+            }
+            out.append("},\"mode\":\"").append(result.mode())
+                    .append("\",\"unit\":\"ns/op\",\"score\":").append(number(result.mean()))
+                    .append(",\"error\":").append(number(result.stdDev()))
+                    .append(",\"bytesPerOp\":").append(number(result.bytesPerOp()))
+                    .append(",\"allocRateMBps\":").append(number(result.allocationRateMBps()))
+                    .append(",\"secondary\":{");
+            field = 0;
+            for (Map.Entry<String, Double> metric : result.secondary().entrySet()) {
+                out.append(field++ > 0 ? "," : "")
+                        .append('"').append(metric.getKey()).append("\":").append(number(metric.getValue()));
+            }
+            out.append("},\"samples\":[");
+            for (int s = 0; s < result.nanosPerOp().length; s++) {
+                out.append(s > 0 ? "," : "").append(number(result.nanosPerOp()[s]));
+            }
+            out.append("]}").append(i + 1 < results.size() ? ",\n" : "\n");
+        }
+        return out.append("]\n").toString();
+    }
+
+    private void record(String name, Map<String, ?> params, String mode, double[] scores, double bytesPerOp,
+                        Map<String, Double> secondary) {
+        Map<String, String> values = new LinkedHashMap<>();
+        params.forEach((key, value) -> values.put(key, String.valueOf(value)));
+        Result result = new Result(name, values, mode, scores, bytesPerOp, secondary);
+        results.add(result);
+        System.out.printf(Locale.ROOT, "%s %s: %.1f ± %.1f ns/op, %.1f B/op%n",
+                name, formatParams(values), result.mean(), result.stdDev(), bytesPerOp);
+    }
+
+    /** Adds the state's per-call counters of one iteration to the running sums. */
+    /** Closes a state that holds resources once its iteration is over. */
+    private static void tearDown(String name, Object state) {
+        if (state instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                throw new IllegalStateException("Cannot tear down the state of " + name, e);
+            }
+        }
+    }
+
+    private static void collect(Object state, long calls, Map<String, Double> sums) {
+        if (state instanceof SecondaryMetrics metrics) {
+            metrics.secondaryMetrics(calls).forEach((metric, value) -> sums.merge(metric, value, Double::sum));
+        }
+    }
+
+    private static Map<String, Double> average(Map<String, Double> sums, int iterations) {
+        Map<String, Double> result = new LinkedHashMap<>();
+        sums.forEach((metric, sum) -> result.put(metric, sum / iterations));
+        return result;
+    }
+
+    /** Resets the peak usage of all heap pools and returns the current heap usage. */
+    private static long resetHeapPeak() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+                used += pool.getUsage().getUsed();
+            }
+        }
+        return used;
+    }
+
+    /** @return the sum of the peak usages of all heap pools since {@link #resetHeapPeak()} */
+    private static long heapPeak() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    /** Lets the garbage of the previous state go before measuring, so it is not billed to the next one. */
+    private static void settle() {
+        System.gc();
+    }
+
+    private static String formatParams(Map<String, String> params) {
+        StringBuilder out = new StringBuilder();
+        params.forEach((key, value) -> out.append(out.isEmpty() ? "" : " ").append(key).append('=').append(value));
+        return out.toString();
+    }
+
+    private static String number(double value) {
+        return Double.isFinite(value) ? String.format(Locale.ROOT, "%.3f", value) : "null";
+    }
+}
@@ -0,0 +1,36 @@
+package benchmark;
+
+/**
+ * Sink for benchmark results, so the JIT cannot drop the measured work as dead code
+ * (the role of JMH's {@code Blackhole}).
+ */
+public final class Blackhole {
+
+    private static volatile int sink;
+
+    private int accumulator;
+
+    /**
+     * Consumes a value.
+     *
+     * @param value the result of a measured operation (may be {@code null})
+     */
+    public void consume(Object value) {
+        accumulator = accumulator * 31 + System.identityHashCode(value);
+    }
+
+    /**
+     * Consumes a primitive value.
+     *
+     * @param value the result of a measured operation
+     */
+    public void consume(long value) {
+        accumulator = accumulator * 31 + Long.hashCode(value);
+    }
+
+    /** Publishes the accumulated state once per iteration, which keeps all consumed values observable. */
+    void publish() {
+        sink += accumulator;
+        accumulator = 0;
+    }
+}
@@ -0,0 +1,89 @@
+package benchmark;
+
+import model.Epic;
+import model.Subtask;
+import model.Task;
+import model.TaskStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generated board contents for benchmarks: half of the items are plain tasks, the rest are epics with
+ * {@code fanout} subtasks each. Items get consecutive IDs starting at 1.
+ * <p>
+ * With time windows, every task and subtask takes one minute, two minutes after the previous one, so no two
+ * windows overlap and {@link #nextFreeStart()} is free for new items. The objects are fresh on every call,
+ * since managers mutate epics in place.
+ *
+ * @param tasks         plain tasks
+ * @param epics         epics, with their subtask IDs filled in
+ * @param subtasks      subtasks, grouped by epic
+ * @param nextId        first unused ID
+ * @param nextFreeStart start of the first free time slot after all windows
+ */
+public record Board(List<Task> tasks, List<Epic> epics, List<Subtask> subtasks, int nextId,
+                    LocalDateTime nextFreeStart) {
+
+    /** Start of the first generated time window. */
+    public static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    /** Length of a generated time window. */
+    public static final Duration WINDOW = Duration.ofMinutes(1);
+
+    /** Distance between the starts of two consecutive windows. */
+    public static final Duration STEP = Duration.ofMinutes(2);
+
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    /**
+     * Generates a board.
+     *
+     * @param size              total number of items (tasks, epics and subtasks)
+     * @param fanout            subtasks per epic
+     * @param timed             whether tasks and subtasks get time windows
+     * @param descriptionLength length of every description
+     * @return the board
+     */
+    public static Board generate(int size, int fanout, boolean timed, int descriptionLength) {
+        int taskCount = size / 2;
+        int epicCount = Math.max(1, (size - taskCount) / (fanout + 1));
+        String description = "d".repeat(descriptionLength);
+
+        List<Task> tasks = new ArrayList<>(taskCount);
+        List<Epic> epics = new ArrayList<>(epicCount);
+        List<Subtask> subtasks = new ArrayList<>(epicCount * fanout);
+        int id = 1;
+        LocalDateTime start = BASE;
+        for (int i = 0; i < taskCount; i++, id++) {
+            tasks.add(new Task(id, "Task " + id, description, STATUSES[id % STATUSES.length],
+                    timed ? WINDOW : null, timed ? start : null));
+            start = start.plus(STEP);
+        }
+        for (int e = 0; e < epicCount; e++) {
+            Epic epic = new Epic(id++, "Epic " + e, description, TaskStatus.NEW, null, null);
+            epics.add(epic);
+            for (int s = 0; s < fanout; s++, id++) {
+                subtasks.add(new Subtask(id, "Subtask " + id, description, STATUSES[id % STATUSES.length],
+                        epic.getId(), timed ? WINDOW : null, timed ? start : null));
+                epic.addSubtaskId(id);
+                start = start.plus(STEP);
+            }
+        }
+        return new Board(tasks, epics, subtasks, id, start);
+    }
+
+    /**
+     * Generates a board without time windows or descriptions.
+     *
+     * @param size   total number of items
+     * @param fanout subtasks per epic
+     * @param timed  whether tasks and subtasks get time windows
+     * @return the board
+     */
+    public static Board generate(int size, int fanout, boolean timed) {
+        return generate(size, fanout, timed, 0);
+    }
+}
@@ -0,0 +1,27 @@
+package benchmark;
+
+import history.HistoryManager;
+import manager.InMemoryTaskManager;
+
+/**
+ * {@link InMemoryTaskManager} preloaded with a {@link Board} the way {@code FileBackedTaskManager} loads a file:
+ * straight into the maps, followed by one rebuild of derived state. This keeps setup of large boards
+ * O(n log n) instead of n overlap-checked {@code create*} calls.
+ */
+public final class BoardTaskManager extends InMemoryTaskManager {
+
+    /**
+     * Creates a manager holding the board's items.
+     *
+     * @param historyManager the history manager to use
+     * @param board          the items to load
+     */
+    public BoardTaskManager(HistoryManager historyManager, Board board) {
+        super(historyManager);
+        board.tasks().forEach(task -> getTasks().put(task.getId(), task));
+        board.epics().forEach(epic -> getEpics().put(epic.getId(), epic));
+        board.subtasks().forEach(subtask -> getSubtasks().put(subtask.getId(), subtask));
+        rebuildDerivedState();
+        setNextId(board.nextId());
+    }
+}
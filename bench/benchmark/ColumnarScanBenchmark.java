@@ -0,0 +1,151 @@
+package benchmark;
+
+import history.InMemoryHistoryManager;
+import manager.ColumnarTaskManager;
+import manager.InMemoryTaskManager;
+import manager.TaskManager;
+import model.Task;
+import model.TaskStatus;
+import model.TaskType;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Benchmarks of analytic scans over the tasks of {@link InMemoryTaskManager}, which iterates the values of its
+ * {@code HashMap<Integer, Task>}, and of {@link ColumnarTaskManager}, which reads primitive columns:
+ * <ul>
+ *   <li>{@code statusCount} — number of tasks with a status;</li>
+ *   <li>{@code scheduledMinutes} — total duration of the scheduled tasks;</li>
+ *   <li>{@code overlapCheck} — an update that keeps the task's window, so the whole schedule is checked;</li>
+ *   <li>{@code getById} — a read by ID, which the columnar engine pays for by creating the object.</li>
+ * </ul>
+ * Half of the tasks have a time window. Parameter: {@code size} — tasks (default 1k, 10k, 100k, 1M).
+ * <p>
+ * Run (after compiling {@code src/main} and {@code bench} into one classpath):
+ * <pre>
+ * java -Xms2g -Xmx2g -cp out benchmark.ColumnarScanBenchmark -p size=10000,100000
+ * </pre>
+ */
+public final class ColumnarScanBenchmark {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private ColumnarScanBenchmark() {
+    }
+
+    /** The scans measured on both engines. */
+    private interface Scans {
+        TaskManager manager();
+
+        int statusCount(TaskStatus status);
+
+        long scheduledMinutes();
+    }
+
+    /** Scans over the task map, the way code inside the in-memory manager would write them. */
+    private static final class ObjectScans extends InMemoryTaskManager implements Scans {
+        ObjectScans() {
+            super(new InMemoryHistoryManager());
+        }
+
+        @Override
+        public TaskManager manager() {
+            return this;
+        }
+
+        @Override
+        public int statusCount(TaskStatus status) {
+            int count = 0;
+            for (Task task : getTasks().values()) {
+                if (task.getStatus() == status) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public long scheduledMinutes() {
+            long total = 0;
+            for (Task task : getTasks().values()) {
+                if (task.hasTimeWindow()) {
+                    total += task.getDurationMinutes();
+                }
+            }
+            return total;
+        }
+    }
+
+    private record ColumnScans(ColumnarTaskManager manager) implements Scans {
+        ColumnScans() {
+            this(new ColumnarTaskManager(new InMemoryHistoryManager()));
+        }
+
+        @Override
+        public int statusCount(TaskStatus status) {
+            return manager.countByStatus(TaskType.TASK, status);
+        }
+
+        @Override
+        public long scheduledMinutes() {
+            return manager.getScheduledMinutes(TaskType.TASK);
+        }
+    }
+
+    /**
+     * An engine holding {@code size} tasks in random statuses; every second one has a 30-minute window, an hour
+     * after the previous one.
+     */
+    private static <S extends Scans> S filled(int size, Supplier<S> engine) {
+        S scans = engine.get();
+        Random random = new Random(42);
+        List<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            TaskStatus status = TaskStatus.values()[random.nextInt(3)];
+            tasks.add(i % 2 == 0
+                    ? new Task("Task " + i, "Description " + i, status, Duration.ofMinutes(30), BASE.plusHours(i))
+                    : new Task("Task " + i, "Description " + i, status));
+        }
+        scans.manager().createTasks(tasks);
+        return scans;
+    }
+
+    /**
+     * Runs the suite.
+     *
+     * @param args harness options, see {@link BenchmarkRunner}
+     * @throws IOException if the JSON report cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        BenchmarkRunner runner = new BenchmarkRunner(BenchmarkRunner.parseOptions(args));
+        for (int size : runner.intParam("size", 1_000, 10_000, 100_000, 1_000_000)) {
+            run(runner, size, "objects", ObjectScans::new);
+            run(runner, size, "columnar", ColumnScans::new);
+        }
+        runner.finish();
+    }
+
+    private static void run(BenchmarkRunner runner, int size, String name, Supplier<? extends Scans> engine) {
+        Map<String, Integer> params = Map.of("size", size);
+        Supplier<Scans> setup = () -> filled(size, engine);
+        runner.average(name + ".statusCount", params, setup, Integer.MAX_VALUE,
+                (s, i) -> s.statusCount(TaskStatus.DONE));
+        runner.average(name + ".scheduledMinutes", params, setup, Integer.MAX_VALUE,
+                (s, i) -> s.scheduledMinutes());
+        runner.average(name + ".overlapCheck", params, setup, Integer.MAX_VALUE, (s, i) -> {
+            // the first task keeps its window, which is checked against every other one
+            Task task = new Task(1, "Task 0", "Description 0", TaskStatus.NEW, Duration.ofMinutes(30), BASE);
+            s.manager().updateTask(task);
+            return task;
+        });
+        runner.average(name + ".getById", params, setup, Integer.MAX_VALUE,
+                (s, i) -> s.manager().getTaskById(1 + i % size));
+    }
+}
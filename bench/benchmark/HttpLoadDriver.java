@@ -0,0 +1,254 @@
+package benchmark;
+
+import http.HttpTaskServer;
+import http.JsonStreamWriter;
+import manager.TaskManager;
+import metrics.MetricsRegistry;
+import metrics.Timer;
+import model.TaskStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Load driver for {@link HttpTaskServer}: populates a {@link Workload} board in one of the engines of
+ * {@link LoadDriver}, serves it on a free local port and replays a request mix over keep-alive HTTP/1.1
+ * connections (one client per thread), then reports the request rate and per-endpoint latency percentiles.
+ * <p>
+ * Requests and their weights:
+ * <ul>
+ *   <li>reads: {@code GET /tasks/{id}} 50, {@code GET /subtasks/{id}} 25, {@code GET /epics/{id}/subtasks} 15,
+ *       {@code GET /epics/{id}} 10;</li>
+ *   <li>writes: {@code POST /tasks} updating the status of an existing task.</li>
+ * </ul>
+ * A request counts as failed if it throws or gets a status other than {@code 200}. Latency includes the client,
+ * the loopback network and, for engines that are not thread-safe, waiting for the server's lock.
+ * A warm-up phase runs first with the same mix; its numbers are discarded.
+ * <p>
+ * Run (after compiling {@code src/main} and {@code bench} into one classpath):
+ * <pre>
+ * java -cp out benchmark.HttpLoadDriver -engine sharded -threads 16 -duration 10
+ * </pre>
+ * Options are those of {@link LoadDriver} ({@code -reads} is the percentage of {@code GET} requests).
+ */
+public final class HttpLoadDriver {
+
+    private HttpLoadDriver() {
+    }
+
+    /** Requests of the mix. */
+    private enum Request {
+        GET_TASK("GET /tasks/{id}", 50),
+        GET_SUBTASK("GET /subtasks/{id}", 25),
+        GET_EPIC_SUBTASKS("GET /epics/{id}/subtasks", 15),
+        GET_EPIC("GET /epics/{id}", 10),
+        UPDATE_TASK("POST /tasks", 0);
+
+        final String label;
+        final int weight;
+
+        Request(String label, int weight) {
+            this.label = label;
+            this.weight = weight;
+        }
+    }
+
+    /** Reads by cumulative weight: {@code READS[w]} for {@code w} in {@code 0..99}. */
+    private static final Request[] READS = table();
+
+    /**
+     * Runs the driver.
+     *
+     * @param args options, see the class description
+     * @throws Exception if the engine or the server cannot be set up or the JSON report cannot be written
+     */
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true"); // as HttpTaskServer.main does
+        }
+        LoadDriver.Config config = LoadDriver.parse(args);
+        List<AutoCloseable> resources = new ArrayList<>();
+        try {
+            TaskManager manager = LoadDriver.open(config, resources);
+            long started = System.nanoTime();
+            Workload workload = Workload.populate(manager, config.spec());
+            System.out.printf(Locale.ROOT, "Populated %s: %d tasks, %d epics, %d subtasks in %.1f s%n",
+                    config.engine(), workload.tasks().size(), workload.epicCount(), workload.subtasks().size(),
+                    (System.nanoTime() - started) / 1e9);
+            HttpTaskServer server = new HttpTaskServer(manager, 0);
+            server.start();
+            resources.add(server);
+            URI base = URI.create("http://localhost:" + server.getPort());
+
+            run(base, workload, config, config.warmupSeconds(), new MetricsRegistry());
+            MetricsRegistry registry = new MetricsRegistry();
+            double seconds = run(base, workload, config, config.durationSeconds(), registry);
+
+            long requests = 0;
+            long errors = 0;
+            for (Timer timer : registry.getTimers().values()) {
+                requests += timer.getCount();
+                errors += timer.getErrorCount();
+            }
+            double rate = requests / seconds;
+            System.out.printf(Locale.ROOT, "%d requests (%d failed) in %.1f s with %d threads: %.0f req/s%n",
+                    requests, errors, seconds, config.threads(), rate);
+            System.out.print(registry.toText());
+            if (config.json() != null) {
+                Files.writeString(config.json(), String.format(Locale.ROOT,
+                        "{\"engine\":\"%s\",\"threads\":%d,\"readPercent\":%d,\"requestsPerSecond\":%.1f,"
+                                + "\"metrics\":%s}%n",
+                        config.engine(), config.threads(), config.readPercent(), rate, registry.toJson()));
+            }
+        } finally {
+            for (int i = resources.size() - 1; i >= 0; i--) {
+                resources.get(i).close();
+            }
+        }
+    }
+
+    /**
+     * Sends the mix from all threads for the given time, recording into {@code registry}.
+     *
+     * @return the measured wall-clock time in seconds
+     */
+    private static double run(URI base, Workload workload, LoadDriver.Config config, int seconds,
+                              MetricsRegistry registry) throws InterruptedException {
+        if (seconds == 0) {
+            return 0;
+        }
+        Timer[] timers = new Timer[Request.values().length];
+        for (Request request : Request.values()) {
+            timers[request.ordinal()] = registry.timer(request.label);
+        }
+        CountDownLatch start = new CountDownLatch(1);
+        long[] deadline = new long[1];
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < config.threads(); t++) {
+            Worker worker = new Worker(base, workload, config.readPercent(), timers,
+                    new SplittableRandom(config.spec().seed() * 31 + t));
+            workers.add(Thread.ofPlatform().name("http-load-" + t).start(() -> {
+                try (worker) {
+                    start.await();
+                    worker.run(deadline[0]);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        long begin = System.nanoTime();
+        deadline[0] = begin + seconds * 1_000_000_000L;
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return (System.nanoTime() - begin) / 1e9;
+    }
+
+    /** One driving thread with its own client, and so its own keep-alive connection. */
+    private static final class Worker implements AutoCloseable {
+        private final URI base;
+        private final Workload workload;
+        private final int readPercent;
+        private final Timer[] timers;
+        private final SplittableRandom random;
+        private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        private final Blackhole blackhole = new Blackhole();
+
+        Worker(URI base, Workload workload, int readPercent, Timer[] timers, SplittableRandom random) {
+            this.base = base;
+            this.workload = workload;
+            this.readPercent = readPercent;
+            this.timers = timers;
+            this.random = random;
+        }
+
+        void run(long deadline) throws InterruptedException {
+            while (System.nanoTime() < deadline) {
+                Request request = random.nextInt(100) < readPercent ? READS[random.nextInt(100)] : Request.UPDATE_TASK;
+                HttpRequest http = build(request);
+                long begin = System.nanoTime();
+                boolean ok = false;
+                try {
+                    HttpResponse<byte[]> response = client.send(http, HttpResponse.BodyHandlers.ofByteArray());
+                    blackhole.consume(response.body().length);
+                    ok = response.statusCode() == 200;
+                } catch (IOException e) {
+                    // counted as an error of the request
+                } finally {
+                    timers[request.ordinal()].stop(begin, ok);
+                }
+            }
+            blackhole.publish();
+        }
+
+        private HttpRequest build(Request request) {
+            return switch (request) {
+                case GET_TASK -> get("/tasks/" + pick(workload.tasks()).id());
+                case GET_SUBTASK -> get("/subtasks/" + pick(workload.subtasks()).id());
+                case GET_EPIC_SUBTASKS -> get("/epics/" + epic() + "/subtasks");
+                case GET_EPIC -> get("/epics/" + epic());
+                case UPDATE_TASK -> HttpRequest.newBuilder(base.resolve("/tasks"))
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(json(pick(workload.tasks()))))
+                        .build();
+            };
+        }
+
+        private HttpRequest get(String path) {
+            return HttpRequest.newBuilder(base.resolve(path)).GET().build();
+        }
+
+        private byte[] json(Workload.Item item) {
+            TaskStatus[] statuses = TaskStatus.values();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+            try {
+                new JsonStreamWriter(out)
+                        .writeTask(item.toTask(statuses[random.nextInt(statuses.length)], workload.description()))
+                        .flush();
+            } catch (IOException e) {
+                throw new IllegalStateException(e); // an in-memory stream does not fail
+            }
+            return out.toByteArray();
+        }
+
+        private Workload.Item pick(List<Workload.Item> items) {
+            if (items.isEmpty()) {
+                throw new IllegalStateException("The board has no such items");
+            }
+            return items.get(random.nextInt(items.size()));
+        }
+
+        private int epic() {
+            if (workload.epicCount() == 0) {
+                throw new IllegalStateException("The board has no epics");
+            }
+            return workload.epicId(random.nextInt(workload.epicCount()));
+        }
+
+        @Override
+        public void close() {
+            client.close();
+        }
+    }
+
+    private static Request[] table() {
+        Request[] table = new Request[100];
+        int filled = 0;
+        for (Request request : Request.values()) {
+            for (int i = 0; i < request.weight; i++) {
+                table[filled++] = request;
+            }
+        }
+        return table;
+    }
+}
@@ -0,0 +1,374 @@
+package benchmark;
+
+import http.KVServer;
+import http.KVTaskClient;
+import manager.FileBackedTaskManager;
+import manager.KVTaskManager;
+import manager.Managers;
+import manager.TaskManager;
+import metrics.MetricsRegistry;
+import metrics.Timer;
+import model.Task;
+import model.TaskStatus;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Load driver: populates a {@link Workload} board in one of the engines from {@link Managers} and replays a
+ * read/write mix against it from several threads, then reports throughput and per-operation latency percentiles.
+ * <p>
+ * Operations and their weights:
+ * <ul>
+ *   <li>reads: {@code getTaskById} 40, {@code getSubtaskById} 25, {@code getEpicSubtasks} 20,
+ *       {@code getEpicById} 10, {@code getPrioritizedTasks} 3, {@code getHistory} 2;</li>
+ *   <li>writes: {@code updateTask} and {@code updateSubtask} 35 each (status changes; subtask updates make the
+ *       epic recalculate), {@code createTask} 20 (timed as often as the board's items), {@code deleteTaskById} 10
+ *       (deletes a task the same thread created earlier, otherwise creates one).</li>
+ * </ul>
+ * Latency is measured around each call as a client sees it: engines that are not thread-safe
+ * ({@link Managers#isThreadSafe(TaskManager)}) are called under one lock, and waiting for it counts.
+ * A warm-up phase runs first with the same mix; its numbers are discarded. The engines are called in-process;
+ * {@link HttpLoadDriver} drives them through the HTTP API.
+ * <p>
+ * Run (after compiling {@code src/main} and {@code bench} into one classpath):
+ * <pre>
+ * java -cp out benchmark.LoadDriver -engine sharded -threads 8 -tasks 50000 -epics 5000 -fanout skewed:10
+ * </pre>
+ * Options (defaults in brackets): {@code -engine memory|file|sharded|kv|columnar} [memory], {@code -shards} [processors],
+ * {@code -threads} [1], {@code -warmup} seconds [2], {@code -duration} seconds [10], {@code -tasks} [10000],
+ * {@code -epics} [1000], {@code -fanout fixed|uniform|skewed:<mean>} [skewed:10], {@code -timed} share of items
+ * with a time window [0.5], {@code -desc} description length [64], {@code -reads} percentage of reads [90],
+ * {@code -seed} [42], {@code -json} result file.
+ */
+public final class LoadDriver {
+
+    private LoadDriver() {
+    }
+
+    /** Command line settings. */
+    record Config(String engine, int shards, int threads, int warmupSeconds, int durationSeconds,
+                  Workload.Spec spec, int readPercent, Path json) {
+    }
+
+    /** Operations of the mix, with their weights within reads or writes. */
+    private enum Op {
+        GET_TASK("getTaskById", true, 40),
+        GET_SUBTASK("getSubtaskById", true, 25),
+        GET_EPIC_SUBTASKS("getEpicSubtasks", true, 20),
+        GET_EPIC("getEpicById", true, 10),
+        GET_PRIORITIZED("getPrioritizedTasks", true, 3),
+        GET_HISTORY("getHistory", true, 2),
+        UPDATE_TASK("updateTask", false, 35),
+        UPDATE_SUBTASK("updateSubtask", false, 35),
+        CREATE_TASK("createTask", false, 20),
+        DELETE_TASK("deleteTaskById", false, 10);
+
+        final String label;
+        final boolean read;
+        final int weight;
+
+        Op(String label, boolean read, int weight) {
+            this.label = label;
+            this.read = read;
+            this.weight = weight;
+        }
+    }
+
+    /** Operations by cumulative weight: {@code READS[w]} for {@code w} in {@code 0..99}, likewise for writes. */
+    private static final Op[] READS = table(true);
+    private static final Op[] WRITES = table(false);
+
+    /**
+     * Runs the driver.
+     *
+     * @param args options, see the class description
+     * @throws Exception if the engine cannot be set up or the JSON report cannot be written
+     */
+    public static void main(String[] args) throws Exception {
+        Config config = parse(args);
+        List<AutoCloseable> resources = new ArrayList<>();
+        try {
+            TaskManager manager = open(config, resources);
+            long started = System.nanoTime();
+            Workload workload = Workload.populate(manager, config.spec());
+            System.out.printf(Locale.ROOT, "Populated %s: %d tasks, %d epics, %d subtasks in %.1f s%n",
+                    config.engine(), workload.tasks().size(), workload.epicCount(), workload.subtasks().size(),
+                    (System.nanoTime() - started) / 1e9);
+
+            run(manager, workload, config, config.warmupSeconds(), new MetricsRegistry());
+            MetricsRegistry registry = new MetricsRegistry();
+            double seconds = run(manager, workload, config, config.durationSeconds(), registry);
+
+            long operations = 0;
+            for (Timer timer : registry.getTimers().values()) {
+                operations += timer.getCount();
+            }
+            double throughput = operations / seconds;
+            System.out.printf(Locale.ROOT, "%d operations in %.1f s with %d threads: %.0f ops/s%n",
+                    operations, seconds, config.threads(), throughput);
+            System.out.print(registry.toText());
+            if (config.json() != null) {
+                Files.writeString(config.json(), toJson(config, throughput, registry));
+            }
+        } finally {
+            for (int i = resources.size() - 1; i >= 0; i--) {
+                resources.get(i).close();
+            }
+        }
+    }
+
+    /**
+     * Parses command line options.
+     *
+     * @param args the arguments
+     * @return the settings
+     * @throws IllegalArgumentException if an option is unknown or has no valid value
+     */
+    static Config parse(String[] args) {
+        String engine = "memory";
+        int shards = Runtime.getRuntime().availableProcessors();
+        int threads = 1;
+        int warmup = 2;
+        int duration = 10;
+        int tasks = 10_000;
+        int epics = 1_000;
+        String fanout = "skewed:10";
+        double timed = 0.5;
+        int description = 64;
+        int reads = 90;
+        long seed = 42;
+        Path json = null;
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "-engine" -> engine = value;
+                case "-shards" -> shards = Integer.parseInt(value);
+                case "-threads" -> threads = Integer.parseInt(value);
+                case "-warmup" -> warmup = Integer.parseInt(value);
+                case "-duration" -> duration = Integer.parseInt(value);
+                case "-tasks" -> tasks = Integer.parseInt(value);
+                case "-epics" -> epics = Integer.parseInt(value);
+                case "-fanout" -> fanout = value;
+                case "-timed" -> timed = Double.parseDouble(value);
+                case "-desc" -> description = Integer.parseInt(value);
+                case "-reads" -> reads = Integer.parseInt(value);
+                case "-seed" -> seed = Long.parseLong(value);
+                case "-json" -> json = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option: " + option);
+            }
+        }
+        if (!List.of("memory", "file", "sharded", "kv", "columnar").contains(engine)) {
+            throw new IllegalArgumentException("Unknown engine: " + engine);
+        }
+        if (threads < 1 || warmup < 0 || duration < 1 || reads < 0 || reads > 100) {
+            throw new IllegalArgumentException("Threads and duration must be positive, reads within 0..100");
+        }
+        int colon = fanout.indexOf(':');
+        if (colon < 1) {
+            throw new IllegalArgumentException("Expected -fanout <fixed|uniform|skewed>:<mean>: " + fanout);
+        }
+        Workload.Spec spec = new Workload.Spec(tasks, epics,
+                Workload.Fanout.valueOf(fanout.substring(0, colon).toUpperCase(Locale.ROOT)),
+                Integer.parseInt(fanout.substring(colon + 1)), timed, description, seed);
+        return new Config(engine, shards, threads, warmup, duration, spec, reads, json);
+    }
+
+    /** Creates the engine; whatever has to be closed afterwards is added to {@code resources}. */
+    static TaskManager open(Config config, List<AutoCloseable> resources) throws IOException {
+        switch (config.engine()) {
+            case "file" -> {
+                Path path = Files.createTempFile("load", ".csv");
+                resources.add(() -> {
+                    Files.deleteIfExists(path);
+                    Files.deleteIfExists(FileBackedTaskManager.historyPathOf(path));
+                });
+                return Managers.fileBacked(path);
+            }
+            case "sharded" -> {
+                return Managers.sharded(config.shards());
+            }
+            case "kv" -> {
+                KVServer server = new KVServer(0);
+                server.start();
+                resources.add(server);
+                KVTaskClient client = new KVTaskClient(URI.create("http://localhost:" + server.getPort()));
+                resources.add(client);
+                KVTaskManager manager = Managers.keyValue(client);
+                resources.add(manager);
+                return manager;
+            }
+            case "columnar" -> {
+                return Managers.columnar();
+            }
+            default -> {
+                return Managers.inMemory();
+            }
+        }
+    }
+
+    /**
+     * Runs the mix from all threads for the given time, recording into {@code registry}.
+     *
+     * @return the measured wall-clock time in seconds
+     */
+    private static double run(TaskManager manager, Workload workload, Config config, int seconds,
+                              MetricsRegistry registry) throws InterruptedException {
+        if (seconds == 0) {
+            return 0;
+        }
+        Timer[] timers = new Timer[Op.values().length];
+        for (Op op : Op.values()) {
+            timers[op.ordinal()] = registry.timer((op.read ? "read." : "write.") + op.label);
+        }
+        ReentrantLock lock = Managers.isThreadSafe(manager) ? null : new ReentrantLock();
+        CountDownLatch start = new CountDownLatch(1);
+        long[] deadline = new long[1];
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < config.threads(); t++) {
+            Worker worker = new Worker(manager, workload, config.readPercent(), timers, lock,
+                    new SplittableRandom(config.spec().seed() * 31 + t));
+            workers.add(Thread.ofPlatform().name("load-" + t).start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                worker.run(deadline[0]);
+            }));
+        }
+        long begin = System.nanoTime();
+        deadline[0] = begin + seconds * 1_000_000_000L;
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return (System.nanoTime() - begin) / 1e9;
+    }
+
+    /** One driving thread. */
+    private static final class Worker {
+        private final TaskManager manager;
+        private final Workload workload;
+        private final int readPercent;
+        private final Timer[] timers;
+        private final ReentrantLock lock;
+        private final SplittableRandom random;
+        private final Blackhole blackhole = new Blackhole();
+        /** Tasks created by this thread and not deleted yet. */
+        private final Deque<Integer> created = new ArrayDeque<>();
+
+        Worker(TaskManager manager, Workload workload, int readPercent, Timer[] timers, ReentrantLock lock,
+               SplittableRandom random) {
+            this.manager = manager;
+            this.workload = workload;
+            this.readPercent = readPercent;
+            this.timers = timers;
+            this.lock = lock;
+            this.random = random;
+        }
+
+        void run(long deadline) {
+            while (System.nanoTime() < deadline) {
+                Op op = random.nextInt(100) < readPercent ? READS[random.nextInt(100)] : WRITES[random.nextInt(100)];
+                if (op == Op.DELETE_TASK && created.isEmpty()) {
+                    op = Op.CREATE_TASK;
+                }
+                long begin = System.nanoTime();
+                boolean ok = false;
+                if (lock != null) {
+                    lock.lock();
+                }
+                try {
+                    execute(op);
+                    ok = true;
+                } catch (RuntimeException e) {
+                    // counted as an error of the operation
+                } finally {
+                    if (lock != null) {
+                        lock.unlock();
+                    }
+                    timers[op.ordinal()].stop(begin, ok);
+                }
+            }
+            blackhole.publish();
+        }
+
+        private void execute(Op op) {
+            switch (op) {
+                case GET_TASK -> blackhole.consume(manager.getTaskById(pick(workload.tasks()).id()));
+                case GET_SUBTASK -> blackhole.consume(manager.getSubtaskById(pick(workload.subtasks()).id()));
+                case GET_EPIC_SUBTASKS -> blackhole.consume(manager.getEpicSubtasks(epic()));
+                case GET_EPIC -> blackhole.consume(manager.getEpicById(epic()));
+                case GET_PRIORITIZED -> blackhole.consume(manager.getPrioritizedTasks());
+                case GET_HISTORY -> blackhole.consume(manager.getHistory());
+                case UPDATE_TASK -> manager.updateTask(pick(workload.tasks()).toTask(status(), workload.description()));
+                case UPDATE_SUBTASK -> manager.updateSubtask(
+                        pick(workload.subtasks()).toSubtask(status(), workload.description()));
+                case CREATE_TASK -> {
+                    boolean timed = random.nextDouble() < workload.spec().timedFraction();
+                    Task task = manager.createTask(new Task("New", workload.description(), TaskStatus.NEW,
+                            timed ? Board.WINDOW : null, timed ? workload.reserveWindow() : null));
+                    created.push(task.getId());
+                }
+                case DELETE_TASK -> manager.deleteTaskById(created.pop());
+            }
+        }
+
+        private Workload.Item pick(List<Workload.Item> items) {
+            if (items.isEmpty()) {
+                throw new IllegalStateException("The board has no such items");
+            }
+            return items.get(random.nextInt(items.size()));
+        }
+
+        private int epic() {
+            if (workload.epicCount() == 0) {
+                throw new IllegalStateException("The board has no epics");
+            }
+            return workload.epicId(random.nextInt(workload.epicCount()));
+        }
+
+        private TaskStatus status() {
+            TaskStatus[] statuses = TaskStatus.values();
+            return statuses[random.nextInt(statuses.length)];
+        }
+    }
+
+    private static Op[] table(boolean read) {
+        Op[] table = new Op[100];
+        int filled = 0;
+        for (Op op : Op.values()) {
+            if (op.read == read) {
+                for (int i = 0; i < op.weight; i++) {
+                    table[filled++] = op;
+                }
+            }
+        }
+        return table;
+    }
+
+    private static String toJson(Config config, double throughput, MetricsRegistry registry) {
+        Workload.Spec spec = config.spec();
+        return String.format(Locale.ROOT, "{\"engine\":\"%s\",\"threads\":%d,\"tasks\":%d,\"epics\":%d,"
+                        + "\"fanout\":\"%s:%d\",\"timed\":%s,\"descriptionLength\":%d,\"readPercent\":%d,"
+                        + "\"opsPerSecond\":%.1f,\"metrics\":%s}%n",
+                config.engine(), config.threads(), spec.tasks(), spec.epics(),
+                spec.fanout().name().toLowerCase(Locale.ROOT), spec.meanFanout(), spec.timedFraction(),
+                spec.descriptionLength(), config.readPercent(), throughput, registry.toJson());
+    }
+}
@@ -0,0 +1,156 @@
+package benchmark;
+
+import exception.ManagerSaveException;
+import history.InMemoryHistoryManager;
+import manager.FileBackedTaskManager;
+import model.Task;
+import model.TaskStatus;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Benchmarks of {@link FileBackedTaskManager} persistence, where most of the mutation latency goes.
+ * <ul>
+ *   <li>{@code mutation} — an {@code updateTask} with its automatic save. Besides the call latency it reports
+ *       the time spent in {@code save()} ({@code save.ns/op}) and the bytes written per mutation
+ *       ({@code written.B/op}).</li>
+ *   <li>{@code loadFromFile} — loading a saved board. The score is per item, so {@code 1e9 / score} is the load
+ *       throughput in items per second; allocation per item, the allocation rate and the peak heap growth
+ *       ({@code heap.peak.B}) are reported too.</li>
+ * </ul>
+ * Parameters: {@code size} — items on the board (default 1k, 10k, 100k), {@code description} — length of
+ * every description (default 0, 100, 1000).
+ * <p>
+ * To guard against regressions, store a run's JSON ({@code -json baseline.json}) and pass it to later runs as
+ * {@code -baseline baseline.json}: the process exits with status 1 if any score is slower than the baseline
+ * by more than {@code -threshold} (10% by default). Baselines are only meaningful on the same machine.
+ */
+public final class PersistenceBenchmark {
+
+    private PersistenceBenchmark() {
+    }
+
+    /**
+     * File-backed manager preloaded with a board, which measures its own saves. Closing it deletes its file and
+     * the history file next to it, which the runner does after every iteration.
+     */
+    static final class MeasuredFileBackedManager extends FileBackedTaskManager
+            implements BenchmarkRunner.SecondaryMetrics, AutoCloseable {
+
+        private final Path path;
+        private final Board board;
+        private long saveNanos;
+        private long bytesWritten;
+
+        MeasuredFileBackedManager(Path path, Board board) {
+            super(new InMemoryHistoryManager(), path);
+            this.path = path;
+            this.board = board;
+            board.tasks().forEach(task -> getTasks().put(task.getId(), task));
+            board.epics().forEach(epic -> getEpics().put(epic.getId(), epic));
+            board.subtasks().forEach(subtask -> getSubtasks().put(subtask.getId(), subtask));
+            rebuildDerivedState();
+            setNextId(board.nextId());
+        }
+
+        /** Writes the current state without counting it. */
+        void saveUnmeasured() {
+            super.save();
+            saveNanos = 0;
+            bytesWritten = 0;
+        }
+
+        @Override
+        protected void save() {
+            long start = System.nanoTime();
+            super.save();
+            saveNanos += System.nanoTime() - start;
+            try {
+                bytesWritten += Files.size(path);
+            } catch (IOException e) {
+                throw new ManagerSaveException("Cannot read the size of " + path, e);
+            }
+        }
+
+        @Override
+        public Map<String, Double> secondaryMetrics(long calls) {
+            Map<String, Double> metrics = new LinkedHashMap<>();
+            metrics.put("save.ns/op", (double) saveNanos / calls);
+            metrics.put("written.B/op", (double) bytesWritten / calls);
+            return metrics;
+        }
+
+        @Override
+        public void close() throws IOException {
+            delete(path);
+        }
+    }
+
+    /** A saved board for {@code loadFromFile}; closing it deletes its files. */
+    private record SavedBoard(Path path) implements AutoCloseable {
+        @Override
+        public void close() throws IOException {
+            delete(path);
+        }
+    }
+
+    /**
+     * Runs the suite.
+     *
+     * @param args harness options, see {@link BenchmarkRunner}
+     * @throws IOException if a temporary file or the JSON report cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        BenchmarkRunner runner = new BenchmarkRunner(BenchmarkRunner.parseOptions(args));
+        int[] sizes = runner.intParam("size", 1_000, 10_000, 100_000);
+        int[] descriptions = runner.intParam("description", 0, 100, 1_000);
+
+        for (int size : sizes) {
+            for (int description : descriptions) {
+                Map<String, Integer> params = new LinkedHashMap<>();
+                params.put("size", size);
+                params.put("description", description);
+                run(runner, params, size, description);
+            }
+        }
+        runner.finish();
+    }
+
+    private static void run(BenchmarkRunner runner, Map<String, Integer> params, int size, int description) {
+        runner.average("mutation", params, () -> manager(size, description), Integer.MAX_VALUE, (m, i) -> {
+            List<Task> tasks = m.board.tasks();
+            Task current = tasks.get(i % tasks.size());
+            m.updateTask(new Task(current.getId(), current.getName(), current.getDescription(),
+                    (i & 1) == 0 ? TaskStatus.DONE : TaskStatus.NEW, current.getDuration(), current.getStartTime()));
+            return null;
+        });
+
+        runner.singleShot("loadFromFile", params, () -> new SavedBoard(manager(size, description).path), size,
+                (board, i) -> FileBackedTaskManager.loadFromFile(board.path()));
+    }
+
+    /** Builds a saved board in a fresh temporary file. */
+    private static MeasuredFileBackedManager manager(int size, int description) {
+        try {
+            Path path = Files.createTempFile("bench-board", ".csv");
+            MeasuredFileBackedManager manager =
+                    new MeasuredFileBackedManager(path, Board.generate(size, 10, true, description));
+            manager.saveUnmeasured();
+            return manager;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Deletes a board file and the history file next to it. */
+    private static void delete(Path path) throws IOException {
+        Files.deleteIfExists(path);
+        Files.deleteIfExists(FileBackedTaskManager.historyPathOf(path));
+    }
+}
@@ -0,0 +1,161 @@
+package benchmark;
+
+import manager.InMemoryTaskManager;
+import model.Task;
+import model.TaskStatus;
+import util.IntLongHashMap;
+import util.SortedLongMap;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+/**
+ * Benchmarks of the prioritized index of {@link InMemoryTaskManager} against the {@link TreeSet} it replaced:
+ * building it, moving an item to another start (remove, change, insert) and iterating it in order.
+ * <p>
+ * {@code treeSet.*} uses a {@code TreeSet<Task>} ordered by start and ID; {@code sortedLongMap.*} uses the
+ * manager's structures, a {@link SortedLongMap} keyed by {@link InMemoryTaskManager#priorityKey(long, int)} plus
+ * an {@link IntLongHashMap} from ID to key. Parameter: {@code size} — indexed items (default 1k, 10k, 100k, 1M).
+ * <p>
+ * Run (after compiling {@code src/main} and {@code bench} into one classpath):
+ * <pre>
+ * java -Xms2g -Xmx2g -cp out benchmark.PrioritizedIndexBenchmark -p size=10000,100000
+ * </pre>
+ */
+public final class PrioritizedIndexBenchmark {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private PrioritizedIndexBenchmark() {
+    }
+
+    /** The operations measured on both structures. */
+    private interface Index {
+        void put(Task task);
+
+        void remove(Task task);
+
+        /** Walks the items in order; returns something derived from all of them. */
+        long iterate();
+    }
+
+    /** {@code TreeSet<Task>} ordered by start and ID, as the manager used to keep it. */
+    private static final class TreeSetIndex implements Index {
+        private final TreeSet<Task> set = new TreeSet<>(Comparator.comparingLong(Task::getStartMinute)
+                .thenComparingInt(Task::getId));
+
+        @Override
+        public void put(Task task) {
+            set.add(task);
+        }
+
+        @Override
+        public void remove(Task task) {
+            set.remove(task);
+        }
+
+        @Override
+        public long iterate() {
+            long sum = 0;
+            for (Task task : set) {
+                sum += task.getId();
+            }
+            return sum;
+        }
+    }
+
+    /** Packed keys in a {@link SortedLongMap} with the key of every ID, as the manager keeps them now. */
+    private static final class SortedLongMapIndex implements Index {
+        private final SortedLongMap<Task> map = new SortedLongMap<>();
+        private final IntLongHashMap keys = new IntLongHashMap();
+
+        @Override
+        public void put(Task task) {
+            long key = InMemoryTaskManager.priorityKey(task.getStartMinute(), task.getId());
+            map.put(key, task);
+            keys.put(task.getId(), key);
+        }
+
+        @Override
+        public void remove(Task task) {
+            map.remove(keys.get(task.getId(), 0L));
+            keys.remove(task.getId());
+        }
+
+        @Override
+        public long iterate() {
+            long sum = 0;
+            for (Task task : map) {
+                sum += task.getId();
+            }
+            return sum;
+        }
+    }
+
+    /**
+     * Items in random insertion order and an index, filled or not.
+     *
+     * @param tasks timed tasks, one minute long, two minutes apart
+     * @param index the index under test
+     */
+    private record Fixture(List<Task> tasks, Index index) {
+        static Fixture of(int size, Index index, boolean filled) {
+            List<Task> tasks = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                tasks.add(new Task(i + 1, "Task " + i, "", TaskStatus.NEW, Duration.ofMinutes(1),
+                        BASE.plusMinutes(2L * i)));
+            }
+            Collections.shuffle(tasks, new Random(42));
+            if (filled) {
+                tasks.forEach(index::put);
+            }
+            return new Fixture(tasks, index);
+        }
+
+        /** Moves the {@code n}-th task behind every other one. */
+        Task reschedule(int n) {
+            Task task = tasks.get(n % tasks.size());
+            index.remove(task);
+            task.setStartMinute(task.getStartMinute() + 2L * tasks.size());
+            index.put(task);
+            return task;
+        }
+    }
+
+    /**
+     * Runs the suite.
+     *
+     * @param args harness options, see {@link BenchmarkRunner}
+     * @throws IOException if the JSON report cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        BenchmarkRunner runner = new BenchmarkRunner(BenchmarkRunner.parseOptions(args));
+        for (int size : runner.intParam("size", 1_000, 10_000, 100_000, 1_000_000)) {
+            run(runner, size, "treeSet", TreeSetIndex::new);
+            run(runner, size, "sortedLongMap", SortedLongMapIndex::new);
+        }
+        runner.finish();
+    }
+
+    private static void run(BenchmarkRunner runner, int size, String name, Supplier<Index> index) {
+        Map<String, Integer> params = Map.of("size", size);
+        runner.singleShot(name + ".insert", params, () -> Fixture.of(size, index.get(), false), size,
+                (f, i) -> {
+                    f.tasks().forEach(f.index()::put);
+                    return f.index();
+                });
+        runner.average(name + ".reschedule", params, () -> Fixture.of(size, index.get(), true), Integer.MAX_VALUE,
+                Fixture::reschedule);
+        runner.average(name + ".iterate", params, () -> Fixture.of(size, index.get(), true), Integer.MAX_VALUE,
+                (f, i) -> f.index().iterate());
+    }
+}
@@ -0,0 +1,130 @@
+package benchmark;
+
+import history.InMemoryHistoryManager;
+import model.Epic;
+import model.Subtask;
+import model.Task;
+import model.TaskStatus;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Benchmarks of {@link manager.InMemoryTaskManager} core operations on boards of different sizes.
+ * <p>
+ * Parameters: {@code size} — items on the board (default 1k, 10k, 100k, 1M), {@code fanout} — subtasks per
+ * epic (default 10, 1000; only for benchmarks that involve epics). Boards are built by
+ * {@link BoardTaskManager}, so building them is not measured.
+ * <p>
+ * Run (after compiling {@code src/main} and {@code bench} into one classpath):
+ * <pre>
+ * java -Xms2g -Xmx2g -cp out benchmark.TaskManagerBenchmark -p size=1000,10000 -f create -json before.json
+ * </pre>
+ */
+public final class TaskManagerBenchmark {
+
+    private TaskManagerBenchmark() {
+    }
+
+    /** The manager and the board it was loaded from. */
+    private record Fixture(BoardTaskManager manager, Board board) {
+        static Fixture of(int size, int fanout, boolean timed) {
+            Board board = Board.generate(size, fanout, timed);
+            return new Fixture(new BoardTaskManager(new InMemoryHistoryManager(), board), board);
+        }
+
+        /** A free time window for the {@code n}-th new item. */
+        LocalDateTime freeStart(int n) {
+            return board.nextFreeStart().plus(Board.STEP.multipliedBy(n));
+        }
+
+        Epic epic(int n) {
+            return board.epics().get(n % board.epics().size());
+        }
+    }
+
+    /**
+     * Runs the suite.
+     *
+     * @param args harness options, see {@link BenchmarkRunner}
+     * @throws IOException if the JSON report cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        BenchmarkRunner runner = new BenchmarkRunner(BenchmarkRunner.parseOptions(args));
+        int[] sizes = runner.intParam("size", 1_000, 10_000, 100_000, 1_000_000);
+        int[] fanouts = runner.intParam("fanout", 10, 1_000);
+
+        for (int size : sizes) {
+            run(runner, size, fanouts);
+        }
+        runner.finish();
+    }
+
+    private static void run(BenchmarkRunner runner, int size, int[] fanouts) {
+        int defaultFanout = fanouts[0];
+        Map<String, Integer> params = Map.of("size", size);
+        int growth = Math.max(1, size / 10); // calls per iteration for benchmarks that add items
+
+        // --- Creation ---
+        runner.average("createTask", params, () -> Fixture.of(size, defaultFanout, false), growth,
+                (f, i) -> f.manager().createTask(new Task("new", "d", TaskStatus.NEW)));
+        runner.average("createTask.timed", params, () -> Fixture.of(size, defaultFanout, true), growth,
+                (f, i) -> f.manager().createTask(new Task("new", "d", TaskStatus.NEW,
+                        Board.WINDOW, f.freeStart(i))));
+
+        for (int fanout : fanouts) {
+            Map<String, Integer> epicParams = new LinkedHashMap<>();
+            epicParams.put("size", size);
+            epicParams.put("fanout", fanout);
+
+            runner.average("createSubtask", epicParams, () -> Fixture.of(size, fanout, false), growth,
+                    (f, i) -> f.manager().createSubtask(
+                            new Subtask("new", "d", TaskStatus.NEW, f.epic(i).getId())));
+            runner.average("createSubtask.timed", epicParams, () -> Fixture.of(size, fanout, true), growth,
+                    (f, i) -> f.manager().createSubtask(new Subtask("new", "d", TaskStatus.NEW,
+                            f.epic(i).getId(), Board.WINDOW, f.freeStart(i))));
+
+            // --- Updates: status flips make the epic recalculate over all of its subtasks ---
+            runner.average("updateSubtask", epicParams, () -> Fixture.of(size, fanout, true), Integer.MAX_VALUE,
+                    (f, i) -> {
+                        Subtask current = f.board().subtasks().get(i % f.board().subtasks().size());
+                        f.manager().updateSubtask(new Subtask(current.getId(), current.getName(),
+                                current.getDescription(), (i & 1) == 0 ? TaskStatus.DONE : TaskStatus.NEW,
+                                current.getEpicId(), current.getDuration(), current.getStartTime()));
+                        return null;
+                    });
+
+            runner.average("getSubtaskById", epicParams, () -> Fixture.of(size, fanout, false), Integer.MAX_VALUE,
+                    (f, i) -> f.manager().getSubtaskById(
+                            f.board().subtasks().get(i % f.board().subtasks().size()).getId()));
+
+            runner.singleShot("removeAllSubtasks", epicParams, () -> Fixture.of(size, fanout, true),
+                    (f, i) -> {
+                        f.manager().removeAllSubtasks();
+                        return null;
+                    });
+            runner.singleShot("removeAllEpics", epicParams, () -> Fixture.of(size, fanout, true),
+                    (f, i) -> {
+                        f.manager().removeAllEpics();
+                        return null;
+                    });
+        }
+
+        // --- Reads ---
+        runner.average("getTaskById", params, () -> Fixture.of(size, defaultFanout, false), Integer.MAX_VALUE,
+                (f, i) -> f.manager().getTaskById(f.board().tasks().get(i % f.board().tasks().size()).getId()));
+        runner.average("getPrioritizedTasks", params, () -> Fixture.of(size, defaultFanout, true),
+                Integer.MAX_VALUE, (f, i) -> f.manager().getPrioritizedTasks());
+        runner.average("hasOverlappingTasks", params, () -> Fixture.of(size, defaultFanout, true),
+                Integer.MAX_VALUE, (f, i) -> f.manager().hasOverlappingTasks());
+
+        // --- Bulk removal ---
+        runner.singleShot("removeAllTasks", params, () -> Fixture.of(size, defaultFanout, true),
+                (f, i) -> {
+                    f.manager().removeAllTasks();
+                    return null;
+                });
+    }
+}
@@ -0,0 +1,234 @@
+package benchmark;
+
+import manager.InMemoryTaskManager;
+import manager.TaskManager;
+import model.Epic;
+import model.Subtask;
+import model.Task;
+import model.TaskStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Synthetic board for load tests, created through the public {@link TaskManager} API, so it works with every
+ * engine. Unlike {@link Board}, the shape is configurable: numbers of tasks and epics, the distribution of
+ * subtasks per epic, the share of items with a time window and the description length.
+ * <p>
+ * Time windows are {@link Board#WINDOW} long and {@link Board#STEP} apart, starting at {@link Board#BASE}, so they
+ * never overlap; {@link #reserveWindow()} hands out further free windows to any number of threads.
+ * <p>
+ * The generated items are remembered as {@link Item}s (ID and time window), which is all a load driver needs to
+ * read and update them without touching the manager's own objects.
+ */
+public final class Workload {
+
+    /** Items created per batch call while populating. */
+    private static final int BATCH = 10_000;
+
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    /**
+     * Distribution of the number of subtasks per epic around a mean.
+     */
+    public enum Fanout {
+        /** Every epic has exactly the mean. */
+        FIXED,
+        /** Uniform between {@code 0} and twice the mean. */
+        UNIFORM,
+        /** Pareto with shape 1.5: most epics are small, a few are very large (capped at 100 times the mean). */
+        SKEWED;
+
+        int sample(int mean, Random random) {
+            return switch (this) {
+                case FIXED -> mean;
+                case UNIFORM -> random.nextInt(2 * mean + 1);
+                case SKEWED -> {
+                    double min = mean / 3.0;
+                    double value = min / Math.pow(1 - random.nextDouble(), 1 / 1.5);
+                    yield (int) Math.min(value, 100.0 * mean);
+                }
+            };
+        }
+    }
+
+    /**
+     * Shape of a board.
+     *
+     * @param tasks             plain tasks
+     * @param epics             epics
+     * @param fanout            distribution of subtasks per epic
+     * @param meanFanout        mean subtasks per epic
+     * @param timedFraction     share of tasks and subtasks with a time window, {@code 0..1}
+     * @param descriptionLength length of every description
+     * @param seed              random seed; equal specs generate equal boards
+     */
+    public record Spec(int tasks, int epics, Fanout fanout, int meanFanout, double timedFraction,
+                       int descriptionLength, long seed) {
+
+        /**
+         * @throws IllegalArgumentException if a count is negative or the fraction is outside {@code 0..1}
+         */
+        public Spec {
+            if (tasks < 0 || epics < 0 || meanFanout < 0 || descriptionLength < 0) {
+                throw new IllegalArgumentException("Counts and lengths must not be negative");
+            }
+            if (!(timedFraction >= 0 && timedFraction <= 1)) {
+                throw new IllegalArgumentException("Timed fraction must be within 0..1: " + timedFraction);
+            }
+        }
+    }
+
+    /**
+     * A generated task or subtask.
+     *
+     * @param id       the ID assigned by the manager
+     * @param epicId   the epic of a subtask, {@code 0} for a task
+     * @param name     the name
+     * @param duration the window length, {@code null} if untimed
+     * @param start    the window start, {@code null} if untimed
+     */
+    public record Item(int id, int epicId, String name, Duration duration, LocalDateTime start) {
+
+        /**
+         * @param status      the new status
+         * @param description the description
+         * @return a copy of the stored task with another status, for {@link TaskManager#updateTask(Task)}
+         */
+        public Task toTask(TaskStatus status, String description) {
+            return new Task(id, name, description, status, duration, start);
+        }
+
+        /**
+         * @param status      the new status
+         * @param description the description
+         * @return a copy of the stored subtask with another status, for {@link TaskManager#updateSubtask(Subtask)}
+         */
+        public Subtask toSubtask(TaskStatus status, String description) {
+            return new Subtask(id, name, description, status, epicId, duration, start);
+        }
+    }
+
+    private final Spec spec;
+    private final String description;
+    private final List<Item> tasks;
+    private final List<Item> subtasks;
+    private final int[] epicIds;
+    private final AtomicLong nextSlot;
+
+    private Workload(Spec spec, String description, List<Item> tasks, List<Item> subtasks, int[] epicIds,
+                     long nextSlot) {
+        this.spec = spec;
+        this.description = description;
+        this.tasks = tasks;
+        this.subtasks = subtasks;
+        this.epicIds = epicIds;
+        this.nextSlot = new AtomicLong(nextSlot);
+    }
+
+    /**
+     * Generates a board and creates it in a manager. An {@link InMemoryTaskManager} (or subclass) is populated in
+     * one transaction, so persistent engines save once; other managers get batch calls.
+     *
+     * @param manager an empty manager
+     * @param spec    the board shape
+     * @return the generated workload
+     */
+    public static Workload populate(TaskManager manager, Spec spec) {
+        Random random = new Random(spec.seed());
+        String description = "d".repeat(spec.descriptionLength());
+        long[] slot = {0};
+
+        List<Task> newTasks = new ArrayList<>(spec.tasks());
+        for (int i = 0; i < spec.tasks(); i++) {
+            boolean timed = random.nextDouble() < spec.timedFraction();
+            newTasks.add(new Task("Task " + i, description, STATUSES[random.nextInt(STATUSES.length)],
+                    timed ? Board.WINDOW : null, timed ? Board.BASE.plus(Board.STEP.multipliedBy(slot[0]++)) : null));
+        }
+        int[] fanouts = new int[spec.epics()];
+        for (int e = 0; e < fanouts.length; e++) {
+            fanouts[e] = spec.fanout().sample(spec.meanFanout(), random);
+        }
+
+        List<Item> taskItems = new ArrayList<>(spec.tasks());
+        List<Item> subtaskItems = new ArrayList<>();
+        int[] epicIds = new int[spec.epics()];
+        Consumer<TaskManager> load = target -> {
+            for (int from = 0; from < newTasks.size(); from += BATCH) {
+                for (Task task : target.createTasks(newTasks.subList(from, Math.min(newTasks.size(), from + BATCH)))) {
+                    taskItems.add(new Item(task.getId(), 0, task.getName(), task.getDuration(), task.getStartTime()));
+                }
+            }
+            for (int e = 0; e < fanouts.length; e++) {
+                Epic epic = target.createEpic(new Epic("Epic " + e, description));
+                epicIds[e] = epic.getId();
+                List<Subtask> batch = new ArrayList<>(fanouts[e]);
+                for (int s = 0; s < fanouts[e]; s++) {
+                    boolean timed = random.nextDouble() < spec.timedFraction();
+                    batch.add(new Subtask("Subtask " + e + "." + s, description,
+                            STATUSES[random.nextInt(STATUSES.length)], epic.getId(), timed ? Board.WINDOW : null,
+                            timed ? Board.BASE.plus(Board.STEP.multipliedBy(slot[0]++)) : null));
+                }
+                if (!batch.isEmpty()) {
+                    for (Subtask subtask : target.createSubtasks(batch)) {
+                        subtaskItems.add(new Item(subtask.getId(), subtask.getEpicId(), subtask.getName(),
+                                subtask.getDuration(), subtask.getStartTime()));
+                    }
+                }
+            }
+        };
+        if (manager instanceof InMemoryTaskManager memory) {
+            memory.inTransaction(load);
+        } else {
+            load.accept(manager);
+        }
+        return new Workload(spec, description, List.copyOf(taskItems), List.copyOf(subtaskItems), epicIds, slot[0]);
+    }
+
+    /** @return the board shape */
+    public Spec spec() {
+        return spec;
+    }
+
+    /** @return the description of every generated item */
+    public String description() {
+        return description;
+    }
+
+    /** @return the generated tasks */
+    public List<Item> tasks() {
+        return tasks;
+    }
+
+    /** @return the generated subtasks */
+    public List<Item> subtasks() {
+        return subtasks;
+    }
+
+    /** @return number of generated epics */
+    public int epicCount() {
+        return epicIds.length;
+    }
+
+    /**
+     * @param index {@code 0 .. epicCount() - 1}
+     * @return ID of the epic
+     */
+    public int epicId(int index) {
+        return epicIds[index];
+    }
+
+    /**
+     * Returns a time window start that no other item uses. Thread-safe.
+     *
+     * @return start of a free {@link Board#WINDOW}
+     */
+    public LocalDateTime reserveWindow() {
+        return Board.BASE.plus(Board.STEP.multipliedBy(nextSlot.getAndIncrement()));
+    }
+}
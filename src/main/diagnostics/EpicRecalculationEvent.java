@@ -0,0 +1,35 @@
+package diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event for recalculating an epic's status or time fields from its subtasks. Recorded only above
+ * a threshold (1 ms by default), since it runs on every subtask change.
+ */
+@Name("kanban.EpicRecalculation")
+@Label("Epic Recalculation")
+@Category({"Kanban", "Epics"})
+@Description("Epic status or time fields derived from its subtasks")
+@Threshold("1 ms")
+public class EpicRecalculationEvent extends jdk.jfr.Event {
+
+    /** Value of {@link #aspect} for a status recalculation. */
+    public static final String STATUS = "status";
+
+    /** Value of {@link #aspect} for a time fields recalculation. */
+    public static final String TIME = "time";
+
+    @Label("Epic ID")
+    public int epicId;
+
+    @Label("Aspect")
+    @Description("What was recalculated: status or time")
+    public String aspect;
+
+    @Label("Subtasks Scanned")
+    public int subtasksScanned;
+}
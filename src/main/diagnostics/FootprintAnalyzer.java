@@ -0,0 +1,297 @@
+package diagnostics;
+
+import manager.InMemoryTaskManager;
+import manager.Managers;
+import model.Epic;
+import model.Subtask;
+import model.Task;
+import model.TaskStatus;
+import util.IntLongHashMap;
+import util.StringPool;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Measures the memory footprint of the task model at scale: retained bytes per {@link Task}, {@link Epic} and
+ * {@link Subtask}, per building block ({@link LocalDateTime}, {@link Duration}, {@link String}, map and set
+ * entries), and per item stored in an {@link InMemoryTaskManager}.
+ * <p>
+ * Sizes are measured, not computed: a structure with many instances is built between two full garbage
+ * collections and the growth of the used heap is divided by the instance count (median of three runs). The numbers therefore include
+ * alignment and array slack and depend on the JVM (the targets below assume a 64-bit JVM with compressed
+ * references, the default for heaps under 32 GB). Run it alone in a JVM, e.g.
+ * {@code java -cp out diagnostics.FootprintAnalyzer 200000}.
+ * <p>
+ * The {@code TARGET_*} constants are the published bytes-per-item budgets of a manager; a test guards them.
+ * They hold from about 10,000 items up. With G1, arrays larger than half a heap region (hash tables of very large
+ * managers) are rounded up to whole regions, which adds a few percent on top.
+ */
+public final class FootprintAnalyzer {
+
+    /** Budget for a plain task with a unique name, an empty description and no time window (was 234). */
+    public static final int TARGET_UNTIMED_TASK = 205;
+
+    /**
+     * Budget for a plain task with a unique name, an empty description and a time window (was 346, then 295
+     * while times were stored as {@link LocalDateTime} objects).
+     */
+    public static final int TARGET_TIMED_TASK = 250;
+
+    /** Budget for an epic without subtasks (was 266). */
+    public static final int TARGET_EPIC = 215;
+
+    /** Budget for a timed subtask, including its ID in the epic (was 368, then 300 with {@link LocalDateTime}s). */
+    public static final int TARGET_TIMED_SUBTASK = 260;
+
+    /** Distinct names and descriptions in {@link #templatedItems(int)}. */
+    private static final int TEMPLATES = 10;
+
+    /** Description length in {@link #templatedItems(int)}. */
+    private static final int TEMPLATE_LENGTH = 200;
+
+    /** Measurements per structure; the median is reported, since single readings of the heap are noisy. */
+    private static final int RUNS = 3;
+
+    /** Start of the generated time windows. */
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private FootprintAnalyzer() {
+    }
+
+    /**
+     * Prints the footprint report.
+     *
+     * @param args optional instance count per measurement (default 200000)
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        System.out.print(report(count));
+    }
+
+    /**
+     * Measures all building blocks and manager items.
+     *
+     * @param count instances per measurement; larger counts average out noise
+     * @return the report, one line per measurement
+     */
+    public static String report(int count) {
+        StringBuilder out = new StringBuilder(String.format(Locale.ROOT,
+                "Retained bytes per instance (%d instances per measurement)%n", count));
+        components(count).forEach((name, bytes) ->
+                out.append(String.format(Locale.ROOT, "  %-46s %7.1f%n", name, bytes)));
+        out.append(String.format(Locale.ROOT, "Retained bytes per item in InMemoryTaskManager%n"));
+        Map<String, Integer> targets = Map.of(
+                "task, untimed", TARGET_UNTIMED_TASK,
+                "task, timed", TARGET_TIMED_TASK,
+                "epic, no subtasks", TARGET_EPIC,
+                "subtask, timed", TARGET_TIMED_SUBTASK);
+        managerItems(count).forEach((name, bytes) ->
+                out.append(String.format(Locale.ROOT, "  %-46s %7.1f  (target %d)%n", name, bytes, targets.get(name))));
+        out.append(String.format(Locale.ROOT, "Retained bytes per untimed task with text from %d templates "
+                + "(%d-char descriptions)%n", TEMPLATES, TEMPLATE_LENGTH));
+        templatedItems(count).forEach((name, bytes) ->
+                out.append(String.format(Locale.ROOT, "  %-46s %7.1f%n", name, bytes)));
+        return out.toString();
+    }
+
+    /**
+     * Measures the building blocks of an item.
+     *
+     * @param count instances per measurement
+     * @return bytes per instance by building block, in report order
+     */
+    public static Map<String, Double> components(int count) {
+        Map<String, Double> sizes = new LinkedHashMap<>();
+        sizes.put("Task (shared strings, no time)", perInstance(count,
+                i -> new Task(i, "name", "", TaskStatus.NEW, null, null)));
+        sizes.put("Subtask (shared strings, no time)", perInstance(count,
+                i -> new Subtask(i, "name", "", TaskStatus.NEW, 1, null, null)));
+        sizes.put("Epic (shared strings, no time, no subtasks)", perInstance(count,
+                i -> new Epic(i, "name", "", TaskStatus.NEW, null, null)));
+        sizes.put("LocalDateTime", perInstance(count, BASE::plusMinutes));
+        sizes.put("Duration", perInstance(count, i -> Duration.ofSeconds(i, 1)));
+        sizes.put("String, 8 Latin-1 chars", perInstance(count, i -> String.format("T%07d", i)));
+        sizes.put("String, 8 chars with Cyrillic", perInstance(count, i -> String.format("З%07d", i)));
+
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(new Task(i + 1_000, "name", "", TaskStatus.NEW, Duration.ofMinutes(1), BASE.plusMinutes(2L * i)));
+        }
+        sizes.put("HashMap entry, boxed int key", retained(count, () -> {
+            Map<Integer, Task> map = new HashMap<>();
+            tasks.forEach(task -> map.put(task.getId(), task));
+            return map;
+        }));
+        sizes.put("TreeSet entry (prioritized list)", retained(count, () -> {
+            TreeSet<Task> set = new TreeSet<>(Comparator.comparingLong(Task::getStartMinute));
+            set.addAll(tasks);
+            return set;
+        }));
+        sizes.put("IntLongHashMap entry (item revision)", retained(count, () -> {
+            IntLongHashMap map = new IntLongHashMap();
+            tasks.forEach(task -> map.put(task.getId(), 1L));
+            return map;
+        }));
+        sizes.put("Subtask ID in an epic", retained(count, () -> {
+            Epic epic = new Epic(1, "name", "", TaskStatus.NEW, null, null);
+            epic.addSubtaskIds(tasks.stream().map(Task::getId).toList());
+            return epic;
+        }));
+        Reference.reachabilityFence(tasks);
+        return sizes;
+    }
+
+    /**
+     * Measures items as stored by a manager, including maps, the prioritized list, revisions and names
+     * ({@code "Task <n>"}, unique per item). Descriptions are empty.
+     *
+     * @param count items per measurement
+     * @return bytes per item by kind: {@code task, untimed}, {@code task, timed}, {@code epic, no subtasks},
+     * {@code subtask, timed}
+     */
+    public static Map<String, Double> managerItems(int count) {
+        Map<String, Double> sizes = new LinkedHashMap<>();
+        sizes.put("task, untimed", retained(count, () -> {
+            InMemoryTaskManager manager = Managers.inMemory();
+            List<Task> batch = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                batch.add(new Task("Task " + i, "", TaskStatus.NEW));
+            }
+            manager.createTasks(batch);
+            return manager;
+        }));
+        sizes.put("task, timed", retained(count, () -> {
+            InMemoryTaskManager manager = Managers.inMemory();
+            List<Task> batch = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                batch.add(new Task("Task " + i, "", TaskStatus.NEW, Duration.ofMinutes(30), BASE.plusHours(i)));
+            }
+            manager.createTasks(batch);
+            return manager;
+        }));
+        sizes.put("epic, no subtasks", retained(count, () -> {
+            InMemoryTaskManager manager = Managers.inMemory();
+            for (int i = 0; i < count; i++) {
+                manager.createEpic(new Epic("Epic " + i, ""));
+            }
+            return manager;
+        }));
+        sizes.put("subtask, timed", retained(count, () -> {
+            InMemoryTaskManager manager = Managers.inMemory();
+            int epicId = manager.createEpic(new Epic("Epic", "")).getId();
+            List<Subtask> batch = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                batch.add(new Subtask("Subtask " + i, "", TaskStatus.NEW, epicId,
+                        Duration.ofMinutes(30), BASE.plusHours(i)));
+            }
+            manager.createSubtasks(batch);
+            return manager;
+        }));
+        return sizes;
+    }
+
+    /**
+     * Measures untimed tasks whose name and description repeat one of {@value #TEMPLATES} templates, each item
+     * holding its own copies (as when parsed from a file or a request), without and with a {@link StringPool}
+     * set on the manager. The pool (1024 slots, plenty for the templates) is counted.
+     *
+     * @param count items per measurement
+     * @return bytes per item: {@code task, template text} and {@code task, template text, pooled}
+     */
+    public static Map<String, Double> templatedItems(int count) {
+        Map<String, Double> sizes = new LinkedHashMap<>();
+        sizes.put("task, template text", retained(count, () -> templatedManager(count, null)));
+        sizes.put("task, template text, pooled",
+                retained(count, () -> templatedManager(count, new StringPool(1024))));
+        return sizes;
+    }
+
+    private static InMemoryTaskManager templatedManager(int count, StringPool pool) {
+        char[][] names = new char[TEMPLATES][];
+        char[][] descriptions = new char[TEMPLATES][];
+        for (int t = 0; t < TEMPLATES; t++) {
+            names[t] = ("Template task " + t).toCharArray();
+            descriptions[t] = String.valueOf((char) ('a' + t)).repeat(TEMPLATE_LENGTH).toCharArray();
+        }
+        InMemoryTaskManager manager = Managers.inMemory();
+        manager.setStringPool(pool);
+        List<Task> batch = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // new String(char[]) copies, so every item starts with strings of its own
+            batch.add(new Task(new String(names[i % TEMPLATES]), new String(descriptions[i % TEMPLATES]),
+                    TaskStatus.NEW));
+        }
+        manager.createTasks(batch);
+        return manager;
+    }
+
+    /** Bytes per object of {@code count} objects made by {@code factory}, not counting the array holding them. */
+    private static double perInstance(int count, IntFunction<Object> factory) {
+        return retained(count, () -> {
+            Object[] holder = new Object[count];
+            for (int i = 0; i < count; i++) {
+                holder[i] = factory.apply(i);
+            }
+            return holder;
+        }) - (double) arrayBytes(count) / count;
+    }
+
+    /**
+     * Bytes retained by whatever {@code build} returns, per item: the median of {@link #RUNS} builds. The structure
+     * is built once unmeasured first, so that one-time initialization (class loading, caches) is not counted.
+     */
+    private static double retained(int count, Supplier<Object> build) {
+        Reference.reachabilityFence(build.get());
+        double[] runs = new double[RUNS];
+        for (int run = 0; run < RUNS; run++) {
+            long before = usedHeap();
+            Object result = build.get();
+            long after = usedHeap();
+            Reference.reachabilityFence(result);
+            result = null; // an interpreted frame would keep it alive into the next run's baseline
+            runs[run] = (after - before) / (double) count;
+        }
+        Arrays.sort(runs);
+        return runs[RUNS / 2];
+    }
+
+    /** Size of an {@code Object[]} with compressed references: 16-byte header, 4 bytes per slot, 8-byte aligned. */
+    private static long arrayBytes(int length) {
+        return (16 + 4L * length + 7) & ~7L;
+    }
+
+    /**
+     * Used heap after full collections: the lowest reading of several, with short pauses in between, so that
+     * objects freed only after reference processing are not counted.
+     */
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            used = Math.min(used, memory.getHeapMemoryUsage().getUsed());
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return used;
+    }
+}
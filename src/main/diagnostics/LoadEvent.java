@@ -0,0 +1,25 @@
+package diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for one {@code FileBackedTaskManager.loadFromFile(..)}.
+ */
+@Name("kanban.Load")
+@Label("Load")
+@Category({"Kanban", "Persistence"})
+@Description("Task manager state restored from a CSV file")
+public class LoadEvent extends jdk.jfr.Event {
+
+    @Label("Path")
+    public String path;
+
+    @Label("Rows Read")
+    public int rowsRead;
+
+    @Label("History Entries Restored")
+    public int historyEntries;
+}
@@ -0,0 +1,28 @@
+package diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event for a time-window overlap check of a created or updated item. Recorded only above a threshold
+ * (1 ms by default), since checks run on every timed mutation.
+ */
+@Name("kanban.OverlapCheck")
+@Label("Overlap Check")
+@Category({"Kanban", "Scheduling"})
+@Description("Check of an item's time window against the scheduled items")
+@Threshold("1 ms")
+public class OverlapCheckEvent extends jdk.jfr.Event {
+
+    @Label("Item ID")
+    public int taskId;
+
+    @Label("Items Scanned")
+    public int itemsScanned;
+
+    @Label("Overlap Found")
+    public boolean overlapFound;
+}
@@ -0,0 +1,28 @@
+package diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for a full rebuild of derived state (prioritized list, epic fields), e.g. after loading.
+ */
+@Name("kanban.RebuildDerivedState")
+@Label("Rebuild Derived State")
+@Category({"Kanban", "Epics"})
+@Description("Prioritized list and all epic fields rebuilt from the stored items")
+public class RebuildDerivedStateEvent extends jdk.jfr.Event {
+
+    @Label("Tasks")
+    public int tasks;
+
+    @Label("Epics")
+    public int epics;
+
+    @Label("Subtasks")
+    public int subtasks;
+
+    @Label("Prioritized Items")
+    public int prioritized;
+}
@@ -0,0 +1,25 @@
+package diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for one {@code FileBackedTaskManager.save()}: the whole CSV snapshot being rewritten.
+ */
+@Name("kanban.Save")
+@Label("Save")
+@Category({"Kanban", "Persistence"})
+@Description("Task manager state written to its CSV file")
+public class SaveEvent extends jdk.jfr.Event {
+
+    @Label("Path")
+    public String path;
+
+    @Label("Rows Written")
+    public int rowsWritten;
+
+    @Label("History Compacted")
+    public boolean historyCompacted;
+}
@@ -0,0 +1,11 @@
+/**
+ * Custom JDK Flight Recorder events for the task manager's hot paths.
+ * <p>
+ * Events are created, begun and committed inline; when no recording is running (or the event type is disabled)
+ * {@code shouldCommit()} is false, the fields are never filled in and the JIT removes the event object, so the
+ * instrumentation costs next to nothing. Record with the standard tooling, e.g.
+ * {@code java -XX:StartFlightRecording=filename=kanban.jfr ...} and {@code jfr print --categories Kanban kanban.jfr}.
+ * Frequent events ({@link diagnostics.OverlapCheckEvent}, {@link diagnostics.EpicRecalculationEvent}) have a
+ * 1 ms threshold by default; lower it in a JFR settings file to see every call.
+ */
+package diagnostics;
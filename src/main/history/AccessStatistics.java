@@ -0,0 +1,187 @@
+package history;
+
+import java.util.Arrays;
+
+/**
+ * Approximate per-task access frequencies: a count-min sketch for hit counts plus a small
+ * heavy-hitters table of the {@code k} most accessed task IDs.
+ * <p>
+ * All state lives in arrays allocated up front, so {@link #record(int)} does constant work
+ * ({@code depth} counter increments and a scan of the {@code k} hot slots) and never allocates.
+ * After every {@code decayInterval} samples all counts are halved, so the statistics follow
+ * the current workload instead of all-time totals; the halving pass is amortized over the interval.
+ * <p>
+ * Estimates never undercount (between decays) and overcount by at most about {@code 2N/width}
+ * with probability {@code 1 - 2^-depth}, where {@code N} is the number of samples.
+ * <p><strong>Note:</strong> This class is <em>not thread-safe</em>.</p>
+ */
+public class AccessStatistics {
+
+    /** Default sketch width (counters per row). */
+    public static final int DEFAULT_WIDTH = 1024;
+    /** Default number of sketch rows (independent hash functions). */
+    public static final int DEFAULT_DEPTH = 4;
+    /** Default size of the heavy-hitters table. */
+    public static final int DEFAULT_TOP_K = 16;
+    /** Default number of samples between two decays. */
+    public static final int DEFAULT_DECAY_INTERVAL = 100_000;
+
+    private final int width;
+    private final int depth;
+    private final int shift;
+    private final int decayInterval;
+
+    /** Sketch counters, row after row. */
+    private final int[] counters;
+    /** Per-row odd multipliers for hashing. */
+    private final int[] seeds;
+
+    /** Heavy hitters: task IDs and their estimated counts; only the first {@code topSize} are used. */
+    private final int[] topIds;
+    private final int[] topCounts;
+    private int topSize;
+
+    private int samplesSinceDecay;
+    private long totalSamples;
+
+    /**
+     * Creates statistics with the default sizes.
+     */
+    public AccessStatistics() {
+        this(DEFAULT_WIDTH, DEFAULT_DEPTH, DEFAULT_TOP_K, DEFAULT_DECAY_INTERVAL);
+    }
+
+    /**
+     * Creates statistics.
+     *
+     * @param width         counters per sketch row (rounded up to a power of two)
+     * @param depth         number of sketch rows
+     * @param topK          number of hot tasks to track
+     * @param decayInterval samples between two halvings of all counts
+     * @throws IllegalArgumentException if any argument is not positive
+     */
+    public AccessStatistics(int width, int depth, int topK, int decayInterval) {
+        if (width < 1 || depth < 1 || topK < 1 || decayInterval < 1) {
+            throw new IllegalArgumentException("Sketch parameters must be positive");
+        }
+        this.width = width == 1 ? 2 : Integer.highestOneBit(width - 1) << 1;
+        this.shift = 32 - Integer.numberOfTrailingZeros(this.width);
+        this.depth = depth;
+        this.decayInterval = decayInterval;
+        this.counters = new int[this.width * depth];
+        this.seeds = new int[depth];
+        int seed = 0x9E3779B9;
+        for (int row = 0; row < depth; row++) {
+            seed = seed * 0x2C1B3C6D + 0x297A2D39;
+            seeds[row] = seed | 1;
+        }
+        this.topIds = new int[topK];
+        this.topCounts = new int[topK];
+    }
+
+    /**
+     * Records one access to a task.
+     *
+     * @param id the accessed task ID
+     */
+    public void record(int id) {
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + bucket(id, row);
+            int count = counters[index];
+            if (count != Integer.MAX_VALUE) {
+                counters[index] = ++count;
+            }
+            estimate = Math.min(estimate, count);
+        }
+        offerHot(id, estimate);
+        totalSamples++;
+        if (++samplesSinceDecay >= decayInterval) {
+            decay();
+        }
+    }
+
+    /**
+     * Returns the estimated (decayed) access count of a task.
+     *
+     * @param id the task ID
+     * @return estimated count; 0 for tasks never seen
+     */
+    public int estimate(int id) {
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters[row * width + bucket(id, row)]);
+        }
+        return estimate;
+    }
+
+    /**
+     * Returns the IDs of the most accessed tasks, hottest first.
+     *
+     * @return up to {@code k} task IDs
+     */
+    public int[] getTopIds() {
+        Integer[] order = new Integer[topSize];
+        for (int i = 0; i < topSize; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(topCounts[b], topCounts[a]));
+        int[] result = new int[topSize];
+        for (int i = 0; i < topSize; i++) {
+            result[i] = topIds[order[i]];
+        }
+        return result;
+    }
+
+    /**
+     * @return number of recorded accesses since creation (not affected by decay)
+     */
+    public long getTotalSamples() {
+        return totalSamples;
+    }
+
+    /**
+     * Forgets all statistics.
+     */
+    public void clear() {
+        Arrays.fill(counters, 0);
+        topSize = 0;
+        samplesSinceDecay = 0;
+    }
+
+    private int bucket(int id, int row) {
+        return (id * seeds[row]) >>> shift;
+    }
+
+    /** Updates the heavy-hitters table with a fresh estimate for {@code id}. */
+    private void offerHot(int id, int estimate) {
+        int min = -1;
+        for (int i = 0; i < topSize; i++) {
+            if (topIds[i] == id) {
+                topCounts[i] = estimate;
+                return;
+            }
+            if (min < 0 || topCounts[i] < topCounts[min]) {
+                min = i;
+            }
+        }
+        if (topSize < topIds.length) {
+            topIds[topSize] = id;
+            topCounts[topSize++] = estimate;
+        } else if (estimate > topCounts[min]) {
+            topIds[min] = id;
+            topCounts[min] = estimate;
+        }
+    }
+
+    /** Halves every count so that old accesses fade out. */
+    private void decay() {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] >>>= 1;
+        }
+        for (int i = 0; i < topSize; i++) {
+            topCounts[i] >>>= 1;
+        }
+        samplesSinceDecay = 0;
+    }
+}
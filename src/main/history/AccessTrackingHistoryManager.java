@@ -0,0 +1,100 @@
+package history;
+
+import model.Task;
+import model.TaskType;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * {@link HistoryManager} decorator that feeds every view into {@link AccessStatistics}.
+ * <p>
+ * Task managers call {@link #add(Task)} exactly when an item is read by ID, so wrapping the history manager
+ * passed to a task manager is enough to collect access frequencies for
+ * {@code getTaskById}/{@code getEpicById}/{@code getSubtaskById}. History replayed on load comes through
+ * {@link #restore(Task)} and is not counted, so restarts do not inflate the statistics.
+ * <p>
+ * Thread safety is that of the delegate and the statistics (neither is thread-safe by default).
+ */
+public class AccessTrackingHistoryManager implements HistoryManager {
+
+    private final HistoryManager delegate;
+    private final AccessStatistics statistics;
+
+    /**
+     * Creates a decorator.
+     *
+     * @param delegate   the history manager to forward to
+     * @param statistics the statistics to record views into
+     */
+    public AccessTrackingHistoryManager(HistoryManager delegate, AccessStatistics statistics) {
+        this.delegate = delegate;
+        this.statistics = statistics;
+    }
+
+    /**
+     * @return the statistics views are recorded into
+     */
+    public AccessStatistics getStatistics() {
+        return statistics;
+    }
+
+    /** Records the view and forwards it to the delegate. */
+    @Override
+    public void add(Task task) {
+        if (task != null) {
+            statistics.record(task.getId());
+        }
+        delegate.add(task);
+    }
+
+    /** Forwards a replayed entry to the delegate without recording it as a view. */
+    @Override
+    public void restore(Task task) {
+        delegate.restore(task);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void remove(int id) {
+        delegate.remove(id);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void removeAll(Collection<Integer> ids) {
+        delegate.removeAll(ids);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void removeAllOfType(TaskType type) {
+        delegate.removeAllOfType(type);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public List<Task> getHistory() {
+        return delegate.getHistory();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public List<Task> getHistory(int lastN) {
+        return delegate.getHistory(lastN);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Iterator<Task> descendingIterator() {
+        return delegate.descendingIterator();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void forEachRecent(int limit, Consumer<? super Task> visitor) {
+        delegate.forEachRecent(limit, visitor);
+    }
+}
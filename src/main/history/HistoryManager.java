@@ -1,8 +1,13 @@
 package history;
 
 import model.Task;
+import model.TaskType;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Interface for managing the history of viewed {@link Task} instances.
@@ -21,6 +26,19 @@ public interface HistoryManager {
      */
     void add(Task task);
 
+    /**
+     * Adds a task replayed from persisted history while a task manager is loaded. The position in the
+     * history changes as with {@link #add(Task)}, but this is not a new view: decorators that count views
+     * forward it without counting.
+     * <p>
+     * The default implementation calls {@link #add(Task)}.
+     *
+     * @param task the task to add to history; can be null
+     */
+    default void restore(Task task) {
+        add(task);
+    }
+
     /**
      * Removes a task from the history by its ID.
      * <p>
@@ -30,6 +48,29 @@ public interface HistoryManager {
      */
     void remove(int id);
 
+    /**
+     * Removes all tasks with the given IDs from the history. IDs not in the history are ignored.
+     * <p>
+     * The default implementation removes the IDs one by one; implementations may sweep the history
+     * once instead when the collection is large.
+     *
+     * @param ids the IDs to remove
+     */
+    default void removeAll(Collection<Integer> ids) {
+        ids.forEach(this::remove);
+    }
+
+    /**
+     * Removes all tasks of the given type from the history (e.g. after all tasks of that type were deleted).
+     *
+     * @param type the type of tasks to remove
+     */
+    default void removeAllOfType(TaskType type) {
+        getHistory().stream()
+                .filter(task -> task.getType() == type)
+                .forEach(task -> remove(task.getId()));
+    }
+
     /**
      * Retrieves the list of tasks in the order they were last accessed.
      * <p>
@@ -38,5 +79,54 @@ public interface HistoryManager {
      * @return ordered list of previously viewed tasks; empty if no history
      */
     List<Task> getHistory();
-}
 
+    /**
+     * Retrieves the {@code lastN} most recently accessed tasks, in the same order as {@link #getHistory()}
+     * (the most recent one last).
+     * <p>
+     * The default implementation copies the whole history; implementations should walk only the
+     * requested entries.
+     *
+     * @param lastN maximum number of tasks to return
+     * @return up to {@code lastN} most recent tasks
+     * @throws IllegalArgumentException if {@code lastN} is negative
+     */
+    default List<Task> getHistory(int lastN) {
+        if (lastN < 0) {
+            throw new IllegalArgumentException("lastN must not be negative: " + lastN);
+        }
+        List<Task> history = getHistory();
+        return new ArrayList<>(history.subList(Math.max(0, history.size() - lastN), history.size()));
+    }
+
+    /**
+     * Returns an iterator over the history from the most recently accessed task to the oldest.
+     * <p>
+     * The default implementation iterates over a copy of the history.
+     *
+     * @return a most-recent-first iterator
+     */
+    default Iterator<Task> descendingIterator() {
+        return getHistory().reversed().iterator();
+    }
+
+    /**
+     * Passes up to {@code limit} most recently accessed tasks to the visitor, most recent first.
+     * <p>
+     * The default implementation copies the whole history; implementations should visit entries in place.
+     * The visitor must not modify this history.
+     *
+     * @param limit   maximum number of tasks to visit
+     * @param visitor action invoked for each visited task
+     * @throws IllegalArgumentException if {@code limit} is negative
+     */
+    default void forEachRecent(int limit, Consumer<? super Task> visitor) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative: " + limit);
+        }
+        Iterator<Task> iterator = descendingIterator();
+        for (int i = 0; i < limit && iterator.hasNext(); i++) {
+            visitor.accept(iterator.next());
+        }
+    }
+}
@@ -1,31 +1,135 @@
 package history;
 
 import model.Task;
+import model.TaskType;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
- * In-memory implementation of {@link HistoryManager} using a custom doubly-linked list and {@link HashMap}.
+ * In-memory implementation of {@link HistoryManager} with a bounded capacity.
  * <p>
  * Maintains a history of viewed tasks in order of last access. Ensures uniqueness:
- * re-accessed tasks are moved to the end of the list. All core operations (add, remove, get) run in O(1) time.
+ * re-accessed tasks are moved to the end of the list. When the history is full, adding a new task
+ * evicts the least recently viewed one. All core operations (add, remove, eviction) run in O(1) time.
+ * <p>
+ * The doubly-linked list lives in arrays ({@code prev}/{@code next} slot indices instead of node objects), and
+ * the ID → slot index is a primitive open-addressing table. The arrays start small and double as the history
+ * fills, up to the capacity, so a mostly empty history stays small; once grown, {@link #add(Task)} and
+ * {@link #remove(int)} do not allocate. Windowed reads
+ * ({@link #getHistory(int)}, {@link #descendingIterator()}, {@link #forEachRecent(int, Consumer)}) walk back
+ * from the most recent entry and touch only the entries they return.
  * <p><strong>Note:</strong> This class is <em>not thread-safe</em>.</p>
  */
 public class InMemoryHistoryManager implements HistoryManager {
 
-    /** Maps task ID to its corresponding node in the list for O(1) lookup and removal. */
-    private final Map<Integer, Node> history = new HashMap<>();
-    /** Head of the doubly-linked list (oldest task). */
-    private Node head;
-    /** Tail of the doubly-linked list (most recently accessed task). */
-    private Node tail;
+    /** Capacity used by {@link #InMemoryHistoryManager()}. */
+    public static final int DEFAULT_CAPACITY = 1000;
+
+    /** Marker for "no slot" in links and lookups. */
+    private static final int NONE = -1;
+
+    /** Slots allocated up front (fewer if the capacity is smaller). */
+    private static final int INITIAL_SLOTS = 8;
+
+    /** Maximum number of tasks kept in history. */
+    private final int capacity;
+
+    /** Task stored in each slot ({@code null} for free slots). */
+    private Task[] tasks;
+    /** ID of the task in each slot (kept separately in case a task's ID is changed after viewing). */
+    private int[] ids;
+    /** Previous (older) slot for each slot. */
+    private int[] prev;
+    /** Next (newer) slot for each slot; also chains the free list. */
+    private int[] next;
+
+    /** Oldest slot. */
+    private int head = NONE;
+    /** Most recently accessed slot. */
+    private int tail = NONE;
+    /** Head of the list of freed slots. */
+    private int free = NONE;
+    /** Number of slots handed out at least once; slots from here on were never used. */
+    private int allocated;
+    /** Number of tasks currently in history. */
+    private int size;
+    /** Structural modification counter, checked by iterators. */
+    private int modCount;
+
+    /** Open-addressing table: task IDs. */
+    private int[] keys;
+    /** Open-addressing table: slot index + 1 ({@code 0} marks an empty bucket). */
+    private int[] values;
+    /** {@code keys.length - 1}; the table size is a power of two. */
+    private int mask;
+
+    /**
+     * Creates a history with {@link #DEFAULT_CAPACITY}.
+     */
+    public InMemoryHistoryManager() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a history keeping at most {@code capacity} tasks. Storage grows with the history.
+     *
+     * @param capacity maximum number of tasks (at least 1)
+     * @throws IllegalArgumentException if {@code capacity < 1}
+     */
+    public InMemoryHistoryManager(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("History capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        int slots = Math.min(capacity, INITIAL_SLOTS);
+        this.tasks = new Task[slots];
+        this.ids = new int[slots];
+        this.prev = new int[slots];
+        this.next = new int[slots];
+
+        int tableSize = tableSize(slots);
+        this.keys = new int[tableSize];
+        this.values = new int[tableSize];
+        this.mask = tableSize - 1;
+    }
+
+    /** Returns the ID table size for the given number of slots: at least twice as many, a power of two. */
+    static int tableSize(int slots) {
+        return Integer.highestOneBit(slots * 2 - 1) << 1; // load factor <= 0.5
+    }
+
+    /**
+     * @return the maximum number of tasks kept in history
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the number of tasks currently in history
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of slots allocated so far (at most the capacity)
+     */
+    int allocatedSlots() {
+        return tasks.length;
+    }
 
     /**
      * Adds a task to the history. If the task already exists in history,
-     * it is moved to the end (most recent).
+     * it is moved to the end (most recent). If the history is full, the oldest task is evicted.
      *
      * @param task the task to add (ignored if {@code null})
      */
@@ -33,11 +137,17 @@ public class InMemoryHistoryManager implements HistoryManager {
     public void add(Task task) {
         if (task == null) return;
         int id = task.getId();
-        Node existing = history.remove(id);
-        if (existing != null) {
-            removeNode(existing);
+        int slot = lookup(id);
+        if (slot != NONE) {
+            unlink(slot);
+        } else {
+            slot = acquireSlot();
+            ids[slot] = id;
+            insert(id, slot);
         }
-        linkLast(task);
+        tasks[slot] = task;
+        linkLast(slot);
+        modCount++;
     }
 
     /**
@@ -47,9 +157,51 @@ public class InMemoryHistoryManager implements HistoryManager {
      */
     @Override
     public void remove(int id) {
-        Node node = history.remove(id);
-        if (node != null) {
-            removeNode(node);
+        int slot = delete(id);
+        if (slot != NONE) {
+            unlink(slot);
+            releaseSlot(slot);
+            modCount++;
+        }
+    }
+
+    /**
+     * Removes all tasks with the given IDs. A large {@link Set} (larger than the history) is handled
+     * by one sweep over the history instead of one lookup per ID, so the cost is bounded by
+     * {@code min(ids.size(), size())} steps.
+     *
+     * @param ids the IDs to remove
+     */
+    @Override
+    public void removeAll(Collection<Integer> ids) {
+        if (ids.size() <= size || !(ids instanceof Set)) {
+            ids.forEach(this::remove);
+            return;
+        }
+        int slot = head;
+        while (slot != NONE) {
+            int following = next[slot];
+            if (ids.contains(this.ids[slot])) {
+                remove(this.ids[slot]);
+            }
+            slot = following;
+        }
+    }
+
+    /**
+     * Removes all tasks of the given type with a single sweep over the history.
+     *
+     * @param type the type of tasks to remove
+     */
+    @Override
+    public void removeAllOfType(TaskType type) {
+        int slot = head;
+        while (slot != NONE) {
+            int following = next[slot];
+            if (tasks[slot].getType() == type) {
+                remove(ids[slot]);
+            }
+            slot = following;
         }
     }
 
@@ -61,74 +213,213 @@ public class InMemoryHistoryManager implements HistoryManager {
      */
     @Override
     public List<Task> getHistory() {
-        List<Task> result = new ArrayList<>();
-        Node current = head;
-        while (current != null) {
-            result.add(current.task);
-            current = current.next;
+        List<Task> result = new ArrayList<>(size);
+        for (int slot = head; slot != NONE; slot = next[slot]) {
+            result.add(tasks[slot]);
         }
         return result;
     }
 
     /**
-     * Appends a task to the end of the list and adds it to the history map.
+     * Returns the {@code lastN} most recent tasks, oldest of them first. Walks only those entries.
      *
-     * @param task the task to add
+     * @param lastN maximum number of tasks to return
+     * @return up to {@code lastN} most recent tasks
+     * @throws IllegalArgumentException if {@code lastN} is negative
      */
-    private void linkLast(Task task) {
-        Node newNode = new Node(tail, task, null);
-        if (tail != null) {
-            tail.next = newNode;
-        } else {
-            head = newNode;
+    @Override
+    public List<Task> getHistory(int lastN) {
+        if (lastN < 0) {
+            throw new IllegalArgumentException("lastN must not be negative: " + lastN);
+        }
+        int count = Math.min(lastN, size);
+        int slot = tail;
+        for (int i = 1; i < count; i++) {
+            slot = prev[slot];
         }
-        tail = newNode;
-        history.put(task.getId(), newNode);
+        List<Task> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++, slot = next[slot]) {
+            result.add(tasks[slot]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns an iterator from the most recent task to the oldest, walking the history in place.
+     * The iterator fails fast with {@link ConcurrentModificationException} if the history changes.
+     *
+     * @return a most-recent-first iterator
+     */
+    @Override
+    public Iterator<Task> descendingIterator() {
+        return new Iterator<>() {
+            private int cursor = tail;
+            private final int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return cursor != NONE;
+            }
+
+            @Override
+            public Task next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (cursor == NONE) {
+                    throw new NoSuchElementException();
+                }
+                Task task = tasks[cursor];
+                cursor = prev[cursor];
+                return task;
+            }
+        };
     }
 
     /**
-     * Removes the given node from the doubly-linked list.
-     * Note: this method does not remove the node from the map —
-     * this should be done by the caller.
+     * Visits up to {@code limit} most recent tasks in place, most recent first, without allocating.
      *
-     * @param node the node to remove
+     * @param limit   maximum number of tasks to visit
+     * @param visitor action invoked for each visited task
+     * @throws IllegalArgumentException     if {@code limit} is negative
+     * @throws ConcurrentModificationException if the visitor modifies this history
      */
-    private void removeNode(Node node) {
-        if (node.prev != null) {
-            node.prev.next = node.next;
+    @Override
+    public void forEachRecent(int limit, Consumer<? super Task> visitor) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative: " + limit);
+        }
+        int expectedModCount = modCount;
+        for (int slot = tail, i = 0; slot != NONE && i < limit; slot = prev[slot], i++) {
+            visitor.accept(tasks[slot]);
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    // --- Slot management ---
+
+    /** Takes a free slot, evicting the oldest entry if the history is full. */
+    private int acquireSlot() {
+        if (size == capacity) {
+            int oldest = head;
+            delete(ids[oldest]);
+            unlink(oldest);
+            return oldest;
+        }
+        size++;
+        if (free != NONE) {
+            int slot = free;
+            free = next[slot];
+            return slot;
+        }
+        if (allocated == tasks.length) {
+            grow();
+        }
+        return allocated++;
+    }
+
+    /** Doubles the slot arrays, up to the capacity, and rebuilds the ID table for the new size. */
+    private void grow() {
+        int slots = (int) Math.min(capacity, tasks.length * 2L);
+        tasks = Arrays.copyOf(tasks, slots);
+        ids = Arrays.copyOf(ids, slots);
+        prev = Arrays.copyOf(prev, slots);
+        next = Arrays.copyOf(next, slots);
+
+        int tableSize = tableSize(slots);
+        keys = new int[tableSize];
+        values = new int[tableSize];
+        mask = tableSize - 1;
+        for (int slot = head; slot != NONE; slot = next[slot]) {
+            insert(ids[slot], slot);
+        }
+    }
+
+    /** Returns a slot to the free list. */
+    private void releaseSlot(int slot) {
+        tasks[slot] = null;
+        next[slot] = free;
+        free = slot;
+        size--;
+    }
+
+    /** Appends a slot to the end (most recent) of the list. */
+    private void linkLast(int slot) {
+        prev[slot] = tail;
+        next[slot] = NONE;
+        if (tail != NONE) {
+            next[tail] = slot;
         } else {
-            head = node.next;
+            head = slot;
         }
-        if (node.next != null) {
-            node.next.prev = node.prev;
+        tail = slot;
+    }
+
+    /** Detaches a slot from the list (its map entry is handled by the caller). */
+    private void unlink(int slot) {
+        int p = prev[slot];
+        int n = next[slot];
+        if (p != NONE) {
+            next[p] = n;
+        } else {
+            head = n;
+        }
+        if (n != NONE) {
+            prev[n] = p;
         } else {
-            tail = node.prev;
+            tail = p;
         }
     }
 
-    /**
-     * A node in the doubly-linked list used to store the history.
-     * Contains links to both previous and next nodes for efficient removal.
-     */
-    private static class Node {
-        /** The task stored in this node. */
-        Task task;
-        /** Link to the previous node in the list. */
-        Node prev;
-        /** Link to the next node in the list. */
-        Node next;
-
-        /**
-         * Creates a new node for the doubly-linked list.
-         *
-         * @param prev the previous node
-         * @param task the task stored in this node
-         * @param next the next node
-         */
-        Node(Node prev, Task task, Node next) {
-            this.prev = prev;
-            this.task = task;
-            this.next = next;
+    // --- ID -> slot table (linear probing, backward-shift deletion) ---
+
+    private int bucket(int id) {
+        return (id * 0x9E3779B9) >>> 7 & mask;
+    }
+
+    /** Returns the slot of the given ID, or {@link #NONE}. */
+    private int lookup(int id) {
+        for (int b = bucket(id); values[b] != 0; b = (b + 1) & mask) {
+            if (keys[b] == id) {
+                return values[b] - 1;
+            }
+        }
+        return NONE;
+    }
+
+    /** Inserts a mapping for an ID known to be absent. */
+    private void insert(int id, int slot) {
+        int b = bucket(id);
+        while (values[b] != 0) {
+            b = (b + 1) & mask;
+        }
+        keys[b] = id;
+        values[b] = slot + 1;
+    }
+
+    /** Removes the mapping of an ID and returns its slot, or {@link #NONE} if absent. */
+    private int delete(int id) {
+        int b = bucket(id);
+        while (values[b] != 0 && keys[b] != id) {
+            b = (b + 1) & mask;
+        }
+        if (values[b] == 0) {
+            return NONE;
+        }
+        int slot = values[b] - 1;
+        // shift following entries of the probe run back so lookups never stop at a hole
+        int hole = b;
+        for (int i = (b + 1) & mask; values[i] != 0; i = (i + 1) & mask) {
+            int home = bucket(keys[i]);
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = keys[i];
+                values[hole] = values[i];
+                hole = i;
+            }
         }
+        values[hole] = 0;
+        return slot;
     }
 }
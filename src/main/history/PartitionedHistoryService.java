@@ -0,0 +1,276 @@
+package history;
+
+import model.Task;
+import model.TaskType;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Multi-tenant view history: one bounded {@link InMemoryHistoryManager} per user (or session) key.
+ * <p>
+ * Partitions are created on first use and kept in least-recently-used order. A global memory budget
+ * caps the total estimated footprint: when a new or growing partition would exceed it, the partitions idle
+ * for the longest time are evicted first. A partition's storage grows with its history, up to the capacity,
+ * so the budget is charged for what each partition actually holds: many sessions with a few views each fit
+ * where only a few full partitions ({@link #getPartitionBytes()}) would.
+ * <p>
+ * The footprint counts history structures only; the viewed tasks themselves are shared with the task
+ * manager and are not included.
+ * <p>
+ * All methods are thread-safe (guarded by this service's monitor).
+ */
+public class PartitionedHistoryService {
+
+    /** Estimated fixed cost of a partition besides its arrays: manager object, map entry, key. */
+    private static final long PARTITION_OVERHEAD_BYTES = 160;
+
+    /** Estimated array header size. */
+    private static final long ARRAY_HEADER_BYTES = 16;
+
+    private final int partitionCapacity;
+    private final long memoryBudgetBytes;
+    private final long partitionBytes;
+
+    /** Estimated footprint of all live partitions. */
+    private long usedBytes;
+
+    /** Partitions in access order: the eldest entry is the one idle for the longest time. */
+    private final LinkedHashMap<String, InMemoryHistoryManager> partitions =
+            new LinkedHashMap<>(16, 0.75f, true);
+
+    private long evictions;
+
+    /**
+     * Creates a service.
+     *
+     * @param partitionCapacity maximum number of tasks kept per user
+     * @param memoryBudgetBytes upper bound on the estimated footprint of all partitions
+     * @throws IllegalArgumentException if the capacity is not positive or the budget cannot fit one full partition
+     */
+    public PartitionedHistoryService(int partitionCapacity, long memoryBudgetBytes) {
+        if (partitionCapacity < 1) {
+            throw new IllegalArgumentException("History capacity must be positive: " + partitionCapacity);
+        }
+        this.partitionCapacity = partitionCapacity;
+        this.partitionBytes = estimateBytes(partitionCapacity);
+        if (memoryBudgetBytes < partitionBytes) {
+            throw new IllegalArgumentException(
+                    "Memory budget " + memoryBudgetBytes + " is smaller than one partition: " + partitionBytes);
+        }
+        this.memoryBudgetBytes = memoryBudgetBytes;
+    }
+
+    /**
+     * Estimates the footprint of one partition with the given number of allocated slots
+     * (64-bit JVM, compressed references).
+     *
+     * @param slots the allocated slots (see {@link InMemoryHistoryManager#allocatedSlots()})
+     * @return estimated size in bytes
+     */
+    static long estimateBytes(int slots) {
+        long tableSize = InMemoryHistoryManager.tableSize(slots);
+        long slotArrays = 4 * (ARRAY_HEADER_BYTES + 4L * slots); // tasks, ids, prev, next
+        long tableArrays = 2 * (ARRAY_HEADER_BYTES + 4L * tableSize); // keys, values
+        return PARTITION_OVERHEAD_BYTES + slotArrays + tableArrays;
+    }
+
+    /**
+     * Returns the history of the given user. The view is lightweight and can be kept: each call goes
+     * through the service, marks the user as active and, for {@link HistoryManager#add(Task)}, recreates
+     * the partition if it was evicted in the meantime.
+     *
+     * @param userId the user or session key
+     * @return a history manager bound to the user
+     */
+    public HistoryManager forUser(String userId) {
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID must not be null");
+        }
+        return new UserHistory(userId);
+    }
+
+    /**
+     * Drops the history of a user (e.g. on logout).
+     *
+     * @param userId the user or session key
+     */
+    public synchronized void removeUser(String userId) {
+        InMemoryHistoryManager partition = partitions.remove(userId);
+        if (partition != null) {
+            usedBytes -= footprint(partition);
+        }
+    }
+
+    /**
+     * Removes a task from every user's history (e.g. after the task was deleted).
+     *
+     * @param id the task ID
+     */
+    public synchronized void removeFromAll(int id) {
+        for (InMemoryHistoryManager partition : partitions.values()) {
+            partition.remove(id);
+        }
+    }
+
+    /** @return number of live partitions */
+    public synchronized int getPartitionCount() {
+        return partitions.size();
+    }
+
+    /** @return estimated footprint of all live partitions in bytes, as allocated so far */
+    public synchronized long getEstimatedBytes() {
+        return usedBytes;
+    }
+
+    /** @return number of partitions evicted to stay within the memory budget */
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    /** @return estimated footprint of a full partition in bytes, the most a single user can take */
+    public long getPartitionBytes() {
+        return partitionBytes;
+    }
+
+    /** @return the configured memory budget in bytes */
+    public long getMemoryBudgetBytes() {
+        return memoryBudgetBytes;
+    }
+
+    /** @return the maximum number of tasks kept per user */
+    public int getPartitionCapacity() {
+        return partitionCapacity;
+    }
+
+    private synchronized void add(String userId, Task task) {
+        if (task == null) return;
+        InMemoryHistoryManager partition = partitions.get(userId);
+        long before = 0;
+        if (partition == null) {
+            partition = new InMemoryHistoryManager(partitionCapacity);
+            partitions.put(userId, partition);
+        } else {
+            before = footprint(partition);
+        }
+        partition.add(task);
+        usedBytes += footprint(partition) - before;
+        evictIdle(partition);
+    }
+
+    private synchronized void remove(String userId, int id) {
+        InMemoryHistoryManager partition = partitions.get(userId);
+        if (partition != null) {
+            partition.remove(id);
+        }
+    }
+
+    private synchronized void removeAll(String userId, Collection<Integer> ids) {
+        InMemoryHistoryManager partition = partitions.get(userId);
+        if (partition != null) {
+            partition.removeAll(ids);
+        }
+    }
+
+    private synchronized void removeAllOfType(String userId, TaskType type) {
+        InMemoryHistoryManager partition = partitions.get(userId);
+        if (partition != null) {
+            partition.removeAllOfType(type);
+        }
+    }
+
+    private synchronized List<Task> getHistory(String userId) {
+        InMemoryHistoryManager partition = partitions.get(userId);
+        return partition != null ? partition.getHistory() : List.of();
+    }
+
+    private synchronized List<Task> getHistory(String userId, int lastN) {
+        InMemoryHistoryManager partition = partitions.get(userId);
+        if (partition == null) {
+            if (lastN < 0) {
+                throw new IllegalArgumentException("lastN must not be negative: " + lastN);
+            }
+            return List.of();
+        }
+        return partition.getHistory(lastN);
+    }
+
+    private synchronized void forEachRecent(String userId, int limit, Consumer<? super Task> visitor) {
+        InMemoryHistoryManager partition = partitions.get(userId);
+        if (partition != null) {
+            partition.forEachRecent(limit, visitor);
+        } else if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative: " + limit);
+        }
+    }
+
+    /**
+     * Evicts the partitions idle for the longest time until the footprint fits into the budget again.
+     * The partition just used is the most recent one and is kept; alone it always fits.
+     */
+    private void evictIdle(InMemoryHistoryManager active) {
+        Iterator<Map.Entry<String, InMemoryHistoryManager>> eldest = partitions.entrySet().iterator();
+        while (usedBytes > memoryBudgetBytes && eldest.hasNext()) {
+            InMemoryHistoryManager partition = eldest.next().getValue();
+            if (partition == active) {
+                break;
+            }
+            eldest.remove();
+            usedBytes -= footprint(partition);
+            evictions++;
+        }
+    }
+
+    private static long footprint(InMemoryHistoryManager partition) {
+        return estimateBytes(partition.allocatedSlots());
+    }
+
+    /** History view bound to one user key. */
+    private final class UserHistory implements HistoryManager {
+        private final String userId;
+
+        private UserHistory(String userId) {
+            this.userId = userId;
+        }
+
+        @Override
+        public void add(Task task) {
+            PartitionedHistoryService.this.add(userId, task);
+        }
+
+        @Override
+        public void remove(int id) {
+            PartitionedHistoryService.this.remove(userId, id);
+        }
+
+        @Override
+        public void removeAll(Collection<Integer> ids) {
+            PartitionedHistoryService.this.removeAll(userId, ids);
+        }
+
+        @Override
+        public void removeAllOfType(TaskType type) {
+            PartitionedHistoryService.this.removeAllOfType(userId, type);
+        }
+
+        @Override
+        public List<Task> getHistory() {
+            return PartitionedHistoryService.this.getHistory(userId);
+        }
+
+        @Override
+        public List<Task> getHistory(int lastN) {
+            return PartitionedHistoryService.this.getHistory(userId, lastN);
+        }
+
+        /** Visits under the service lock; the inherited iterator walks a snapshot. */
+        @Override
+        public void forEachRecent(int limit, Consumer<? super Task> visitor) {
+            PartitionedHistoryService.this.forEachRecent(userId, limit, visitor);
+        }
+    }
+}
@@ -0,0 +1,546 @@
+package http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import manager.Managers;
+import manager.TaskManager;
+import manager.VersionedTaskManager;
+import model.Epic;
+import model.Subtask;
+import model.Task;
+import model.TaskType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * HTTP API for a {@link TaskManager}, built on the JDK's {@code com.sun.net.httpserver} with no external
+ * frameworks. Every request is handled on its own virtual thread; connections are kept alive
+ * (HTTP/1.1 with explicit {@code Content-Length}, or chunked encoding for lists, which are streamed
+ * by {@link JsonStreamWriter} instead of being built in memory).
+ *
+ * <p>Endpoints (JSON bodies, see {@link JsonCodec} for the format):</p>
+ * <ul>
+ *   <li>{@code GET /tasks}, {@code /epics}, {@code /subtasks} — list all items of the type;</li>
+ *   <li>{@code GET /tasks/{id}} (same for epics and subtasks) — one item, {@code 404} if absent;</li>
+ *   <li>{@code POST /tasks} — create (no or zero {@code id}, {@code 201}) or update ({@code 200});</li>
+ *   <li>{@code DELETE /tasks/{id}} — delete one item; {@code DELETE /tasks} — delete all of the type;</li>
+ *   <li>{@code GET /epics/{id}/subtasks} — subtasks of an epic (empty if the epic is absent);</li>
+ *   <li>{@code GET /history}, {@code GET /prioritized} — view history and prioritized list;</li>
+ *   <li>{@code GET /changes?since={revision}[&epoch={epoch}]} — items changed after a revision
+ *       (delta sync, see {@link VersionedTaskManager#getChangesSince(long)}).</li>
+ * </ul>
+ * <p>For a {@link VersionedTaskManager}, item, list and prioritized responses carry an {@code ETag} built
+ * from the revision, and a {@code GET} with a matching {@code If-None-Match} gets {@code 304 Not Modified}
+ * without a body. List ETags use the global revision, item ETags the item's own revision. Tags include an
+ * epoch chosen at server start, so revisions from before a restart never match. {@code /changes} answers
+ * {@code 501} for managers that are not versioned.</p>
+ * <p>Malformed requests get {@code 400}, requests rejected by the manager (overlapping time windows,
+ * missing parent epic) get {@code 406}, unsupported methods {@code 405}. Updates of unknown IDs are
+ * ignored, as in {@link TaskManager}.</p>
+ *
+ * <p>Calls into a non-thread-safe manager are serialized with a lock, and the items they return are serialized
+ * before it is released, since the manager keeps changing its stored objects in place. Streamed lists are copied
+ * {@value #STREAM_BATCH} items at a time, taking the lock again for each batch, so the lock is never held for a
+ * whole response and no full list of copies is built; items of such a list reflect the state at the time their
+ * batch was copied. A thread-safe manager ({@link Managers#isThreadSafe(TaskManager)}) is called without the
+ * lock and returns snapshots itself.</p>
+ * <p>The JDK server writes response headers and body separately; without {@code TCP_NODELAY}, Nagle's algorithm
+ * holds the body back until the client's delayed ACK (~40 ms) on every keep-alive request. Launch with
+ * {@code -Dsun.net.httpserver.nodelay=true} ({@link #main(String[])} sets it unless given); the JDK reads the
+ * property once, when the first server of the JVM is created.</p>
+ */
+public class HttpTaskServer implements AutoCloseable {
+
+    /** Port used by {@link #main(String[])} and {@link #HttpTaskServer(TaskManager)}. */
+    public static final int DEFAULT_PORT = 8080;
+
+    /** Accept queue length; generous so that connection bursts are not refused. */
+    private static final int BACKLOG = 1024;
+
+    /** Items copied per lock acquisition when streaming a list from a non-thread-safe manager. */
+    static final int STREAM_BATCH = 256;
+
+    private final TaskManager manager;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /** Serializes calls into the manager; {@code null} if the manager is thread-safe. */
+    private final ReentrantLock lock;
+
+    /** The manager as a versioned one; {@code null} if it does not version its state. */
+    private final VersionedTaskManager versioned;
+
+    /** Identifies this server instance in ETags and delta-sync responses. */
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong());
+
+    /**
+     * Creates a server on {@link #DEFAULT_PORT}.
+     *
+     * @param manager the manager to expose
+     * @throws IOException if the port cannot be bound
+     */
+    public HttpTaskServer(TaskManager manager) throws IOException {
+        this(manager, DEFAULT_PORT);
+    }
+
+    /**
+     * Creates a server. Call {@link #start()} to begin accepting requests.
+     *
+     * @param manager the manager to expose
+     * @param port    the port to bind; {@code 0} picks a free one (see {@link #getPort()})
+     * @throws IOException if the port cannot be bound
+     */
+    public HttpTaskServer(TaskManager manager, int port) throws IOException {
+        this.manager = manager;
+        this.lock = Managers.isThreadSafe(manager) ? null : new ReentrantLock();
+        this.versioned = manager instanceof VersionedTaskManager v ? v : null;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        server.setExecutor(executor);
+
+        server.createContext("/tasks", new ResourceHandler(new Resource(TaskType.TASK,
+                manager::getAllTasks, manager::getTaskById, manager::createTask, manager::updateTask,
+                manager::deleteTaskById, manager::removeAllTasks)));
+        server.createContext("/epics", new ResourceHandler(new Resource(TaskType.EPIC,
+                manager::getAllEpics, manager::getEpicById, task -> manager.createEpic((Epic) task),
+                task -> manager.updateEpic((Epic) task), manager::deleteEpicById, manager::removeAllEpics)));
+        server.createContext("/subtasks", new ResourceHandler(new Resource(TaskType.SUBTASK,
+                manager::getAllSubtasks, manager::getSubtaskById,
+                task -> manager.createSubtask((Subtask) task),
+                task -> manager.updateSubtask((Subtask) task), manager::deleteSubtaskById,
+                manager::removeAllSubtasks)));
+        server.createContext("/history", new ListHandler(manager::getHistory, false));
+        server.createContext("/prioritized", new ListHandler(manager::getPrioritizedTasks, true));
+        server.createContext("/changes", this::handleChanges);
+    }
+
+    /**
+     * Starts a server for {@link Managers#getDefault()} on {@link #DEFAULT_PORT}, with {@code TCP_NODELAY}
+     * unless {@code -Dsun.net.httpserver.nodelay} says otherwise.
+     *
+     * @param args ignored
+     * @throws IOException if the port cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        HttpTaskServer server = new HttpTaskServer(Managers.getDefault());
+        server.start();
+        System.out.println("HTTP-сервер запущен на порту " + server.getPort());
+    }
+
+    /** Starts accepting requests. */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * @return the bound port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /** Stops accepting requests, waits for running handlers and releases the port. */
+    public void stop() {
+        server.stop(0);
+        executor.close();
+    }
+
+    /** Same as {@link #stop()}. */
+    @Override
+    public void close() {
+        stop();
+    }
+
+    // --- Handlers ---
+
+    /** Operations of one item type. */
+    private record Resource(TaskType type,
+                            Supplier<List<? extends Task>> list,
+                            IntFunction<Task> get,
+                            Function<Task, Task> create,
+                            Consumer<Task> update,
+                            IntConsumer delete,
+                            Runnable deleteAll) {
+    }
+
+    /** CRUD endpoints of one item type under its base path. */
+    private final class ResourceHandler implements HttpHandler {
+        private final Resource resource;
+
+        ResourceHandler(Resource resource) {
+            this.resource = resource;
+        }
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            try {
+                String[] path = exchange.getRequestURI().getPath().split("/");
+                // path[0] is empty, path[1] is the resource name
+                Integer id = path.length > 2 ? parseId(path[2]) : null;
+                if (path.length > 2 && id == null || path.length > 4) {
+                    send(exchange, 404, JsonCodec.error("Not found"));
+                    return;
+                }
+                boolean subtasksOfEpic = path.length == 4;
+                if (subtasksOfEpic && !(resource.type() == TaskType.EPIC && path[3].equals("subtasks"))) {
+                    send(exchange, 404, JsonCodec.error("Not found"));
+                    return;
+                }
+                switch (exchange.getRequestMethod()) {
+                    case "GET" -> {
+                        if (subtasksOfEpic) {
+                            getEpicSubtasks(exchange, id);
+                        } else if (id != null) {
+                            Snapshot<String> snapshot = locked(() -> {
+                                Task item = resource.get().apply(id);
+                                return new Snapshot<>(item == null ? null : JsonCodec.toJson(item), itemTag(id));
+                            });
+                            if (snapshot.value() == null) {
+                                send(exchange, 404, JsonCodec.error("Not found"));
+                            } else if (!notModified(exchange, snapshot.etag())) {
+                                send(exchange, 200, snapshot.value());
+                            }
+                        } else {
+                            Snapshot<Iterable<Task>> snapshot = locked(() ->
+                                    new Snapshot<>(detached(resource.list().get()), listTag()));
+                            if (!notModified(exchange, snapshot.etag())) {
+                                sendList(exchange, snapshot.value());
+                            }
+                        }
+                    }
+                    case "POST" -> {
+                        if (id != null) {
+                            send(exchange, 405, JsonCodec.error("POST to the collection path"));
+                        } else {
+                            post(exchange);
+                        }
+                    }
+                    case "DELETE" -> {
+                        if (subtasksOfEpic) {
+                            send(exchange, 405, JsonCodec.error("Method not allowed"));
+                            return;
+                        }
+                        locked(() -> {
+                            if (id != null) {
+                                resource.delete().accept(id);
+                            } else {
+                                resource.deleteAll().run();
+                            }
+                            return null;
+                        });
+                        send(exchange, 200, "");
+                    }
+                    default -> send(exchange, 405, JsonCodec.error("Method not allowed"));
+                }
+            } catch (RuntimeException e) {
+                sendQuietly(exchange, 500, JsonCodec.error("Internal error: " + e.getMessage()));
+            } finally {
+                exchange.close();
+            }
+        }
+
+        private void getEpicSubtasks(HttpExchange exchange, int epicId) throws IOException {
+            sendList(exchange, locked(() -> detached(manager.getEpicSubtasks(epicId))));
+        }
+
+        private void post(HttpExchange exchange) throws IOException {
+            Task task;
+            try {
+                task = JsonCodec.parseTask(readBody(exchange), resource.type());
+            } catch (IllegalArgumentException e) {
+                send(exchange, 400, JsonCodec.error(e.getMessage()));
+                return;
+            }
+            try {
+                if (task.getId() == 0) {
+                    String created = locked(() -> JsonCodec.toJson(resource.create().apply(task)));
+                    send(exchange, 201, created);
+                } else {
+                    String updated = locked(() -> {
+                        resource.update().accept(task);
+                        return JsonCodec.toJson(task);
+                    });
+                    send(exchange, 200, updated);
+                }
+            } catch (IllegalArgumentException e) {
+                send(exchange, 406, JsonCodec.error(e.getMessage()));
+            }
+        }
+    }
+
+    /** Read-only endpoint returning a list. */
+    private final class ListHandler implements HttpHandler {
+        private final Supplier<List<Task>> source;
+        private final boolean tagged;
+
+        /**
+         * @param source the list to serve
+         * @param tagged whether the list only changes with the revision (and so can carry an ETag)
+         */
+        ListHandler(Supplier<List<Task>> source, boolean tagged) {
+            this.source = source;
+            this.tagged = tagged;
+        }
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            try {
+                if (!exchange.getRequestMethod().equals("GET")) {
+                    send(exchange, 405, JsonCodec.error("Method not allowed"));
+                } else {
+                    Snapshot<Iterable<Task>> snapshot = locked(() ->
+                            new Snapshot<>(detached(source.get()), tagged ? listTag() : null));
+                    if (!notModified(exchange, snapshot.etag())) {
+                        sendList(exchange, snapshot.value());
+                    }
+                }
+            } catch (RuntimeException e) {
+                sendQuietly(exchange, 500, JsonCodec.error("Internal error: " + e.getMessage()));
+            } finally {
+                exchange.close();
+            }
+        }
+    }
+
+    /** {@code GET /changes?since=N[&epoch=E]}: delta sync for versioned managers. */
+    private void handleChanges(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                send(exchange, 405, JsonCodec.error("Method not allowed"));
+                return;
+            }
+            if (versioned == null) {
+                send(exchange, 501, JsonCodec.error("The task manager does not version its state"));
+                return;
+            }
+            String since = queryParameter(exchange, "since");
+            String clientEpoch = queryParameter(exchange, "epoch");
+            long revision;
+            try {
+                revision = Long.parseLong(since);
+            } catch (NumberFormatException e) {
+                send(exchange, 400, JsonCodec.error("Query parameter 'since' must be a revision"));
+                return;
+            }
+            long from = clientEpoch == null || clientEpoch.equals(epoch) ? revision : -1; // -1: full resync
+            VersionedTaskManager.ChangeSet changes = locked(() -> versioned.getChangesSince(from));
+            Iterable<VersionedTaskManager.Change> items = detached(changes.changes(), change -> change.deleted()
+                    ? change
+                    : new VersionedTaskManager.Change(change.id(), change.type(), change.revision(),
+                            change.task().copy()));
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                new JsonStreamWriter(out).writeChangeSet(epoch, changes, items).flush();
+            }
+        } catch (RuntimeException e) {
+            sendQuietly(exchange, 500, JsonCodec.error("Internal error: " + e.getMessage()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // --- Helpers ---
+
+    /** A value read under the lock together with the ETag of the state it was read from. */
+    private record Snapshot<T>(T value, String etag) {
+    }
+
+    /** ETag of the whole state; {@code null} if the manager is not versioned. Call under the lock. */
+    private String listTag() {
+        return versioned != null ? "\"" + epoch + "-" + versioned.getRevision() + "\"" : null;
+    }
+
+    /** ETag of one item; {@code null} if the manager is not versioned. Call under the lock. */
+    private String itemTag(int id) {
+        return versioned != null ? "\"" + epoch + "-" + id + "-" + versioned.getRevision(id) + "\"" : null;
+    }
+
+    /**
+     * Sets the {@code ETag} header and answers {@code 304} if the client's {@code If-None-Match} matches.
+     *
+     * @return true if the 304 response was sent
+     */
+    private static boolean notModified(HttpExchange exchange, String etag) throws IOException {
+        if (etag == null) {
+            return false;
+        }
+        exchange.getResponseHeaders().set("ETag", etag);
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag) || tag.equals("*")) {
+                exchange.getRequestBody().readAllBytes();
+                exchange.sendResponseHeaders(304, -1);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Returns a decoded query parameter, {@code ""} if it has no value, or {@code null} if absent. */
+    static String queryParameter(HttpExchange exchange, String name) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            if (key.equals(name)) {
+                return eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    /** Runs a manager call, under the lock if the manager is not thread-safe. */
+    private <R> R locked(Supplier<R> call) {
+        if (lock == null) {
+            return call.get();
+        }
+        lock.lock();
+        try {
+            return call.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Makes items returned by a manager safe to stream after the call returns: a thread-safe manager returns
+     * snapshots already, otherwise the items are copied in batches under the lock while they are iterated.
+     */
+    private Iterable<Task> detached(List<? extends Task> items) {
+        return detached(items, Task::copy);
+    }
+
+    /** Same as {@link #detached(List)} with a custom copy of each item. */
+    private <T> Iterable<T> detached(List<? extends T> items, UnaryOperator<T> copy) {
+        if (lock == null) {
+            return Collections.unmodifiableList(items);
+        }
+        return () -> new BatchIterator<>(items, copy);
+    }
+
+    /**
+     * Iterates a list returned by a non-thread-safe manager, copying the next {@value #STREAM_BATCH} items under
+     * the lock whenever the previous batch is used up; the list itself is only read under the lock.
+     */
+    private final class BatchIterator<T> implements Iterator<T> {
+        private final List<? extends T> source;
+        private final UnaryOperator<T> copy;
+        private final List<T> batch = new ArrayList<>(STREAM_BATCH);
+        private int next;
+        private int position;
+        private boolean exhausted;
+
+        BatchIterator(List<? extends T> source, UnaryOperator<T> copy) {
+            this.source = source;
+            this.copy = copy;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (position == batch.size() && !exhausted) {
+                batch.clear();
+                position = 0;
+                locked(() -> {
+                    int end = Math.min(source.size(), next + STREAM_BATCH);
+                    for (; next < end; next++) {
+                        batch.add(copy.apply(source.get(next)));
+                    }
+                    exhausted = next == source.size();
+                    return null;
+                });
+            }
+            return position < batch.size();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return batch.get(position++);
+        }
+    }
+
+    private static Integer parseId(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        return new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    /** Sends a complete response with a known length, which keeps the connection reusable. */
+    private static void send(HttpExchange exchange, int code, String body) throws IOException {
+        exchange.getRequestBody().readAllBytes(); // drain leftovers so the connection can be reused
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(code, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    /**
+     * Streams a list as a chunked {@code 200} response through a {@link JsonStreamWriter}: memory use is
+     * bounded by the writer's buffer however long the list is, and the connection stays reusable.
+     */
+    private static void sendList(HttpExchange exchange, Iterable<? extends Task> items) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0); // 0: chunked transfer encoding
+        try (OutputStream out = exchange.getResponseBody()) {
+            new JsonStreamWriter(out).writeArray(items).flush();
+        }
+    }
+
+    /** Sends an error response unless headers were already sent. */
+    private static void sendQuietly(HttpExchange exchange, int code, String body) {
+        try {
+            if (exchange.getResponseCode() == -1) {
+                send(exchange, code, body);
+            }
+        } catch (IOException ignored) {
+            // the client is gone; nothing left to report to
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package http;
+
+import model.Epic;
+import model.Subtask;
+import model.Task;
+import model.TaskStatus;
+import model.TaskType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal hand-written JSON codec for the HTTP API, so the server needs no external libraries.
+ * Items are encoded by {@link JsonStreamWriter}; this class adds the reader and small helpers.
+ * <p>
+ * Tasks are written as flat objects:
+ * {@code {"id":1,"type":"SUBTASK","name":"..","description":"..","status":"NEW","duration":30,
+ * "startTime":"2025-08-26T10:00","endTime":"2025-08-26T10:30","epicId":3}};
+ * epics carry {@code "subtaskIds":[..]} instead of {@code epicId}. Durations are in minutes and times are
+ * ISO-8601 local date-times, as in the CSV format. Absent time fields are written as {@code null}.
+ * <p>
+ * The reader accepts any JSON value nested up to {@value #MAX_DEPTH} levels, but only objects with the fields
+ * above are turned into tasks; derived fields ({@code type}, {@code endTime}, {@code subtaskIds}) are ignored
+ * on input.
+ */
+final class JsonCodec {
+
+    /** Deepest nesting of objects and arrays the reader accepts; deeper bodies are rejected, not recursed into. */
+    static final int MAX_DEPTH = 64;
+
+    private JsonCodec() {
+    }
+
+    // --- Writing ---
+
+    /**
+     * Serializes a task, epic or subtask (via {@link JsonStreamWriter}).
+     *
+     * @param task the item to write
+     * @return JSON object
+     */
+    static String toJson(Task task) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        try {
+            new JsonStreamWriter(out, 256).writeTask(task).flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // not thrown by ByteArrayOutputStream
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Serializes an error message as {@code {"error":"..."}}.
+     *
+     * @param message the message
+     * @return JSON object
+     */
+    static String error(String message) {
+        StringBuilder out = new StringBuilder("{\"error\":");
+        writeString(out, message);
+        return out.append('}').toString();
+    }
+
+    /**
+     * Serializes a map of strings as a JSON object; {@code null} values are written as {@code null}.
+     *
+     * @param values the fields in output order
+     * @return JSON object
+     */
+    static String toJsonObject(Map<String, String> values) {
+        StringBuilder out = new StringBuilder("{");
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            if (out.length() > 1) {
+                out.append(',');
+            }
+            writeString(out, entry.getKey());
+            out.append(':');
+            writeString(out, entry.getValue());
+        }
+        return out.append('}').toString();
+    }
+
+    private static void writeString(StringBuilder out, String value) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    // --- Reading ---
+
+    /**
+     * Builds an item of the given type from a JSON object. A missing or zero {@code id} means "new item".
+     *
+     * @param json the request body
+     * @param type which kind of item the endpoint handles
+     * @return the decoded item
+     * @throws IllegalArgumentException if the JSON is malformed or required fields are missing or invalid
+     */
+    static Task parseTask(String json, TaskType type) {
+        Map<String, Object> fields = parseObject(json);
+        int id = intField(fields, "id");
+        String name = stringField(fields, "name");
+        String description = stringField(fields, "description");
+        if (name == null) {
+            throw new IllegalArgumentException("Field 'name' is required");
+        }
+        String statusName = stringField(fields, "status");
+        TaskStatus status;
+        try {
+            status = statusName != null ? TaskStatus.valueOf(statusName) : TaskStatus.NEW;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown status: " + statusName);
+        }
+        Long minutes = fields.get("duration") != null ? longField(fields, "duration", 0) : null;
+        Duration duration = minutes != null ? Duration.ofMinutes(minutes) : null;
+        String start = stringField(fields, "startTime");
+        LocalDateTime startTime;
+        try {
+            startTime = start != null ? LocalDateTime.parse(start) : null;
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid startTime: " + start);
+        }
+
+        return switch (type) {
+            case TASK -> new Task(id, name, description, status, duration, startTime);
+            case EPIC -> new Epic(id, name, description, status, null, null);
+            case SUBTASK -> {
+                if (!fields.containsKey("epicId")) {
+                    throw new IllegalArgumentException("Field 'epicId' is required");
+                }
+                yield new Subtask(id, name, description, status, intField(fields, "epicId"), duration, startTime);
+            }
+        };
+    }
+
+    private static String stringField(Map<String, Object> fields, String name) {
+        Object value = fields.get(name);
+        if (value != null && !(value instanceof String)) {
+            throw new IllegalArgumentException("Field '" + name + "' must be a string");
+        }
+        return (String) value;
+    }
+
+    private static long longField(Map<String, Object> fields, String name, long defaultValue) {
+        Object value = fields.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (!(value instanceof Long number)) {
+            throw new IllegalArgumentException("Field '" + name + "' must be an integer");
+        }
+        return number;
+    }
+
+    /** Reads an ID field ({@code 0} if absent), rejecting values an {@code int} cannot hold. */
+    private static int intField(Map<String, Object> fields, String name) {
+        long value = longField(fields, name, 0);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Field '" + name + "' is out of range: " + value);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parses a JSON object into a map of String, Long, Boolean, {@code null}, List and Map values.
+     *
+     * @param json the text
+     * @return the object's fields in document order
+     * @throws IllegalArgumentException if the text is not a single JSON object or nests deeper than {@link #MAX_DEPTH}
+     */
+    static Map<String, Object> parseObject(String json) {
+        Parser parser = new Parser(json);
+        parser.skipWhitespace();
+        if (!parser.peek('{')) {
+            throw new IllegalArgumentException("Expected a JSON object");
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Object> result = (Map<String, Object>) parser.value();
+        parser.skipWhitespace();
+        if (!parser.atEnd()) {
+            throw new IllegalArgumentException("Unexpected trailing content at " + parser.pos);
+        }
+        return result;
+    }
+
+    /** Recursive-descent JSON reader. */
+    private static final class Parser {
+        private final String text;
+        private int pos;
+
+        /** Objects and arrays currently open. */
+        private int depth;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Object value() {
+            skipWhitespace();
+            if (atEnd()) {
+                throw error("Unexpected end of input");
+            }
+            char c = text.charAt(pos);
+            return switch (c) {
+                case '{' -> object();
+                case '[' -> array();
+                case '"' -> string();
+                case 't' -> literal("true", Boolean.TRUE);
+                case 'f' -> literal("false", Boolean.FALSE);
+                case 'n' -> literal("null", null);
+                default -> {
+                    if (c == '-' || (c >= '0' && c <= '9')) {
+                        yield number();
+                    }
+                    throw error("Unexpected character '" + c + "'");
+                }
+            };
+        }
+
+        private Map<String, Object> object() {
+            Map<String, Object> fields = new LinkedHashMap<>();
+            open();
+            pos++; // '{'
+            skipWhitespace();
+            if (peek('}')) {
+                pos++;
+                depth--;
+                return fields;
+            }
+            while (true) {
+                skipWhitespace();
+                if (!peek('"')) {
+                    throw error("Expected a field name");
+                }
+                String name = string();
+                skipWhitespace();
+                expect(':');
+                fields.put(name, value());
+                skipWhitespace();
+                if (peek(',')) {
+                    pos++;
+                } else {
+                    expect('}');
+                    depth--;
+                    return fields;
+                }
+            }
+        }
+
+        private List<Object> array() {
+            List<Object> items = new ArrayList<>();
+            open();
+            pos++; // '['
+            skipWhitespace();
+            if (peek(']')) {
+                pos++;
+                depth--;
+                return items;
+            }
+            while (true) {
+                items.add(value());
+                skipWhitespace();
+                if (peek(',')) {
+                    pos++;
+                } else {
+                    expect(']');
+                    depth--;
+                    return items;
+                }
+            }
+        }
+
+        /** Enters an object or array, bounding the recursion instead of running out of stack. */
+        private void open() {
+            if (++depth > MAX_DEPTH) {
+                throw error("Nesting deeper than " + MAX_DEPTH + " levels");
+            }
+        }
+
+        private String string() {
+            pos++; // opening quote
+            StringBuilder out = new StringBuilder();
+            while (!atEnd()) {
+                char c = text.charAt(pos++);
+                if (c == '"') {
+                    return out.toString();
+                }
+                if (c != '\\') {
+                    out.append(c);
+                    continue;
+                }
+                if (atEnd()) break;
+                char escaped = text.charAt(pos++);
+                switch (escaped) {
+                    case '"', '\\', '/' -> out.append(escaped);
+                    case 'b' -> out.append('\b');
+                    case 'f' -> out.append('\f');
+                    case 'n' -> out.append('\n');
+                    case 'r' -> out.append('\r');
+                    case 't' -> out.append('\t');
+                    case 'u' -> {
+                        if (pos + 4 > text.length()) throw error("Truncated unicode escape");
+                        try {
+                            out.append((char) Integer.parseInt(text, pos, pos + 4, 16));
+                        } catch (NumberFormatException e) {
+                            throw error("Invalid unicode escape");
+                        }
+                        pos += 4;
+                    }
+                    default -> throw error("Invalid escape '\\" + escaped + "'");
+                }
+            }
+            throw error("Unterminated string");
+        }
+
+        private Long number() {
+            int start = pos;
+            if (peek('-')) pos++;
+            while (!atEnd() && Character.isDigit(text.charAt(pos))) pos++;
+            if (!atEnd() && (peek('.') || peek('e') || peek('E'))) {
+                throw error("Only integer numbers are supported");
+            }
+            try {
+                return Long.parseLong(text, start, pos, 10);
+            } catch (NumberFormatException e) {
+                throw error("Invalid number");
+            }
+        }
+
+        private Object literal(String word, Object value) {
+            if (!text.startsWith(word, pos)) {
+                throw error("Unexpected token");
+            }
+            pos += word.length();
+            return value;
+        }
+
+        void skipWhitespace() {
+            while (!atEnd() && Character.isWhitespace(text.charAt(pos))) pos++;
+        }
+
+        boolean peek(char c) {
+            return !atEnd() && text.charAt(pos) == c;
+        }
+
+        boolean atEnd() {
+            return pos >= text.length();
+        }
+
+        private void expect(char c) {
+            if (!peek(c)) {
+                throw error("Expected '" + c + "'");
+            }
+            pos++;
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + pos);
+        }
+    }
+}
@@ -0,0 +1,385 @@
+package http;
+
+import manager.VersionedTaskManager;
+import model.Epic;
+import model.Subtask;
+import model.Task;
+import model.TaskStatus;
+import model.TaskType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * Streaming JSON writer for tasks, epics and subtasks in the format described in {@link JsonCodec}.
+ * <p>
+ * Output is encoded straight into a fixed-size byte buffer that is written to the underlying stream
+ * whenever it fills up, so serializing a list of any length needs only the buffer
+ * ({@value #DEFAULT_BUFFER_SIZE} bytes by default), never the whole document. Field names and enum
+ * values are pre-encoded once; numbers, ISO-8601 times and UTF-8 strings are encoded in place, without
+ * intermediate {@code String} objects.
+ * <p>
+ * The writer does not close the underlying stream. <strong>Note:</strong> not thread-safe.
+ */
+public final class JsonStreamWriter {
+
+    /** Default buffer size in bytes. */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    // Pre-encoded fragments of a task object
+    private static final byte[] ID = ascii("{\"id\":");
+    private static final byte[] TYPE = ascii(",\"type\":");
+    private static final byte[] NAME = ascii(",\"name\":");
+    private static final byte[] DESCRIPTION = ascii(",\"description\":");
+    private static final byte[] STATUS = ascii(",\"status\":");
+    private static final byte[] DURATION = ascii(",\"duration\":");
+    private static final byte[] START_TIME = ascii(",\"startTime\":");
+    private static final byte[] END_TIME = ascii(",\"endTime\":");
+    private static final byte[] EPIC_ID = ascii(",\"epicId\":");
+    private static final byte[] SUBTASK_IDS = ascii(",\"subtaskIds\":[");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] EPOCH = ascii("{\"epoch\":");
+    private static final byte[] SINCE = ascii(",\"since\":");
+    private static final byte[] REVISION = ascii(",\"revision\":");
+    private static final byte[] FULL_RESYNC = ascii(",\"fullResync\":");
+    private static final byte[] CHANGES = ascii(",\"changes\":[");
+    private static final byte[] CHANGE_ID = ascii("{\"id\":");
+    private static final byte[] DELETED = ascii(",\"deleted\":");
+    private static final byte[] ITEM = ascii(",\"item\":");
+    private static final byte[] TRUE = ascii("true");
+    private static final byte[] FALSE = ascii("false");
+    private static final byte[][] TYPES = quotedNames(TaskType.values());
+    private static final byte[][] STATUSES = quotedNames(TaskStatus.values());
+    private static final byte[] HEX = ascii("0123456789abcdef");
+
+    /** Longest fixed-size token written without a capacity check per byte (a quoted time or a long). */
+    private static final int MAX_TOKEN = 40;
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int position;
+
+    /**
+     * Creates a writer with the default buffer size.
+     *
+     * @param out the stream to write to
+     */
+    public JsonStreamWriter(OutputStream out) {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a writer.
+     *
+     * @param out        the stream to write to
+     * @param bufferSize buffer size in bytes (at least 64)
+     * @throws IllegalArgumentException if the buffer is too small
+     */
+    public JsonStreamWriter(OutputStream out, int bufferSize) {
+        if (bufferSize < 64) {
+            throw new IllegalArgumentException("Buffer size must be at least 64: " + bufferSize);
+        }
+        this.out = out;
+        this.buffer = new byte[bufferSize];
+    }
+
+    /**
+     * Writes a JSON array of items.
+     *
+     * @param tasks the items to write
+     * @return this writer
+     * @throws IOException if the underlying stream fails
+     */
+    public JsonStreamWriter writeArray(Iterable<? extends Task> tasks) throws IOException {
+        writeByte('[');
+        boolean first = true;
+        for (Task task : tasks) {
+            if (!first) writeByte(',');
+            writeTask(task);
+            first = false;
+        }
+        writeByte(']');
+        return this;
+    }
+
+    /**
+     * Writes one item as a JSON object.
+     *
+     * @param task the item to write
+     * @return this writer
+     * @throws IOException if the underlying stream fails
+     */
+    public JsonStreamWriter writeTask(Task task) throws IOException {
+        writeBytes(ID);
+        writeLong(task.getId());
+        writeBytes(TYPE);
+        writeBytes(TYPES[task.getType().ordinal()]);
+        writeBytes(NAME);
+        writeString(task.getName());
+        writeBytes(DESCRIPTION);
+        writeString(task.getDescription());
+        writeBytes(STATUS);
+        writeBytes(task.getStatus() != null ? STATUSES[task.getStatus().ordinal()] : NULL);
+        writeBytes(DURATION);
+        long duration = task.getDurationMinutes();
+        if (duration != Task.NO_TIME) {
+            writeLong(duration);
+        } else {
+            writeBytes(NULL);
+        }
+        writeBytes(START_TIME);
+        writeTime(task.getStartMinute());
+        writeBytes(END_TIME);
+        writeTime(task.getEndMinute());
+        if (task instanceof Subtask subtask) {
+            writeBytes(EPIC_ID);
+            writeLong(subtask.getEpicId());
+        } else if (task instanceof Epic epic) {
+            writeBytes(SUBTASK_IDS);
+            int count = epic.getSubtaskCount();
+            for (int i = 0; i < count; i++) {
+                if (i > 0) writeByte(',');
+                writeLong(epic.getSubtaskId(i));
+            }
+            writeByte(']');
+        }
+        writeByte('}');
+        return this;
+    }
+
+    /**
+     * Writes a delta-sync response:
+     * {@code {"epoch":"..","since":5,"revision":9,"fullResync":false,"changes":[{"id":1,"type":"TASK",
+     * "revision":7,"deleted":false,"item":{..}}]}}; deleted items have {@code "item":null}.
+     *
+     * @param epoch   identifies the server instance the revisions belong to
+     * @param changes the changes to write
+     * @return this writer
+     * @throws IOException if the underlying stream fails
+     */
+    public JsonStreamWriter writeChangeSet(String epoch, VersionedTaskManager.ChangeSet changes) throws IOException {
+        return writeChangeSet(epoch, changes, changes.changes());
+    }
+
+    /**
+     * Writes a delta-sync response like {@link #writeChangeSet(String, VersionedTaskManager.ChangeSet)}, taking
+     * the changes from {@code items} instead of the change set, e.g. to copy them in batches while writing.
+     *
+     * @param epoch   identifies the server instance the revisions belong to
+     * @param changes the change set whose revisions to write
+     * @param items   the changes to write
+     * @return this writer
+     * @throws IOException if the underlying stream fails
+     */
+    public JsonStreamWriter writeChangeSet(String epoch, VersionedTaskManager.ChangeSet changes,
+                                           Iterable<VersionedTaskManager.Change> items) throws IOException {
+        writeBytes(EPOCH);
+        writeString(epoch);
+        writeBytes(SINCE);
+        writeLong(changes.since());
+        writeBytes(REVISION);
+        writeLong(changes.revision());
+        writeBytes(FULL_RESYNC);
+        writeBytes(changes.fullResync() ? TRUE : FALSE);
+        writeBytes(CHANGES);
+        boolean first = true;
+        for (VersionedTaskManager.Change change : items) {
+            if (!first) writeByte(',');
+            writeBytes(CHANGE_ID);
+            writeLong(change.id());
+            writeBytes(TYPE);
+            writeBytes(TYPES[change.type().ordinal()]);
+            writeBytes(REVISION);
+            writeLong(change.revision());
+            writeBytes(DELETED);
+            writeBytes(change.deleted() ? TRUE : FALSE);
+            writeBytes(ITEM);
+            if (change.deleted()) {
+                writeBytes(NULL);
+            } else {
+                writeTask(change.task());
+            }
+            writeByte('}');
+            first = false;
+        }
+        writeByte(']');
+        writeByte('}');
+        return this;
+    }
+
+    /**
+     * Writes buffered bytes to the underlying stream and flushes it.
+     *
+     * @throws IOException if the underlying stream fails
+     */
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    // --- Encoding ---
+
+    private void writeByte(char c) throws IOException {
+        if (position == buffer.length) drain();
+        buffer[position++] = (byte) c;
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+        if (position + bytes.length > buffer.length) drain();
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (position + bytes > buffer.length) drain();
+    }
+
+    private void drain() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private void writeLong(long value) throws IOException {
+        ensure(MAX_TOKEN);
+        if (value == Long.MIN_VALUE) {
+            byte[] min = ascii(Long.toString(value));
+            System.arraycopy(min, 0, buffer, position, min.length);
+            position += min.length;
+            return;
+        }
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) digits++;
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position += digits;
+    }
+
+    /**
+     * Writes a quoted ISO-8601 local date-time given in minutes since the epoch, byte-for-byte equal to
+     * {@link LocalDateTime#toString()} of {@link Task#toLocalDateTime(long)}, without creating the date-time.
+     */
+    private void writeTime(long epochMinute) throws IOException {
+        if (epochMinute == Task.NO_TIME) {
+            writeBytes(NULL);
+            return;
+        }
+        ensure(MAX_TOKEN);
+        buffer[position++] = '"';
+        int minuteOfDay = (int) Math.floorMod(epochMinute, 1440L);
+        // Civil date from days since the epoch, proleptic Gregorian, computed in 400-year eras
+        long z = Math.floorDiv(epochMinute, 1440L) + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+        int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+        if (Math.abs(year) < 1000) {
+            if (year < 0) buffer[position++] = '-';
+            digits(Math.abs(year), 4);
+        } else {
+            if (year > 9999) buffer[position++] = '+';
+            if (year < 0) buffer[position++] = '-';
+            int abs = Math.abs(year);
+            int width = 4;
+            for (int v = abs; v >= 10_000; v /= 10) width++;
+            digits(abs, width);
+        }
+        buffer[position++] = '-';
+        digits(month, 2);
+        buffer[position++] = '-';
+        digits(day, 2);
+        buffer[position++] = 'T';
+        digits(minuteOfDay / 60, 2);
+        buffer[position++] = ':';
+        digits(minuteOfDay % 60, 2);
+        buffer[position++] = '"';
+    }
+
+    /** Writes a non-negative value zero-padded to {@code width} digits; capacity is checked by the caller. */
+    private void digits(int value, int width) {
+        for (int i = position + width - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position += width;
+    }
+
+    /** Writes a quoted, escaped string encoded as UTF-8. */
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            writeBytes(NULL);
+            return;
+        }
+        writeByte('"');
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            ensure(6); // the longest encoding of one char is a six-byte escape of a control character
+            char c = value.charAt(i);
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                buffer[position++] = (byte) c;
+            } else if (c < 0x80) {
+                writeEscape(c);
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | c >> 6);
+                buffer[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                buffer[position++] = (byte) (0xF0 | cp >> 18);
+                buffer[position++] = (byte) (0x80 | cp >> 12 & 0x3F);
+                buffer[position++] = (byte) (0x80 | cp >> 6 & 0x3F);
+                buffer[position++] = (byte) (0x80 | cp & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                buffer[position++] = '?'; // unpaired surrogate, as String.getBytes(UTF_8) does
+            } else {
+                buffer[position++] = (byte) (0xE0 | c >> 12);
+                buffer[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                buffer[position++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        writeByte('"');
+    }
+
+    private void writeEscape(char c) {
+        buffer[position++] = '\\';
+        switch (c) {
+            case '"' -> buffer[position++] = '"';
+            case '\\' -> buffer[position++] = '\\';
+            case '\n' -> buffer[position++] = 'n';
+            case '\r' -> buffer[position++] = 'r';
+            case '\t' -> buffer[position++] = 't';
+            default -> {
+                buffer[position++] = 'u';
+                buffer[position++] = '0';
+                buffer[position++] = '0';
+                buffer[position++] = HEX[c >> 4];
+                buffer[position++] = HEX[c & 0xF];
+            }
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[][] quotedNames(Enum<?>[] values) {
+        byte[][] names = new byte[values.length][];
+        for (Enum<?> value : values) {
+            names[value.ordinal()] = ascii('"' + value.name() + '"');
+        }
+        return names;
+    }
+}
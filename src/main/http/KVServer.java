@@ -0,0 +1,226 @@
+package http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal in-memory key-value store over HTTP, a local stand-in for a remote storage service
+ * (used by {@link manager.KVTaskManager} in tests and demos). Keys and values are strings.
+ *
+ * <p>Endpoints:</p>
+ * <ul>
+ *   <li>{@code GET /load/{key}} — the value as plain text, {@code 404} if absent;</li>
+ *   <li>{@code POST /save/{key}} — stores the request body under the key;</li>
+ *   <li>{@code PUT /batch} — applies a JSON object of {@code "key": "value"} pairs atomically,
+ *       a {@code null} value deletes the key;</li>
+ *   <li>{@code GET /scan?prefix={prefix}} — all pairs whose key starts with the prefix, as a JSON object
+ *       in key order.</li>
+ * </ul>
+ * <p>Keys in paths are URL-decoded. Malformed requests get {@code 400}, unsupported methods {@code 405}.</p>
+ */
+public class KVServer implements AutoCloseable {
+
+    /** Port used by {@link #main(String[])}. */
+    public static final int DEFAULT_PORT = 8078;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /** The stored pairs, sorted so that prefix scans are range reads; guarded by its own monitor. */
+    private final TreeMap<String, String> data = new TreeMap<>();
+
+    /** Number of accepted write requests ({@code /save} and {@code /batch}). */
+    private final AtomicLong writeRequests = new AtomicLong();
+
+    /**
+     * Creates a server. Call {@link #start()} to begin accepting requests.
+     *
+     * @param port the port to bind; {@code 0} picks a free one (see {@link #getPort()})
+     * @throws IOException if the port cannot be bound
+     */
+    public KVServer(int port) throws IOException {
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.setExecutor(executor);
+        server.createContext("/load/", exchange -> handle(exchange, "GET", this::load));
+        server.createContext("/save/", exchange -> handle(exchange, "POST", this::save));
+        server.createContext("/batch", exchange -> handle(exchange, "PUT", this::batch));
+        server.createContext("/scan", exchange -> handle(exchange, "GET", this::scan));
+    }
+
+    /**
+     * Starts a server on {@link #DEFAULT_PORT}.
+     *
+     * @param args ignored
+     * @throws IOException if the port cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        KVServer server = new KVServer(DEFAULT_PORT);
+        server.start();
+        System.out.println("KV-сервер запущен на порту " + server.getPort());
+    }
+
+    /** Starts accepting requests. */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * @return the bound port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @return the number of write requests served so far (each batch counts once)
+     */
+    public long getWriteRequestCount() {
+        return writeRequests.get();
+    }
+
+    /**
+     * Returns a stored value directly, bypassing HTTP (for tests and diagnostics).
+     *
+     * @param key the key
+     * @return the value, or {@code null} if absent
+     */
+    public String get(String key) {
+        synchronized (data) {
+            return data.get(key);
+        }
+    }
+
+    /** Stops accepting requests, waits for running handlers and releases the port. */
+    public void stop() {
+        server.stop(0);
+        executor.close();
+    }
+
+    /** Same as {@link #stop()}. */
+    @Override
+    public void close() {
+        stop();
+    }
+
+    // --- Handlers ---
+
+    /** A request handler that returns the response status and body. */
+    @FunctionalInterface
+    private interface Action {
+        Response apply(HttpExchange exchange) throws IOException;
+    }
+
+    private record Response(int code, String contentType, String body) {
+        static Response json(int code, String body) {
+            return new Response(code, "application/json; charset=utf-8", body);
+        }
+    }
+
+    private void handle(HttpExchange exchange, String method, Action action) {
+        try {
+            Response response;
+            if (!exchange.getRequestMethod().equals(method)) {
+                response = Response.json(405, JsonCodec.error("Method not allowed"));
+            } else {
+                try {
+                    response = action.apply(exchange);
+                } catch (IllegalArgumentException e) {
+                    response = Response.json(400, JsonCodec.error(e.getMessage()));
+                }
+            }
+            send(exchange, response);
+        } catch (IOException ignored) {
+            // the client is gone; nothing left to report to
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private Response load(HttpExchange exchange) {
+        String value = get(keyOf(exchange, "/load/"));
+        return value != null
+                ? new Response(200, "text/plain; charset=utf-8", value)
+                : Response.json(404, JsonCodec.error("Not found"));
+    }
+
+    private Response save(HttpExchange exchange) throws IOException {
+        String key = keyOf(exchange, "/save/");
+        String value = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        synchronized (data) {
+            data.put(key, value);
+        }
+        writeRequests.incrementAndGet();
+        return Response.json(200, "");
+    }
+
+    private Response batch(HttpExchange exchange) throws IOException {
+        Map<String, Object> pairs = JsonCodec.parseObject(
+                new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        for (Object value : pairs.values()) {
+            if (value != null && !(value instanceof String)) {
+                throw new IllegalArgumentException("Values must be strings or null");
+            }
+        }
+        synchronized (data) {
+            for (Map.Entry<String, Object> pair : pairs.entrySet()) {
+                if (pair.getValue() == null) {
+                    data.remove(pair.getKey());
+                } else {
+                    data.put(pair.getKey(), (String) pair.getValue());
+                }
+            }
+        }
+        writeRequests.incrementAndGet();
+        return Response.json(200, "");
+    }
+
+    private Response scan(HttpExchange exchange) {
+        String prefix = HttpTaskServer.queryParameter(exchange, "prefix");
+        if (prefix == null) {
+            prefix = "";
+        }
+        Map<String, String> result;
+        synchronized (data) {
+            result = new LinkedHashMap<>(prefix.isEmpty()
+                    ? data
+                    : data.subMap(prefix, prefix + Character.MAX_VALUE));
+        }
+        return Response.json(200, JsonCodec.toJsonObject(result));
+    }
+
+    // --- Helpers ---
+
+    private static String keyOf(HttpExchange exchange, String context) {
+        String key = URLDecoder.decode(exchange.getRequestURI().getRawPath().substring(context.length()),
+                StandardCharsets.UTF_8);
+        if (key.isEmpty()) {
+            throw new IllegalArgumentException("Key must not be empty");
+        }
+        return key;
+    }
+
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        exchange.getRequestBody().readAllBytes(); // drain leftovers so the connection can be reused
+        byte[] bytes = response.body().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", response.contentType());
+        exchange.sendResponseHeaders(response.code(), bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
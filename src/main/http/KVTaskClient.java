@@ -0,0 +1,135 @@
+package http;
+
+import exception.ManagerSaveException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Client of a {@link KVServer}-compatible key-value store. Requests go over one keep-alive
+ * HTTP/1.1 connection pool; every call is blocking.
+ * <p>
+ * Failures (unreachable server, unexpected status, interruption) are reported as
+ * {@link ManagerSaveException}, like file errors in the file-backed manager.
+ * <p>The client is thread-safe.</p>
+ */
+public class KVTaskClient implements AutoCloseable {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final URI baseUri;
+    private final HttpClient client;
+
+    /**
+     * Creates a client.
+     *
+     * @param baseUri the store's base URI, e.g. {@code http://localhost:8078}
+     */
+    public KVTaskClient(URI baseUri) {
+        this.baseUri = baseUri;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(TIMEOUT)
+                .build();
+    }
+
+    /**
+     * Reads one value.
+     *
+     * @param key the key
+     * @return the value, or {@code null} if the key is absent
+     * @throws ManagerSaveException if the store cannot be reached or fails
+     */
+    public String load(String key) {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/load/" + encode(key))).GET());
+        if (response.statusCode() == 404) {
+            return null;
+        }
+        check(response);
+        return response.body();
+    }
+
+    /**
+     * Reads all pairs whose key starts with the prefix.
+     *
+     * @param prefix the key prefix ({@code ""} for everything)
+     * @return the pairs in key order
+     * @throws ManagerSaveException if the store cannot be reached or fails
+     */
+    public Map<String, String> loadAll(String prefix) {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/scan?prefix=" + encode(prefix))).GET());
+        check(response);
+        Map<String, String> result = new LinkedHashMap<>();
+        try {
+            JsonCodec.parseObject(response.body()).forEach((key, value) -> result.put(key, (String) value));
+        } catch (IllegalArgumentException | ClassCastException e) {
+            throw new ManagerSaveException("Некорректный ответ KV-сервера: " + baseUri, e);
+        }
+        return result;
+    }
+
+    /**
+     * Stores one value.
+     *
+     * @param key   the key
+     * @param value the value
+     * @throws ManagerSaveException if the store cannot be reached or fails
+     */
+    public void put(String key, String value) {
+        check(send(HttpRequest.newBuilder(uri("/save/" + encode(key)))
+                .POST(HttpRequest.BodyPublishers.ofString(value))));
+    }
+
+    /**
+     * Writes many pairs with a single request; the store applies them atomically.
+     *
+     * @param values the pairs to write; a {@code null} value deletes the key
+     * @throws ManagerSaveException if the store cannot be reached or fails
+     */
+    public void putAll(Map<String, String> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        check(send(HttpRequest.newBuilder(uri("/batch"))
+                .PUT(HttpRequest.BodyPublishers.ofString(JsonCodec.toJsonObject(values)))));
+    }
+
+    /** Releases the connection pool. */
+    @Override
+    public void close() {
+        client.close();
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) {
+        try {
+            return client.send(request.timeout(TIMEOUT).build(), HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при обращении к KV-серверу: " + baseUri, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ManagerSaveException("Обращение к KV-серверу прервано: " + baseUri, e);
+        }
+    }
+
+    private void check(HttpResponse<String> response) {
+        if (response.statusCode() != 200) {
+            throw new ManagerSaveException("KV-сервер ответил " + response.statusCode() + ": " + response.body());
+        }
+    }
+
+    private URI uri(String path) {
+        return baseUri.resolve(path);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+}
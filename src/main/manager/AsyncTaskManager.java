@@ -0,0 +1,278 @@
+package manager;
+
+import model.Epic;
+import model.Subtask;
+import model.Task;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous facade over a {@link TaskManager}: every operation runs on an executor and
+ * returns a {@link CompletableFuture} instead of blocking the calling thread.
+ *
+ * <p>Semantics:</p>
+ * <ul>
+ *   <li>A future completes only after the delegate call has returned. For persistent managers
+ *       (e.g. {@link FileBackedTaskManager}) that means the change is already durable. A non-thread-safe
+ *       delegate saves while the lock below is held, so reads submitted meanwhile wait until the
+ *       change has reached the disk.</li>
+ *   <li>Errors thrown by the delegate (e.g. {@link IllegalArgumentException} on overlaps)
+ *       complete the future exceptionally.</li>
+ *   <li>Calls into a non-thread-safe delegate are serialized with a lock, and the items they return are
+ *       copied before it is released, since the delegate keeps changing its stored objects in place.
+ *       A {@link ShardedTaskManager} is thread-safe on its own, returns copies itself and is called
+ *       without the lock.</li>
+ *   <li>Independently submitted calls are not ordered relative to each other; chain the futures
+ *       when one operation depends on another.</li>
+ * </ul>
+ *
+ * <p>By default operations run on a virtual thread per call. The default executor is owned by this
+ * facade and shut down by {@link #close()}; a caller-supplied executor is left untouched.</p>
+ */
+public class AsyncTaskManager implements AutoCloseable {
+
+    private final TaskManager delegate;
+    private final Executor executor;
+
+    /** Executor created by this facade (closed in {@link #close()}); {@code null} if supplied by the caller. */
+    private final ExecutorService ownedExecutor;
+
+    /** Serializes calls into the delegate; {@code null} if the delegate is thread-safe. */
+    private final ReentrantLock lock;
+
+    /**
+     * Creates a facade that runs each operation on its own virtual thread.
+     *
+     * @param delegate the manager to call
+     */
+    public AsyncTaskManager(TaskManager delegate) {
+        this(delegate, Executors.newVirtualThreadPerTaskExecutor(), true);
+    }
+
+    /**
+     * Creates a facade that runs operations on the given executor.
+     *
+     * @param delegate the manager to call
+     * @param executor the executor for delegate calls; not shut down by {@link #close()}
+     */
+    public AsyncTaskManager(TaskManager delegate, Executor executor) {
+        this(delegate, executor, false);
+    }
+
+    private AsyncTaskManager(TaskManager delegate, Executor executor, boolean ownsExecutor) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.ownedExecutor = ownsExecutor ? (ExecutorService) executor : null;
+        this.lock = Managers.isThreadSafe(delegate) ? null : new ReentrantLock();
+    }
+
+    /**
+     * @return the wrapped manager
+     */
+    public TaskManager getDelegate() {
+        return delegate;
+    }
+
+    // --- Task methods ---
+
+    /** Asynchronous {@link TaskManager#getAllTasks}. */
+    public CompletableFuture<List<Task>> getAllTasks() {
+        return call(() -> detachedAll(delegate.getAllTasks()));
+    }
+
+    /** Asynchronous {@link TaskManager#removeAllTasks}. */
+    public CompletableFuture<Void> removeAllTasks() {
+        return run(delegate::removeAllTasks);
+    }
+
+    /** Asynchronous {@link TaskManager#getTaskById}. */
+    public CompletableFuture<Task> getTaskById(int id) {
+        return call(() -> detached(delegate.getTaskById(id)));
+    }
+
+    /** Asynchronous {@link TaskManager#createTask}. */
+    public CompletableFuture<Task> createTask(Task task) {
+        return call(() -> detached(delegate.createTask(task)));
+    }
+
+    /** Asynchronous {@link TaskManager#updateTask}. */
+    public CompletableFuture<Void> updateTask(Task task) {
+        return run(() -> delegate.updateTask(task));
+    }
+
+    /** Asynchronous {@link TaskManager#deleteTaskById}. */
+    public CompletableFuture<Void> deleteTaskById(int id) {
+        return run(() -> delegate.deleteTaskById(id));
+    }
+
+    // --- Epic methods ---
+
+    /** Asynchronous {@link TaskManager#getAllEpics}. */
+    public CompletableFuture<List<Epic>> getAllEpics() {
+        return call(() -> detachedAll(delegate.getAllEpics()));
+    }
+
+    /** Asynchronous {@link TaskManager#removeAllEpics}. */
+    public CompletableFuture<Void> removeAllEpics() {
+        return run(delegate::removeAllEpics);
+    }
+
+    /** Asynchronous {@link TaskManager#getEpicById}. */
+    public CompletableFuture<Epic> getEpicById(int id) {
+        return call(() -> detached(delegate.getEpicById(id)));
+    }
+
+    /** Asynchronous {@link TaskManager#createEpic}. */
+    public CompletableFuture<Epic> createEpic(Epic epic) {
+        return call(() -> detached(delegate.createEpic(epic)));
+    }
+
+    /** Asynchronous {@link TaskManager#updateEpic}. */
+    public CompletableFuture<Void> updateEpic(Epic epic) {
+        return run(() -> delegate.updateEpic(epic));
+    }
+
+    /** Asynchronous {@link TaskManager#deleteEpicById}. */
+    public CompletableFuture<Void> deleteEpicById(int id) {
+        return run(() -> delegate.deleteEpicById(id));
+    }
+
+    // --- Subtask methods ---
+
+    /** Asynchronous {@link TaskManager#getAllSubtasks}. */
+    public CompletableFuture<List<Subtask>> getAllSubtasks() {
+        return call(() -> detachedAll(delegate.getAllSubtasks()));
+    }
+
+    /** Asynchronous {@link TaskManager#removeAllSubtasks}. */
+    public CompletableFuture<Void> removeAllSubtasks() {
+        return run(delegate::removeAllSubtasks);
+    }
+
+    /** Asynchronous {@link TaskManager#getSubtaskById}. */
+    public CompletableFuture<Subtask> getSubtaskById(int id) {
+        return call(() -> detached(delegate.getSubtaskById(id)));
+    }
+
+    /** Asynchronous {@link TaskManager#createSubtask}. */
+    public CompletableFuture<Subtask> createSubtask(Subtask subtask) {
+        return call(() -> detached(delegate.createSubtask(subtask)));
+    }
+
+    /** Asynchronous {@link TaskManager#updateSubtask}. */
+    public CompletableFuture<Void> updateSubtask(Subtask subtask) {
+        return run(() -> delegate.updateSubtask(subtask));
+    }
+
+    /** Asynchronous {@link TaskManager#deleteSubtaskById}. */
+    public CompletableFuture<Void> deleteSubtaskById(int id) {
+        return run(() -> delegate.deleteSubtaskById(id));
+    }
+
+    // --- Additional methods ---
+
+    /** Asynchronous {@link TaskManager#getEpicSubtasks}. */
+    public CompletableFuture<List<Subtask>> getEpicSubtasks(int epicId) {
+        return call(() -> detachedAll(delegate.getEpicSubtasks(epicId)));
+    }
+
+    /** Asynchronous {@link TaskManager#getPrioritizedTasks}. */
+    public CompletableFuture<List<Task>> getPrioritizedTasks() {
+        return call(() -> detachedAll(delegate.getPrioritizedTasks()));
+    }
+
+    /** Asynchronous {@link TaskManager#getHistory}. */
+    public CompletableFuture<List<Task>> getHistory() {
+        return call(() -> detachedAll(delegate.getHistory()));
+    }
+
+    // --- Bulk methods ---
+
+    /** Asynchronous {@link TaskManager#createTasks}. */
+    public CompletableFuture<List<Task>> createTasks(Collection<Task> tasks) {
+        return call(() -> detachedAll(delegate.createTasks(tasks)));
+    }
+
+    /** Asynchronous {@link TaskManager#createSubtasks}. */
+    public CompletableFuture<List<Subtask>> createSubtasks(Collection<Subtask> subtasks) {
+        return call(() -> detachedAll(delegate.createSubtasks(subtasks)));
+    }
+
+    /** Asynchronous {@link TaskManager#updateTasks}. */
+    public CompletableFuture<Void> updateTasks(Collection<Task> tasks) {
+        return run(() -> delegate.updateTasks(tasks));
+    }
+
+    /** Asynchronous {@link TaskManager#updateSubtasks}. */
+    public CompletableFuture<Void> updateSubtasks(Collection<Subtask> subtasks) {
+        return run(() -> delegate.updateSubtasks(subtasks));
+    }
+
+    /** Asynchronous {@link TaskManager#deleteByIds}. */
+    public CompletableFuture<Void> deleteByIds(Collection<Integer> ids) {
+        return run(() -> delegate.deleteByIds(ids));
+    }
+
+    /**
+     * Shuts down the default executor, if this facade created it, and waits for submitted calls to finish.
+     */
+    @Override
+    public void close() {
+        if (ownedExecutor != null) {
+            ownedExecutor.close();
+        }
+    }
+
+    /** Runs a delegate call returning a value on the executor. */
+    private <R> CompletableFuture<R> call(Supplier<R> operation) {
+        return CompletableFuture.supplyAsync(() -> locked(operation), executor);
+    }
+
+    /** Runs a delegate call without a result on the executor. */
+    private CompletableFuture<Void> run(Runnable operation) {
+        return CompletableFuture.runAsync(() -> locked(() -> {
+            operation.run();
+            return null;
+        }), executor);
+    }
+
+    /**
+     * Copies an item returned by a non-thread-safe delegate, so that the caller can use it after the lock is
+     * released. Call under the lock.
+     */
+    private <T extends Task> T detached(T item) {
+        @SuppressWarnings("unchecked")
+        T copy = lock == null || item == null ? item : (T) item.copy();
+        return copy;
+    }
+
+    /** Same as {@link #detached(Task)} for a list of items. Call under the lock. */
+    private <T extends Task> List<T> detachedAll(List<T> items) {
+        if (lock == null) {
+            return items;
+        }
+        List<T> copies = new ArrayList<>(items.size());
+        items.forEach(item -> copies.add(detached(item)));
+        return copies;
+    }
+
+    private <R> R locked(Supplier<R> operation) {
+        if (lock == null) {
+            return operation.get();
+        }
+        lock.lock();
+        try {
+            return operation.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
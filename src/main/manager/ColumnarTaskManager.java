@@ -0,0 +1,1031 @@
+package manager;
+
+import diagnostics.OverlapCheckEvent;
+import history.HistoryManager;
+import model.Epic;
+import model.Subtask;
+import model.Task;
+import model.TaskStatus;
+import model.TaskType;
+import util.IntLongHashMap;
+import util.StringArena;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@link TaskManager} that stores items column by column instead of as objects: every item occupies a slot, and
+ * each field is a primitive array indexed by slot (IDs, type and status ordinals, start, end and duration minutes,
+ * parent epic IDs). Names and descriptions live in a {@link StringArena}, and the slot of an ID is found through
+ * an {@link IntLongHashMap}.
+ * <p>
+ * Scans such as {@link #countByStatus(TaskType, TaskStatus)}, {@link #getScheduledMinutes(TaskType)} and the
+ * overlap checks of every timed mutation read a few contiguous arrays rather than following references from a
+ * {@link java.util.HashMap} to scattered {@link Task} objects. Objects are only created at the API boundary.
+ * <p>
+ * Differences from {@link InMemoryTaskManager}:
+ * <ul>
+ *   <li>Items returned by getters are snapshots. Changing one does not change the store until it is passed to an
+ *       {@code update*} method, and a returned epic does not follow later changes of its subtasks.</li>
+ *   <li>No change events, revisions or transactions.</li>
+ *   <li>{@link #getPrioritizedTasks()} sorts the timed items on every call instead of keeping them sorted.</li>
+ * </ul>
+ * Deleted slots are reused only after a compaction, which runs once they make up half of the slots. Slots stay
+ * in creation order, i.e. in ID order, and {@code getAll*} lists items in that order.
+ *
+ * <p><strong>Thread-safety:</strong> not thread-safe.</p>
+ */
+public class ColumnarTaskManager implements TaskManager {
+
+    private static final TaskType[] TYPES = TaskType.values();
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    /** Type of a deleted slot. */
+    private static final byte FREE = -1;
+    private static final byte TASK = (byte) TaskType.TASK.ordinal();
+    private static final byte EPIC = (byte) TaskType.EPIC.ordinal();
+    private static final byte SUBTASK = (byte) TaskType.SUBTASK.ordinal();
+
+    private static final byte NEW = (byte) TaskStatus.NEW.ordinal();
+    private static final byte IN_PROGRESS = (byte) TaskStatus.IN_PROGRESS.ordinal();
+    private static final byte DONE = (byte) TaskStatus.DONE.ordinal();
+
+    /** Status of an item whose status is {@code null}. */
+    private static final byte NO_STATUS = -1;
+
+    /** Value of {@link #durationMinutes} when the duration is absent. */
+    private static final int NO_DURATION = Integer.MIN_VALUE;
+
+    private static final int[] NO_IDS = {};
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Deleted slots below this number are never worth a compaction. */
+    private static final int MIN_FREED = 64;
+
+    private int[] ids;
+    private byte[] types;
+    private byte[] statuses;
+    /** Start in minutes since the epoch, or {@link Task#NO_TIME} (also for deleted slots). */
+    private long[] startMinutes;
+    /** End in minutes since the epoch, or {@link Task#NO_TIME} (also for deleted slots). */
+    private long[] endMinutes;
+    private int[] durationMinutes;
+    /** Parent epic of a subtask; {@code 0} for other items. */
+    private int[] epicIds;
+    /** {@link StringArena} handles: the name of slot {@code s} at {@code 2s}, its description at {@code 2s + 1}. */
+    private long[] texts;
+    /** Subtask IDs of an epic in insertion order (the first {@link #subtaskCounts} elements); other items: null. */
+    private int[][] subtaskIds;
+    private int[] subtaskCounts;
+
+    /** Number of slots in use, deleted ones included. */
+    private int slotCount;
+    /** Number of deleted slots. */
+    private int freedCount;
+    /** Number of stored items by type ordinal. */
+    private final int[] counts = new int[TYPES.length];
+
+    /** Slot of every stored item by ID. */
+    private final IntLongHashMap slots = new IntLongHashMap();
+    private final StringArena arena = new StringArena();
+    private final HistoryManager historyManager;
+    private int nextId = 1;
+
+    /**
+     * Creates an empty columnar manager.
+     *
+     * @param historyManager non-null history manager
+     */
+    public ColumnarTaskManager(HistoryManager historyManager) {
+        this.historyManager = historyManager;
+        allocate(INITIAL_CAPACITY);
+    }
+
+    // --- Task methods ---
+
+    /** {@inheritDoc} */
+    @Override
+    public List<Task> getAllTasks() {
+        return materializeAll(TASK);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void removeAllTasks() {
+        historyManager.removeAllOfType(TaskType.TASK);
+        freeAll(TASK);
+        compactIfSparse();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Task getTaskById(int id) {
+        return view(slotOf(id, TASK));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the task time interval overlaps with an existing one
+     */
+    @Override
+    public Task createTask(Task task) {
+        if (task == null) return null;
+        if (hasOverlapping(task)) {
+            throw new IllegalArgumentException("Task overlaps with an existing task");
+        }
+        task.setId(nextId++);
+        append(task, TASK, 0);
+        return task;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the updated task overlaps with an existing one
+     */
+    @Override
+    public void updateTask(Task task) {
+        int slot = task == null ? -1 : slotOf(task.getId(), TASK);
+        if (slot < 0) {
+            return;
+        }
+        if (hasOverlapping(task)) {
+            throw new IllegalArgumentException("Task update overlaps with an existing task");
+        }
+        write(slot, task);
+        compactTextIfSparse();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void deleteTaskById(int id) {
+        int slot = slotOf(id, TASK);
+        if (slot >= 0) {
+            free(slot);
+            historyManager.remove(id);
+            compactIfSparse();
+        }
+    }
+
+    // --- Epic methods ---
+
+    /** {@inheritDoc} */
+    @Override
+    public List<Epic> getAllEpics() {
+        return materializeAll(EPIC);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void removeAllEpics() {
+        historyManager.removeAllOfType(TaskType.SUBTASK);
+        historyManager.removeAllOfType(TaskType.EPIC);
+        freeAll(SUBTASK);
+        freeAll(EPIC);
+        compactIfSparse();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Epic getEpicById(int id) {
+        return view(slotOf(id, EPIC));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Epic createEpic(Epic epic) {
+        if (epic == null) return null;
+        epic.setId(nextId++);
+        epic.setStatus(TaskStatus.NEW);
+        append(epic, EPIC, 0);
+        return epic;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void updateEpic(Epic epic) {
+        int slot = epic == null ? -1 : slotOf(epic.getId(), EPIC);
+        if (slot >= 0) {
+            // status/time fields are derived; see recalculateEpic
+            writeText(slot, epic);
+            compactTextIfSparse();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void deleteEpicById(int id) {
+        int slot = slotOf(id, EPIC);
+        if (slot < 0) {
+            return;
+        }
+        List<Integer> removedIds = new ArrayList<>(subtaskCounts[slot] + 1);
+        for (int i = 0; i < subtaskCounts[slot]; i++) {
+            int subtaskSlot = slotOf(subtaskIds[slot][i], SUBTASK);
+            if (subtaskSlot >= 0) {
+                removedIds.add(ids[subtaskSlot]);
+                free(subtaskSlot);
+            }
+        }
+        removedIds.add(id);
+        free(slot);
+        historyManager.removeAll(removedIds);
+        compactIfSparse();
+    }
+
+    // --- Subtask methods ---
+
+    /** {@inheritDoc} */
+    @Override
+    public List<Subtask> getAllSubtasks() {
+        return materializeAll(SUBTASK);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void removeAllSubtasks() {
+        historyManager.removeAllOfType(TaskType.SUBTASK);
+        freeAll(SUBTASK);
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (types[slot] == EPIC && subtaskCounts[slot] > 0) {
+                subtaskIds[slot] = NO_IDS;
+                subtaskCounts[slot] = 0;
+                recalculateEpic(slot);
+            }
+        }
+        compactIfSparse();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Subtask getSubtaskById(int id) {
+        return view(slotOf(id, SUBTASK));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if:
+     *   <ul>
+     *     <li>referenced epic does not exist;</li>
+     *     <li>the subtask overlaps with an existing task/subtask.</li>
+     *   </ul>
+     */
+    @Override
+    public Subtask createSubtask(Subtask subtask) {
+        if (subtask == null) return null;
+        int epicSlot = slotOf(subtask.getEpicId(), EPIC);
+        if (epicSlot < 0) {
+            throw new IllegalArgumentException("Epic with ID " + subtask.getEpicId() + " not found.");
+        }
+        if (hasOverlapping(subtask)) {
+            throw new IllegalArgumentException("Subtask overlaps with an existing subtask");
+        }
+        subtask.setId(nextId++);
+        append(subtask, SUBTASK, subtask.getEpicId());
+        addSubtaskId(epicSlot, subtask.getId());
+        recalculateEpic(epicSlot);
+        return subtask;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if:
+     *   <ul>
+     *     <li>referenced new epic does not exist;</li>
+     *     <li>the updated subtask overlaps with an existing task/subtask.</li>
+     *   </ul>
+     */
+    @Override
+    public void updateSubtask(Subtask subtask) {
+        int slot = subtask == null ? -1 : slotOf(subtask.getId(), SUBTASK);
+        if (slot < 0) {
+            return;
+        }
+        if (hasOverlapping(subtask)) {
+            throw new IllegalArgumentException("Subtask update overlaps with an existing subtask");
+        }
+        int newEpicSlot = slotOf(subtask.getEpicId(), EPIC);
+        if (newEpicSlot < 0) {
+            throw new IllegalArgumentException("New parent epic with ID " + subtask.getEpicId() + " not found.");
+        }
+        int oldEpicSlot = slotOf(epicIds[slot], EPIC);
+        write(slot, subtask);
+        if (oldEpicSlot != newEpicSlot) {
+            if (oldEpicSlot >= 0) {
+                removeSubtaskId(oldEpicSlot, subtask.getId());
+                recalculateEpic(oldEpicSlot);
+            }
+            addSubtaskId(newEpicSlot, subtask.getId());
+        }
+        recalculateEpic(newEpicSlot);
+        compactTextIfSparse();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void deleteSubtaskById(int id) {
+        int slot = slotOf(id, SUBTASK);
+        if (slot < 0) {
+            return;
+        }
+        int epicSlot = slotOf(epicIds[slot], EPIC);
+        free(slot);
+        historyManager.remove(id);
+        if (epicSlot >= 0) {
+            removeSubtaskId(epicSlot, id);
+            recalculateEpic(epicSlot);
+        }
+        compactIfSparse();
+    }
+
+    // --- Additional methods ---
+
+    /** {@inheritDoc} */
+    @Override
+    public List<Subtask> getEpicSubtasks(int epicId) {
+        int epicSlot = slotOf(epicId, EPIC);
+        if (epicSlot < 0) return List.of();
+        List<Subtask> result = new ArrayList<>(subtaskCounts[epicSlot]);
+        for (int i = 0; i < subtaskCounts[epicSlot]; i++) {
+            int slot = slotOf(subtaskIds[epicSlot][i], SUBTASK);
+            if (slot >= 0) {
+                result.add(materialize(slot));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Sorts the {@link InMemoryTaskManager#priorityKey(long, int) priority keys} of the timed items, built from
+     * the start column and the slot (slots are in ID order), as one {@code long[]}.</p>
+     */
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        long[] keys = prioritizedKeys();
+        List<Task> result = new ArrayList<>(keys.length);
+        for (long key : keys) {
+            result.add(materialize(slotOfKey(key)));
+        }
+        return result;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public List<Task> getHistory() {
+        return historyManager.getHistory();
+    }
+
+    // --- Bulk methods ---
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if a task overlaps with an existing item or another task of the batch
+     */
+    @Override
+    public List<Task> createTasks(Collection<Task> batch) {
+        List<Task> items = withoutNulls(batch);
+        validateBatch(items, Set.of(), "Task overlaps with an existing task");
+        for (Task task : items) {
+            task.setId(nextId++);
+            append(task, TASK, 0);
+        }
+        return items;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if:
+     *   <ul>
+     *     <li>a referenced epic does not exist;</li>
+     *     <li>a subtask overlaps with an existing item or another subtask of the batch.</li>
+     *   </ul>
+     */
+    @Override
+    public List<Subtask> createSubtasks(Collection<Subtask> batch) {
+        List<Subtask> items = withoutNulls(batch);
+        for (Subtask subtask : items) {
+            if (slotOf(subtask.getEpicId(), EPIC) < 0) {
+                throw new IllegalArgumentException("Epic with ID " + subtask.getEpicId() + " not found.");
+            }
+        }
+        validateBatch(items, Set.of(), "Subtask overlaps with an existing subtask");
+
+        Set<Integer> affected = new LinkedHashSet<>();
+        for (Subtask subtask : items) {
+            subtask.setId(nextId++);
+            append(subtask, SUBTASK, subtask.getEpicId());
+            addSubtaskId(slotOf(subtask.getEpicId(), EPIC), subtask.getId());
+            affected.add(subtask.getEpicId());
+        }
+        affected.forEach(epicId -> recalculateEpic(slotOf(epicId, EPIC)));
+        return items;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if an updated task overlaps with an existing item or another task of the batch
+     */
+    @Override
+    public void updateTasks(Collection<Task> batch) {
+        List<Task> items = InMemoryTaskManager.lastPerId(withoutNulls(batch).stream()
+                .filter(task -> slotOf(task.getId(), TASK) >= 0)
+                .toList());
+        validateBatch(items, idsOf(items), "Task update overlaps with an existing task");
+        for (Task task : items) {
+            write(slotOf(task.getId(), TASK), task);
+        }
+        compactTextIfSparse();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if:
+     *   <ul>
+     *     <li>a referenced new epic does not exist;</li>
+     *     <li>an updated subtask overlaps with an existing item or another subtask of the batch.</li>
+     *   </ul>
+     */
+    @Override
+    public void updateSubtasks(Collection<Subtask> batch) {
+        List<Subtask> items = InMemoryTaskManager.lastPerId(withoutNulls(batch).stream()
+                .filter(subtask -> slotOf(subtask.getId(), SUBTASK) >= 0)
+                .toList());
+        for (Subtask subtask : items) {
+            if (slotOf(subtask.getEpicId(), EPIC) < 0) {
+                throw new IllegalArgumentException("New parent epic with ID " + subtask.getEpicId() + " not found.");
+            }
+        }
+        validateBatch(items, idsOf(items), "Subtask update overlaps with an existing subtask");
+
+        Set<Integer> affected = new LinkedHashSet<>();
+        for (Subtask subtask : items) {
+            int slot = slotOf(subtask.getId(), SUBTASK);
+            int oldEpicId = epicIds[slot];
+            write(slot, subtask);
+            if (oldEpicId != subtask.getEpicId()) {
+                int oldEpicSlot = slotOf(oldEpicId, EPIC);
+                if (oldEpicSlot >= 0) {
+                    removeSubtaskId(oldEpicSlot, subtask.getId());
+                    affected.add(oldEpicId);
+                }
+                addSubtaskId(slotOf(subtask.getEpicId(), EPIC), subtask.getId());
+            }
+            affected.add(subtask.getEpicId());
+        }
+        affected.forEach(epicId -> recalculateEpic(slotOf(epicId, EPIC)));
+        compactTextIfSparse();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void deleteByIds(Collection<Integer> batch) {
+        Set<Integer> affected = new LinkedHashSet<>();
+        Set<Integer> removedIds = new HashSet<>();
+        for (Integer id : batch) {
+            int slot = id == null ? -1 : slotOf(id, FREE);
+            if (slot < 0) continue;
+            if (types[slot] == SUBTASK) {
+                int epicSlot = slotOf(epicIds[slot], EPIC);
+                if (epicSlot >= 0) {
+                    removeSubtaskId(epicSlot, id);
+                    affected.add(epicIds[slot]);
+                }
+            } else if (types[slot] == EPIC) {
+                for (int i = 0; i < subtaskCounts[slot]; i++) {
+                    int subtaskSlot = slotOf(subtaskIds[slot][i], SUBTASK);
+                    if (subtaskSlot >= 0) {
+                        removedIds.add(ids[subtaskSlot]);
+                        free(subtaskSlot);
+                    }
+                }
+            }
+            removedIds.add(id);
+            free(slot);
+        }
+        if (!removedIds.isEmpty()) {
+            historyManager.removeAll(removedIds);
+        }
+        for (int epicId : affected) {
+            int epicSlot = slotOf(epicId, EPIC);
+            if (epicSlot >= 0) {
+                recalculateEpic(epicSlot);
+            }
+        }
+        compactIfSparse();
+    }
+
+    // --- Scans ---
+
+    /**
+     * Returns the number of stored items of a type without copying them.
+     *
+     * @param type the item type
+     * @return number of tasks, epics or subtasks
+     */
+    public int getCount(TaskType type) {
+        return counts[type.ordinal()];
+    }
+
+    /**
+     * Counts the items of a type that have a status, reading only the type and status columns.
+     *
+     * @param type   the item type
+     * @param status the status
+     * @return number of matching items
+     */
+    public int countByStatus(TaskType type, TaskStatus status) {
+        byte wantedType = (byte) type.ordinal();
+        byte wantedStatus = (byte) status.ordinal();
+        int count = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            // no branch on the data: statuses are usually mixed, so a branch would mispredict often
+            count += (types[slot] == wantedType) & (statuses[slot] == wantedStatus) ? 1 : 0;
+        }
+        return count;
+    }
+
+    /**
+     * Sums the durations of the items of a type that occupy a time window, reading only the type, end and
+     * duration columns. For epics this is the sum of their subtasks' durations.
+     *
+     * @param type the item type
+     * @return total minutes; {@code 0} if no such item is scheduled
+     */
+    public long getScheduledMinutes(TaskType type) {
+        byte wantedType = (byte) type.ordinal();
+        long total = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (types[slot] == wantedType && endMinutes[slot] != Task.NO_TIME
+                    && durationMinutes[slot] != NO_DURATION) {
+                total += durationMinutes[slot];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Sweeps the tasks and subtasks in start order and tells whether any two time windows overlap.
+     * <p>Useful for diagnostics; the checks on every mutation keep this false.</p>
+     *
+     * @return true if any overlap exists; false otherwise
+     */
+    public boolean hasOverlappingTasks() {
+        long maxEnd = Task.NO_TIME;
+        for (long key : prioritizedKeys()) {
+            int slot = slotOfKey(key);
+            if (maxEnd != Task.NO_TIME && startMinutes[slot] <= maxEnd) {
+                return true;
+            }
+            maxEnd = Math.max(maxEnd, endMinutes[slot]);
+        }
+        return false;
+    }
+
+    // --- Slots ---
+
+    /**
+     * Returns the slot of an item of a type.
+     *
+     * @param id   the item ID
+     * @param type the expected type, or {@link #FREE} for any
+     * @return the slot, or {@code -1} if there is no such item
+     */
+    private int slotOf(int id, byte type) {
+        int slot = (int) slots.get(id, -1L);
+        return slot >= 0 && (type == FREE || types[slot] == type) ? slot : -1;
+    }
+
+    /** Stores a new item in the next slot; its ID must be greater than every stored one. */
+    private int append(Task item, byte type, int epicId) {
+        if (slotCount == ids.length) {
+            allocate(ids.length * 2);
+        }
+        int slot = slotCount++;
+        ids[slot] = item.getId();
+        types[slot] = type;
+        epicIds[slot] = epicId;
+        texts[2 * slot] = StringArena.NONE;
+        texts[2 * slot + 1] = StringArena.NONE;
+        subtaskIds[slot] = type == EPIC ? NO_IDS : null;
+        subtaskCounts[slot] = 0;
+        write(slot, item);
+        slots.put(item.getId(), slot);
+        counts[type]++;
+        return slot;
+    }
+
+    /** Copies the fields of an item into a slot (for an epic only when it is created; later they are derived). */
+    private void write(int slot, Task item) {
+        writeText(slot, item);
+        statuses[slot] = item.getStatus() == null ? NO_STATUS : (byte) item.getStatus().ordinal();
+        startMinutes[slot] = item.getStartMinute();
+        endMinutes[slot] = item.getEndMinute();
+        long duration = item.getDurationMinutes();
+        durationMinutes[slot] = duration == Task.NO_TIME ? NO_DURATION : (int) duration;
+        if (item instanceof Subtask subtask) {
+            epicIds[slot] = subtask.getEpicId();
+        }
+    }
+
+    /** Stores name and description, keeping the arena text that is unchanged. */
+    private void writeText(int slot, Task item) {
+        setText(2 * slot, item.getName());
+        setText(2 * slot + 1, item.getDescription());
+    }
+
+    private void setText(int index, String value) {
+        if (!arena.matches(texts[index], value)) {
+            arena.free(texts[index]);
+            texts[index] = arena.add(value);
+        }
+    }
+
+    /** Marks a slot as deleted: no type, no text and no time window, so scans skip it without a type check. */
+    private void free(int slot) {
+        counts[types[slot]]--;
+        slots.remove(ids[slot]);
+        arena.free(texts[2 * slot]);
+        arena.free(texts[2 * slot + 1]);
+        texts[2 * slot] = StringArena.NONE;
+        texts[2 * slot + 1] = StringArena.NONE;
+        types[slot] = FREE;
+        statuses[slot] = NO_STATUS;
+        startMinutes[slot] = Task.NO_TIME;
+        endMinutes[slot] = Task.NO_TIME;
+        subtaskIds[slot] = null;
+        subtaskCounts[slot] = 0;
+        freedCount++;
+    }
+
+    /** Deletes every item of a type. */
+    private void freeAll(byte type) {
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (types[slot] == type) {
+                free(slot);
+            }
+        }
+    }
+
+    /**
+     * Moves the remaining items over deleted slots, in order, once half of the slots are deleted; shrinks the
+     * columns if they are mostly empty. Then compacts the arena if needed. Slots change, so this runs only at the
+     * end of a mutation.
+     */
+    private void compactIfSparse() {
+        if (freedCount >= MIN_FREED && freedCount * 2 >= slotCount) {
+            int kept = 0;
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (types[slot] == FREE) continue;
+                if (slot != kept) {
+                    move(slot, kept);
+                }
+                slots.put(ids[kept], kept);
+                kept++;
+            }
+            Arrays.fill(subtaskIds, kept, slotCount, null);
+            slotCount = kept;
+            freedCount = 0;
+            if (ids.length > INITIAL_CAPACITY && slotCount < ids.length / 4) {
+                allocate(Math.max(INITIAL_CAPACITY, slotCount * 2));
+            }
+        }
+        compactTextIfSparse();
+    }
+
+    private void compactTextIfSparse() {
+        if (arena.needsCompaction()) {
+            arena.compact(texts, 2 * slotCount);
+        }
+    }
+
+    private void move(int from, int to) {
+        ids[to] = ids[from];
+        types[to] = types[from];
+        statuses[to] = statuses[from];
+        startMinutes[to] = startMinutes[from];
+        endMinutes[to] = endMinutes[from];
+        durationMinutes[to] = durationMinutes[from];
+        epicIds[to] = epicIds[from];
+        texts[2 * to] = texts[2 * from];
+        texts[2 * to + 1] = texts[2 * from + 1];
+        subtaskIds[to] = subtaskIds[from];
+        subtaskCounts[to] = subtaskCounts[from];
+    }
+
+    /** Resizes every column to the given number of slots (at least {@link #slotCount}). */
+    private void allocate(int capacity) {
+        if (ids == null) {
+            ids = new int[capacity];
+            types = new byte[capacity];
+            statuses = new byte[capacity];
+            startMinutes = new long[capacity];
+            endMinutes = new long[capacity];
+            durationMinutes = new int[capacity];
+            epicIds = new int[capacity];
+            texts = new long[2 * capacity];
+            subtaskIds = new int[capacity][];
+            subtaskCounts = new int[capacity];
+            return;
+        }
+        ids = Arrays.copyOf(ids, capacity);
+        types = Arrays.copyOf(types, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        startMinutes = Arrays.copyOf(startMinutes, capacity);
+        endMinutes = Arrays.copyOf(endMinutes, capacity);
+        durationMinutes = Arrays.copyOf(durationMinutes, capacity);
+        epicIds = Arrays.copyOf(epicIds, capacity);
+        texts = Arrays.copyOf(texts, 2 * capacity);
+        subtaskIds = Arrays.copyOf(subtaskIds, capacity);
+        subtaskCounts = Arrays.copyOf(subtaskCounts, capacity);
+    }
+
+    // --- Objects at the boundary ---
+
+    /** Creates the item of a slot and records it in history; {@code null} for slot {@code -1}. */
+    private <T extends Task> T view(int slot) {
+        if (slot < 0) {
+            return null;
+        }
+        T item = materialize(slot);
+        historyManager.add(item);
+        return item;
+    }
+
+    /** Creates the items of a type, in slot order. */
+    private <T extends Task> List<T> materializeAll(byte type) {
+        List<T> result = new ArrayList<>(counts[type]);
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (types[slot] == type) {
+                result.add(materialize(slot));
+            }
+        }
+        return result;
+    }
+
+    /** Creates a new object with the fields of a slot. */
+    @SuppressWarnings("unchecked")
+    private <T extends Task> T materialize(int slot) {
+        int id = ids[slot];
+        String name = arena.get(texts[2 * slot]);
+        String description = arena.get(texts[2 * slot + 1]);
+        TaskStatus status = statuses[slot] == NO_STATUS ? null : STATUSES[statuses[slot]];
+        Task item = switch (TYPES[types[slot]]) {
+            case TASK -> new Task(id, name, description, status, null, null);
+            case SUBTASK -> new Subtask(id, name, description, status, epicIds[slot], null, null);
+            case EPIC -> {
+                Epic epic = new Epic(id, name, description, status, null, null);
+                List<Integer> children = new ArrayList<>(subtaskCounts[slot]);
+                for (int i = 0; i < subtaskCounts[slot]; i++) {
+                    children.add(subtaskIds[slot][i]);
+                }
+                epic.addSubtaskIds(children);
+                epic.setEndMinute(endMinutes[slot]);
+                yield epic;
+            }
+        };
+        item.setDurationMinutes(durationMinutes[slot] == NO_DURATION ? Task.NO_TIME : durationMinutes[slot]);
+        item.setStartMinute(startMinutes[slot]);
+        return (T) item;
+    }
+
+    /** Copies a batch, dropping {@code null} elements. */
+    private static <T extends Task> List<T> withoutNulls(Collection<T> batch) {
+        List<T> items = new ArrayList<>(batch.size());
+        for (T item : batch) {
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    /** Collects the IDs of a batch. */
+    private static Set<Integer> idsOf(List<? extends Task> items) {
+        Set<Integer> ids = new HashSet<>();
+        items.forEach(item -> ids.add(item.getId()));
+        return ids;
+    }
+
+    // --- Epics ---
+
+    private void addSubtaskId(int epicSlot, int subtaskId) {
+        int[] children = subtaskIds[epicSlot];
+        int count = subtaskCounts[epicSlot];
+        for (int i = 0; i < count; i++) {
+            if (children[i] == subtaskId) {
+                return;
+            }
+        }
+        if (count == children.length) {
+            children = Arrays.copyOf(children, Math.max(4, count + (count >> 1)));
+            subtaskIds[epicSlot] = children;
+        }
+        children[count] = subtaskId;
+        subtaskCounts[epicSlot] = count + 1;
+    }
+
+    private void removeSubtaskId(int epicSlot, int subtaskId) {
+        int[] children = subtaskIds[epicSlot];
+        int count = subtaskCounts[epicSlot];
+        for (int i = 0; i < count; i++) {
+            if (children[i] == subtaskId) {
+                System.arraycopy(children, i + 1, children, i, count - i - 1);
+                subtaskCounts[epicSlot] = count - 1;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Recalculates the status and time columns of an epic from its subtasks, with the rules of
+     * {@link InMemoryTaskManager}: status {@code NEW} if all subtasks are new (or there are none), {@code DONE} if
+     * all are done, otherwise {@code IN_PROGRESS}; duration is the sum of the subtask durations, start the
+     * earliest subtask start, end the latest subtask end.
+     *
+     * @throws IllegalArgumentException if the total duration does not fit into {@code int} minutes
+     */
+    private void recalculateEpic(int epicSlot) {
+        int count = subtaskCounts[epicSlot];
+        int newCount = 0;
+        int doneCount = 0;
+        boolean hasInProgress = false;
+        long total = 0;
+        long earliest = Long.MAX_VALUE;
+        long latest = Task.NO_TIME;
+        for (int i = 0; i < count; i++) {
+            int slot = slotOf(subtaskIds[epicSlot][i], SUBTASK);
+            if (slot < 0) continue;
+            byte status = statuses[slot];
+            if (status == NEW) {
+                newCount++;
+            } else if (status == DONE) {
+                doneCount++;
+            } else if (status == IN_PROGRESS) {
+                hasInProgress = true;
+            }
+            if (durationMinutes[slot] != NO_DURATION) {
+                total += durationMinutes[slot];
+            }
+            if (startMinutes[slot] != Task.NO_TIME) {
+                earliest = Math.min(earliest, startMinutes[slot]);
+                latest = Math.max(latest, endMinutes[slot]);
+            }
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Duration is too long: " + total + " min");
+        }
+
+        TaskStatus status;
+        if (hasInProgress || (newCount > 0 && doneCount > 0)) {
+            status = TaskStatus.IN_PROGRESS;
+        } else if (newCount == count) {
+            status = TaskStatus.NEW;
+        } else if (doneCount == count) {
+            status = TaskStatus.DONE;
+        } else {
+            status = TaskStatus.IN_PROGRESS;
+        }
+        statuses[epicSlot] = (byte) status.ordinal();
+        durationMinutes[epicSlot] = (int) total;
+        startMinutes[epicSlot] = earliest == Long.MAX_VALUE ? Task.NO_TIME : earliest;
+        endMinutes[epicSlot] = latest;
+    }
+
+    // --- Prioritization and overlap ---
+
+    /**
+     * @return priority keys of the timed tasks and subtasks, built from start and slot, in ascending order
+     */
+    private long[] prioritizedKeys() {
+        long[] keys = new long[counts[TASK] + counts[SUBTASK]];
+        int size = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (startMinutes[slot] != Task.NO_TIME && types[slot] != EPIC) {
+                keys[size++] = InMemoryTaskManager.priorityKey(startMinutes[slot], slot);
+            }
+        }
+        keys = Arrays.copyOf(keys, size);
+        Arrays.sort(keys);
+        return keys;
+    }
+
+    private static int slotOfKey(long key) {
+        return (int) key ^ Integer.MIN_VALUE;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the task starts outside the range that priority keys can hold
+     */
+    private static void checkStartInRange(Task task) {
+        long start = task.getStartMinute();
+        if (start != Task.NO_TIME
+                && (start < InMemoryTaskManager.MIN_START_MINUTE || start > InMemoryTaskManager.MAX_START_MINUTE)) {
+            throw new IllegalArgumentException("Start time is out of the supported range: " + task.getStartTime());
+        }
+    }
+
+    /**
+     * Checks whether the item's time window overlaps a stored task or subtask other than itself (inclusive bounds),
+     * in one pass over the end, start and type columns. Deleted slots and items without a window have
+     * {@link Task#NO_TIME} as end, which fails the first comparison. Slow checks are reported as
+     * {@link OverlapCheckEvent}s.
+     *
+     * @throws IllegalArgumentException if the item starts outside the range that priority keys can hold
+     */
+    private boolean hasOverlapping(Task item) {
+        checkStartInRange(item);
+        if (!item.hasTimeWindow()) {
+            return false;
+        }
+        OverlapCheckEvent event = new OverlapCheckEvent();
+        event.begin();
+        long start = item.getStartMinute();
+        long end = item.getEndMinute();
+        int id = item.getId();
+        int slot = 0;
+        boolean found = false;
+        for (; slot < slotCount; slot++) {
+            if (endMinutes[slot] >= start && startMinutes[slot] <= end && types[slot] != EPIC && ids[slot] != id) {
+                found = true;
+                break;
+            }
+        }
+        if (event.shouldCommit()) {
+            event.taskId = id;
+            event.itemsScanned = slot;
+            event.overlapFound = found;
+            event.commit();
+        }
+        return found;
+    }
+
+    /**
+     * Validates a batch against the stored items and against itself.
+     * <p>The timed batch items are sorted by start and checked against each other in one sweep. For the stored
+     * items, one pass over the columns looks up each window among the batch windows that start no later than its
+     * end (a binary search) and compares it with the latest end among them. Cost: {@code O(k log k + n log k)}
+     * for {@code k} batch items and {@code n} slots.</p>
+     *
+     * @param batch    items to be stored
+     * @param replaced IDs whose current entries are replaced by the batch (ignored on the stored side)
+     * @param message  the overlap error message
+     * @throws IllegalArgumentException if any overlap involving a batch item exists, or an item starts outside
+     *                                  the range that priority keys can hold
+     */
+    private void validateBatch(List<? extends Task> batch, Set<Integer> replaced, String message) {
+        batch.forEach(ColumnarTaskManager::checkStartInRange);
+        long[] starts = new long[batch.size()];
+        long[] ends = new long[batch.size()];
+        int size = 0;
+        for (Task item : batch.stream()
+                .filter(Task::hasTimeWindow)
+                .sorted((t1, t2) -> Long.compare(t1.getStartMinute(), t2.getStartMinute()))
+                .toList()) {
+            starts[size] = item.getStartMinute();
+            // ends[i] becomes the latest end of items 0..i
+            ends[size] = size == 0 ? item.getEndMinute() : Math.max(ends[size - 1], item.getEndMinute());
+            if (size > 0 && starts[size] <= ends[size - 1]) {
+                throw new IllegalArgumentException(message);
+            }
+            size++;
+        }
+        if (size == 0) return;
+
+        for (int slot = 0; slot < slotCount; slot++) {
+            long end = endMinutes[slot];
+            if (end == Task.NO_TIME || types[slot] == EPIC) continue;
+            int before = upperBound(starts, size, end);
+            if (before > 0 && ends[before - 1] >= startMinutes[slot] && !replaced.contains(ids[slot])) {
+                throw new IllegalArgumentException(message);
+            }
+        }
+    }
+
+    /** @return number of the first {@code size} sorted values that are at most {@code value} */
+    private static int upperBound(long[] sorted, int size, long value) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
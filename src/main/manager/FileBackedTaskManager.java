@@ -1,16 +1,22 @@
 package manager;
 
+import diagnostics.LoadEvent;
+import diagnostics.SaveEvent;
 import exception.ManagerSaveException;
 import history.HistoryManager;
 import history.InMemoryHistoryManager;
 import model.Epic;
 import model.Subtask;
 import model.Task;
+import util.StringPool;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
 import java.util.List;
 
 import static model.TaskCSVUtil.fromCSVString;
@@ -18,10 +24,29 @@ import static model.TaskCSVUtil.toCSVString;
 
 /**
  * Task manager that extends {@link InMemoryTaskManager} and adds file persistence.
- * It automatically saves the task state to a CSV file on each mutation and can restore state from it.
+ * It automatically saves the task state to a CSV file on each mutation (or once per transaction or batch)
+ * and can restore state from it.
+ * <p>
+ * View history is kept next to the CSV file in {@code <file>.history}: an append-only log with one ID
+ * per line. Viewing an item appends a single line instead of rewriting the snapshot; {@link #save()}
+ * compacts the log down to the current history, and {@link #loadFromFile(Path, HistoryManager)} replays it.
  */
 public class FileBackedTaskManager extends InMemoryTaskManager {
+
+    /** Suffix appended to the CSV file name to get the history log. */
+    static final String HISTORY_SUFFIX = ".history";
+
+    /** Number of uncompacted log lines after which a view compacts the log by itself. */
+    private static final int HISTORY_LOG_LIMIT = 10_000;
+
     private final Path path;
+    private final Path historyPath;
+
+    /** Lines appended to the history log since it was last compacted. */
+    private int uncompactedViews;
+
+    /** Duration of the last {@link #save()}; read by metrics gauges from other threads. */
+    private volatile long lastSaveDurationNanos;
 
     /**
      * Creates a new file-backed task manager with a specific file path and history manager.
@@ -32,46 +57,200 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
     public FileBackedTaskManager(HistoryManager historyManager, Path path) {
         super(historyManager);
         this.path = path;
+        this.historyPath = historyPathOf(path);
+    }
+
+    /**
+     * Returns the history log that belongs to the given CSV file.
+     *
+     * @param path the CSV file
+     * @return the sibling {@code <file>.history} path
+     */
+    public static Path historyPathOf(Path path) {
+        return path.resolveSibling(path.getFileName() + HISTORY_SUFFIX);
     }
 
     /**
      * Saves the current state of all tasks, epics, and subtasks to the specified file in CSV format.
-     * Throws {@link ManagerSaveException} if the file cannot be written.
+     * Throws {@link ManagerSaveException} if the file cannot be written. Reported as a {@link SaveEvent}.
      */
     protected void save() {
+        SaveEvent event = new SaveEvent();
+        event.begin();
+        long start = System.nanoTime();
+        int rows = 0;
         try (BufferedWriter writer = Files.newBufferedWriter(path)) {
             writer.write("id,type,name,status,description,epic\n");
 
             for (Task task : getAllTasks()) {
                 writer.write(toCSVString(task));
                 writer.newLine();
+                rows++;
             }
 
             for (Epic epic : getAllEpics()) {
                 writer.write(toCSVString(epic));
                 writer.newLine();
+                rows++;
             }
 
             for (Subtask subtask : getAllSubtasks()) {
                 writer.write(toCSVString(subtask));
                 writer.newLine();
+                rows++;
             }
 
         } catch (IOException e) {
             throw new ManagerSaveException("Ошибка при сохранении в файл: " + path, e);
         }
+        boolean compacted = uncompactedViews > 0;
+        if (compacted) {
+            compactHistory();
+        }
+        lastSaveDurationNanos = System.nanoTime() - start;
+        if (event.shouldCommit()) {
+            event.path = path.toString();
+            event.rowsWritten = rows;
+            event.historyCompacted = compacted;
+            event.commit();
+        }
     }
 
     /**
-     * Loads tasks from a file and recreates the task manager state, including epics and subtasks.
-     * The file should be in the CSV format used by {@link #save()}.
+     * @return how long the last save took, in nanoseconds; {@code 0} before the first save
+     */
+    public long getLastSaveDurationNanos() {
+        return lastSaveDurationNanos;
+    }
+
+    /**
+     * Appends a viewed ID to the history log; compacts the log once it grows past {@link #HISTORY_LOG_LIMIT}.
+     * Throws {@link ManagerSaveException} if the log cannot be written.
+     */
+    private void recordView(int id) {
+        if (++uncompactedViews > HISTORY_LOG_LIMIT) {
+            compactHistory();
+            return;
+        }
+        try {
+            Files.write(historyPath, (id + "\n").getBytes(StandardCharsets.US_ASCII),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при записи истории: " + historyPath, e);
+        }
+    }
+
+    /**
+     * Rewrites the history log with the current history only, oldest first.
+     * Throws {@link ManagerSaveException} if the log cannot be written.
+     */
+    private void compactHistory() {
+        try (BufferedWriter writer = Files.newBufferedWriter(historyPath)) {
+            for (Task task : getHistoryManager().getHistory()) {
+                writer.write(Integer.toString(task.getId()));
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка при записи истории: " + historyPath, e);
+        }
+        uncompactedViews = 0;
+    }
+
+    /**
+     * Replays the history log into the history manager. IDs that no longer exist are skipped.
+     */
+    private void replayHistory() throws IOException {
+        if (!Files.exists(historyPath)) {
+            return;
+        }
+        List<String> lines = Files.readAllLines(historyPath);
+        for (String line : lines) {
+            if (line.isBlank()) {
+                continue;
+            }
+            int id;
+            try {
+                id = Integer.parseInt(line.trim());
+            } catch (NumberFormatException e) {
+                continue; // a torn last line after a crash
+            }
+            Task task = findById(id);
+            if (task != null) {
+                getHistoryManager().restore(task);
+            }
+        }
+        uncompactedViews = Math.max(0, lines.size() - getHistoryManager().getHistory().size());
+    }
+
+    private Task findById(int id) {
+        Task task = getTasks().get(id);
+        if (task == null) {
+            task = getEpics().get(id);
+        }
+        if (task == null) {
+            task = getSubtasks().get(id);
+        }
+        return task;
+    }
+
+    /**
+     * Saves after a single mutation, unless a transaction is active:
+     * transactional changes are saved once, on commit (see {@link #afterCommit()}).
+     */
+    private void autoSave() {
+        if (!isInTransaction()) {
+            save();
+        }
+    }
+
+    /** Persists the result of a committed transaction with a single save. */
+    @Override
+    protected void afterCommit() {
+        save();
+    }
+
+    /**
+     * Loads tasks from a file and recreates the task manager state, including epics, subtasks and history,
+     * using a new {@link InMemoryHistoryManager}.
      *
      * @param path the path to the file to load
      * @return a new {@code FileBackedTaskManager} instance containing the loaded tasks
      * @throws ManagerSaveException if loading from the file fails
      */
     public static FileBackedTaskManager loadFromFile(Path path) {
-        FileBackedTaskManager manager = new FileBackedTaskManager(new InMemoryHistoryManager(), path);
+        return loadFromFile(path, new InMemoryHistoryManager());
+    }
+
+    /**
+     * Loads tasks from a file and recreates the task manager state, including epics and subtasks.
+     * The file should be in the CSV format used by {@link #save()}. If a history log exists next to it,
+     * it is replayed into the given history manager. Reported as a {@link LoadEvent}.
+     *
+     * @param path           the path to the file to load
+     * @param historyManager the (empty) history manager to restore history into
+     * @return a new {@code FileBackedTaskManager} instance containing the loaded tasks
+     * @throws ManagerSaveException if loading from the file fails
+     */
+    public static FileBackedTaskManager loadFromFile(Path path, HistoryManager historyManager) {
+        return loadFromFile(path, historyManager, null);
+    }
+
+    /**
+     * Loads tasks from a file like {@link #loadFromFile(Path, HistoryManager)}, deduplicating names and
+     * descriptions through a pool while parsing. The pool stays set on the manager for later creates and updates
+     * (see {@link #setStringPool(StringPool)}).
+     *
+     * @param path           the path to the file to load
+     * @param historyManager the (empty) history manager to restore history into
+     * @param pool           the string pool, or {@code null} for no deduplication
+     * @return a new {@code FileBackedTaskManager} instance containing the loaded tasks
+     * @throws ManagerSaveException if loading from the file fails
+     */
+    public static FileBackedTaskManager loadFromFile(Path path, HistoryManager historyManager, StringPool pool) {
+        LoadEvent event = new LoadEvent();
+        event.begin();
+        FileBackedTaskManager manager = new FileBackedTaskManager(historyManager, path);
+        manager.setStringPool(pool);
 
         try {
             List<String> lines = Files.readAllLines(path);
@@ -79,7 +258,7 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
 
             for (int i = 1; i < lines.size(); i++) {
                 String line = lines.get(i);
-                Task task = fromCSVString(line);
+                Task task = fromCSVString(line, pool);
 
                 maxId = Math.max(maxId, task.getId());
 
@@ -98,7 +277,14 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
             manager.rebuildDerivedState();
 
             manager.setNextId(maxId + 1);
+            manager.replayHistory();
 
+            if (event.shouldCommit()) {
+                event.path = path.toString();
+                event.rowsRead = Math.max(0, lines.size() - 1);
+                event.historyEntries = historyManager.getHistory().size();
+                event.commit();
+            }
         } catch (IOException e) {
             throw new ManagerSaveException("Ошибка при загрузке из файла: " + path, e);
         }
@@ -106,80 +292,143 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
         return manager;
     }
 
+    // --- Overridden read methods: views are appended to the history log ---
+
+    @Override
+    public Task getTaskById(int id) {
+        Task result = super.getTaskById(id);
+        if (result != null) {
+            recordView(id);
+        }
+        return result;
+    }
+
+    @Override
+    public Epic getEpicById(int id) {
+        Epic result = super.getEpicById(id);
+        if (result != null) {
+            recordView(id);
+        }
+        return result;
+    }
+
+    @Override
+    public Subtask getSubtaskById(int id) {
+        Subtask result = super.getSubtaskById(id);
+        if (result != null) {
+            recordView(id);
+        }
+        return result;
+    }
+
     // --- Overridden mutation methods with file persistence ---
 
     @Override
     public Task createTask(Task task) {
         Task result = super.createTask(task);
-        save();
+        autoSave();
         return result;
     }
 
     @Override
     public Epic createEpic(Epic epic) {
         Epic result = super.createEpic(epic);
-        save();
+        autoSave();
         return result;
     }
 
     @Override
     public Subtask createSubtask(Subtask subtask) {
         Subtask result = super.createSubtask(subtask);
-        save();
+        autoSave();
         return result;
     }
 
     @Override
     public void updateTask(Task task) {
         super.updateTask(task);
-        save();
+        autoSave();
     }
 
     @Override
     public void updateEpic(Epic epic) {
         super.updateEpic(epic);
-        save();
+        autoSave();
     }
 
     @Override
     public void updateSubtask(Subtask subtask) {
         super.updateSubtask(subtask);
-        save();
+        autoSave();
     }
 
     @Override
     public void deleteTaskById(int id) {
         super.deleteTaskById(id);
-        save();
+        autoSave();
     }
 
     @Override
     public void deleteEpicById(int id) {
         super.deleteEpicById(id);
-        save();
+        autoSave();
     }
 
     @Override
     public void deleteSubtaskById(int id) {
         super.deleteSubtaskById(id);
-        save();
+        autoSave();
     }
 
     @Override
     public void removeAllTasks() {
         super.removeAllTasks();
-        save();
+        autoSave();
     }
 
     @Override
     public void removeAllEpics() {
         super.removeAllEpics();
-        save();
+        autoSave();
     }
 
     @Override
     public void removeAllSubtasks() {
         super.removeAllSubtasks();
-        save();
+        autoSave();
+    }
+
+    // --- Bulk methods: one save per batch ---
+
+    @Override
+    public List<Task> createTasks(Collection<Task> tasks) {
+        List<Task> result = super.createTasks(tasks);
+        autoSave();
+        return result;
+    }
+
+    @Override
+    public List<Subtask> createSubtasks(Collection<Subtask> subtasks) {
+        List<Subtask> result = super.createSubtasks(subtasks);
+        autoSave();
+        return result;
+    }
+
+    @Override
+    public void updateTasks(Collection<Task> tasks) {
+        super.updateTasks(tasks);
+        autoSave();
+    }
+
+    @Override
+    public void updateSubtasks(Collection<Subtask> subtasks) {
+        super.updateSubtasks(subtasks);
+        autoSave();
+    }
+
+    @Override
+    public void deleteByIds(Collection<Integer> ids) {
+        super.deleteByIds(ids);
+        autoSave();
     }
 }
@@ -1,14 +1,25 @@
 package manager;
 
+import diagnostics.EpicRecalculationEvent;
+import diagnostics.OverlapCheckEvent;
+import diagnostics.RebuildDerivedStateEvent;
 import history.HistoryManager;
 import model.Epic;
 import model.Subtask;
 import model.Task;
 import model.TaskStatus;
+import model.TaskType;
+import util.IntLongHashMap;
+import util.SortedLongMap;
+import util.StringPool;
 
-import java.time.Duration;
-import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
 
 /**
  * In-memory {@link TaskManager} implementation.
@@ -21,11 +32,15 @@ import java.util.*;
  *   <li>Recalculates epic status and time fields ({@code duration}, {@code startTime}, {@code endTime}).</li>
  *   <li>Prevents time overlaps between tasks/subtasks on create/update.</li>
  *   <li>Integrates with {@link HistoryManager} for view history.</li>
+ *   <li>Applies groups of mutations atomically via {@link #inTransaction(Consumer)}.</li>
+ *   <li>Publishes a {@link TaskEvent} stream of all changes via {@link #subscribe(Flow.Subscriber)}.</li>
+ *   <li>Versions its state: a global revision, per-item revisions and a bounded change log
+ *       (see {@link VersionedTaskManager}).</li>
  * </ul>
  *
  * <p><strong>Thread-safety:</strong> not thread-safe.</p>
  */
-public class InMemoryTaskManager implements TaskManager {
+public class InMemoryTaskManager implements VersionedTaskManager {
 
     /** Regular tasks by ID. */
     private final Map<Integer, Task> tasks;
@@ -42,17 +57,78 @@ public class InMemoryTaskManager implements TaskManager {
     /** History manager for tracking recently viewed items. */
     private final HistoryManager historyManager;
 
+    /** Undo log of the active transaction; {@code null} outside {@link #inTransaction(Consumer)}. */
+    private UndoLog transaction;
+
+    /** Publisher of {@link TaskEvent}s; created on first subscription. */
+    private SubmissionPublisher<TaskEvent> events;
+
+    /** Per-subscriber buffer capacity of {@link #events}. */
+    private int eventBufferCapacity = Flow.defaultBufferSize();
+
+    /** Sequence number of the last change; doubles as the global revision. */
+    private long eventSequence;
+
+    /** Default number of changes kept for {@link #getChangesSince(long)}. */
+    public static final int DEFAULT_CHANGE_LOG_CAPACITY = 4096;
+
+    /** Revision of the last change per existing item (absent: unchanged since load), kept unboxed. */
+    private final IntLongHashMap revisions = new IntLongHashMap();
+
+    /** Change log ring: item ID and type of change {@code r} live at index {@code r % capacity}. */
+    private int[] changedIds = new int[DEFAULT_CHANGE_LOG_CAPACITY];
+    private TaskType[] changedTypes = new TaskType[DEFAULT_CHANGE_LOG_CAPACITY];
+
+    /** Number of most recent changes held by the change log. */
+    private int changeLogSize;
+
+    /** Events of a transaction being applied; published on commit, discarded on rollback. */
+    private List<TaskEvent> pendingEvents;
+
+    /** Number of events dropped because a subscriber's buffer was full. */
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    /** Deduplicates names and descriptions of stored items; {@code null} if off. */
+    private StringPool stringPool;
+
+    /** Drop handler for {@link SubmissionPublisher#offer}: counts the loss and does not retry. */
+    private final BiPredicate<Flow.Subscriber<? super TaskEvent>, TaskEvent> dropCounter = (subscriber, event) -> {
+        droppedEvents.incrementAndGet();
+        return false;
+    };
+
+    /**
+     * Priority order: by {@code startTime} (ascending, {@code null} last), then by {@code id}.
+     * Shared with managers that merge several prioritized views (see {@link ShardedTaskManager}).
+     */
+    static final Comparator<Task> PRIORITY_ORDER = (t1, t2) -> {
+        long start1 = t1.getStartMinute();
+        long start2 = t2.getStartMinute();
+        if (start1 == start2) return Integer.compare(t1.getId(), t2.getId());
+        if (start1 == Task.NO_TIME) return 1;
+        if (start2 == Task.NO_TIME) return -1;
+        return Long.compare(start1, start2);
+    };
+
     /**
-     * Prioritized set of tasks and subtasks sorted by {@code startTime} (ascending), then by {@code id}.
+     * Earliest and latest start minute the prioritized index can hold (about years -2113 to 6053): the start
+     * must fit into the upper half of a {@link #priorityKey(long, int) priority key}.
+     */
+    static final long MIN_START_MINUTE = Integer.MIN_VALUE;
+    static final long MAX_START_MINUTE = Integer.MAX_VALUE;
+
+    /**
+     * Prioritized tasks and subtasks by {@link #priorityKey(long, int) priority key}, which orders them like
+     * {@link #PRIORITY_ORDER}. Comparisons while inserting, removing and iterating are plain {@code long} ones.
      * <p>Epics are not added here. Items with {@code null startTime} are excluded.</p>
      */
-    private final Set<Task> prioritizedTasks = new TreeSet<>((t1, t2) -> {
-        if (t1.getStartTime() == null && t2.getStartTime() == null) return Integer.compare(t1.getId(), t2.getId());
-        if (t1.getStartTime() == null) return 1;
-        if (t2.getStartTime() == null) return -1;
-        int cmp = t1.getStartTime().compareTo(t2.getStartTime());
-        return (cmp != 0) ? cmp : Integer.compare(t1.getId(), t2.getId());
-    });
+    private final SortedLongMap<Task> prioritizedTasks = new SortedLongMap<>();
+
+    /**
+     * Key of every item in {@link #prioritizedTasks} by ID, so an entry can be removed after the stored object
+     * was replaced or changed in place.
+     */
+    private final IntLongHashMap prioritizedKeys = new IntLongHashMap();
 
     /**
      * Creates an in-memory task manager.
@@ -69,10 +145,12 @@ public class InMemoryTaskManager implements TaskManager {
 
     /**
      * Generates the next unique identifier.
+     * <p>Subclasses may override this to hand out IDs from a different sequence
+     * (e.g., a shard of {@link ShardedTaskManager}).</p>
      *
      * @return next available ID
      */
-    private int generateId() {
+    protected int generateId() {
         return nextId++;
     }
 
@@ -106,6 +184,34 @@ public class InMemoryTaskManager implements TaskManager {
         return subtasks;
     }
 
+    /**
+     * Returns the number of stored items of a type without copying them (e.g. for metrics gauges).
+     *
+     * @param type the item type
+     * @return number of tasks, epics or subtasks
+     */
+    public int getCount(TaskType type) {
+        return switch (type) {
+            case TASK -> tasks.size();
+            case EPIC -> epics.size();
+            case SUBTASK -> subtasks.size();
+        };
+    }
+
+    /**
+     * @return number of items in the prioritized list, without copying it
+     */
+    public int getPrioritizedCount() {
+        return prioritizedTasks.size();
+    }
+
+    /**
+     * Exposes the history manager to subclasses (e.g., to restore persisted history).
+     */
+    protected HistoryManager getHistoryManager() {
+        return historyManager;
+    }
+
     // --- Task methods ---
 
     /** {@inheritDoc} */
@@ -117,7 +223,10 @@ public class InMemoryTaskManager implements TaskManager {
     /** {@inheritDoc} */
     @Override
     public void removeAllTasks() {
+        tasks.keySet().forEach(this::journal);
+        removeTypeFromHistory(TaskType.TASK, tasks.keySet());
         tasks.values().forEach(this::removeFromPrioritizedTasks);
+        tasks.values().forEach(task -> emit(TaskEvent.Kind.DELETED, task));
         tasks.clear();
     }
 
@@ -143,8 +252,11 @@ public class InMemoryTaskManager implements TaskManager {
             throw new IllegalArgumentException("Task overlaps with an existing task");
         }
         task.setId(generateId());
+        journal(task.getId());
+        internStrings(task);
         tasks.put(task.getId(), task);
         updatePrioritizedTasks(task);
+        emit(TaskEvent.Kind.CREATED, task);
         return task;
     }
 
@@ -161,16 +273,22 @@ public class InMemoryTaskManager implements TaskManager {
         if (hasOverlapping(task)) {
             throw new IllegalArgumentException("Task update overlaps with an existing task");
         }
+        journal(task.getId());
+        internStrings(task);
         tasks.put(task.getId(), task);
         updatePrioritizedTasks(task);
+        emit(TaskEvent.Kind.UPDATED, task);
     }
 
     /** {@inheritDoc} */
     @Override
     public void deleteTaskById(int id) {
+        journal(id);
         Task removed = tasks.remove(id);
         if (removed != null) {
             removeFromPrioritizedTasks(removed);
+            emit(TaskEvent.Kind.DELETED, removed);
+            removeFromHistory(List.of(id));
         }
     }
 
@@ -185,7 +303,13 @@ public class InMemoryTaskManager implements TaskManager {
     /** {@inheritDoc} */
     @Override
     public void removeAllEpics() {
+        epics.keySet().forEach(this::journal);
+        subtasks.keySet().forEach(this::journal);
+        removeTypeFromHistory(TaskType.SUBTASK, subtasks.keySet());
+        removeTypeFromHistory(TaskType.EPIC, epics.keySet());
         subtasks.values().forEach(this::removeFromPrioritizedTasks);
+        subtasks.values().forEach(subtask -> emit(TaskEvent.Kind.DELETED, subtask));
+        epics.values().forEach(epic -> emit(TaskEvent.Kind.DELETED, epic));
         subtasks.clear();
         epics.clear();
     }
@@ -205,7 +329,10 @@ public class InMemoryTaskManager implements TaskManager {
     public Epic createEpic(Epic epic) {
         if (epic == null) return null;
         epic.setId(generateId());
+        journal(epic.getId());
+        internStrings(epic);
         epics.put(epic.getId(), epic);
+        emit(TaskEvent.Kind.CREATED, epic);
         updateEpicStatus(epic);
         return epic;
     }
@@ -216,24 +343,34 @@ public class InMemoryTaskManager implements TaskManager {
         if (epic == null || !epics.containsKey(epic.getId())) {
             return;
         }
+        journal(epic.getId());
         Epic existingEpic = epics.get(epic.getId());
         existingEpic.setName(epic.getName());
         existingEpic.setDescription(epic.getDescription());
+        internStrings(existingEpic);
+        emit(TaskEvent.Kind.UPDATED, existingEpic);
         // status/time fields are derived; see updateEpicStatus/updateEpicTimeFields
     }
 
     /** {@inheritDoc} */
     @Override
     public void deleteEpicById(int id) {
+        journal(id);
         Epic epicToRemove = epics.remove(id);
         if (epicToRemove != null) {
+            epicToRemove.getSubtaskIds().forEach(this::journal);
             epicToRemove.getSubtaskIds().forEach(stId -> {
                 Subtask removed = subtasks.remove(stId);
                 if (removed != null) {
                     removeFromPrioritizedTasks(removed);
+                    emit(TaskEvent.Kind.DELETED, removed);
                 }
             });
+            List<Integer> removedIds = new ArrayList<>(epicToRemove.getSubtaskIds());
+            removedIds.add(id);
             epicToRemove.clearSubtaskIds();
+            emit(TaskEvent.Kind.DELETED, epicToRemove);
+            removeFromHistory(removedIds);
         }
     }
 
@@ -254,8 +391,13 @@ public class InMemoryTaskManager implements TaskManager {
                 .distinct()
                 .toList();
 
-        // Clear prioritized and storage
+        subtasks.keySet().forEach(this::journal);
+        epicIdsToUpdate.forEach(this::journal);
+
+        // Clear history, prioritized and storage
+        removeTypeFromHistory(TaskType.SUBTASK, subtasks.keySet());
         subtasks.values().forEach(this::removeFromPrioritizedTasks);
+        subtasks.values().forEach(subtask -> emit(TaskEvent.Kind.DELETED, subtask));
         subtasks.clear();
 
         // Reset epics
@@ -299,7 +441,11 @@ public class InMemoryTaskManager implements TaskManager {
             throw new IllegalArgumentException("Subtask overlaps with an existing subtask");
         }
         subtask.setId(generateId());
+        journal(subtask.getId());
+        journal(parentEpic.getId());
+        internStrings(subtask);
         subtasks.put(subtask.getId(), subtask);
+        emit(TaskEvent.Kind.CREATED, subtask);
         parentEpic.addSubtaskId(subtask.getId());
         updateEpicStatus(parentEpic);
         updateEpicTimeFields(parentEpic);
@@ -332,6 +478,10 @@ public class InMemoryTaskManager implements TaskManager {
             throw new IllegalArgumentException("New parent epic with ID " + subtask.getEpicId() + " not found.");
         }
 
+        journal(subtask.getId());
+        journal(oldSubtask.getEpicId());
+        journal(newEpic.getId());
+
         // Rebind epic if changed
         if (oldSubtask.getEpicId() != subtask.getEpicId()) {
             if (oldEpic != null) {
@@ -342,7 +492,9 @@ public class InMemoryTaskManager implements TaskManager {
             newEpic.addSubtaskId(subtask.getId());
         }
 
+        internStrings(subtask);
         subtasks.put(subtask.getId(), subtask);
+        emit(TaskEvent.Kind.UPDATED, subtask);
         updateEpicStatus(newEpic);
         updateEpicTimeFields(newEpic);
         updatePrioritizedTasks(subtask);
@@ -351,8 +503,13 @@ public class InMemoryTaskManager implements TaskManager {
     /** {@inheritDoc} */
     @Override
     public void deleteSubtaskById(int id) {
-        Subtask removed = subtasks.remove(id);
+        Subtask removed = subtasks.get(id);
         if (removed != null) {
+            journal(id);
+            journal(removed.getEpicId());
+            subtasks.remove(id);
+            emit(TaskEvent.Kind.DELETED, removed);
+            removeFromHistory(List.of(id));
             Epic epic = epics.get(removed.getEpicId());
             if (epic != null) {
                 epic.removeSubtaskId(id);
@@ -376,12 +533,630 @@ public class InMemoryTaskManager implements TaskManager {
                 .toList();
     }
 
+    // --- Bulk methods ---
+
+    /**
+     * {@inheritDoc}
+     * <p>The batch is sorted once and checked with a single merge sweep against the prioritized set.</p>
+     *
+     * @throws IllegalArgumentException if a task overlaps with an existing item or another task of the batch
+     */
+    @Override
+    public List<Task> createTasks(Collection<Task> batch) {
+        List<Task> items = withoutNulls(batch);
+        validateBatch(items, Set.of(), "Task overlaps with an existing task");
+        for (Task task : items) {
+            task.setId(generateId());
+            journal(task.getId());
+            internStrings(task);
+            tasks.put(task.getId(), task);
+            updatePrioritizedTasks(task);
+            emit(TaskEvent.Kind.CREATED, task);
+        }
+        return items;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if:
+     *   <ul>
+     *     <li>a referenced epic does not exist;</li>
+     *     <li>a subtask overlaps with an existing item or another subtask of the batch.</li>
+     *   </ul>
+     */
+    @Override
+    public List<Subtask> createSubtasks(Collection<Subtask> batch) {
+        List<Subtask> items = withoutNulls(batch);
+        for (Subtask subtask : items) {
+            if (!epics.containsKey(subtask.getEpicId())) {
+                throw new IllegalArgumentException("Epic with ID " + subtask.getEpicId() + " not found.");
+            }
+        }
+        validateBatch(items, Set.of(), "Subtask overlaps with an existing subtask");
+
+        Map<Integer, List<Integer>> newIdsByEpic = new LinkedHashMap<>();
+        for (Subtask subtask : items) {
+            subtask.setId(generateId());
+            journal(subtask.getId());
+            internStrings(subtask);
+            subtasks.put(subtask.getId(), subtask);
+            updatePrioritizedTasks(subtask);
+            emit(TaskEvent.Kind.CREATED, subtask);
+            newIdsByEpic.computeIfAbsent(subtask.getEpicId(), k -> new ArrayList<>()).add(subtask.getId());
+        }
+        newIdsByEpic.forEach((epicId, ids) -> {
+            journal(epicId);
+            Epic epic = epics.get(epicId);
+            epic.addSubtaskIds(ids);
+            updateEpicStatus(epic);
+            updateEpicTimeFields(epic);
+        });
+        return items;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if an updated task overlaps with an existing item or another task of the batch
+     */
+    @Override
+    public void updateTasks(Collection<Task> batch) {
+        List<Task> items = lastPerId(withoutNulls(batch).stream()
+                .filter(task -> tasks.containsKey(task.getId()))
+                .toList());
+        validateBatch(items, idsOf(items), "Task update overlaps with an existing task");
+        for (Task task : items) {
+            journal(task.getId());
+            internStrings(task);
+            removeFromPrioritizedTasks(tasks.put(task.getId(), task));
+            updatePrioritizedTasks(task);
+            emit(TaskEvent.Kind.UPDATED, task);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if:
+     *   <ul>
+     *     <li>a referenced new epic does not exist;</li>
+     *     <li>an updated subtask overlaps with an existing item or another subtask of the batch.</li>
+     *   </ul>
+     */
+    @Override
+    public void updateSubtasks(Collection<Subtask> batch) {
+        List<Subtask> items = lastPerId(withoutNulls(batch).stream()
+                .filter(subtask -> subtasks.containsKey(subtask.getId()))
+                .toList());
+        for (Subtask subtask : items) {
+            if (!epics.containsKey(subtask.getEpicId())) {
+                throw new IllegalArgumentException("New parent epic with ID " + subtask.getEpicId() + " not found.");
+            }
+        }
+        validateBatch(items, idsOf(items), "Subtask update overlaps with an existing subtask");
+
+        Map<Integer, Epic> affected = new LinkedHashMap<>();
+        Map<Integer, Set<Integer>> movedOut = new HashMap<>();
+        Map<Integer, List<Integer>> movedIn = new HashMap<>();
+        for (Subtask subtask : items) {
+            journal(subtask.getId());
+            journal(subtask.getEpicId());
+            journal(subtasks.get(subtask.getId()).getEpicId());
+            internStrings(subtask);
+            Subtask oldSubtask = subtasks.put(subtask.getId(), subtask);
+            removeFromPrioritizedTasks(oldSubtask);
+            if (oldSubtask.getEpicId() != subtask.getEpicId()) {
+                movedOut.computeIfAbsent(oldSubtask.getEpicId(), k -> new HashSet<>()).add(subtask.getId());
+                movedIn.computeIfAbsent(subtask.getEpicId(), k -> new ArrayList<>()).add(subtask.getId());
+                Epic oldEpic = epics.get(oldSubtask.getEpicId());
+                if (oldEpic != null) {
+                    affected.put(oldEpic.getId(), oldEpic);
+                }
+            }
+            affected.put(subtask.getEpicId(), epics.get(subtask.getEpicId()));
+            updatePrioritizedTasks(subtask);
+            emit(TaskEvent.Kind.UPDATED, subtask);
+        }
+        movedOut.forEach((epicId, ids) -> {
+            Epic epic = epics.get(epicId);
+            if (epic != null) {
+                epic.removeSubtaskIds(ids);
+            }
+        });
+        movedIn.forEach((epicId, ids) -> epics.get(epicId).addSubtaskIds(ids));
+        affected.values().forEach(epic -> {
+            updateEpicStatus(epic);
+            updateEpicTimeFields(epic);
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void deleteByIds(Collection<Integer> ids) {
+        Map<Integer, Set<Integer>> removedByEpic = new HashMap<>();
+        Set<Integer> removedIds = new HashSet<>();
+        for (Integer id : ids) {
+            if (id == null) continue;
+            journal(id);
+            Task task = tasks.remove(id);
+            if (task != null) {
+                removeFromPrioritizedTasks(task);
+                emit(TaskEvent.Kind.DELETED, task);
+                removedIds.add(id);
+                continue;
+            }
+            Subtask subtask = subtasks.remove(id);
+            if (subtask != null) {
+                journal(subtask.getEpicId());
+                removeFromPrioritizedTasks(subtask);
+                emit(TaskEvent.Kind.DELETED, subtask);
+                removedByEpic.computeIfAbsent(subtask.getEpicId(), k -> new HashSet<>()).add(id);
+                removedIds.add(id);
+                continue;
+            }
+            Epic epic = epics.remove(id);
+            if (epic != null) {
+                for (int subtaskId : epic.getSubtaskIds()) {
+                    journal(subtaskId);
+                    Subtask removed = subtasks.remove(subtaskId);
+                    if (removed != null) {
+                        removeFromPrioritizedTasks(removed);
+                        emit(TaskEvent.Kind.DELETED, removed);
+                        removedIds.add(subtaskId);
+                    }
+                }
+                epic.clearSubtaskIds();
+                emit(TaskEvent.Kind.DELETED, epic);
+                removedIds.add(id);
+            }
+        }
+        removeFromHistory(removedIds);
+
+        removedByEpic.forEach((epicId, removed) -> {
+            Epic epic = epics.get(epicId);
+            if (epic != null) {
+                epic.removeSubtaskIds(removed);
+                updateEpicStatus(epic);
+                updateEpicTimeFields(epic);
+            }
+        });
+    }
+
+    /** Copies a batch, dropping {@code null} elements. */
+    /**
+     * Keeps one item per ID of an update batch, the last occurrence, so that an ID listed twice is not
+     * validated as overlapping itself. Items stay at the position of their ID's first occurrence.
+     */
+    static <T extends Task> List<T> lastPerId(List<T> items) {
+        Map<Integer, T> byId = new LinkedHashMap<>();
+        for (T item : items) {
+            byId.put(item.getId(), item);
+        }
+        return byId.size() == items.size() ? items : new ArrayList<>(byId.values());
+    }
+
+    private static <T extends Task> List<T> withoutNulls(Collection<T> batch) {
+        List<T> items = new ArrayList<>(batch.size());
+        for (T item : batch) {
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+
+    /** Collects the IDs of a batch. */
+    private static Set<Integer> idsOf(List<? extends Task> items) {
+        Set<Integer> ids = new HashSet<>();
+        items.forEach(item -> ids.add(item.getId()));
+        return ids;
+    }
+
+    // region Transactions
+
+    /**
+     * Applies several mutations atomically.
+     * <p>Operations are applied to the live state as usual (so later operations see earlier ones and are
+     * validated against them), while an undo log records the before-image of every touched item. Epic
+     * recalculation is deferred and done once per affected epic on commit, followed by
+     * {@link #afterCommit()} (one save in {@link FileBackedTaskManager}). If {@code operations} or the
+     * commit throws, every touched item is restored from the log and the exception is rethrown.</p>
+     * <p>Change events of the transaction are published only after a successful commit.</p>
+     * <p>Within the transaction, derived epic fields (status, time) are not refreshed until commit.
+     * Changes made to stored objects outside the manager are not journaled.</p>
+     *
+     * @param operations mutations to apply through the given manager (this instance)
+     * @throws IllegalStateException if a transaction is already in progress
+     */
+    public void inTransaction(Consumer<? super TaskManager> operations) {
+        if (transaction != null) {
+            throw new IllegalStateException("Transaction already in progress");
+        }
+        UndoLog log = new UndoLog(nextId, eventSequence);
+        transaction = log;
+        pendingEvents = new ArrayList<>();
+        try {
+            operations.accept(this);
+            transaction = null;
+            log.dirtyEpics.values().stream()
+                    .filter(epic -> epics.get(epic.getId()) == epic)
+                    .forEach(epic -> {
+                        updateEpicStatus(epic);
+                        updateEpicTimeFields(epic);
+                    });
+            afterCommit();
+        } catch (RuntimeException | Error e) {
+            transaction = null;
+            pendingEvents = null;
+            rollback(log);
+            throw e;
+        }
+        if (!log.deletedIds.isEmpty()) {
+            historyManager.removeAll(log.deletedIds);
+        }
+        List<TaskEvent> committed = pendingEvents;
+        pendingEvents = null;
+        committed.forEach(this::publish);
+    }
+
+    /**
+     * @return true while {@link #inTransaction(Consumer)} is applying operations
+     */
+    protected boolean isInTransaction() {
+        return transaction != null;
+    }
+
+    /**
+     * Called once after a transaction's changes have been applied and epics recalculated.
+     * Subclasses persist the result here; an exception rolls the transaction back.
+     */
+    protected void afterCommit() {
+    }
+
+    /**
+     * Called for every change of the stored state right after it is applied, including derived epic
+     * changes and changes that a failing transaction later rolls back (the rollback itself is not reported).
+     * Subclasses can track dirty items here; the item's current state should be read when it is persisted.
+     *
+     * @param kind what happened
+     * @param task the item after the change (the removed item for {@link TaskEvent.Kind#DELETED})
+     */
+    protected void onChange(TaskEvent.Kind kind, Task task) {
+    }
+
+    /**
+     * Removes deleted items from history. Inside a transaction the removal is deferred to commit,
+     * so a rollback keeps the history intact.
+     * <p>Subclasses may override this to keep history for items that are only moved, not deleted
+     * (e.g. a subtask relocated between shards of {@link ShardedTaskManager}).</p>
+     *
+     * @param ids IDs of the deleted items
+     */
+    protected void removeFromHistory(Collection<Integer> ids) {
+        if (transaction != null) {
+            transaction.deletedIds.addAll(ids);
+        } else if (!ids.isEmpty()) {
+            historyManager.removeAll(ids);
+        }
+    }
+
+    /**
+     * Removes all items of a type from history with a single sweep (used when the whole map is cleared).
+     * Inside a transaction the current IDs are deferred to commit instead.
+     */
+    private void removeTypeFromHistory(TaskType type, Set<Integer> ids) {
+        if (transaction != null) {
+            transaction.deletedIds.addAll(ids);
+        } else {
+            historyManager.removeAllOfType(type);
+        }
+    }
+
+    /** Records the before-image of an item the first time the active transaction touches it. */
+    private void journal(int id) {
+        if (transaction != null && !transaction.images.containsKey(id)) {
+            transaction.images.put(id, BeforeImage.of(id, findStored(id), revisions.get(id, 0L)));
+        }
+    }
+
+    /** Returns the item stored under the given ID in any of the maps, or {@code null}. */
+    private Task findStored(int id) {
+        Task task = tasks.get(id);
+        if (task == null) task = epics.get(id);
+        if (task == null) task = subtasks.get(id);
+        return task;
+    }
+
+    /** Restores every item touched by a transaction, then the ID counter. */
+    private void rollback(UndoLog log) {
+        for (BeforeImage image : log.images.values()) {
+            Task current = findStored(image.id());
+            if (current != null) {
+                tasks.remove(image.id());
+                epics.remove(image.id());
+                subtasks.remove(image.id());
+                removeFromPrioritizedTasks(current);
+            }
+        }
+        for (BeforeImage image : log.images.values()) {
+            Task stored = image.restore();
+            if (stored instanceof Epic epic) {
+                epics.put(epic.getId(), epic);
+            } else if (stored instanceof Subtask subtask) {
+                subtasks.put(subtask.getId(), subtask);
+                updatePrioritizedTasks(subtask);
+            } else if (stored != null) {
+                tasks.put(stored.getId(), stored);
+                updatePrioritizedTasks(stored);
+            }
+        }
+        for (BeforeImage image : log.images.values()) {
+            if (image.revision() != 0) {
+                revisions.put(image.id(), image.revision());
+            } else {
+                revisions.remove(image.id());
+            }
+        }
+        changeLogSize -= (int) Math.min(changeLogSize, eventSequence - log.eventSequence);
+        nextId = log.nextId;
+        eventSequence = log.eventSequence;
+    }
+
+    /** Undo log of an active transaction. */
+    private static final class UndoLog {
+        /** ID counter at the start of the transaction. */
+        final int nextId;
+        /** Event sequence at the start of the transaction. */
+        final long eventSequence;
+        /** Before-images by ID, in first-touch order. */
+        final Map<Integer, BeforeImage> images = new LinkedHashMap<>();
+        /** Epics whose recalculation is deferred to commit. */
+        final Map<Integer, Epic> dirtyEpics = new LinkedHashMap<>();
+        /** IDs of deleted items, removed from history on commit. */
+        final Set<Integer> deletedIds = new HashSet<>();
+
+        UndoLog(int nextId, long eventSequence) {
+            this.nextId = nextId;
+            this.eventSequence = eventSequence;
+        }
+    }
+
+    /**
+     * State of an item before a transaction touched it; {@code stored == null} means it did not exist.
+     */
+    private record BeforeImage(int id, Task stored, long revision, String name, String description,
+                               TaskStatus status, long durationMinutes, long startMinute,
+                               long epicEndMinute, List<Integer> epicSubtaskIds) {
+
+        static BeforeImage of(int id, Task stored, long revision) {
+            if (stored == null) {
+                return new BeforeImage(id, null, revision, null, null, null,
+                        Task.NO_TIME, Task.NO_TIME, Task.NO_TIME, null);
+            }
+            Epic epic = stored instanceof Epic e ? e : null;
+            return new BeforeImage(id, stored, revision, stored.getName(), stored.getDescription(),
+                    stored.getStatus(), stored.getDurationMinutes(), stored.getStartMinute(),
+                    epic != null ? epic.getEndMinute() : Task.NO_TIME,
+                    epic != null ? epic.getSubtaskIds() : null);
+        }
+
+        /** Writes the recorded fields back into the stored object and returns it ({@code null} if absent). */
+        Task restore() {
+            if (stored == null) return null;
+            stored.setName(name);
+            stored.setDescription(description);
+            stored.setStatus(status);
+            stored.setDurationMinutes(durationMinutes);
+            stored.setStartMinute(startMinute);
+            if (stored instanceof Epic epic) {
+                epic.setEndMinute(epicEndMinute);
+                epic.clearSubtaskIds();
+                epic.addSubtaskIds(epicSubtaskIds);
+            }
+            return stored;
+        }
+    }
+
+    // endregion
+
+    // region Change events
+
+    /**
+     * Subscribes to the stream of {@link TaskEvent}s describing every change of this manager's state,
+     * including derived epic status/time changes.
+     * <p>Each subscriber gets its own bounded buffer (see {@link #setEventBufferCapacity(int)}) and pulls
+     * events with {@link Flow.Subscription#request(long)} at its own pace. Delivery is asynchronous. The
+     * manager never waits for a slow subscriber: when its buffer is full, the event is dropped for that
+     * subscriber only, which shows up as a gap in {@link TaskEvent#sequence()}.</p>
+     * <p>While nobody is subscribed, no event objects are created.</p>
+     *
+     * @param subscriber the subscriber to register
+     */
+    public void subscribe(Flow.Subscriber<? super TaskEvent> subscriber) {
+        if (events == null) {
+            events = new SubmissionPublisher<>(ForkJoinPool.commonPool(), eventBufferCapacity);
+        }
+        events.subscribe(subscriber);
+    }
+
+    /**
+     * Sets the per-subscriber buffer capacity (rounded up to a power of two).
+     * Must be called before the first {@link #subscribe(Flow.Subscriber)}.
+     *
+     * @param capacity maximum number of undelivered events per subscriber
+     * @throws IllegalStateException if a subscription already exists
+     */
+    public void setEventBufferCapacity(int capacity) {
+        if (events != null) {
+            throw new IllegalStateException("Event buffer capacity must be set before subscribing");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.eventBufferCapacity = capacity;
+    }
+
+    /**
+     * @return total number of events dropped because a subscriber's buffer was full
+     */
+    public long getDroppedEventCount() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * Completes all subscriptions ({@link Flow.Subscriber#onComplete()} after pending events are delivered).
+     * A later {@link #subscribe(Flow.Subscriber)} starts a new stream.
+     */
+    public void closeEvents() {
+        if (events != null) {
+            events.close();
+            events = null;
+        }
+    }
+
+    /**
+     * Records a change: advances the sequence (revision), stamps the item and appends it to the change log,
+     * then, if anyone is subscribed, publishes the event (or buffers it until commit inside a transaction).
+     */
+    private void emit(TaskEvent.Kind kind, Task task) {
+        onChange(kind, task);
+        long sequence = ++eventSequence;
+        if (kind == TaskEvent.Kind.DELETED) {
+            revisions.remove(task.getId());
+        } else {
+            revisions.put(task.getId(), sequence);
+        }
+        int slot = (int) (sequence % changedIds.length);
+        changedIds[slot] = task.getId();
+        changedTypes[slot] = task.getType();
+        if (changeLogSize < changedIds.length) {
+            changeLogSize++;
+        }
+        if (events == null || !events.hasSubscribers()) {
+            return;
+        }
+        TaskEvent event = new TaskEvent(sequence, kind, task.getType(), task.getId(), task);
+        if (pendingEvents != null) {
+            pendingEvents.add(event);
+        } else {
+            publish(event);
+        }
+    }
+
+    /** Offers an event to all subscribers without blocking. */
+    private void publish(TaskEvent event) {
+        if (events != null) {
+            events.offer(event, dropCounter);
+        }
+    }
+
+    // endregion
+
+    // region Versioning
+
+    /** {@inheritDoc} */
+    @Override
+    public long getRevision() {
+        return eventSequence;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getRevision(int id) {
+        return revisions.get(id, 0L);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Runs in time proportional to the number of changes after {@code revision}. A revision from the
+     * future (e.g. one seen before a restart) also requires a full resync.</p>
+     */
+    @Override
+    public ChangeSet getChangesSince(long revision) {
+        long current = eventSequence;
+        if (revision == current) {
+            return new ChangeSet(revision, current, false, List.of());
+        }
+        if (revision < 0 || revision > current || current - revision > changeLogSize) {
+            return new ChangeSet(revision, current, true, List.of());
+        }
+        // walk back from the newest change, keeping only the latest change of each item
+        Set<Integer> seen = new HashSet<>();
+        List<Change> changes = new ArrayList<>();
+        for (long r = current; r > revision; r--) {
+            int slot = (int) (r % changedIds.length);
+            int id = changedIds[slot];
+            if (seen.add(id)) {
+                changes.add(new Change(id, changedTypes[slot], r, findStored(id)));
+            }
+        }
+        return new ChangeSet(revision, current, false, changes.reversed());
+    }
+
+    /**
+     * Sets how many recent changes are kept for {@link #getChangesSince(long)}; older clients get a full resync.
+     * Clears the current log.
+     *
+     * @param capacity number of changes to keep
+     * @throws IllegalArgumentException if {@code capacity < 1}
+     */
+    public void setChangeLogCapacity(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        changedIds = new int[capacity];
+        changedTypes = new TaskType[capacity];
+        changeLogSize = 0;
+    }
+
+    /**
+     * Sets a pool that deduplicates names and descriptions: items created or updated from now on, and the items
+     * already stored, refer to pooled strings. The pool may be shared by several managers.
+     *
+     * @param pool the pool, or {@code null} to stop deduplicating
+     */
+    public void setStringPool(StringPool pool) {
+        this.stringPool = pool;
+        tasks.values().forEach(this::internStrings);
+        epics.values().forEach(this::internStrings);
+        subtasks.values().forEach(this::internStrings);
+    }
+
+    /**
+     * @return the string pool, or {@code null} if names and descriptions are not deduplicated
+     */
+    public StringPool getStringPool() {
+        return stringPool;
+    }
+
+    /** Replaces the name and description of an item by pooled instances, if a pool is set. */
+    private void internStrings(Task task) {
+        StringPool pool = stringPool;
+        if (pool != null) {
+            task.setName(pool.intern(task.getName()));
+            task.setDescription(pool.intern(task.getDescription()));
+        }
+    }
+
+    // endregion
+
     // region Prioritization and Overlap
 
     /** {@inheritDoc} */
     @Override
     public List<Task> getPrioritizedTasks() {
-        return new ArrayList<>(prioritizedTasks);
+        List<Task> result = new ArrayList<>(prioritizedTasks.size());
+        for (Task task : prioritizedTasks) {
+            result.add(task);
+        }
+        return result;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public List<Task> getHistory() {
+        return historyManager.getHistory();
     }
 
     /**
@@ -392,7 +1167,10 @@ public class InMemoryTaskManager implements TaskManager {
      * </ul>
      */
     protected void rebuildDerivedState() {
+        RebuildDerivedStateEvent event = new RebuildDerivedStateEvent();
+        event.begin();
         prioritizedTasks.clear();
+        prioritizedKeys.clear();
         tasks.values().forEach(this::updatePrioritizedTasks);
         subtasks.values().forEach(this::updatePrioritizedTasks);
 
@@ -400,22 +1178,57 @@ public class InMemoryTaskManager implements TaskManager {
             updateEpicStatus(epic);
             updateEpicTimeFields(epic);
         });
+        if (event.shouldCommit()) {
+            event.tasks = tasks.size();
+            event.epics = epics.size();
+            event.subtasks = subtasks.size();
+            event.prioritized = prioritizedTasks.size();
+            event.commit();
+        }
     }
 
     /**
-     * Inserts/updates a task in the prioritized set.
+     * Inserts/updates a task in the prioritized set, replacing whatever entry its ID had before.
      * <p>Tasks with {@code null startTime} are excluded by design.</p>
      */
     private void updatePrioritizedTasks(Task task) {
-        prioritizedTasks.remove(task);
-        if (task.getStartTime() != null) {
-            prioritizedTasks.add(task);
+        removeFromPrioritizedTasks(task);
+        if (task.getStartMinute() != Task.NO_TIME) {
+            long key = priorityKey(task.getStartMinute(), task.getId());
+            prioritizedTasks.put(key, task);
+            prioritizedKeys.put(task.getId(), key);
         }
     }
 
-    /** Removes a task from the prioritized set (no-op if absent). */
+    /** Removes the entry of the task's ID from the prioritized set (no-op if absent). */
     private void removeFromPrioritizedTasks(Task task) {
-        prioritizedTasks.remove(task);
+        int id = task.getId();
+        if (prioritizedKeys.containsKey(id)) {
+            prioritizedTasks.remove(prioritizedKeys.get(id, 0L));
+            prioritizedKeys.remove(id);
+        }
+    }
+
+    /**
+     * Packs a start and an ID into one key whose signed order is {@link #PRIORITY_ORDER}: the start minute in
+     * the upper 32 bits, the ID with its sign bit flipped (so that signed IDs sort correctly) in the lower 32.
+     *
+     * @param startMinute start in minutes since the epoch, within {@link #MIN_START_MINUTE}..{@link #MAX_START_MINUTE}
+     * @param id          the item ID
+     * @return the priority key
+     */
+    public static long priorityKey(long startMinute, int id) {
+        return startMinute << 32 | (id ^ Integer.MIN_VALUE) & 0xFFFF_FFFFL;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the task starts outside the range the prioritized index can hold
+     */
+    static void checkStartInRange(Task task) {
+        long start = task.getStartMinute();
+        if (start != Task.NO_TIME && (start < MIN_START_MINUTE || start > MAX_START_MINUTE)) {
+            throw new IllegalArgumentException("Start time is out of the supported range: " + task.getStartTime());
+        }
     }
 
     /**
@@ -425,21 +1238,97 @@ public class InMemoryTaskManager implements TaskManager {
      * @return true if intervals overlap; false otherwise or if any bound is null
      */
     private boolean isOverlapping(Task t1, Task t2) {
-        if (t1.getStartTime() == null || t1.getEndTime() == null ||
-                t2.getStartTime() == null || t2.getEndTime() == null) {
+        if (!t1.hasTimeWindow() || !t2.hasTimeWindow()) {
             return false;
         }
-        return !(t1.getEndTime().isBefore(t2.getStartTime()) || t1.getStartTime().isAfter(t2.getEndTime()));
+        return t1.getEndMinute() >= t2.getStartMinute() && t1.getStartMinute() <= t2.getEndMinute();
+    }
+
+    /**
+     * Validates a batch against the prioritized set and against itself in one merge sweep.
+     * <p>The batch is sorted by start time once; both sequences are then walked in start order while
+     * tracking the latest end seen on each side. With inclusive bounds, an item overlaps an earlier one
+     * exactly when it starts no later than that maximum end, so only overlaps involving at least one
+     * batch item are reported. Total cost is {@code O(k log k + n)} instead of {@code O(k * n)}.</p>
+     *
+     * @param batch    items to be stored
+     * @param replaced IDs whose current entries are replaced by the batch (ignored on the existing side)
+     * @param message  the overlap error message
+     * @throws IllegalArgumentException if any overlap involving a batch item exists, or an item starts outside
+     *                                  the range of the prioritized index
+     */
+    private void validateBatch(List<? extends Task> batch, Set<Integer> replaced, String message) {
+        batch.forEach(InMemoryTaskManager::checkStartInRange);
+        List<? extends Task> incoming = batch.stream()
+                .filter(Task::hasTimeWindow)
+                .sorted(Comparator.comparingLong(Task::getStartMinute))
+                .toList();
+        if (incoming.isEmpty()) return;
+
+        Iterator<Task> existing = prioritizedTasks.iterator();
+        Task nextExisting = nextTimed(existing, replaced);
+        // Task.NO_TIME is Long.MIN_VALUE, so "none yet" compares below every real minute
+        long existingMaxEnd = Task.NO_TIME;
+        long incomingMaxEnd = Task.NO_TIME;
+
+        for (Task candidate : incoming) {
+            long start = candidate.getStartMinute();
+            while (nextExisting != null && nextExisting.getStartMinute() <= start) {
+                if (nextExisting.getStartMinute() <= incomingMaxEnd) {
+                    throw new IllegalArgumentException(message);
+                }
+                existingMaxEnd = Math.max(existingMaxEnd, nextExisting.getEndMinute());
+                nextExisting = nextTimed(existing, replaced);
+            }
+            if (start <= Math.max(existingMaxEnd, incomingMaxEnd)) {
+                throw new IllegalArgumentException(message);
+            }
+            incomingMaxEnd = Math.max(incomingMaxEnd, candidate.getEndMinute());
+        }
+        // every remaining existing item starts after the first one, so it is enough to check that one
+        if (nextExisting != null && nextExisting.getStartMinute() <= incomingMaxEnd) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    /** Advances to the next prioritized item that has a full time window and is not being replaced. */
+    private static Task nextTimed(Iterator<Task> iterator, Set<Integer> replaced) {
+        while (iterator.hasNext()) {
+            Task task = iterator.next();
+            if (task.getEndMinute() != Task.NO_TIME && !replaced.contains(task.getId())) {
+                return task;
+            }
+        }
+        return null;
     }
 
     /**
      * Checks whether the given task overlaps with any task/subtask in the prioritized set
-     * (excluding itself by ID).
+     * (excluding itself by ID). Slow checks are reported as {@link OverlapCheckEvent}s.
+     *
+     * @throws IllegalArgumentException if the task starts outside the range of the prioritized index
      */
     private boolean hasOverlapping(Task newTask) {
-        return prioritizedTasks.stream()
-                .filter(t -> t.getId() != newTask.getId())
-                .anyMatch(t -> isOverlapping(t, newTask));
+        checkStartInRange(newTask);
+        OverlapCheckEvent event = new OverlapCheckEvent();
+        event.begin();
+        int scanned = 0;
+        boolean found = false;
+        for (Task t : prioritizedTasks) {
+            if (t.getId() == newTask.getId()) continue;
+            scanned++;
+            if (isOverlapping(t, newTask)) {
+                found = true;
+                break;
+            }
+        }
+        if (event.shouldCommit()) {
+            event.taskId = newTask.getId();
+            event.itemsScanned = scanned;
+            event.overlapFound = found;
+            event.commit();
+        }
+        return found;
     }
 
     /**
@@ -452,9 +1341,9 @@ public class InMemoryTaskManager implements TaskManager {
         Task previous = null;
         for (Task current : getPrioritizedTasks()) {
             if (previous != null &&
-                    previous.getEndTime() != null &&
-                    current.getStartTime() != null &&
-                    !previous.getEndTime().isBefore(current.getStartTime())) {
+                    previous.getEndMinute() != Task.NO_TIME &&
+                    current.getStartMinute() != Task.NO_TIME &&
+                    previous.getEndMinute() >= current.getStartMinute()) {
                 return true;
             }
             previous = current;
@@ -470,39 +1359,62 @@ public class InMemoryTaskManager implements TaskManager {
      *   <li>{@code endTime}   = latest subtask end.</li>
      * </ul>
      * If the epic has no subtasks, sets {@code duration = 0}, {@code startTime = null}, {@code endTime = null}.
+     * Inside a transaction the epic is only marked for recalculation on commit.
      */
     private void updateEpicTimeFields(Epic epic) {
+        if (transaction != null) {
+            transaction.dirtyEpics.put(epic.getId(), epic);
+            return;
+        }
+        long oldStart = epic.getStartMinute();
+        long oldEnd = epic.getEndMinute();
+        long oldDuration = epic.getDurationMinutes();
+        recalculateEpicTimeFields(epic);
+        if (oldStart != epic.getStartMinute() || oldEnd != epic.getEndMinute()
+                || oldDuration != epic.getDurationMinutes()) {
+            emit(TaskEvent.Kind.EPIC_TIME_CHANGED, epic);
+        }
+    }
+
+    /**
+     * Computes and sets the epic time fields (see {@link #updateEpicTimeFields(Epic)}).
+     * Slow recalculations are reported as {@link EpicRecalculationEvent}s.
+     */
+    private void recalculateEpicTimeFields(Epic epic) {
+        EpicRecalculationEvent event = new EpicRecalculationEvent();
+        event.begin();
         List<Integer> ids = epic.getSubtaskIds();
         if (ids.isEmpty()) {
-            epic.setDuration(Duration.ZERO);
-            epic.setStartTime(null);
-            epic.setEndTime(null);
+            epic.setDurationMinutes(0);
+            epic.setStartMinute(Task.NO_TIME);
+            epic.setEndMinute(Task.NO_TIME);
+            commit(event, epic, EpicRecalculationEvent.TIME, 0);
             return;
         }
 
-        Duration total = Duration.ZERO;
-        LocalDateTime earliest = null;
-        LocalDateTime latest = null;
+        long total = 0;
+        long earliest = Long.MAX_VALUE;
+        long latest = Task.NO_TIME;
 
         for (int id : ids) {
             Subtask s = subtasks.get(id);
             if (s == null) continue;
 
-            if (s.getDuration() != null) {
-                total = total.plus(s.getDuration());
+            long duration = s.getDurationMinutes();
+            if (duration != Task.NO_TIME) {
+                total += duration;
             }
-            LocalDateTime start = s.getStartTime();
-            LocalDateTime end = s.getEndTime();
-
-            if (start != null) {
-                if (earliest == null || start.isBefore(earliest)) earliest = start;
-                if (end != null && (latest == null || end.isAfter(latest))) latest = end;
+            long start = s.getStartMinute();
+            if (start != Task.NO_TIME) {
+                earliest = Math.min(earliest, start);
+                latest = Math.max(latest, s.getEndMinute());
             }
         }
 
-        epic.setDuration(total);
-        epic.setStartTime(earliest);
-        epic.setEndTime(latest);
+        epic.setDurationMinutes(total);
+        epic.setStartMinute(earliest == Long.MAX_VALUE ? Task.NO_TIME : earliest);
+        epic.setEndMinute(latest);
+        commit(event, epic, EpicRecalculationEvent.TIME, ids.size());
     }
 
     /**
@@ -513,13 +1425,32 @@ public class InMemoryTaskManager implements TaskManager {
      *   <li>all {@code DONE}  → {@code DONE};</li>
      *   <li>mixed or any {@code IN_PROGRESS} → {@code IN_PROGRESS}.</li>
      * </ul>
+     * Inside a transaction the epic is only marked for recalculation on commit.
      */
     private void updateEpicStatus(Epic epic) {
         if (epic == null) return;
+        if (transaction != null) {
+            transaction.dirtyEpics.put(epic.getId(), epic);
+            return;
+        }
+        TaskStatus oldStatus = epic.getStatus();
+        recalculateEpicStatus(epic);
+        if (oldStatus != epic.getStatus()) {
+            emit(TaskEvent.Kind.EPIC_STATUS_CHANGED, epic);
+        }
+    }
 
+    /**
+     * Computes and sets the epic status (see {@link #updateEpicStatus(Epic)}).
+     * Slow recalculations are reported as {@link EpicRecalculationEvent}s.
+     */
+    private void recalculateEpicStatus(Epic epic) {
+        EpicRecalculationEvent event = new EpicRecalculationEvent();
+        event.begin();
         List<Integer> ids = epic.getSubtaskIds();
         if (ids.isEmpty()) {
             epic.setStatus(TaskStatus.NEW);
+            commit(event, epic, EpicRecalculationEvent.STATUS, 0);
             return;
         }
 
@@ -546,6 +1477,15 @@ public class InMemoryTaskManager implements TaskManager {
         } else {
             epic.setStatus(TaskStatus.IN_PROGRESS);
         }
+        commit(event, epic, EpicRecalculationEvent.STATUS, ids.size());
     }
-}
 
+    private static void commit(EpicRecalculationEvent event, Epic epic, String aspect, int subtasksScanned) {
+        if (event.shouldCommit()) {
+            event.epicId = epic.getId();
+            event.aspect = aspect;
+            event.subtasksScanned = subtasksScanned;
+            event.commit();
+        }
+    }
+}
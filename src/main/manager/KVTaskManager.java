@@ -0,0 +1,480 @@
+package manager;
+
+import exception.ManagerSaveException;
+import history.HistoryManager;
+import history.InMemoryHistoryManager;
+import http.KVTaskClient;
+import model.Epic;
+import model.Subtask;
+import model.Task;
+import util.StringPool;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+import static model.TaskCSVUtil.fromCSVString;
+import static model.TaskCSVUtil.toCSVString;
+
+/**
+ * Task manager that extends {@link InMemoryTaskManager} and persists to a remote key-value store
+ * (see {@link http.KVServer}) instead of a local file.
+ * <p>
+ * Every item is stored under its own key ({@code item/<id>}, the value is the CSV line used by
+ * {@link FileBackedTaskManager}); the view history is one more key with a comma-separated ID list.
+ * Instead of rewriting everything, a mutation marks the items it changed as dirty (via
+ * {@link #onChange(TaskEvent.Kind, Task)}) and stages their current state for writing: once per call,
+ * or once per transaction or batch, as in {@link FileBackedTaskManager}.
+ * <p>
+ * Staged writes are sent by a single background flusher thread, started with the first staged write (so a
+ * manager that never writes, or fails to load, owns no thread), and a mutation never waits for the network.
+ * While one batch is in flight, the next one accumulates; changes of the same key coalesce and only the
+ * latest value is sent. Each batch is one {@code PUT /batch} request that the store applies atomically.
+ * Views only mark the history dirty; it is written with the next batch. A failed batch is kept and retried.
+ * <p>
+ * {@link #flush()} waits until everything staged so far is stored (and reports a failure);
+ * {@link #close()} flushes and stops the flusher.
+ * <p><strong>Note:</strong> Like {@link InMemoryTaskManager}, this class is <em>not thread-safe</em>;
+ * only the flusher runs concurrently with the caller.</p>
+ */
+public class KVTaskManager extends InMemoryTaskManager implements AutoCloseable {
+
+    /** Key prefix of stored items. */
+    static final String ITEM_PREFIX = "item/";
+
+    /** Key of the stored view history. */
+    static final String HISTORY_KEY = "history";
+
+    /** Pause before a failed batch is retried. */
+    private static final long RETRY_DELAY_MS = 200;
+
+    private final KVTaskClient client;
+
+    /** Items changed since the last staging; used by the caller's thread only. */
+    private final Set<Integer> dirtyIds = new LinkedHashSet<>();
+    /** Whether the history changed since the last staging; used by the caller's thread only. */
+    private boolean historyDirty;
+
+    /** Guards the fields below, shared with the flusher. */
+    private final Object lock = new Object();
+    /** Staged writes not yet sent; a {@code null} value deletes the key. */
+    private Map<String, String> pending = new LinkedHashMap<>();
+    private boolean inFlight;
+    private boolean closed;
+    /** Number of batches the flusher tried to send. */
+    private long attempts;
+    /** Number of batches stored successfully. */
+    private long batches;
+    /** Error of the last attempt; {@code null} once a batch succeeds. */
+    private ManagerSaveException failure;
+    /** Sends staged writes; {@code null} until the first write is staged. */
+    private Thread flusher;
+
+    /**
+     * Creates a manager with empty state that writes to the given store.
+     *
+     * @param historyManager the history manager to use for task history
+     * @param client         the key-value store client
+     */
+    public KVTaskManager(HistoryManager historyManager, KVTaskClient client) {
+        super(historyManager);
+        this.client = client;
+    }
+
+    /**
+     * Loads the state from a store using a new {@link InMemoryHistoryManager}.
+     *
+     * @param client the key-value store client
+     * @return a new manager containing the stored items and history
+     * @throws ManagerSaveException if the store cannot be read
+     */
+    public static KVTaskManager load(KVTaskClient client) {
+        return load(client, new InMemoryHistoryManager());
+    }
+
+    /**
+     * Loads the state from a store: all items, then the history (IDs that no longer exist are skipped).
+     *
+     * @param client         the key-value store client
+     * @param historyManager the (empty) history manager to restore history into
+     * @return a new manager containing the stored items and history
+     * @throws ManagerSaveException if the store cannot be read or holds malformed data
+     */
+    public static KVTaskManager load(KVTaskClient client, HistoryManager historyManager) {
+        return load(client, historyManager, null);
+    }
+
+    /**
+     * Loads the state from a store like {@link #load(KVTaskClient, HistoryManager)}, deduplicating names and
+     * descriptions through a pool while parsing; the pool stays set for later creates and updates.
+     *
+     * @param client         the key-value store client
+     * @param historyManager the (empty) history manager to restore history into
+     * @param pool           the string pool, or {@code null} for no deduplication
+     * @return a new manager containing the stored items and history
+     * @throws ManagerSaveException if the store cannot be read or holds malformed data
+     */
+    public static KVTaskManager load(KVTaskClient client, HistoryManager historyManager, StringPool pool) {
+        Map<String, String> items = client.loadAll(ITEM_PREFIX);
+        String history = client.load(HISTORY_KEY);
+
+        KVTaskManager manager = new KVTaskManager(historyManager, client);
+        manager.setStringPool(pool);
+        int maxId = 0;
+        List<Subtask> subtasks = new ArrayList<>();
+        for (String line : items.values()) {
+            Task task = fromCSVString(line, pool);
+            maxId = Math.max(maxId, task.getId());
+            if (task instanceof Subtask subtask) {
+                manager.getSubtasks().put(subtask.getId(), subtask);
+                subtasks.add(subtask);
+            } else if (task instanceof Epic epic) {
+                manager.getEpics().put(epic.getId(), epic);
+            } else {
+                manager.getTasks().put(task.getId(), task);
+            }
+        }
+        // keys are ordered as strings, so link subtasks once all epics are known
+        for (Subtask subtask : subtasks) {
+            Epic epic = manager.getEpics().get(subtask.getEpicId());
+            if (epic != null) {
+                epic.addSubtaskId(subtask.getId());
+            }
+        }
+        manager.rebuildDerivedState();
+        manager.setNextId(maxId + 1);
+
+        if (history != null && !history.isBlank()) {
+            for (String value : history.split(",")) {
+                try {
+                    Task task = manager.findById(Integer.parseInt(value.trim()));
+                    if (task != null) {
+                        manager.getHistoryManager().restore(task);
+                    }
+                } catch (NumberFormatException e) {
+                    throw new ManagerSaveException("Некорректная история в KV-хранилище: " + history, e);
+                }
+            }
+        }
+        manager.dirtyIds.clear();
+        manager.historyDirty = false;
+        return manager;
+    }
+
+    /**
+     * Stages pending changes and waits until every staged write is stored.
+     *
+     * @throws ManagerSaveException if the store rejects or cannot receive the writes (they stay staged and
+     *                              are retried in the background)
+     */
+    public void flush() {
+        stage();
+        synchronized (lock) {
+            long started = attempts;
+            try {
+                while ((inFlight || !pending.isEmpty()) && !(failure != null && attempts > started)) {
+                    lock.wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ManagerSaveException("Ожидание записи в KV-хранилище прервано", e);
+            }
+            if (inFlight || !pending.isEmpty()) {
+                throw new ManagerSaveException("Ошибка при записи в KV-хранилище", failure);
+            }
+        }
+    }
+
+    /**
+     * Flushes and stops the flusher. The store client is not closed.
+     *
+     * @throws ManagerSaveException if the final flush fails (unsent writes are dropped)
+     */
+    @Override
+    public void close() {
+        try {
+            flush();
+        } finally {
+            Thread running;
+            synchronized (lock) {
+                closed = true;
+                running = flusher;
+                lock.notifyAll();
+            }
+            if (running != null) {
+                try {
+                    running.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of batches stored so far (each is one request to the store)
+     */
+    public long getBatchCount() {
+        synchronized (lock) {
+            return batches;
+        }
+    }
+
+    // --- Change tracking ---
+
+    /** Marks changed items dirty; deletions also change the history. */
+    @Override
+    protected void onChange(TaskEvent.Kind kind, Task task) {
+        dirtyIds.add(task.getId());
+        if (kind == TaskEvent.Kind.DELETED) {
+            historyDirty = true;
+        }
+    }
+
+    /**
+     * Serializes the current state of dirty items (a deleted item becomes a {@code null} value) and hands
+     * them to the flusher.
+     */
+    private void stage() {
+        if (dirtyIds.isEmpty() && !historyDirty) {
+            return;
+        }
+        Map<String, String> writes = new LinkedHashMap<>();
+        for (int id : dirtyIds) {
+            Task task = findById(id);
+            writes.put(ITEM_PREFIX + id, task != null ? toCSVString(task) : null);
+        }
+        if (historyDirty) {
+            StringJoiner ids = new StringJoiner(",");
+            for (Task task : getHistoryManager().getHistory()) {
+                ids.add(Integer.toString(task.getId()));
+            }
+            writes.put(HISTORY_KEY, ids.toString());
+        }
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("KVTaskManager is closed");
+            }
+            if (flusher == null) {
+                flusher = Thread.ofPlatform().daemon().name("kv-flusher").start(this::runFlusher);
+            }
+            pending.putAll(writes);
+            lock.notifyAll();
+        }
+        dirtyIds.clear();
+        historyDirty = false;
+    }
+
+    /** Stages after a single mutation, unless a transaction is active (then it is staged on commit). */
+    private void autoStage() {
+        if (!isInTransaction()) {
+            stage();
+        }
+    }
+
+    /** Stages the result of a committed transaction at once. */
+    @Override
+    protected void afterCommit() {
+        stage();
+    }
+
+    /** Sends staged writes one batch at a time until closed. */
+    private void runFlusher() {
+        while (true) {
+            Map<String, String> batch;
+            synchronized (lock) {
+                while (pending.isEmpty() && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (closed) {
+                    return;
+                }
+                batch = pending;
+                pending = new LinkedHashMap<>();
+                inFlight = true;
+            }
+
+            ManagerSaveException error = null;
+            try {
+                client.putAll(batch);
+            } catch (ManagerSaveException e) {
+                error = e;
+            }
+
+            synchronized (lock) {
+                inFlight = false;
+                attempts++;
+                if (error == null) {
+                    batches++;
+                    failure = null;
+                } else {
+                    failure = error;
+                    batch.putAll(pending); // writes staged meanwhile are newer
+                    pending = batch;
+                }
+                lock.notifyAll();
+                if (error != null && !closed) {
+                    try {
+                        lock.wait(RETRY_DELAY_MS);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private Task findById(int id) {
+        Task task = getTasks().get(id);
+        if (task == null) {
+            task = getEpics().get(id);
+        }
+        if (task == null) {
+            task = getSubtasks().get(id);
+        }
+        return task;
+    }
+
+    // --- Overridden read methods: views change the history ---
+
+    @Override
+    public Task getTaskById(int id) {
+        Task result = super.getTaskById(id);
+        historyDirty |= result != null;
+        return result;
+    }
+
+    @Override
+    public Epic getEpicById(int id) {
+        Epic result = super.getEpicById(id);
+        historyDirty |= result != null;
+        return result;
+    }
+
+    @Override
+    public Subtask getSubtaskById(int id) {
+        Subtask result = super.getSubtaskById(id);
+        historyDirty |= result != null;
+        return result;
+    }
+
+    // --- Overridden mutation methods: changes are staged for the flusher ---
+
+    @Override
+    public Task createTask(Task task) {
+        Task result = super.createTask(task);
+        autoStage();
+        return result;
+    }
+
+    @Override
+    public Epic createEpic(Epic epic) {
+        Epic result = super.createEpic(epic);
+        autoStage();
+        return result;
+    }
+
+    @Override
+    public Subtask createSubtask(Subtask subtask) {
+        Subtask result = super.createSubtask(subtask);
+        autoStage();
+        return result;
+    }
+
+    @Override
+    public void updateTask(Task task) {
+        super.updateTask(task);
+        autoStage();
+    }
+
+    @Override
+    public void updateEpic(Epic epic) {
+        super.updateEpic(epic);
+        autoStage();
+    }
+
+    @Override
+    public void updateSubtask(Subtask subtask) {
+        super.updateSubtask(subtask);
+        autoStage();
+    }
+
+    @Override
+    public void deleteTaskById(int id) {
+        super.deleteTaskById(id);
+        autoStage();
+    }
+
+    @Override
+    public void deleteEpicById(int id) {
+        super.deleteEpicById(id);
+        autoStage();
+    }
+
+    @Override
+    public void deleteSubtaskById(int id) {
+        super.deleteSubtaskById(id);
+        autoStage();
+    }
+
+    @Override
+    public void removeAllTasks() {
+        super.removeAllTasks();
+        autoStage();
+    }
+
+    @Override
+    public void removeAllEpics() {
+        super.removeAllEpics();
+        autoStage();
+    }
+
+    @Override
+    public void removeAllSubtasks() {
+        super.removeAllSubtasks();
+        autoStage();
+    }
+
+    // --- Bulk methods: one staging per batch ---
+
+    @Override
+    public List<Task> createTasks(Collection<Task> tasks) {
+        List<Task> result = super.createTasks(tasks);
+        autoStage();
+        return result;
+    }
+
+    @Override
+    public List<Subtask> createSubtasks(Collection<Subtask> subtasks) {
+        List<Subtask> result = super.createSubtasks(subtasks);
+        autoStage();
+        return result;
+    }
+
+    @Override
+    public void updateTasks(Collection<Task> tasks) {
+        super.updateTasks(tasks);
+        autoStage();
+    }
+
+    @Override
+    public void updateSubtasks(Collection<Subtask> subtasks) {
+        super.updateSubtasks(subtasks);
+        autoStage();
+    }
+
+    @Override
+    public void deleteByIds(Collection<Integer> ids) {
+        super.deleteByIds(ids);
+        autoStage();
+    }
+}
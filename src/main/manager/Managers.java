@@ -2,6 +2,9 @@ package manager;
 
 import history.HistoryManager;
 import history.InMemoryHistoryManager;
+import http.KVTaskClient;
+
+import java.nio.file.Path;
 
 /**
  * Utility class providing singleton instances of application managers:
@@ -9,6 +12,9 @@ import history.InMemoryHistoryManager;
  * <p>
  * Implements a lazy-loaded singleton pattern to ensure only one instance
  * of each manager is created per application runtime.
+ * <p>
+ * Factory methods create independent managers of every storage engine, each with its own
+ * {@link InMemoryHistoryManager}, for tools that compare engines (e.g. the load driver in {@code bench/}).
  */
 public class Managers {
 
@@ -40,6 +46,56 @@ public class Managers {
         return defaultHistoryManager;
     }
 
+    /**
+     * @return a new in-memory manager
+     */
+    public static InMemoryTaskManager inMemory() {
+        return new InMemoryTaskManager(new InMemoryHistoryManager());
+    }
+
+    /**
+     * @param path the CSV file to save to; overwritten on the first mutation
+     * @return a new file-backed manager with empty state
+     */
+    public static FileBackedTaskManager fileBacked(Path path) {
+        return new FileBackedTaskManager(new InMemoryHistoryManager(), path);
+    }
+
+    /**
+     * @param shardCount number of shards, at least 1
+     * @return a new sharded, thread-safe manager
+     * @throws IllegalArgumentException if {@code shardCount < 1}
+     */
+    public static ShardedTaskManager sharded(int shardCount) {
+        return new ShardedTaskManager(new InMemoryHistoryManager(), shardCount);
+    }
+
+    /**
+     * @return a new columnar manager, for scans over many items
+     */
+    public static ColumnarTaskManager columnar() {
+        return new ColumnarTaskManager(new InMemoryHistoryManager());
+    }
+
+    /**
+     * @param client client of a running {@link http.KVServer}; stays owned by the caller
+     * @return a new manager with empty state writing to the store; close it to flush and stop its flusher
+     */
+    public static KVTaskManager keyValue(KVTaskClient client) {
+        return new KVTaskManager(new InMemoryHistoryManager(), client);
+    }
+
+    /**
+     * Tells whether a manager may be called from several threads at once. Other managers have to be
+     * called under a lock, as {@link AsyncTaskManager} does.
+     *
+     * @param manager the manager
+     * @return true for a {@link ShardedTaskManager}
+     */
+    public static boolean isThreadSafe(TaskManager manager) {
+        return manager instanceof ShardedTaskManager;
+    }
+
     // Optional: You can add a private constructor to prevent instantiation.
     private Managers() {
         // Utility class: prevent instantiation
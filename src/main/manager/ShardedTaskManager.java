@@ -0,0 +1,1013 @@
+package manager;
+
+import history.HistoryManager;
+import model.Epic;
+import model.Subtask;
+import model.Task;
+import model.TaskType;
+import util.StringPool;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * {@link TaskManager} that partitions its state into several independent {@link InMemoryTaskManager} shards.
+ *
+ * <p>Routing:</p>
+ * <ul>
+ *   <li>shard {@code i} hands out IDs {@code i + 1, i + 1 + n, i + 1 + 2n, ...} ({@code n} = shard count),
+ *       so the owning shard of any item follows from its ID alone;</li>
+ *   <li>plain tasks and epics are spread round-robin; subtasks are created in their epic's shard;</li>
+ *   <li>a subtask moved to an epic of another shard keeps its ID and is tracked in a small relocation table.</li>
+ * </ul>
+ *
+ * <p>Each shard is guarded by its own read/write lock, so work on different epics proceeds in parallel.
+ * Time-overlap validation stays global: mutations that can change a time window reserve it in a shared
+ * {@link TimeSlotIndex} under a dedicated lock (always acquired before any shard lock).</p>
+ *
+ * <p>Aggregate reads ({@code getAll*}, {@link #getPrioritizedTasks()}) visit shards one by one and are
+ * weakly consistent under concurrent writes. The shards store copies of the items passed to create and update
+ * methods (the caller's item still gets its ID), and reads and creates return copies taken under the shard lock,
+ * since the shards keep changing their stored objects in place (epic status, time and subtask IDs). Changes
+ * therefore reach the board only through the update methods.</p>
+ *
+ * <p><strong>Thread-safety:</strong> thread-safe.</p>
+ */
+public class ShardedTaskManager implements TaskManager {
+
+    /** Independent partitions of the board. */
+    private final Shard[] shards;
+
+    /** Cursor for round-robin placement of tasks and epics. */
+    private final AtomicInteger placement = new AtomicInteger();
+
+    /** Subtask ID → shard index, for subtasks that no longer live in the shard that created them. */
+    private final Map<Integer, Integer> relocated = new ConcurrentHashMap<>();
+
+    /** Global index of occupied time windows across all shards. */
+    private final TimeSlotIndex slots = new TimeSlotIndex();
+
+    /** Guards {@link #slots}; acquired before any shard lock. */
+    private final ReentrantLock scheduleLock = new ReentrantLock();
+
+    /** History shared by all shards. */
+    private final HistoryManager history;
+
+    /**
+     * Creates a sharded manager with one shard per available processor.
+     *
+     * @param historyManager non-null history manager shared by all shards
+     */
+    public ShardedTaskManager(HistoryManager historyManager) {
+        this(historyManager, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a sharded manager.
+     *
+     * @param historyManager non-null history manager shared by all shards
+     * @param shardCount     number of shards (at least 1)
+     * @throws IllegalArgumentException if {@code shardCount < 1}
+     */
+    public ShardedTaskManager(HistoryManager historyManager, int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+        HistoryManager sharedHistory = new SynchronizedHistoryManager(historyManager);
+        this.history = sharedHistory;
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(sharedHistory, i, shardCount);
+        }
+    }
+
+    /**
+     * @return the number of shards
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Sets a pool that deduplicates names and descriptions in every shard
+     * (see {@link InMemoryTaskManager#setStringPool(StringPool)}); the pool is safe to share between shards.
+     *
+     * @param pool the pool, or {@code null} to stop deduplicating
+     */
+    public void setStringPool(StringPool pool) {
+        writeAll(shard -> shard.setStringPool(pool));
+    }
+
+    // --- Task methods ---
+
+    /** {@inheritDoc} */
+    @Override
+    public List<Task> getAllTasks() {
+        List<Task> result = new ArrayList<>();
+        for (Shard shard : shards) {
+            shard.read(() -> shard.getTasks().values().forEach(item -> result.add(item.copy())));
+        }
+        return result;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void removeAllTasks() {
+        writeAll(shard -> {
+            shard.getTasks().keySet().forEach(slots::remove);
+            shard.removeAllTasks();
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Task getTaskById(int id) {
+        Shard shard = route(id);
+        return shard.read(() -> copyOf(shard.getTaskById(id)));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the task time interval overlaps with an existing one in any shard
+     */
+    @Override
+    public Task createTask(Task task) {
+        if (task == null) return null;
+        Shard shard = nextShard();
+        Task stored = task.copy();
+        List<Task> created = new ArrayList<>(1);
+        if (!TimeSlotIndex.hasTimeWindow(stored)) {
+            created.add(shard.write(() -> copyOf(shard.createTask(stored))));
+        } else {
+            reserve(stored, "Task overlaps with an existing task", () -> shard.write(() -> {
+                created.add(copyOf(shard.createTask(stored)));
+                return true;
+            }));
+        }
+        task.setId(stored.getId());
+        return created.getFirst();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the updated task overlaps with an existing one in any shard
+     */
+    @Override
+    public void updateTask(Task task) {
+        if (task == null) return;
+        Shard shard = route(task.getId());
+        Task stored = task.copy();
+        reserve(stored, "Task update overlaps with an existing task", () -> shard.write(() -> {
+            shard.updateTask(stored);
+            return shard.getTasks().get(stored.getId()) == stored;
+        }));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void deleteTaskById(int id) {
+        Shard shard = route(id);
+        boolean removed = shard.write(() -> {
+            if (!shard.getTasks().containsKey(id)) return false;
+            shard.deleteTaskById(id);
+            return true;
+        });
+        if (removed) {
+            release(List.of(id));
+        }
+    }
+
+    // --- Epic methods ---
+
+    /** {@inheritDoc} */
+    @Override
+    public List<Epic> getAllEpics() {
+        List<Epic> result = new ArrayList<>();
+        for (Shard shard : shards) {
+            shard.read(() -> shard.getEpics().values().forEach(item -> result.add(item.copy())));
+        }
+        return result;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void removeAllEpics() {
+        writeAll(shard -> {
+            shard.getSubtasks().keySet().forEach(slots::remove);
+            shard.removeAllEpics();
+        });
+        relocated.clear();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Epic getEpicById(int id) {
+        Shard shard = route(id);
+        return shard.read(() -> copyOf(shard.getEpicById(id)));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Epic createEpic(Epic epic) {
+        if (epic == null) return null;
+        Shard shard = nextShard();
+        Epic stored = epic.copy();
+        Epic created = shard.write(() -> copyOf(shard.createEpic(stored)));
+        epic.setId(stored.getId());
+        return created;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void updateEpic(Epic epic) {
+        if (epic == null) return;
+        Shard shard = route(epic.getId());
+        Epic stored = epic.copy();
+        shard.write(() -> shard.updateEpic(stored));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void deleteEpicById(int id) {
+        Shard shard = route(id);
+        List<Integer> removedSubtasks = shard.write(() -> {
+            Epic epic = shard.getEpics().get(id);
+            if (epic == null) return List.<Integer>of();
+            List<Integer> subtaskIds = epic.getSubtaskIds();
+            shard.deleteEpicById(id);
+            return subtaskIds;
+        });
+        release(removedSubtasks);
+    }
+
+    // --- Subtask methods ---
+
+    /** {@inheritDoc} */
+    @Override
+    public List<Subtask> getAllSubtasks() {
+        List<Subtask> result = new ArrayList<>();
+        for (Shard shard : shards) {
+            shard.read(() -> shard.getSubtasks().values().forEach(item -> result.add(item.copy())));
+        }
+        return result;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void removeAllSubtasks() {
+        writeAll(shard -> {
+            shard.getSubtasks().keySet().forEach(slots::remove);
+            shard.removeAllSubtasks();
+        });
+        relocated.clear();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Subtask getSubtaskById(int id) {
+        Shard shard = route(id);
+        return shard.read(() -> copyOf(shard.getSubtaskById(id)));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The subtask is stored in the shard of its parent epic.</p>
+     *
+     * @throws IllegalArgumentException if:
+     *   <ul>
+     *     <li>referenced epic does not exist;</li>
+     *     <li>the subtask overlaps with an existing task/subtask in any shard.</li>
+     *   </ul>
+     */
+    @Override
+    public Subtask createSubtask(Subtask subtask) {
+        if (subtask == null) return null;
+        Shard shard = route(subtask.getEpicId());
+        Subtask stored = subtask.copy();
+        List<Subtask> created = new ArrayList<>(1);
+        if (!TimeSlotIndex.hasTimeWindow(stored)) {
+            created.add(shard.write(() -> copyOf(shard.createSubtask(stored))));
+        } else {
+            reserve(stored, "Subtask overlaps with an existing subtask", () -> shard.write(() -> {
+                created.add(copyOf(shard.createSubtask(stored)));
+                return true;
+            }));
+        }
+        subtask.setId(stored.getId());
+        return created.getFirst();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>If the new parent epic lives in another shard, the subtask is moved there under its current ID.</p>
+     *
+     * @throws IllegalArgumentException if:
+     *   <ul>
+     *     <li>referenced new epic does not exist;</li>
+     *     <li>the updated subtask overlaps with an existing task/subtask in any shard.</li>
+     *   </ul>
+     */
+    @Override
+    public void updateSubtask(Subtask update) {
+        if (update == null) return;
+        Subtask subtask = update.copy();
+        Shard from = route(subtask.getId());
+        Shard to = route(subtask.getEpicId());
+        String message = "Subtask update overlaps with an existing subtask";
+        if (from == to) {
+            reserve(subtask, message, () -> from.write(() -> {
+                from.updateSubtask(subtask);
+                return from.getSubtasks().get(subtask.getId()) == subtask;
+            }));
+        } else {
+            reserve(subtask, message, () -> relocate(subtask, from, to));
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void deleteSubtaskById(int id) {
+        Shard shard = route(id);
+        boolean removed = shard.write(() -> {
+            if (!shard.getSubtasks().containsKey(id)) return false;
+            shard.deleteSubtaskById(id);
+            return true;
+        });
+        if (removed) {
+            release(List.of(id));
+        }
+    }
+
+    // --- Additional methods ---
+
+    /** {@inheritDoc} */
+    @Override
+    public List<Subtask> getEpicSubtasks(int epicId) {
+        Shard shard = route(epicId);
+        return shard.read(() -> copiesOf(shard.getEpicSubtasks(epicId)));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Per-shard prioritized lists are combined with a k-way merge in {@code O(n log k)}.</p>
+     */
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        PriorityQueue<Run> heads = new PriorityQueue<>(shards.length,
+                (r1, r2) -> InMemoryTaskManager.PRIORITY_ORDER.compare(r1.head(), r2.head()));
+        int total = 0;
+        for (Shard shard : shards) {
+            List<Task> run = shard.read(() -> copiesOf(shard.getPrioritizedTasks()));
+            total += run.size();
+            if (!run.isEmpty()) {
+                heads.add(new Run(run));
+            }
+        }
+
+        List<Task> result = new ArrayList<>(total);
+        while (!heads.isEmpty()) {
+            Run run = heads.poll();
+            result.add(run.head());
+            if (run.advance()) {
+                heads.add(run);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Each entry is a copy of the item's current state, taken under its shard's lock.</p>
+     */
+    @Override
+    public List<Task> getHistory() {
+        List<Task> viewed = history.getHistory();
+        List<Task> result = new ArrayList<>(viewed.size());
+        for (Task task : viewed) {
+            int id = task.getId();
+            Shard shard = route(id);
+            Task current = shard.read(() -> {
+                Task stored = shard.getTasks().get(id);
+                if (stored == null) stored = shard.getEpics().get(id);
+                if (stored == null) stored = shard.getSubtasks().get(id);
+                return copyOf(stored);
+            });
+            if (current != null) {
+                result.add(current);
+            }
+        }
+        return result;
+    }
+
+    // --- Bulk methods ---
+
+    /**
+     * {@inheritDoc}
+     * <p>The batch is spread round-robin; each shard stores its part with one bulk call.</p>
+     *
+     * @throws IllegalArgumentException if a task overlaps with an existing item in any shard or with another task of the batch
+     */
+    @Override
+    public List<Task> createTasks(Collection<Task> tasks) {
+        List<Task> originals = tasks.stream().filter(Objects::nonNull).toList();
+        List<Task> items = originals.stream().map(Task::copy).toList();
+        List<List<Task>> groups = emptyGroups();
+        items.forEach(task -> groups.get(nextShard().index).add(task));
+        Map<Integer, Task> created = new HashMap<>();
+        scheduleLock.lock();
+        try {
+            validateBatch(items, Set.of(), "Task overlaps with an existing task");
+            forEachGroup(groups, (shard, group) -> {
+                shard.createTasks(group);
+                group.forEach(task -> created.put(task.getId(), task.copy()));
+            });
+            items.forEach(slots::put);
+        } finally {
+            scheduleLock.unlock();
+        }
+        return results(originals, items, created);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Subtasks are grouped by the shard of their epic; each shard stores its part with one bulk call.</p>
+     *
+     * @throws IllegalArgumentException if:
+     *   <ul>
+     *     <li>a referenced epic does not exist;</li>
+     *     <li>a subtask overlaps with an existing item in any shard or with another subtask of the batch.</li>
+     *   </ul>
+     */
+    @Override
+    public List<Subtask> createSubtasks(Collection<Subtask> subtasks) {
+        List<Subtask> originals = subtasks.stream().filter(Objects::nonNull).toList();
+        List<Subtask> items = originals.stream().map(Subtask::copy).toList();
+        List<List<Subtask>> groups = emptyGroups();
+        items.forEach(subtask -> groups.get(route(subtask.getEpicId()).index).add(subtask));
+        Map<Integer, Subtask> created = new HashMap<>();
+        scheduleLock.lock();
+        try {
+            requireEpics(items, "Epic with ID %d not found.");
+            validateBatch(items, Set.of(), "Subtask overlaps with an existing subtask");
+            forEachGroup(groups, (shard, group) -> {
+                shard.createSubtasks(group);
+                group.forEach(subtask -> created.put(subtask.getId(), subtask.copy()));
+            });
+            items.forEach(slots::put);
+        } finally {
+            scheduleLock.unlock();
+        }
+        return results(originals, items, created);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if an updated task overlaps with an existing item in any shard or with another task of the batch
+     */
+    @Override
+    public void updateTasks(Collection<Task> tasks) {
+        scheduleLock.lock();
+        try {
+            List<Task> items = InMemoryTaskManager.lastPerId(tasks.stream()
+                    .filter(Objects::nonNull)
+                    .filter(task -> {
+                        Shard shard = route(task.getId());
+                        return shard.read(() -> shard.getTasks().containsKey(task.getId()));
+                    })
+                    .map(Task::copy)
+                    .toList());
+            List<List<Task>> groups = emptyGroups();
+            items.forEach(task -> groups.get(route(task.getId()).index).add(task));
+
+            Set<Integer> ids = idsOf(items);
+            validateBatch(items, ids, "Task update overlaps with an existing task");
+            try {
+                forEachGroup(groups, Shard::updateTasks);
+            } catch (RuntimeException e) {
+                resync(ids);
+                throw e;
+            }
+            ids.forEach(slots::remove);
+            items.forEach(slots::put);
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Subtasks staying in their shard are updated with one bulk call per shard; subtasks moving to an
+     * epic of another shard are relocated one by one.</p>
+     *
+     * @throws IllegalArgumentException if:
+     *   <ul>
+     *     <li>a referenced new epic does not exist;</li>
+     *     <li>an updated subtask overlaps with an existing item in any shard or with another subtask of the batch.</li>
+     *   </ul>
+     */
+    @Override
+    public void updateSubtasks(Collection<Subtask> subtasks) {
+        scheduleLock.lock();
+        try {
+            List<Subtask> items = InMemoryTaskManager.lastPerId(subtasks.stream()
+                    .filter(Objects::nonNull)
+                    .filter(subtask -> {
+                        Shard shard = route(subtask.getId());
+                        return shard.read(() -> shard.getSubtasks().containsKey(subtask.getId()));
+                    })
+                    .map(Subtask::copy)
+                    .toList());
+            requireEpics(items, "New parent epic with ID %d not found.");
+            Set<Integer> ids = idsOf(items);
+            validateBatch(items, ids, "Subtask update overlaps with an existing subtask");
+
+            List<List<Subtask>> groups = emptyGroups();
+            List<Subtask> moves = new ArrayList<>();
+            for (Subtask subtask : items) {
+                Shard from = route(subtask.getId());
+                if (from == route(subtask.getEpicId())) {
+                    groups.get(from.index).add(subtask);
+                } else {
+                    moves.add(subtask);
+                }
+            }
+            try {
+                forEachGroup(groups, Shard::updateSubtasks);
+                if (!moves.isEmpty()) {
+                    lockAllFrom(0, () -> relocateAll(moves));
+                }
+            } catch (RuntimeException e) {
+                resync(ids);
+                throw e;
+            }
+            ids.forEach(slots::remove);
+            items.forEach(slots::put);
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void deleteByIds(Collection<Integer> ids) {
+        List<List<Integer>> groups = emptyGroups();
+        ids.stream().filter(Objects::nonNull).forEach(id -> groups.get(route(id).index).add(id));
+
+        List<Integer> released = new ArrayList<>();
+        for (Shard shard : shards) {
+            List<Integer> group = groups.get(shard.index);
+            if (group.isEmpty()) continue;
+            shard.write(() -> {
+                for (int id : group) {
+                    Epic epic = shard.getEpics().get(id);
+                    if (epic != null) {
+                        released.addAll(epic.getSubtaskIds());
+                    } else if (shard.getTasks().containsKey(id) || shard.getSubtasks().containsKey(id)) {
+                        released.add(id);
+                    }
+                }
+                shard.deleteByIds(group);
+            });
+        }
+        release(released);
+    }
+
+    /**
+     * Scans the merged prioritized list to detect any adjacent overlaps.
+     * <p>Useful for diagnostics; not required by the core API.</p>
+     *
+     * @return true if any overlap exists; false otherwise
+     */
+    public boolean hasOverlappingTasks() {
+        Task previous = null;
+        for (Task current : getPrioritizedTasks()) {
+            if (previous != null &&
+                    previous.getEndMinute() != Task.NO_TIME &&
+                    current.getStartMinute() != Task.NO_TIME &&
+                    previous.getEndMinute() >= current.getStartMinute()) {
+                return true;
+            }
+            previous = current;
+        }
+        return false;
+    }
+
+    // region Routing and locking
+
+    /** Returns the shard that owns the given ID. */
+    private Shard route(int id) {
+        Integer index = relocated.get(id);
+        return shards[index != null ? index : homeIndex(id)];
+    }
+
+    /** Returns the index of the shard that generated the given ID. */
+    private int homeIndex(int id) {
+        return Math.floorMod(id - 1, shards.length);
+    }
+
+    /** Picks the shard for a new task or epic. */
+    private Shard nextShard() {
+        return shards[Math.floorMod(placement.getAndIncrement(), shards.length)];
+    }
+
+    /**
+     * Runs a mutation that may change the time window of {@code task} while holding the schedule lock:
+     * validates the window against all shards, applies the mutation and records the resulting window.
+     *
+     * @param task     the task being created or updated
+     * @param message  the overlap error message
+     * @param mutation applies the change; returns whether the task is stored afterwards (if not, nothing changed,
+     *                 e.g. the ID belongs to an item of another type, and the index is left as it is)
+     * @throws IllegalArgumentException if the window starts out of the supported range or overlaps with another item
+     */
+    private void reserve(Task task, String message, BooleanSupplier mutation) {
+        scheduleLock.lock();
+        try {
+            InMemoryTaskManager.checkStartInRange(task);
+            if (slots.overlaps(task)) {
+                throw new IllegalArgumentException(message);
+            }
+            if (mutation.getAsBoolean()) {
+                slots.put(task);
+            }
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    /** Drops time windows and relocation entries of removed items; callers pass only IDs a shard really removed. */
+    private void release(List<Integer> ids) {
+        if (ids.isEmpty()) return;
+        scheduleLock.lock();
+        try {
+            for (int id : ids) {
+                slots.remove(id);
+                relocated.remove(id);
+            }
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    /**
+     * Moves a subtask between shards, keeping its ID. Both shards are locked in index order.
+     * Everything that can fail is checked before the subtask leaves its shard; should the target shard still
+     * reject it, the stored subtask is put back.
+     *
+     * @return true if the subtask existed and was moved
+     * @throws IllegalArgumentException if the new parent epic does not exist or the start is out of the supported range
+     */
+    private boolean relocate(Subtask subtask, Shard from, Shard to) {
+        Shard first = from.index < to.index ? from : to;
+        Shard second = first == from ? to : from;
+        return first.write(() -> second.write(() -> {
+            int id = subtask.getId();
+            Subtask previous = from.getSubtasks().get(id);
+            if (previous == null) {
+                return false;
+            }
+            if (!to.getEpics().containsKey(subtask.getEpicId())) {
+                throw new IllegalArgumentException("New parent epic with ID " + subtask.getEpicId() + " not found.");
+            }
+            InMemoryTaskManager.checkStartInRange(subtask);
+            from.release(id);
+            try {
+                to.adopt(subtask);
+            } catch (RuntimeException e) {
+                from.adopt(previous);
+                throw e;
+            }
+            track(id, to);
+            return true;
+        }));
+    }
+
+    /**
+     * Moves the subtasks of a validated batch to the shards of their new epics; the caller holds all shard locks.
+     * All of them leave their shards before any is adopted, so subtasks that trade windows do not collide.
+     */
+    private void relocateAll(List<Subtask> moves) {
+        List<Shard> targets = new ArrayList<>(moves.size());
+        for (Subtask subtask : moves) {
+            targets.add(route(subtask.getEpicId()));
+            route(subtask.getId()).release(subtask.getId());
+        }
+        for (int i = 0; i < moves.size(); i++) {
+            targets.get(i).adopt(moves.get(i));
+            track(moves.get(i).getId(), targets.get(i));
+        }
+    }
+
+    /** Records the shard a subtask lives in when it is not the one that created it. */
+    private void track(int id, Shard shard) {
+        if (shard.index == homeIndex(id)) {
+            relocated.remove(id);
+        } else {
+            relocated.put(id, shard.index);
+        }
+    }
+
+    /** Re-reads the windows of the given IDs from the shards, after a batch failed part-way through. */
+    private void resync(Collection<Integer> ids) {
+        ids.forEach(slots::remove);
+        for (int id : ids) {
+            Shard shard = route(id);
+            Task stored = shard.read(() -> shard.getSubtasks().containsKey(id)
+                    ? shard.getSubtasks().get(id)
+                    : shard.getTasks().get(id));
+            if (stored != null) {
+                slots.put(stored);
+            }
+        }
+    }
+
+    /** Creates one empty list per shard. */
+    private <T> List<List<T>> emptyGroups() {
+        List<List<T>> groups = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            groups.add(new ArrayList<>());
+        }
+        return groups;
+    }
+
+    /** Applies a bulk operation to every non-empty per-shard group under that shard's write lock. */
+    private <T> void forEachGroup(List<List<T>> groups, BiConsumer<Shard, List<T>> operation) {
+        for (Shard shard : shards) {
+            List<T> group = groups.get(shard.index);
+            if (!group.isEmpty()) {
+                shard.write(() -> operation.accept(shard, group));
+            }
+        }
+    }
+
+    /**
+     * Validates a batch while holding the schedule lock: against itself and against the windows
+     * of all shards, ignoring the windows the batch replaces.
+     */
+    private void validateBatch(List<? extends Task> items, Set<Integer> replaced, String message) {
+        items.forEach(InMemoryTaskManager::checkStartInRange);
+        if (TimeSlotIndex.overlapEachOther(items)) {
+            throw new IllegalArgumentException(message);
+        }
+        for (Task item : items) {
+            if (slots.overlaps(item, replaced)) {
+                throw new IllegalArgumentException(message);
+            }
+        }
+    }
+
+    /** Checks up front that the parent epic of every subtask exists. */
+    private void requireEpics(List<Subtask> items, String message) {
+        for (Subtask subtask : items) {
+            Shard shard = route(subtask.getEpicId());
+            if (!shard.read(() -> shard.getEpics().containsKey(subtask.getEpicId()))) {
+                throw new IllegalArgumentException(String.format(message, subtask.getEpicId()));
+            }
+        }
+    }
+
+    /** Returns a detached copy of an item read under a shard lock, or {@code null}. */
+    private static <T extends Task> T copyOf(T item) {
+        @SuppressWarnings("unchecked")
+        T copy = item == null ? null : (T) item.copy();
+        return copy;
+    }
+
+    /**
+     * Gives the caller's items of a created batch their IDs and returns the copies taken under the shard locks,
+     * in batch order.
+     */
+    private static <T extends Task> List<T> results(List<T> originals, List<T> stored, Map<Integer, T> created) {
+        List<T> result = new ArrayList<>(stored.size());
+        for (int i = 0; i < stored.size(); i++) {
+            int id = stored.get(i).getId();
+            originals.get(i).setId(id);
+            result.add(created.get(id));
+        }
+        return result;
+    }
+
+    /** Returns detached copies of items read under a shard lock. */
+    private static <T extends Task> List<T> copiesOf(List<T> items) {
+        List<T> result = new ArrayList<>(items.size());
+        items.forEach(item -> result.add(copyOf(item)));
+        return result;
+    }
+
+    /** Collects the IDs of a batch. */
+    private static Set<Integer> idsOf(List<? extends Task> items) {
+        Set<Integer> ids = new HashSet<>();
+        items.forEach(item -> ids.add(item.getId()));
+        return ids;
+    }
+
+    /** Applies an action to every shard while holding the schedule lock and all shard write locks. */
+    private void writeAll(Consumer<Shard> action) {
+        scheduleLock.lock();
+        try {
+            lockAllFrom(0, () -> {
+                for (Shard shard : shards) {
+                    action.accept(shard);
+                }
+            });
+        } finally {
+            scheduleLock.unlock();
+        }
+    }
+
+    /** Recursively acquires shard write locks in index order, then runs the action. */
+    private void lockAllFrom(int index, Runnable action) {
+        if (index == shards.length) {
+            action.run();
+            return;
+        }
+        shards[index].write(() -> lockAllFrom(index + 1, action));
+    }
+
+    // endregion
+
+    /**
+     * One partition of the board: an {@link InMemoryTaskManager} with its own lock and ID sequence.
+     */
+    private static final class Shard extends InMemoryTaskManager {
+
+        /** Position of this shard in {@link #shards}. */
+        final int index;
+
+        /** Distance between consecutive IDs of this shard (the shard count). */
+        private final int stride;
+
+        /** Next ID to hand out. */
+        private int next;
+
+        /** Non-zero while {@link #adopt(Subtask)} re-inserts an existing subtask under its own ID. */
+        private int adoptedId;
+
+        /** True while {@link #release(int)} removes a subtask that moves to another shard. */
+        private boolean releasing;
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        Shard(HistoryManager historyManager, int index, int stride) {
+            super(historyManager);
+            this.index = index;
+            this.stride = stride;
+            this.next = index + 1;
+        }
+
+        @Override
+        protected int generateId() {
+            if (adoptedId != 0) {
+                return adoptedId;
+            }
+            int id = next;
+            next += stride;
+            return id;
+        }
+
+        /** Removes a subtask that is moving to another shard; unlike a delete, its history entry stays. */
+        void release(int id) {
+            releasing = true;
+            try {
+                deleteSubtaskById(id);
+            } finally {
+                releasing = false;
+            }
+        }
+
+        @Override
+        protected void removeFromHistory(Collection<Integer> ids) {
+            if (!releasing) {
+                super.removeFromHistory(ids);
+            }
+        }
+
+        /** Inserts a subtask that already has an ID (moved here from another shard). */
+        void adopt(Subtask subtask) {
+            adoptedId = subtask.getId();
+            try {
+                createSubtask(subtask);
+            } finally {
+                adoptedId = 0;
+            }
+        }
+
+        <R> R read(Supplier<R> action) {
+            lock.readLock().lock();
+            try {
+                return action.get();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void read(Runnable action) {
+            read(() -> {
+                action.run();
+                return null;
+            });
+        }
+
+        <R> R write(Supplier<R> action) {
+            lock.writeLock().lock();
+            try {
+                return action.get();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void write(Runnable action) {
+            write(() -> {
+                action.run();
+                return null;
+            });
+        }
+    }
+
+    /** Cursor over one shard's prioritized list during the k-way merge. */
+    private static final class Run {
+        private final List<Task> tasks;
+        private int position;
+
+        Run(List<Task> tasks) {
+            this.tasks = tasks;
+        }
+
+        Task head() {
+            return tasks.get(position);
+        }
+
+        boolean advance() {
+            return ++position < tasks.size();
+        }
+    }
+
+    /** Serializes access to the history manager shared by all shards. */
+    private static final class SynchronizedHistoryManager implements HistoryManager {
+        private final HistoryManager delegate;
+
+        SynchronizedHistoryManager(HistoryManager delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public synchronized void add(Task task) {
+            delegate.add(task);
+        }
+
+        @Override
+        public synchronized void restore(Task task) {
+            delegate.restore(task);
+        }
+
+        @Override
+        public synchronized void remove(int id) {
+            delegate.remove(id);
+        }
+
+        @Override
+        public synchronized void removeAll(Collection<Integer> ids) {
+            delegate.removeAll(ids);
+        }
+
+        @Override
+        public synchronized void removeAllOfType(TaskType type) {
+            delegate.removeAllOfType(type);
+        }
+
+        @Override
+        public synchronized List<Task> getHistory() {
+            return delegate.getHistory();
+        }
+
+        @Override
+        public synchronized List<Task> getHistory(int lastN) {
+            return delegate.getHistory(lastN);
+        }
+
+        /** Visits under the lock; the iterator inherited from {@link HistoryManager} walks a snapshot. */
+        @Override
+        public synchronized void forEachRecent(int limit, Consumer<? super Task> visitor) {
+            delegate.forEachRecent(limit, visitor);
+        }
+    }
+}
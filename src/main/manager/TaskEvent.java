@@ -0,0 +1,58 @@
+package manager;
+
+import model.Task;
+import model.TaskType;
+
+/**
+ * Change notification published by {@link InMemoryTaskManager} for every mutation of its state,
+ * including changes of derived epic fields.
+ * <p>
+ * Events carry a sequence number that grows by one for every change. Subscribers that fall behind
+ * lose events instead of blocking the manager; a gap in the sequence tells them to resynchronize
+ * from a full read.
+ * <p>
+ * The event holds a copy of the item taken when the change happened, so subscribers see that state even if they
+ * run later, and {@link #task()} hands out a new copy on every call: changing it never reaches the manager or
+ * other subscribers.
+ *
+ * @param sequence position of the change in the manager's history of changes
+ * @param kind     what happened
+ * @param type     the type of the affected item
+ * @param id       the ID of the affected item
+ * @param task     the state of the affected item after the change (for {@link Kind#DELETED}, its last state)
+ */
+public record TaskEvent(long sequence, Kind kind, TaskType type, int id, Task task) {
+
+    /** Takes the snapshot of the item. */
+    public TaskEvent {
+        task = task.copy();
+    }
+
+    /**
+     * @return a new copy of the item's state at the time of the change
+     */
+    @Override
+    public Task task() {
+        return task.copy();
+    }
+
+    /**
+     * Kind of change.
+     */
+    public enum Kind {
+        /** An item was created. */
+        CREATED,
+
+        /** An item was updated through the manager. */
+        UPDATED,
+
+        /** An item was deleted (directly or by cascade). */
+        DELETED,
+
+        /** An epic's derived status changed. */
+        EPIC_STATUS_CHANGED,
+
+        /** An epic's derived start time, end time or duration changed. */
+        EPIC_TIME_CHANGED
+    }
+}
@@ -4,6 +4,7 @@ import model.Epic;
 import model.Subtask;
 import model.Task;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -163,4 +164,58 @@ public interface TaskManager {
      * @return immutable copy ordered by priority
      */
     List<Task> getPrioritizedTasks();
+
+    /**
+     * Returns the view history: items read by ID, most recently viewed last.
+     *
+     * @return list of viewed tasks, epics and subtasks; empty if none
+     */
+    List<Task> getHistory();
+
+    // --- Bulk methods ---
+
+    /**
+     * Creates several tasks at once. The whole batch is validated before anything is stored:
+     * if any task overlaps an existing item or another task of the batch, nothing is created.
+     * {@code null} elements are skipped.
+     *
+     * @param tasks the tasks to create
+     * @return the created tasks with assigned IDs, in batch order
+     */
+    List<Task> createTasks(Collection<Task> tasks);
+
+    /**
+     * Creates several subtasks at once. The whole batch is validated before anything is stored
+     * (parent epics must exist, no overlaps), and each affected epic is recalculated once.
+     * {@code null} elements are skipped.
+     *
+     * @param subtasks the subtasks to create
+     * @return the created subtasks with assigned IDs, in batch order
+     */
+    List<Subtask> createSubtasks(Collection<Subtask> subtasks);
+
+    /**
+     * Updates several existing tasks at once; unknown IDs are ignored, and of an ID given more than once
+     * the last occurrence wins. The whole batch is validated for overlaps before anything is changed.
+     *
+     * @param tasks the tasks containing updated fields
+     */
+    void updateTasks(Collection<Task> tasks);
+
+    /**
+     * Updates several existing subtasks at once; unknown IDs are ignored, and of an ID given more than once
+     * the last occurrence wins. The whole batch is validated (new parent epics must exist, no overlaps) before anything is changed,
+     * and each affected epic is recalculated once.
+     *
+     * @param subtasks the subtasks with updated fields
+     */
+    void updateSubtasks(Collection<Subtask> subtasks);
+
+    /**
+     * Deletes tasks, epics (with their subtasks) and subtasks by ID in one operation.
+     * Unknown IDs are ignored; each surviving affected epic is recalculated once.
+     *
+     * @param ids the IDs to delete
+     */
+    void deleteByIds(Collection<Integer> ids);
 }
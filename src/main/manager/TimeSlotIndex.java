@@ -0,0 +1,130 @@
+package manager;
+
+import model.Task;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Index of occupied time windows ({@code startTime..endTime}, inclusive) keyed by start minute
+ * (see {@link Task#getStartMinute()}).
+ * <p>
+ * Stored windows never overlap, so their end times are ordered the same way as their start times.
+ * That makes an overlap check a single descending walk that stops at the first foreign window:
+ * O(log n) instead of a scan over every scheduled item.
+ * <p>
+ * Windows are copied on {@link #put(Task)}, so later in-place changes to a task do not corrupt the index.
+ * <p><strong>Note:</strong> This class is <em>not thread-safe</em>; callers guard it with their own lock.</p>
+ */
+class TimeSlotIndex {
+
+    /** Occupied windows by start minute. */
+    private final TreeMap<Long, Slot> byStart = new TreeMap<>();
+
+    /** Occupied windows by owner ID, for removal. */
+    private final Map<Integer, Slot> byId = new HashMap<>();
+
+    /**
+     * Returns whether the task has a complete time window and therefore takes part in overlap checks.
+     *
+     * @param task the task to check
+     * @return true if both start and end times are set
+     */
+    static boolean hasTimeWindow(Task task) {
+        return task.hasTimeWindow();
+    }
+
+    /**
+     * Checks whether the task's window overlaps any stored window owned by another ID.
+     *
+     * @param task the task to check
+     * @return true if an overlap exists; false if there is none or the task has no time window
+     */
+    boolean overlaps(Task task) {
+        return overlaps(task, Set.of());
+    }
+
+    /**
+     * Checks whether the task's window overlaps any stored window, ignoring its own ID and the given IDs
+     * (e.g. other items of a batch whose windows are about to be replaced).
+     *
+     * @param task    the task to check
+     * @param ignored IDs whose stored windows should not count
+     * @return true if an overlap exists; false if there is none or the task has no time window
+     */
+    boolean overlaps(Task task, Set<Integer> ignored) {
+        if (!hasTimeWindow(task)) {
+            return false;
+        }
+        long start = task.getStartMinute();
+        for (Slot slot : byStart.headMap(task.getEndMinute(), true).descendingMap().values()) {
+            if (slot.id() != task.getId() && !ignored.contains(slot.id())) {
+                return slot.end() >= start;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether any two items of a batch overlap each other: one sort by start time,
+     * then a sweep tracking the latest end seen so far.
+     *
+     * @param batch the items to check
+     * @return true if at least two items overlap
+     */
+    static boolean overlapEachOther(List<? extends Task> batch) {
+        List<? extends Task> timed = batch.stream()
+                .filter(TimeSlotIndex::hasTimeWindow)
+                .sorted(Comparator.comparingLong(Task::getStartMinute))
+                .toList();
+        long maxEnd = Task.NO_TIME;
+        for (Task task : timed) {
+            if (task.getStartMinute() <= maxEnd) {
+                return true;
+            }
+            maxEnd = Math.max(maxEnd, task.getEndMinute());
+        }
+        return false;
+    }
+
+    /**
+     * Stores (or replaces) the window of the given task. Tasks without a window are simply removed.
+     *
+     * @param task the task whose current window should be stored
+     */
+    void put(Task task) {
+        remove(task.getId());
+        if (hasTimeWindow(task)) {
+            Slot slot = new Slot(task.getId(), task.getStartMinute(), task.getEndMinute());
+            byStart.put(slot.start(), slot);
+            byId.put(slot.id(), slot);
+        }
+    }
+
+    /**
+     * Removes the window owned by the given ID (no-op if absent).
+     *
+     * @param id the owner ID
+     */
+    void remove(int id) {
+        Slot slot = byId.remove(id);
+        if (slot != null) {
+            // another window may already have taken this start (items of a batch trading windows)
+            byStart.remove(slot.start(), slot);
+        }
+    }
+
+    /** Removes all windows. */
+    void clear() {
+        byStart.clear();
+        byId.clear();
+    }
+
+    /** Immutable copy of a stored window. */
+    private record Slot(int id, long start, long end) {
+    }
+}
@@ -0,0 +1,68 @@
+package manager;
+
+import model.Task;
+import model.TaskType;
+
+import java.util.List;
+
+/**
+ * A {@link TaskManager} that versions its state, so clients can tell whether anything changed
+ * and fetch only the changes.
+ * <p>
+ * Every change of the state (create, update, delete, or a derived epic field change) advances a global
+ * revision by one, and the affected item remembers the revision of its last change. A bounded log of
+ * recent changes answers {@link #getChangesSince(long)}; a client whose revision is older than the log
+ * has to resynchronize with a full read.
+ */
+public interface VersionedTaskManager extends TaskManager {
+
+    /**
+     * @return the revision of the last change; {@code 0} before any change
+     */
+    long getRevision();
+
+    /**
+     * Returns the revision of the last change of an item.
+     *
+     * @param id the item ID
+     * @return the revision; {@code 0} if the item does not exist or has not changed since the state was loaded
+     */
+    long getRevision(int id);
+
+    /**
+     * Returns the items changed after the given revision, each once, in the order of their last change.
+     *
+     * @param revision the revision the client has seen
+     * @return the changes, or a result with {@link ChangeSet#fullResync()} set if the log no longer covers
+     *         the range
+     */
+    ChangeSet getChangesSince(long revision);
+
+    /**
+     * Items changed after {@code since}, up to {@code revision}.
+     *
+     * @param since      the revision the client asked from
+     * @param revision   the current revision; the client continues from here next time
+     * @param fullResync true if the change log does not reach back to {@code since}: {@code changes} is empty
+     *                   and the client must re-read everything
+     * @param changes    the changed items, ordered by revision
+     */
+    record ChangeSet(long since, long revision, boolean fullResync, List<Change> changes) {
+    }
+
+    /**
+     * The latest change of one item.
+     *
+     * @param id       the item ID
+     * @param type     the item type
+     * @param revision the revision of the item's last change
+     * @param task     the current state of the item; {@code null} if it was deleted
+     */
+    record Change(int id, TaskType type, long revision, Task task) {
+
+        /** @return true if the item no longer exists */
+        public boolean deleted() {
+            return task == null;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of latencies in nanoseconds with logarithmic buckets, in the style of HdrHistogram.
+ * <p>
+ * Values below {@code 16} get a bucket each; above that every power-of-two range is split into 16 linear
+ * sub-buckets, so any recorded value is known within 1/16 (6.25%) of its true value. The whole {@code long}
+ * range fits into {@value #BUCKETS} buckets, preallocated as one {@link AtomicLongArray}.
+ * <p>
+ * {@link #record(long)} is wait-free apart from the maximum (a CAS loop), takes no locks and allocates
+ * nothing, so it can sit on hot paths and be called from any number of threads. Reads take a
+ * {@link Snapshot}, which is consistent per bucket but not across buckets while recording goes on.
+ */
+public final class LatencyHistogram {
+
+    /** Bits of linear resolution within a power of two. */
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /** Number of buckets covering {@code 0..Long.MAX_VALUE}. */
+    static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records one value; negative values are recorded as {@code 0}.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /** @return number of recorded values */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Copies the current state.
+     *
+     * @return an immutable snapshot
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        return new Snapshot(copy, total, sum.get(), max.get());
+    }
+
+    /** Clears all recorded values (not atomic with concurrent recording). */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    /** Returns the bucket index of a non-negative value. */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /** Returns the largest value that falls into the bucket. */
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lower + ((1L << shift) - 1);
+    }
+
+    /**
+     * Point-in-time copy of a histogram.
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        /** @return number of values */
+        public long getCount() {
+            return count;
+        }
+
+        /** @return the mean value, {@code 0} if empty */
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /** @return the largest recorded value, {@code 0} if empty */
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * Returns the value at a percentile: the upper bound of the bucket holding it, capped by the maximum.
+         *
+         * @param percentile between {@code 0} and {@code 100}
+         * @return the value, {@code 0} if empty
+         * @throws IllegalArgumentException if the percentile is out of range
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("Percentile must be within 0..100: " + percentile);
+            }
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(upperBoundOf(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package metrics;
+
+import history.HistoryManager;
+import history.InMemoryHistoryManager;
+import model.Task;
+import model.TaskType;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * {@link HistoryManager} decorator that records a {@link Timer} per method, named {@code <prefix>.<method>}
+ * ({@code getHistory(int)} is {@code <prefix>.getHistoryLastN}). Recording is lock-free and allocation-free,
+ * as in {@link MeteredTaskManager}. A {@code <prefix>.size} gauge is registered as well.
+ * <p>
+ * {@link #descendingIterator()} is forwarded without timing, since its cost is spread over the iteration, and
+ * so is {@link #restore(Task)}, which only runs while a task manager is loaded.
+ * <p>
+ * Thread safety is that of the delegate.
+ */
+public class MeteredHistoryManager implements HistoryManager {
+
+    private final HistoryManager delegate;
+
+    private final Timer add;
+    private final Timer remove;
+    private final Timer removeAll;
+    private final Timer removeAllOfType;
+    private final Timer getHistory;
+    private final Timer getHistoryLastN;
+    private final Timer forEachRecent;
+
+    /**
+     * Creates a decorator with timers named {@code history.<method>}.
+     *
+     * @param delegate the history manager to forward to
+     * @param registry the registry to record into
+     */
+    public MeteredHistoryManager(HistoryManager delegate, MetricsRegistry registry) {
+        this(delegate, registry, "history");
+    }
+
+    /**
+     * Creates a decorator.
+     *
+     * @param delegate the history manager to forward to
+     * @param registry the registry to record into
+     * @param prefix   prefix of timer and gauge names
+     */
+    public MeteredHistoryManager(HistoryManager delegate, MetricsRegistry registry, String prefix) {
+        this.delegate = delegate;
+        this.add = registry.timer(prefix + ".add");
+        this.remove = registry.timer(prefix + ".remove");
+        this.removeAll = registry.timer(prefix + ".removeAll");
+        this.removeAllOfType = registry.timer(prefix + ".removeAllOfType");
+        this.getHistory = registry.timer(prefix + ".getHistory");
+        this.getHistoryLastN = registry.timer(prefix + ".getHistoryLastN");
+        this.forEachRecent = registry.timer(prefix + ".forEachRecent");
+        if (delegate instanceof InMemoryHistoryManager memory) {
+            registry.gauge(prefix + ".size", memory::size);
+        } else {
+            registry.gauge(prefix + ".size", () -> delegate.getHistory().size());
+        }
+    }
+
+    @Override
+    public void add(Task task) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            delegate.add(task);
+            ok = true;
+        } finally {
+            add.stop(start, ok);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void restore(Task task) {
+        delegate.restore(task);
+    }
+
+    @Override
+    public void remove(int id) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            delegate.remove(id);
+            ok = true;
+        } finally {
+            remove.stop(start, ok);
+        }
+    }
+
+    @Override
+    public void removeAll(Collection<Integer> ids) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            delegate.removeAll(ids);
+            ok = true;
+        } finally {
+            removeAll.stop(start, ok);
+        }
+    }
+
+    @Override
+    public void removeAllOfType(TaskType type) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            delegate.removeAllOfType(type);
+            ok = true;
+        } finally {
+            removeAllOfType.stop(start, ok);
+        }
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            List<Task> result = delegate.getHistory();
+            ok = true;
+            return result;
+        } finally {
+            getHistory.stop(start, ok);
+        }
+    }
+
+    @Override
+    public List<Task> getHistory(int lastN) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            List<Task> result = delegate.getHistory(lastN);
+            ok = true;
+            return result;
+        } finally {
+            getHistoryLastN.stop(start, ok);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Iterator<Task> descendingIterator() {
+        return delegate.descendingIterator();
+    }
+
+    @Override
+    public void forEachRecent(int limit, Consumer<? super Task> visitor) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            delegate.forEachRecent(limit, visitor);
+            ok = true;
+        } finally {
+            forEachRecent.stop(start, ok);
+        }
+    }
+}
@@ -0,0 +1,455 @@
+package metrics;
+
+import manager.FileBackedTaskManager;
+import manager.InMemoryTaskManager;
+import manager.TaskManager;
+import model.Epic;
+import model.Subtask;
+import model.Task;
+import model.TaskType;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * {@link TaskManager} decorator that records a {@link Timer} per method: call count, failed calls (such as
+ * overlap rejections, reported by the delegate as {@link IllegalArgumentException}) and a latency histogram.
+ * <p>
+ * Timers are named {@code <prefix>.<method>} and resolved once, in the constructor, so a call costs two
+ * {@link System#nanoTime()} reads and a few atomic increments, with no locks and no allocation.
+ * Gauges for store sizes ({@code <prefix>.tasks}, {@code .epics}, {@code .subtasks}) and the prioritized list
+ * ({@code <prefix>.prioritized}) are registered too; for an {@link InMemoryTaskManager} they read the sizes
+ * directly, otherwise they copy the lists, which is fine for occasional snapshots. A
+ * {@link FileBackedTaskManager} also gets {@code <prefix>.lastSaveNanos}.
+ * <p>
+ * The decorator adds no synchronization: it is exactly as thread-safe as the delegate. Gauges are evaluated
+ * by whoever takes a snapshot, so for a non-thread-safe delegate take snapshots from the thread that uses it.
+ * Capabilities beyond {@link TaskManager} (e.g. {@code VersionedTaskManager}) are not exposed; use
+ * {@link #getDelegate()}.
+ */
+public class MeteredTaskManager implements TaskManager {
+
+    private final TaskManager delegate;
+
+    private final Timer getAllTasks;
+    private final Timer removeAllTasks;
+    private final Timer getTaskById;
+    private final Timer createTask;
+    private final Timer updateTask;
+    private final Timer deleteTaskById;
+    private final Timer getAllEpics;
+    private final Timer removeAllEpics;
+    private final Timer getEpicById;
+    private final Timer createEpic;
+    private final Timer updateEpic;
+    private final Timer deleteEpicById;
+    private final Timer getAllSubtasks;
+    private final Timer removeAllSubtasks;
+    private final Timer getSubtaskById;
+    private final Timer createSubtask;
+    private final Timer updateSubtask;
+    private final Timer deleteSubtaskById;
+    private final Timer getEpicSubtasks;
+    private final Timer getPrioritizedTasks;
+    private final Timer getHistory;
+    private final Timer createTasks;
+    private final Timer createSubtasks;
+    private final Timer updateTasks;
+    private final Timer updateSubtasks;
+    private final Timer deleteByIds;
+
+    /**
+     * Creates a decorator with timers named {@code taskManager.<method>}.
+     *
+     * @param delegate the manager to forward to
+     * @param registry the registry to record into
+     */
+    public MeteredTaskManager(TaskManager delegate, MetricsRegistry registry) {
+        this(delegate, registry, "taskManager");
+    }
+
+    /**
+     * Creates a decorator.
+     *
+     * @param delegate the manager to forward to
+     * @param registry the registry to record into
+     * @param prefix   prefix of timer and gauge names
+     */
+    public MeteredTaskManager(TaskManager delegate, MetricsRegistry registry, String prefix) {
+        this.delegate = delegate;
+        this.getAllTasks = registry.timer(prefix + ".getAllTasks");
+        this.removeAllTasks = registry.timer(prefix + ".removeAllTasks");
+        this.getTaskById = registry.timer(prefix + ".getTaskById");
+        this.createTask = registry.timer(prefix + ".createTask");
+        this.updateTask = registry.timer(prefix + ".updateTask");
+        this.deleteTaskById = registry.timer(prefix + ".deleteTaskById");
+        this.getAllEpics = registry.timer(prefix + ".getAllEpics");
+        this.removeAllEpics = registry.timer(prefix + ".removeAllEpics");
+        this.getEpicById = registry.timer(prefix + ".getEpicById");
+        this.createEpic = registry.timer(prefix + ".createEpic");
+        this.updateEpic = registry.timer(prefix + ".updateEpic");
+        this.deleteEpicById = registry.timer(prefix + ".deleteEpicById");
+        this.getAllSubtasks = registry.timer(prefix + ".getAllSubtasks");
+        this.removeAllSubtasks = registry.timer(prefix + ".removeAllSubtasks");
+        this.getSubtaskById = registry.timer(prefix + ".getSubtaskById");
+        this.createSubtask = registry.timer(prefix + ".createSubtask");
+        this.updateSubtask = registry.timer(prefix + ".updateSubtask");
+        this.deleteSubtaskById = registry.timer(prefix + ".deleteSubtaskById");
+        this.getEpicSubtasks = registry.timer(prefix + ".getEpicSubtasks");
+        this.getPrioritizedTasks = registry.timer(prefix + ".getPrioritizedTasks");
+        this.getHistory = registry.timer(prefix + ".getHistory");
+        this.createTasks = registry.timer(prefix + ".createTasks");
+        this.createSubtasks = registry.timer(prefix + ".createSubtasks");
+        this.updateTasks = registry.timer(prefix + ".updateTasks");
+        this.updateSubtasks = registry.timer(prefix + ".updateSubtasks");
+        this.deleteByIds = registry.timer(prefix + ".deleteByIds");
+
+        if (delegate instanceof InMemoryTaskManager memory) {
+            registry.gauge(prefix + ".tasks", () -> memory.getCount(TaskType.TASK));
+            registry.gauge(prefix + ".epics", () -> memory.getCount(TaskType.EPIC));
+            registry.gauge(prefix + ".subtasks", () -> memory.getCount(TaskType.SUBTASK));
+            registry.gauge(prefix + ".prioritized", memory::getPrioritizedCount);
+        } else {
+            registry.gauge(prefix + ".tasks", () -> delegate.getAllTasks().size());
+            registry.gauge(prefix + ".epics", () -> delegate.getAllEpics().size());
+            registry.gauge(prefix + ".subtasks", () -> delegate.getAllSubtasks().size());
+            registry.gauge(prefix + ".prioritized", () -> delegate.getPrioritizedTasks().size());
+        }
+        if (delegate instanceof FileBackedTaskManager fileBacked) {
+            registry.gauge(prefix + ".lastSaveNanos", fileBacked::getLastSaveDurationNanos);
+        }
+    }
+
+    /**
+     * @return the decorated manager
+     */
+    public TaskManager getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public List<Task> getAllTasks() {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            List<Task> result = delegate.getAllTasks();
+            ok = true;
+            return result;
+        } finally {
+            getAllTasks.stop(start, ok);
+        }
+    }
+
+    @Override
+    public void removeAllTasks() {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            delegate.removeAllTasks();
+            ok = true;
+        } finally {
+            removeAllTasks.stop(start, ok);
+        }
+    }
+
+    @Override
+    public Task getTaskById(int id) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            Task result = delegate.getTaskById(id);
+            ok = true;
+            return result;
+        } finally {
+            getTaskById.stop(start, ok);
+        }
+    }
+
+    @Override
+    public Task createTask(Task task) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            Task result = delegate.createTask(task);
+            ok = true;
+            return result;
+        } finally {
+            createTask.stop(start, ok);
+        }
+    }
+
+    @Override
+    public void updateTask(Task task) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            delegate.updateTask(task);
+            ok = true;
+        } finally {
+            updateTask.stop(start, ok);
+        }
+    }
+
+    @Override
+    public void deleteTaskById(int id) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            delegate.deleteTaskById(id);
+            ok = true;
+        } finally {
+            deleteTaskById.stop(start, ok);
+        }
+    }
+
+    @Override
+    public List<Epic> getAllEpics() {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            List<Epic> result = delegate.getAllEpics();
+            ok = true;
+            return result;
+        } finally {
+            getAllEpics.stop(start, ok);
+        }
+    }
+
+    @Override
+    public void removeAllEpics() {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            delegate.removeAllEpics();
+            ok = true;
+        } finally {
+            removeAllEpics.stop(start, ok);
+        }
+    }
+
+    @Override
+    public Epic getEpicById(int id) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            Epic result = delegate.getEpicById(id);
+            ok = true;
+            return result;
+        } finally {
+            getEpicById.stop(start, ok);
+        }
+    }
+
+    @Override
+    public Epic createEpic(Epic epic) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            Epic result = delegate.createEpic(epic);
+            ok = true;
+            return result;
+        } finally {
+            createEpic.stop(start, ok);
+        }
+    }
+
+    @Override
+    public void updateEpic(Epic epic) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            delegate.updateEpic(epic);
+            ok = true;
+        } finally {
+            updateEpic.stop(start, ok);
+        }
+    }
+
+    @Override
+    public void deleteEpicById(int id) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            delegate.deleteEpicById(id);
+            ok = true;
+        } finally {
+            deleteEpicById.stop(start, ok);
+        }
+    }
+
+    @Override
+    public List<Subtask> getAllSubtasks() {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            List<Subtask> result = delegate.getAllSubtasks();
+            ok = true;
+            return result;
+        } finally {
+            getAllSubtasks.stop(start, ok);
+        }
+    }
+
+    @Override
+    public void removeAllSubtasks() {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            delegate.removeAllSubtasks();
+            ok = true;
+        } finally {
+            removeAllSubtasks.stop(start, ok);
+        }
+    }
+
+    @Override
+    public Subtask getSubtaskById(int id) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            Subtask result = delegate.getSubtaskById(id);
+            ok = true;
+            return result;
+        } finally {
+            getSubtaskById.stop(start, ok);
+        }
+    }
+
+    @Override
+    public Subtask createSubtask(Subtask subtask) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            Subtask result = delegate.createSubtask(subtask);
+            ok = true;
+            return result;
+        } finally {
+            createSubtask.stop(start, ok);
+        }
+    }
+
+    @Override
+    public void updateSubtask(Subtask subtask) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            delegate.updateSubtask(subtask);
+            ok = true;
+        } finally {
+            updateSubtask.stop(start, ok);
+        }
+    }
+
+    @Override
+    public void deleteSubtaskById(int id) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            delegate.deleteSubtaskById(id);
+            ok = true;
+        } finally {
+            deleteSubtaskById.stop(start, ok);
+        }
+    }
+
+    @Override
+    public List<Subtask> getEpicSubtasks(int epicId) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            List<Subtask> result = delegate.getEpicSubtasks(epicId);
+            ok = true;
+            return result;
+        } finally {
+            getEpicSubtasks.stop(start, ok);
+        }
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            List<Task> result = delegate.getPrioritizedTasks();
+            ok = true;
+            return result;
+        } finally {
+            getPrioritizedTasks.stop(start, ok);
+        }
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            List<Task> result = delegate.getHistory();
+            ok = true;
+            return result;
+        } finally {
+            getHistory.stop(start, ok);
+        }
+    }
+
+    @Override
+    public List<Task> createTasks(Collection<Task> tasks) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            List<Task> result = delegate.createTasks(tasks);
+            ok = true;
+            return result;
+        } finally {
+            createTasks.stop(start, ok);
+        }
+    }
+
+    @Override
+    public List<Subtask> createSubtasks(Collection<Subtask> subtasks) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            List<Subtask> result = delegate.createSubtasks(subtasks);
+            ok = true;
+            return result;
+        } finally {
+            createSubtasks.stop(start, ok);
+        }
+    }
+
+    @Override
+    public void updateTasks(Collection<Task> tasks) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            delegate.updateTasks(tasks);
+            ok = true;
+        } finally {
+            updateTasks.stop(start, ok);
+        }
+    }
+
+    @Override
+    public void updateSubtasks(Collection<Subtask> subtasks) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            delegate.updateSubtasks(subtasks);
+            ok = true;
+        } finally {
+            updateSubtasks.stop(start, ok);
+        }
+    }
+
+    @Override
+    public void deleteByIds(Collection<Integer> ids) {
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            delegate.deleteByIds(ids);
+            ok = true;
+        } finally {
+            deleteByIds.stop(start, ok);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package metrics;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Named {@link Timer}s and gauges, exportable as a text or JSON snapshot.
+ * <p>
+ * Timers are created once (by the metered decorators, at construction) and then recorded into directly,
+ * so the recording path never touches the registry. Gauges are functions evaluated only when a snapshot
+ * is taken. The registry is thread-safe.
+ */
+public class MetricsRegistry {
+
+    /** Percentiles included in snapshots. */
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the timer with the given name, creating it on first use.
+     *
+     * @param name the operation name, e.g. {@code taskManager.createTask}
+     * @return the timer
+     */
+    public Timer timer(String name) {
+        return timers.computeIfAbsent(name, Timer::new);
+    }
+
+    /**
+     * Registers (or replaces) a gauge.
+     *
+     * @param name  the gauge name, e.g. {@code taskManager.tasks}
+     * @param value supplies the current value; called on every snapshot, possibly from another thread
+     */
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    /**
+     * @return timers by name, sorted
+     */
+    public Map<String, Timer> getTimers() {
+        return new TreeMap<>(timers);
+    }
+
+    /**
+     * Evaluates all gauges. A gauge that throws is reported as {@code -1}.
+     *
+     * @return gauge values by name, sorted
+     */
+    public Map<String, Long> getGaugeValues() {
+        Map<String, Long> values = new TreeMap<>();
+        gauges.forEach((name, gauge) -> {
+            long value;
+            try {
+                value = gauge.getAsLong();
+            } catch (RuntimeException e) {
+                value = -1;
+            }
+            values.put(name, value);
+        });
+        return values;
+    }
+
+    /**
+     * Renders a snapshot as text, one line per timer or gauge. Latencies are in microseconds.
+     *
+     * @return the report
+     */
+    public String toText() {
+        StringBuilder out = new StringBuilder();
+        getTimers().forEach((name, timer) -> {
+            LatencyHistogram.Snapshot snapshot = timer.getHistogram().snapshot();
+            out.append(String.format(Locale.ROOT, "%-40s count=%d errors=%d mean=%.1fus",
+                    name, snapshot.getCount(), timer.getErrorCount(), snapshot.getMean() / 1000));
+            for (double percentile : PERCENTILES) {
+                out.append(String.format(Locale.ROOT, " p%s=%.1fus", label(percentile),
+                        snapshot.getValueAtPercentile(percentile) / 1000.0));
+            }
+            out.append(String.format(Locale.ROOT, " max=%.1fus%n", snapshot.getMax() / 1000.0));
+        });
+        getGaugeValues().forEach((name, value) ->
+                out.append(String.format(Locale.ROOT, "%-40s %d%n", name, value)));
+        return out.toString();
+    }
+
+    /**
+     * Renders a snapshot as JSON:
+     * {@code {"timers":{"<name>":{"count":..,"errors":..,"meanNanos":..,"p50":..,"p90":..,"p99":..,
+     * "p99.9":..,"maxNanos":..}},"gauges":{"<name>":..}}}; percentiles are in nanoseconds.
+     *
+     * @return JSON object
+     */
+    public String toJson() {
+        StringBuilder out = new StringBuilder("{\"timers\":{");
+        boolean first = true;
+        for (Map.Entry<String, Timer> entry : getTimers().entrySet()) {
+            LatencyHistogram.Snapshot snapshot = entry.getValue().getHistogram().snapshot();
+            out.append(first ? "" : ",").append('"').append(entry.getKey()).append("\":{")
+                    .append("\"count\":").append(snapshot.getCount())
+                    .append(",\"errors\":").append(entry.getValue().getErrorCount())
+                    .append(",\"meanNanos\":").append(String.format(Locale.ROOT, "%.1f", snapshot.getMean()));
+            for (double percentile : PERCENTILES) {
+                out.append(",\"p").append(label(percentile)).append("\":")
+                        .append(snapshot.getValueAtPercentile(percentile));
+            }
+            out.append(",\"maxNanos\":").append(snapshot.getMax()).append('}');
+            first = false;
+        }
+        out.append("},\"gauges\":{");
+        first = true;
+        for (Map.Entry<String, Long> entry : getGaugeValues().entrySet()) {
+            out.append(first ? "" : ",").append('"').append(entry.getKey()).append("\":").append(entry.getValue());
+            first = false;
+        }
+        return out.append("}}").toString();
+    }
+
+    private static String label(double percentile) {
+        return percentile == Math.rint(percentile)
+                ? Long.toString((long) percentile)
+                : Double.toString(percentile);
+    }
+}
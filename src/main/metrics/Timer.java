@@ -0,0 +1,72 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency histogram and error count of one operation. Every call is recorded in the histogram, failed
+ * calls are counted as errors too. Recording is lock-free and allocation-free.
+ */
+public final class Timer {
+
+    private final String name;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final AtomicLong errors = new AtomicLong();
+
+    Timer(String name) {
+        this.name = name;
+    }
+
+    /** @return the operation name */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records a completed call.
+     *
+     * @param nanos the call's duration
+     */
+    public void record(long nanos) {
+        histogram.record(nanos);
+    }
+
+    /**
+     * Records a call that ended with an exception.
+     *
+     * @param nanos the call's duration
+     */
+    public void recordError(long nanos) {
+        errors.incrementAndGet();
+        histogram.record(nanos);
+    }
+
+    /**
+     * Records a call that started at {@code startNanos} and has just ended.
+     *
+     * @param startNanos {@link System#nanoTime()} at the start of the call
+     * @param succeeded  false if the call ended with an exception
+     */
+    public void stop(long startNanos, boolean succeeded) {
+        long elapsed = System.nanoTime() - startNanos;
+        if (succeeded) {
+            record(elapsed);
+        } else {
+            recordError(elapsed);
+        }
+    }
+
+    /** @return number of calls, including failed ones */
+    public long getCount() {
+        return histogram.getCount();
+    }
+
+    /** @return number of failed calls */
+    public long getErrorCount() {
+        return errors.get();
+    }
+
+    /** @return the latency histogram */
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+}
@@ -5,7 +5,12 @@ import manager.TaskManager;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * Represents an epic task, which is a large task composed of one or more {@link Subtask} instances.
@@ -14,12 +19,16 @@ import java.util.List;
  */
 public class Epic extends Task {
 
-    private LocalDateTime endTime;
+    /** Shared array of an epic without subtasks. */
+    private static final int[] NO_IDS = {};
 
     /**
-     * List of subtask IDs associated with this epic.
+     * IDs of the subtasks associated with this epic, in insertion order: the first {@link #subtaskCount}
+     * elements. Kept unboxed, so an ID costs 4 bytes instead of a list slot and an {@link Integer}.
      */
-    private final List<Integer> subtaskIds;
+    private int[] subtaskIds = NO_IDS;
+
+    private int subtaskCount;
 
     /**
      * Creates a new epic with the given name and description.
@@ -30,7 +39,6 @@ public class Epic extends Task {
      */
     public Epic(String name, String description) {
         super(name, description);
-        this.subtaskIds = new ArrayList<>();
     }
 
     /**
@@ -43,8 +51,7 @@ public class Epic extends Task {
      * @param taskStatus  the status of the epic (managed by task manager)
      */
     public Epic(int id, String name, String description, TaskStatus taskStatus, Duration duration, LocalDateTime startTime) {
-        super(id, name, description, taskStatus, duration, startTime);
-        this.subtaskIds = new ArrayList<>();
+        super(id, name, description, taskStatus, duration, startTime, false);
     }
 
     /**
@@ -53,7 +60,33 @@ public class Epic extends Task {
      * @return list of subtask IDs
      */
     public List<Integer> getSubtaskIds() {
-        return new ArrayList<>(subtaskIds);
+        List<Integer> ids = new ArrayList<>(subtaskCount);
+        for (int i = 0; i < subtaskCount; i++) {
+            ids.add(subtaskIds[i]);
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the number of subtask IDs associated with this epic; with {@link #getSubtaskId(int)} it reads
+     * the IDs without boxing them into a list.
+     *
+     * @return number of subtask IDs
+     */
+    public int getSubtaskCount() {
+        return subtaskCount;
+    }
+
+    /**
+     * Returns one subtask ID associated with this epic, in insertion order.
+     *
+     * @param index position of the ID, from 0 to {@link #getSubtaskCount()} exclusive
+     * @return the subtask ID
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int getSubtaskId(int index) {
+        Objects.checkIndex(index, subtaskCount);
+        return subtaskIds[index];
     }
 
     /**
@@ -62,8 +95,23 @@ public class Epic extends Task {
      * @param subtaskId the subtask ID to add
      */
     public void addSubtaskId(int subtaskId) {
-        if (!subtaskIds.contains(subtaskId)) {
-            subtaskIds.add(subtaskId);
+        if (indexOf(subtaskId) < 0) {
+            append(subtaskId);
+        }
+    }
+
+    /**
+     * Adds several subtask IDs, skipping those already present.
+     * Runs in O(existing + added) instead of one list scan per ID.
+     *
+     * @param ids the subtask IDs to add
+     */
+    public void addSubtaskIds(Collection<Integer> ids) {
+        Set<Integer> present = new HashSet<>(getSubtaskIds());
+        for (Integer id : ids) {
+            if (present.add(id)) {
+                append(id);
+            }
         }
     }
 
@@ -73,7 +121,27 @@ public class Epic extends Task {
      * @param subtaskId the subtask ID to remove
      */
     public void removeSubtaskId(Integer subtaskId) {
-        subtaskIds.remove(subtaskId);
+        int index = subtaskId == null ? -1 : indexOf(subtaskId);
+        if (index >= 0) {
+            System.arraycopy(subtaskIds, index + 1, subtaskIds, index, subtaskCount - index - 1);
+            subtaskCount--;
+        }
+    }
+
+    /**
+     * Removes several subtask IDs in a single pass over the list.
+     *
+     * @param ids the subtask IDs to remove
+     */
+    public void removeSubtaskIds(Collection<Integer> ids) {
+        Set<Integer> toRemove = ids instanceof Set<Integer> set ? set : new HashSet<>(ids);
+        int kept = 0;
+        for (int i = 0; i < subtaskCount; i++) {
+            if (!toRemove.contains(subtaskIds[i])) {
+                subtaskIds[kept++] = subtaskIds[i];
+            }
+        }
+        subtaskCount = kept;
     }
 
     /**
@@ -81,7 +149,24 @@ public class Epic extends Task {
      * Note: this does not delete the subtasks themselves.
      */
     public void clearSubtaskIds() {
-        subtaskIds.clear();
+        subtaskIds = NO_IDS;
+        subtaskCount = 0;
+    }
+
+    private int indexOf(int subtaskId) {
+        for (int i = 0; i < subtaskCount; i++) {
+            if (subtaskIds[i] == subtaskId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void append(int subtaskId) {
+        if (subtaskCount == subtaskIds.length) {
+            subtaskIds = Arrays.copyOf(subtaskIds, Math.max(4, subtaskCount + (subtaskCount >> 1)));
+        }
+        subtaskIds[subtaskCount++] = subtaskId;
     }
 
     /**
@@ -94,13 +179,41 @@ public class Epic extends Task {
         return TaskType.EPIC;
     }
 
+    /**
+     * Sets the end time, derived from the subtasks by the manager (truncated to whole minutes).
+     *
+     * @param endTime the latest subtask end, or {@code null}
+     */
+    public void setEndTime(LocalDateTime endTime) {
+        storeEndMinute(toEpochMinute(endTime));
+    }
+
+    /**
+     * Sets the end in minutes since {@code 1970-01-01T00:00}, derived from the subtasks by the manager.
+     *
+     * @param epochMinute the latest subtask end, or {@link #NO_TIME}
+     */
+    public void setEndMinute(long epochMinute) {
+        storeEndMinute(epochMinute);
+    }
+
+    /**
+     * Returns a detached copy, including the derived time fields and the subtask IDs.
+     *
+     * @return a new epic with the same fields
+     */
     @Override
-    public LocalDateTime getEndTime() {
-        return endTime;
+    public Epic copy() {
+        Epic copy = new Epic(getId(), getName(), getDescription(), getStatus(), null, null);
+        copy.copyTimeFrom(this);
+        copy.subtaskIds = subtaskCount == 0 ? NO_IDS : Arrays.copyOf(subtaskIds, subtaskCount);
+        copy.subtaskCount = subtaskCount;
+        return copy;
     }
 
-    public void setEndTime(LocalDateTime endTime) {
-        this.endTime = endTime;
+    /** The end of an epic does not follow from its start and duration; it is set by the manager. */
+    @Override
+    void refreshEndMinute() {
     }
 
     /**
@@ -119,7 +232,7 @@ public class Epic extends Task {
                 ", startTime=" + getStartTime() +
                 ", duration=" + (getDuration() != null ? getDuration().toMinutes() + " min" : "null") +
                 ", endTime=" + getEndTime() +
-                ", subtaskIds=" + subtaskIds +
+                ", subtaskIds=" + getSubtaskIds() +
                 '}';
     }
 }
\ No newline at end of file
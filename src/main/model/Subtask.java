@@ -64,6 +64,18 @@ public class Subtask extends Task {
         return TaskType.SUBTASK;
     }
 
+    /**
+     * Returns a detached copy of this subtask.
+     *
+     * @return a new subtask with the same fields
+     */
+    @Override
+    public Subtask copy() {
+        Subtask copy = new Subtask(getId(), getName(), getDescription(), getStatus(), epicId, null, null);
+        copy.copyTimeFrom(this);
+        return copy;
+    }
+
     /**
      * Returns a string representation of the subtask, including all its properties.
      *
@@ -2,14 +2,28 @@ package model;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Objects;
 
 /**
  * Base class representing a generic task.
  * Used for regular tasks and as a parent class for epics and subtasks.
  * Contains common fields: ID, name, description, and status.
+ * <p>
+ * Time fields are stored as primitive minutes: the start as minutes since {@code 1970-01-01T00:00} (a
+ * {@link LocalDateTime} read as UTC), the duration in minutes, and the end precomputed from both. An absent
+ * value is {@link #NO_TIME}. {@link #getStartTime()}, {@link #getDuration()} and {@link #getEndTime()} are views
+ * created on demand; scheduling code compares {@link #getStartMinute()} and {@link #getEndMinute()} instead.
+ * Times therefore have minute precision: seconds and smaller units are dropped when a time is set.
  */
 public class Task {
+
+    /** Value of the minute fields when the start, duration or end is absent. */
+    public static final long NO_TIME = Long.MIN_VALUE;
+
+    /** Value of {@link #durationMinutes} when the duration is absent. */
+    private static final int NO_DURATION = Integer.MIN_VALUE;
+
     /**
      * Unique identifier of the task.
      */
@@ -30,9 +44,23 @@ public class Task {
      */
     private TaskStatus status;
 
-    private Duration duration;
+    /** Start in minutes since the epoch, or {@link #NO_TIME}. */
+    private long startMinute = NO_TIME;
 
-    private LocalDateTime startTime;
+    /** End in minutes since the epoch, or {@link #NO_TIME}; derived from start and duration (set by epics). */
+    private long endMinute = NO_TIME;
+
+    /** Duration in minutes, or {@link #NO_DURATION}. */
+    private int durationMinutes = NO_DURATION;
+
+    /** Duration views up to this many minutes are shared instances. */
+    private static final int SHARED_DURATION_MINUTES = 24 * 60;
+
+    /**
+     * Shared duration views by minutes, filled on first use. Races only create duplicates, and {@link Duration}
+     * is immutable with final fields, so unsynchronized publication is safe.
+     */
+    private static final Duration[] SHARED_DURATIONS = new Duration[SHARED_DURATION_MINUTES + 1];
 
     /**
      * Constructs a new task with default status {@link TaskStatus#NEW}.
@@ -64,8 +92,7 @@ public class Task {
         this.name = name;
         this.description = description;
         this.status = status;
-        this.duration = duration;
-        this.startTime = startTime;
+        setTime(startTime, duration);
     }
 
     /**
@@ -78,12 +105,24 @@ public class Task {
      */
     public Task(int id, String name, String description, TaskStatus status, Duration duration,
                 LocalDateTime startTime) {
+        this(id, name, description, status, duration, startTime, true);
+    }
+
+    /**
+     * Constructs a task with ID, optionally leaving the end unset (epics get theirs from their subtasks).
+     *
+     * @param endFromTime whether to derive the end from the start and duration
+     */
+    Task(int id, String name, String description, TaskStatus status, Duration duration,
+         LocalDateTime startTime, boolean endFromTime) {
         this.id = id;
         this.name = name;
         this.description = description;
         this.status = status;
-        this.duration = duration;
-        this.startTime = startTime;
+        setTime(startTime, duration);
+        if (!endFromTime) {
+            this.endMinute = NO_TIME;
+        }
     }
 
     /**
@@ -158,24 +197,179 @@ public class Task {
         return TaskType.TASK;
     }
 
+    /**
+     * @return the duration, or {@code null} if not set (a view; whole minutes up to a day are shared instances)
+     */
     public Duration getDuration() {
-        return duration;
+        if (durationMinutes == NO_DURATION) {
+            return null;
+        }
+        if (durationMinutes < 0 || durationMinutes > SHARED_DURATION_MINUTES) {
+            return Duration.ofMinutes(durationMinutes);
+        }
+        Duration cached = SHARED_DURATIONS[durationMinutes];
+        if (cached == null) {
+            cached = Duration.ofMinutes(durationMinutes);
+            SHARED_DURATIONS[durationMinutes] = cached;
+        }
+        return cached;
     }
 
+    /**
+     * Sets the duration, truncated to whole minutes.
+     *
+     * @param duration the duration, or {@code null}
+     * @throws IllegalArgumentException if the duration does not fit into {@code int} minutes
+     */
     public void setDuration(Duration duration) {
-        this.duration = duration;
+        this.durationMinutes = duration == null ? NO_DURATION : toMinutes(duration.toMinutes(), duration);
+        refreshEndMinute();
     }
 
+    /**
+     * Sets the duration in minutes.
+     *
+     * @param minutes the duration, or {@link #NO_TIME} to clear it
+     * @throws IllegalArgumentException if the duration does not fit into {@code int} minutes
+     */
+    public void setDurationMinutes(long minutes) {
+        this.durationMinutes = minutes == NO_TIME ? NO_DURATION : toMinutes(minutes, minutes + " min");
+        refreshEndMinute();
+    }
+
+    /**
+     * @return the start time, or {@code null} if not set (a new view on every call)
+     */
     public LocalDateTime getStartTime() {
-        return startTime;
+        return toLocalDateTime(startMinute);
     }
 
+    /**
+     * Sets the start time, truncated to whole minutes.
+     *
+     * @param startTime the start time, or {@code null}
+     */
     public void setStartTime(LocalDateTime startTime) {
-        this.startTime = startTime;
+        this.startMinute = toEpochMinute(startTime);
+        refreshEndMinute();
+    }
+
+    /**
+     * Sets the start in minutes since {@code 1970-01-01T00:00}.
+     *
+     * @param epochMinute the start, or {@link #NO_TIME} to clear it
+     */
+    public void setStartMinute(long epochMinute) {
+        this.startMinute = epochMinute;
+        refreshEndMinute();
     }
 
+    /**
+     * @return the end time ({@code startTime + duration}), or {@code null} if either is absent
+     * (a new view on every call)
+     */
     public LocalDateTime getEndTime() {
-        return startTime != null && duration != null ? startTime.plus(duration) : null;
+        return toLocalDateTime(endMinute);
+    }
+
+    /**
+     * @return the start in minutes since {@code 1970-01-01T00:00}, or {@link #NO_TIME}
+     */
+    public long getStartMinute() {
+        return startMinute;
+    }
+
+    /**
+     * @return the end in minutes since {@code 1970-01-01T00:00}, or {@link #NO_TIME}
+     */
+    public long getEndMinute() {
+        return endMinute;
+    }
+
+    /**
+     * @return the duration in minutes, or {@link #NO_TIME}
+     */
+    public long getDurationMinutes() {
+        return durationMinutes == NO_DURATION ? NO_TIME : durationMinutes;
+    }
+
+    /**
+     * @return true if both start and end are set, i.e. the item occupies a time window
+     */
+    public boolean hasTimeWindow() {
+        return startMinute != NO_TIME && endMinute != NO_TIME;
+    }
+
+    /**
+     * Returns a detached copy: later changes to this task do not show in the copy, and the other way round.
+     *
+     * @return a new task with the same fields
+     */
+    public Task copy() {
+        Task copy = new Task(id, name, description, status, null, null);
+        copy.copyTimeFrom(this);
+        return copy;
+    }
+
+    /** Copies the minute fields as they are, including an end set by the manager (used by {@link #copy()}). */
+    void copyTimeFrom(Task source) {
+        this.startMinute = source.startMinute;
+        this.durationMinutes = source.durationMinutes;
+        this.endMinute = source.endMinute;
+    }
+
+    /**
+     * Sets start and duration, then the end, in one step (used by the constructors, so it must not call the
+     * overridable {@link #refreshEndMinute()}).
+     */
+    private void setTime(LocalDateTime startTime, Duration duration) {
+        this.startMinute = toEpochMinute(startTime);
+        this.durationMinutes = duration == null ? NO_DURATION : toMinutes(duration.toMinutes(), duration);
+        this.endMinute = endOf(startMinute, durationMinutes);
+    }
+
+    /**
+     * Recomputes the end after the start or duration changed. Epics derive their end from their subtasks
+     * instead and override this to do nothing.
+     */
+    void refreshEndMinute() {
+        endMinute = endOf(startMinute, durationMinutes);
+    }
+
+    private static long endOf(long startMinute, int durationMinutes) {
+        return startMinute == NO_TIME || durationMinutes == NO_DURATION ? NO_TIME : startMinute + durationMinutes;
+    }
+
+    /** Sets the end directly, for epics. */
+    void storeEndMinute(long epochMinute) {
+        this.endMinute = epochMinute;
+    }
+
+    /**
+     * Converts a time to minutes since {@code 1970-01-01T00:00}, dropping seconds and smaller units.
+     *
+     * @param time the time, or {@code null}
+     * @return the minute, or {@link #NO_TIME} for {@code null}
+     */
+    public static long toEpochMinute(LocalDateTime time) {
+        return time == null ? NO_TIME : Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    /**
+     * Converts minutes since {@code 1970-01-01T00:00} back to a time.
+     *
+     * @param epochMinute the minute, or {@link #NO_TIME}
+     * @return the time, or {@code null} for {@link #NO_TIME}
+     */
+    public static LocalDateTime toLocalDateTime(long epochMinute) {
+        return epochMinute == NO_TIME ? null : LocalDateTime.ofEpochSecond(epochMinute * 60, 0, ZoneOffset.UTC);
+    }
+
+    private static int toMinutes(long minutes, Object shown) {
+        if (minutes <= NO_DURATION || minutes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Duration is too long: " + shown);
+        }
+        return (int) minutes;
     }
 
     /**
@@ -209,8 +403,8 @@ public class Task {
                 ", name='" + name + '\'' +
                 ", description='" + description + '\'' +
                 ", status=" + status +
-                ", startTime=" + startTime +
-                ", duration=" + (duration != null ? duration.toMinutes() + " min" : "null") +
+                ", startTime=" + getStartTime() +
+                ", duration=" + (durationMinutes != NO_DURATION ? durationMinutes + " min" : "null") +
                 ", endTime=" + getEndTime() +
                 '}';
     }
@@ -1,6 +1,7 @@
 package model;
 
 import exception.ManagerSaveException;
+import util.StringPool;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
@@ -27,7 +28,7 @@ public class TaskCSVUtil {
             epicId = String.valueOf(((Subtask) task).getEpicId());
         }
 
-        String duration = task.getDuration() != null ? String.valueOf(task.getDuration().toMinutes()) : "";
+        String duration = task.getDurationMinutes() != Task.NO_TIME ? String.valueOf(task.getDurationMinutes()) : "";
         String startTime = task.getStartTime() != null ? task.getStartTime().toString() : "";
 
 
@@ -51,6 +52,19 @@ public class TaskCSVUtil {
      * @throws ManagerSaveException if the input is invalid or parsing fails
      */
     public static Task fromCSVString(String value) {
+        return fromCSVString(value, null);
+    }
+
+    /**
+     * Parses a CSV string like {@link #fromCSVString(String)}, taking the name and description from a pool, so
+     * that rows with equal text share one instance.
+     *
+     * @param value the CSV string
+     * @param pool  the pool for names and descriptions, or {@code null} for fresh strings
+     * @return the corresponding task object
+     * @throws ManagerSaveException if the input is invalid or parsing fails
+     */
+    public static Task fromCSVString(String value, StringPool pool) {
         String[] fields = value.split(",", -1); // -1: include trailing empty strings
 
         if (fields.length < 7) {
@@ -60,9 +74,9 @@ public class TaskCSVUtil {
         try {
             int id = Integer.parseInt(fields[0]);
             TaskType type = TaskType.valueOf(fields[1]);
-            String name = unescapeCsv(fields[2]);
+            String name = intern(unescapeCsv(fields[2]), pool);
             TaskStatus status = TaskStatus.valueOf(fields[3]);
-            String description = unescapeCsv(fields[4]);
+            String description = intern(unescapeCsv(fields[4]), pool);
             Duration duration = fields[5].isEmpty() ? null : Duration.ofMinutes(Long.parseLong(fields[5]));
             LocalDateTime startTime = fields[6].isEmpty() ? null : LocalDateTime.parse(fields[6]);
 
@@ -91,4 +105,8 @@ public class TaskCSVUtil {
     private static String unescapeCsv(String text) {
         return text.replace("\\,", ",");
     }
+
+    private static String intern(String text, StringPool pool) {
+        return pool != null ? pool.intern(text) : text;
+    }
 }
@@ -0,0 +1,186 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from {@code int} keys to {@code long} values without boxing: keys and values live in two parallel
+ * arrays with open addressing and linear probing, so an entry costs 12 bytes of array space (about 24 bytes at
+ * the average load) instead of a {@link java.util.HashMap} node with a boxed key and value (about 80 bytes).
+ * <p>
+ * Removal shifts later entries of the probe run back, so there are no tombstones and lookups stay short after
+ * many removals. Key {@code 0} marks a free slot and is stored separately.
+ * <p><strong>Note:</strong> not thread-safe.</p>
+ */
+public final class IntLongHashMap {
+
+    private static final int FREE = 0;
+    private static final float LOAD_FACTOR = 0.5f;
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    private boolean hasZeroKey;
+    private long zeroValue;
+
+    /** Creates an empty map. */
+    public IntLongHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Creates an empty map sized for the expected number of entries.
+     *
+     * @param expectedSize number of entries that fit without resizing
+     * @throws IllegalArgumentException if {@code expectedSize < 0}
+     */
+    public IntLongHashMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must not be negative: " + expectedSize);
+        }
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    /** @return number of entries */
+    public int size() {
+        return size;
+    }
+
+    /** @return true if there are no entries */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param key the key
+     * @return true if the key has a value
+     */
+    public boolean containsKey(int key) {
+        return key == FREE ? hasZeroKey : keys[slotOf(key)] == key;
+    }
+
+    /**
+     * @param key          the key
+     * @param defaultValue returned if the key has no value
+     * @return the value of the key, or {@code defaultValue}
+     */
+    public long get(int key, long defaultValue) {
+        if (key == FREE) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int slot = slotOf(key);
+        return keys[slot] == key ? values[slot] : defaultValue;
+    }
+
+    /**
+     * Sets the value of a key.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    public void put(int key, long value) {
+        if (key == FREE) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return;
+        }
+        int slot = slotOf(key);
+        if (keys[slot] == key) {
+            values[slot] = value;
+            return;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeAt) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param key the key
+     * @return true if the key had a value
+     */
+    public boolean remove(int key) {
+        if (key == FREE) {
+            if (!hasZeroKey) {
+                return false;
+            }
+            hasZeroKey = false;
+            size--;
+            return true;
+        }
+        int slot = slotOf(key);
+        if (keys[slot] != key) {
+            return false;
+        }
+        // shift back later entries of the run whose home slot is not between the gap and themselves
+        int gap = slot;
+        for (int next = (gap + 1) & mask; keys[next] != FREE; next = (next + 1) & mask) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        keys[gap] = FREE;
+        size--;
+        return true;
+    }
+
+    /** Removes all entries, keeping the current capacity. */
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        hasZeroKey = false;
+        size = 0;
+    }
+
+    /** Returns the slot holding the key, or the free slot where it would go. */
+    private int slotOf(int key) {
+        int slot = mix(key) & mask;
+        while (keys[slot] != key && keys[slot] != FREE) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            int key = oldKeys[i];
+            if (key != FREE) {
+                int slot = slotOf(key);
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        long needed = (long) Math.ceil(expectedSize / (double) LOAD_FACTOR) + 1;
+        return (int) Math.max(MIN_CAPACITY, Long.highestOneBit(Math.min(needed, 1 << 30) - 1) << 1);
+    }
+
+    /** Spreads sequential keys (IDs) over the table. */
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,286 @@
+package util;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Sorted map from {@code long} keys to values without boxing: a two-level B+ tree whose leaves are blocks of up to
+ * {@value #BLOCK} sorted keys in a {@code long[]} with the values in a parallel array. A lookup is a binary search
+ * over the first keys of the blocks followed by one within a block; inserting and removing move at most a block.
+ * Iteration walks the blocks in order, reading keys from contiguous arrays instead of following tree nodes.
+ * <p>
+ * An entry costs 12 bytes of array space (16 at the average fill) instead of a {@link java.util.TreeMap} node
+ * with a boxed key (about 64 bytes). Full blocks split in half, except that keys appended in ascending order start
+ * a new block, so a map filled in key order stays densely packed; sparse blocks merge with a neighbour.
+ * <p><strong>Note:</strong> not thread-safe. Iterators do not detect concurrent modification.</p>
+ *
+ * @param <V> the value type
+ */
+public final class SortedLongMap<V> implements Iterable<V> {
+
+    /** Maximum keys per block. */
+    static final int BLOCK = 128;
+
+    /** A block this small is merged with a neighbour if both fit into half a block. */
+    private static final int MERGE_BELOW = BLOCK / 4;
+
+    private long[][] keys;
+    private Object[][] values;
+    private int[] sizes;
+    /** First key of every non-empty block, so that finding a block searches one contiguous array. */
+    private long[] firstKeys;
+    private int blockCount;
+    private int size;
+
+    /** An emptied block kept for the next split, so that items moving between blocks do not allocate. */
+    private long[] spareKeys;
+    private Object[] spareValues;
+
+    /** Creates an empty map. */
+    public SortedLongMap() {
+        clear();
+    }
+
+    /** @return number of entries */
+    public int size() {
+        return size;
+    }
+
+    /** @return true if there are no entries */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param key the key
+     * @return the value of the key, or {@code null} if it has none
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int block = blockOf(key);
+        int index = Arrays.binarySearch(keys[block], 0, sizes[block], key);
+        return index >= 0 ? (V) values[block][index] : null;
+    }
+
+    /**
+     * @param key the key
+     * @return true if the key has a value
+     */
+    public boolean containsKey(long key) {
+        int block = blockOf(key);
+        return Arrays.binarySearch(keys[block], 0, sizes[block], key) >= 0;
+    }
+
+    /**
+     * Sets the value of a key.
+     *
+     * @param key   the key
+     * @param value the value, not {@code null}
+     * @return the previous value, or {@code null} if the key had none
+     * @throws NullPointerException if {@code value} is {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        int block = blockOf(key);
+        int index = Arrays.binarySearch(keys[block], 0, sizes[block], key);
+        if (index >= 0) {
+            V previous = (V) values[block][index];
+            values[block][index] = value;
+            return previous;
+        }
+        index = -index - 1;
+        if (sizes[block] == BLOCK) {
+            if (index == BLOCK && block == blockCount - 1) {
+                // appending in key order: start a new block and leave this one full
+                openBlock(++block);
+                index = 0;
+            } else {
+                split(block);
+                if (index > BLOCK / 2) {
+                    block++;
+                    index -= BLOCK / 2;
+                }
+            }
+        }
+        int tail = sizes[block] - index;
+        System.arraycopy(keys[block], index, keys[block], index + 1, tail);
+        System.arraycopy(values[block], index, values[block], index + 1, tail);
+        keys[block][index] = key;
+        values[block][index] = value;
+        sizes[block]++;
+        if (index == 0) {
+            firstKeys[block] = key;
+        }
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param key the key
+     * @return the removed value, or {@code null} if the key had none
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int block = blockOf(key);
+        int index = Arrays.binarySearch(keys[block], 0, sizes[block], key);
+        if (index < 0) {
+            return null;
+        }
+        V removed = (V) values[block][index];
+        int tail = sizes[block] - index - 1;
+        System.arraycopy(keys[block], index + 1, keys[block], index, tail);
+        System.arraycopy(values[block], index + 1, values[block], index, tail);
+        values[block][--sizes[block]] = null;
+        if (index == 0 && sizes[block] > 0) {
+            firstKeys[block] = keys[block][0];
+        }
+        size--;
+        if (sizes[block] < MERGE_BELOW) {
+            rebalance(block);
+        }
+        return removed;
+    }
+
+    /** Removes all entries. */
+    public void clear() {
+        keys = new long[4][];
+        values = new Object[4][];
+        sizes = new int[4];
+        firstKeys = new long[4];
+        keys[0] = new long[BLOCK];
+        values[0] = new Object[BLOCK];
+        spareKeys = null;
+        spareValues = null;
+        blockCount = 1;
+        size = 0;
+    }
+
+    /**
+     * @return the values in ascending key order
+     */
+    @Override
+    public Iterator<V> iterator() {
+        return new Iterator<>() {
+            private int block;
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                while (block < blockCount && index >= sizes[block]) {
+                    block++;
+                    index = 0;
+                }
+                return block < blockCount;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public V next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return (V) values[block][index++];
+            }
+        };
+    }
+
+    /** @return the block that holds the key or would hold it: the last one whose first key is not greater */
+    private int blockOf(long key) {
+        int low = 1;
+        int high = blockCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (firstKeys[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low - 1;
+    }
+
+    /** Moves the upper half of a full block into a new block right after it. */
+    private void split(int block) {
+        openBlock(block + 1);
+        int half = BLOCK / 2;
+        System.arraycopy(keys[block], half, keys[block + 1], 0, half);
+        System.arraycopy(values[block], half, values[block + 1], 0, half);
+        Arrays.fill(values[block], half, BLOCK, null);
+        sizes[block] = half;
+        sizes[block + 1] = half;
+        firstKeys[block + 1] = keys[block + 1][0];
+    }
+
+    /** Drops an empty block or merges a sparse one into a neighbour that has room for it. */
+    private void rebalance(int block) {
+        if (blockCount == 1) {
+            return;
+        }
+        if (sizes[block] == 0) {
+            closeBlock(block);
+            return;
+        }
+        int left = block > 0 && sizes[block - 1] + sizes[block] <= BLOCK / 2 ? block - 1
+                : block + 1 < blockCount && sizes[block] + sizes[block + 1] <= BLOCK / 2 ? block : -1;
+        if (left < 0) {
+            return;
+        }
+        int right = left + 1;
+        System.arraycopy(keys[right], 0, keys[left], sizes[left], sizes[right]);
+        System.arraycopy(values[right], 0, values[left], sizes[left], sizes[right]);
+        Arrays.fill(values[right], 0, sizes[right], null);
+        if (sizes[left] == 0) {
+            firstKeys[left] = firstKeys[right];
+        }
+        sizes[left] += sizes[right];
+        closeBlock(right);
+    }
+
+    /** Inserts an empty block at the given position. */
+    private void openBlock(int at) {
+        if (blockCount == keys.length) {
+            int capacity = blockCount * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+            firstKeys = Arrays.copyOf(firstKeys, capacity);
+        }
+        int tail = blockCount - at;
+        System.arraycopy(keys, at, keys, at + 1, tail);
+        System.arraycopy(values, at, values, at + 1, tail);
+        System.arraycopy(sizes, at, sizes, at + 1, tail);
+        System.arraycopy(firstKeys, at, firstKeys, at + 1, tail);
+        if (spareKeys != null) {
+            keys[at] = spareKeys;
+            values[at] = spareValues;
+            spareKeys = null;
+            spareValues = null;
+        } else {
+            keys[at] = new long[BLOCK];
+            values[at] = new Object[BLOCK];
+        }
+        sizes[at] = 0;
+        blockCount++;
+    }
+
+    /** Removes the block at the given position; its values must have been moved or cleared. */
+    private void closeBlock(int at) {
+        spareKeys = keys[at];
+        spareValues = values[at];
+        int tail = blockCount - at - 1;
+        System.arraycopy(keys, at + 1, keys, at, tail);
+        System.arraycopy(values, at + 1, values, at, tail);
+        System.arraycopy(sizes, at + 1, sizes, at, tail);
+        System.arraycopy(firstKeys, at + 1, firstKeys, at, tail);
+        blockCount--;
+        keys[blockCount] = null;
+        values[blockCount] = null;
+        sizes[blockCount] = 0;
+    }
+}
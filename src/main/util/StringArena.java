@@ -0,0 +1,155 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * Stores strings back to back in one {@code char[]} and refers to them by {@code long} handles (offset in the
+ * upper 32 bits, length in the lower 32), so that a table of strings is a primitive column instead of references
+ * to scattered {@link String} objects. {@link #get(long)} creates a new {@code String} on every call.
+ * <p>
+ * Replaced text stays in the array as garbage until the owner of the handles calls {@link #compact(long[], int)},
+ * which copies the live text into a new array and rewrites the handles; {@link #needsCompaction()} tells when
+ * that is worth it.
+ * <p><strong>Note:</strong> not thread-safe.</p>
+ */
+public final class StringArena {
+
+    /** Handle of {@code null}. */
+    public static final long NONE = -1L;
+
+    /** Garbage below this many chars is never worth a compaction. */
+    private static final int MIN_GARBAGE = 4096;
+
+    private static final int MAX_CHARS = Integer.MAX_VALUE - 8;
+
+    private char[] chars = new char[256];
+    private int used;
+    private int garbage;
+
+    /**
+     * Appends a string.
+     *
+     * @param value the string, or {@code null}
+     * @return its handle, or {@link #NONE} for {@code null}
+     * @throws IllegalStateException if the arena would exceed the maximum array size
+     */
+    public long add(String value) {
+        if (value == null) {
+            return NONE;
+        }
+        int length = value.length();
+        if (length > chars.length - used) {
+            if (length > MAX_CHARS - used) {
+                throw new IllegalStateException("String arena is full: " + used + " chars");
+            }
+            chars = Arrays.copyOf(chars, (int) Math.min(MAX_CHARS, Math.max(used + length, chars.length * 2L)));
+        }
+        value.getChars(0, length, chars, used);
+        long handle = (long) used << 32 | length;
+        used += length;
+        return handle;
+    }
+
+    /**
+     * @param handle a handle from {@link #add(String)} that was not freed
+     * @return a new string with the stored text, or {@code null} for {@link #NONE}
+     */
+    public String get(long handle) {
+        return handle == NONE ? null : new String(chars, offset(handle), length(handle));
+    }
+
+    /**
+     * Compares stored text with a string without creating a {@code String}.
+     *
+     * @param handle a handle from {@link #add(String)} that was not freed
+     * @param value  the string, or {@code null}
+     * @return true if both are {@code null} or the text equals {@code value}
+     */
+    public boolean matches(long handle, String value) {
+        if (handle == NONE || value == null) {
+            return handle == NONE && value == null;
+        }
+        int length = length(handle);
+        if (length != value.length()) {
+            return false;
+        }
+        int offset = offset(handle);
+        for (int i = 0; i < length; i++) {
+            if (chars[offset + i] != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Marks the text of a handle as garbage; the handle must not be used afterwards.
+     *
+     * @param handle the handle, or {@link #NONE}
+     */
+    public void free(long handle) {
+        if (handle != NONE) {
+            garbage += length(handle);
+        }
+    }
+
+    /** @return chars in use, including garbage */
+    public int length() {
+        return used;
+    }
+
+    /** @return chars of freed text not yet reclaimed */
+    public int garbage() {
+        return garbage;
+    }
+
+    /** @return true if at least half of the used chars are garbage, and enough of them to matter */
+    public boolean needsCompaction() {
+        return garbage >= MIN_GARBAGE && garbage >= used - garbage;
+    }
+
+    /**
+     * Copies the text of the given handles into a new array in handle order and rewrites the handles. Every
+     * handle that was not freed must be among them; text that no handle refers to is dropped.
+     *
+     * @param handles the live handles ({@link #NONE} elements are skipped)
+     * @param count   number of elements of {@code handles} to process
+     */
+    public void compact(long[] handles, int count) {
+        long live = 0;
+        for (int i = 0; i < count; i++) {
+            if (handles[i] != NONE) {
+                live += length(handles[i]);
+            }
+        }
+        char[] packed = new char[(int) Math.min(MAX_CHARS, Math.max(256, live + (live >> 2)))];
+        int position = 0;
+        for (int i = 0; i < count; i++) {
+            long handle = handles[i];
+            if (handle != NONE) {
+                int length = length(handle);
+                System.arraycopy(chars, offset(handle), packed, position, length);
+                handles[i] = (long) position << 32 | length;
+                position += length;
+            }
+        }
+        chars = packed;
+        used = position;
+        garbage = 0;
+    }
+
+    /** Drops all text; earlier handles become invalid. */
+    public void clear() {
+        chars = new char[256];
+        used = 0;
+        garbage = 0;
+    }
+
+    private static int offset(long handle) {
+        return (int) (handle >>> 32);
+    }
+
+    private static int length(long handle) {
+        return (int) handle;
+    }
+}
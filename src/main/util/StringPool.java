@@ -0,0 +1,129 @@
+package util;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Deduplicates equal strings, such as names and descriptions of items created from templates:
+ * {@link #intern(String)} returns an earlier equal instance if the pool still knows one, so that the duplicate can
+ * be garbage collected.
+ * <p>
+ * The pool is a fixed table of weak references indexed by hash, two slots per lookup:
+ * <ul>
+ *   <li><em>bounded</em> — it never holds more than {@link #capacity()} strings; a miss on a full pair of slots
+ *       replaces one of them, so rarely used strings are forgotten (the pool is a cache, not a registry);</li>
+ *   <li><em>weak</em> — it does not keep strings alive; once no item uses a string, it is collected and its slot
+ *       is reused;</li>
+ *   <li><em>concurrent</em> — lock-free; racing threads may both miss or overwrite each other's entries, which
+ *       only costs a hit, since every returned string equals the argument.</li>
+ * </ul>
+ * Counters for lookups, hits and bytes saved are available through {@link #stats()}.
+ */
+public final class StringPool {
+
+    /** Default number of slots. */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /**
+     * Counters since the pool was created.
+     *
+     * @param lookups    calls of {@link #intern(String)} with a non-null string
+     * @param hits       lookups that returned an earlier instance
+     * @param bytesSaved estimated heap of the duplicates that were replaced, assuming a 64-bit JVM with compressed
+     *                   references and compact strings
+     */
+    public record Stats(long lookups, long hits, long bytesSaved) {
+
+        /** @return share of lookups that were hits, {@code 0..1} ({@code 0} before the first lookup) */
+        public double hitRate() {
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    private final AtomicReferenceArray<WeakReference<String>> slots;
+    private final int mask;
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    /** Creates a pool with {@link #DEFAULT_CAPACITY} slots. */
+    public StringPool() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a pool.
+     *
+     * @param capacity number of slots, rounded up to a power of two
+     * @throws IllegalArgumentException if {@code capacity} is not within {@code 2..2^30}
+     */
+    public StringPool(int capacity) {
+        if (capacity < 2 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be within 2..2^30: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /** @return number of slots, the most strings the pool holds at a time */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Returns an earlier instance equal to the string if the pool has one, otherwise remembers this one.
+     *
+     * @param value the string, or {@code null}
+     * @return an equal string (possibly {@code value} itself), or {@code null} for {@code null}
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        lookups.increment();
+        int hash = value.hashCode();
+        int first = (hash ^ hash >>> 16) & mask;
+        int second = first ^ 1;
+        WeakReference<String> firstRef = slots.get(first);
+        String pooled = firstRef != null ? firstRef.get() : null;
+        if (pooled == null || !pooled.equals(value)) {
+            WeakReference<String> secondRef = slots.get(second);
+            String other = secondRef != null ? secondRef.get() : null;
+            if (other != null && other.equals(value)) {
+                pooled = other;
+            } else {
+                // miss: take a free slot of the pair, or replace the first one
+                int slot = pooled == null || other != null ? first : second;
+                slots.set(slot, new WeakReference<>(value));
+                return value;
+            }
+        }
+        hits.increment();
+        if (pooled != value) {
+            bytesSaved.add(retainedBytes(value));
+        }
+        return pooled;
+    }
+
+    /** @return the counters so far */
+    public Stats stats() {
+        return new Stats(lookups.sum(), hits.sum(), bytesSaved.sum());
+    }
+
+    /**
+     * Estimates the heap held by a string alone: a 24-byte {@link String} plus its {@code byte[]} with a 16-byte
+     * header, one byte per char if all chars are Latin-1 and two otherwise, 8-byte aligned.
+     */
+    static long retainedBytes(String value) {
+        int bytesPerChar = 1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        return 24 + ((16L + (long) value.length() * bytesPerChar + 7) & ~7L);
+    }
+}
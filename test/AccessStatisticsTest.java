@@ -0,0 +1,79 @@
+import history.AccessStatistics;
+import history.AccessTrackingHistoryManager;
+import history.InMemoryHistoryManager;
+import manager.FileBackedTaskManager;
+import manager.InMemoryTaskManager;
+import manager.TaskManager;
+import model.Task;
+import model.TaskStatus;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Path;
+
+/**
+ * Unit tests for {@link AccessStatistics} and {@link AccessTrackingHistoryManager}.
+ */
+class AccessStatisticsTest {
+
+    @Test
+    void hotTasksShouldBeRankedByEstimatedCount() {
+        AccessStatistics stats = new AccessStatistics(256, 4, 3, 1_000_000);
+        for (int round = 0; round < 100; round++) {
+            for (int id = 1; id <= 50; id++) {
+                stats.record(id); // background noise: 100 hits each
+            }
+            for (int i = 0; i < 5; i++) stats.record(1000);
+            for (int i = 0; i < 4; i++) stats.record(2000);
+            for (int i = 0; i < 3; i++) stats.record(3000);
+        }
+
+        Assertions.assertArrayEquals(new int[]{1000, 2000, 3000}, stats.getTopIds());
+        Assertions.assertTrue(stats.estimate(1000) >= 500, "count-min never undercounts");
+        Assertions.assertTrue(stats.estimate(1) >= 100);
+        Assertions.assertEquals(100 * 62, stats.getTotalSamples());
+    }
+
+    @Test
+    void countsShouldDecayPeriodically() {
+        AccessStatistics stats = new AccessStatistics(64, 2, 4, 10);
+        for (int i = 0; i < 9; i++) stats.record(7);
+        Assertions.assertEquals(9, stats.estimate(7));
+        stats.record(7); // 10th sample triggers halving
+        Assertions.assertEquals(5, stats.estimate(7));
+    }
+
+    @Test
+    void readsByIdShouldBeCounted() {
+        AccessTrackingHistoryManager history =
+                new AccessTrackingHistoryManager(new InMemoryHistoryManager(), new AccessStatistics());
+        TaskManager manager = new InMemoryTaskManager(history);
+        Task hot = manager.createTask(new Task("Hot", "d", TaskStatus.NEW));
+        Task cold = manager.createTask(new Task("Cold", "d", TaskStatus.NEW));
+        for (int i = 0; i < 3; i++) manager.getTaskById(hot.getId());
+        manager.getTaskById(cold.getId());
+        manager.getTaskById(12345); // missing: not a view
+
+        Assertions.assertEquals(hot.getId(), history.getStatistics().getTopIds()[0]);
+        Assertions.assertEquals(4, history.getStatistics().getTotalSamples());
+        Assertions.assertEquals(2, history.getHistory().size());
+    }
+
+    @Test
+    void historyReplayedOnLoadShouldNotBeCounted() throws Exception {
+        Path file = File.createTempFile("mgr-access", ".csv").toPath();
+        TaskManager saved = new FileBackedTaskManager(new InMemoryHistoryManager(), file);
+        Task task = saved.createTask(new Task("T", "d", TaskStatus.NEW));
+        saved.getTaskById(task.getId());
+
+        AccessTrackingHistoryManager history =
+                new AccessTrackingHistoryManager(new InMemoryHistoryManager(), new AccessStatistics());
+        TaskManager loaded = FileBackedTaskManager.loadFromFile(file, history);
+
+        Assertions.assertEquals(1, loaded.getHistory().size());
+        Assertions.assertEquals(0, history.getStatistics().getTotalSamples());
+        loaded.getTaskById(task.getId());
+        Assertions.assertEquals(1, history.getStatistics().getTotalSamples());
+    }
+}
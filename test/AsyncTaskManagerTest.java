@@ -0,0 +1,86 @@
+import history.InMemoryHistoryManager;
+import manager.AsyncTaskManager;
+import manager.FileBackedTaskManager;
+import manager.InMemoryTaskManager;
+import model.Epic;
+import model.Subtask;
+import model.Task;
+import model.TaskStatus;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncTaskManagerTest {
+
+    @Test
+    void operationsCompleteWithDelegateResults() {
+        try (AsyncTaskManager async = new AsyncTaskManager(new InMemoryTaskManager(new InMemoryHistoryManager()))) {
+            Epic e = async.createEpic(new Epic("E", "d")).join();
+            Subtask s = async.createSubtask(new Subtask("S", "d", TaskStatus.DONE, e.getId())).join();
+
+            assertEquals(s, async.getSubtaskById(s.getId()).join());
+            assertEquals(TaskStatus.DONE, async.getEpicById(e.getId()).join().getStatus());
+            assertEquals(List.of(s), async.getEpicSubtasks(e.getId()).join());
+        }
+    }
+
+    @Test
+    void resultsAreCopiesOfStoredItems() {
+        try (AsyncTaskManager async = new AsyncTaskManager(new InMemoryTaskManager(new InMemoryHistoryManager()))) {
+            Epic e = async.createEpic(new Epic("E", "d")).join();
+            Epic read = async.getEpicById(e.getId()).join();
+            async.createSubtask(new Subtask("S", "d", TaskStatus.DONE, e.getId())).join();
+
+            assertEquals(TaskStatus.NEW, read.getStatus());
+            assertEquals(0, e.getSubtaskCount());
+            assertEquals(TaskStatus.DONE, async.getAllEpics().join().getFirst().getStatus());
+        }
+    }
+
+    @Test
+    void overlapCompletesExceptionally() {
+        try (AsyncTaskManager async = new AsyncTaskManager(new InMemoryTaskManager(new InMemoryHistoryManager()))) {
+            async.createTask(new Task("A", "", TaskStatus.NEW,
+                    Duration.ofMinutes(60), LocalDateTime.of(2025, 8, 26, 10, 0))).join();
+
+            CompletableFuture<Task> overlapping = async.createTask(new Task("B", "", TaskStatus.NEW,
+                    Duration.ofMinutes(30), LocalDateTime.of(2025, 8, 26, 10, 30)));
+            CompletionException e = assertThrows(CompletionException.class, overlapping::join);
+            assertInstanceOf(IllegalArgumentException.class, e.getCause());
+        }
+    }
+
+    @Test
+    void futureCompletesAfterChangeIsPersisted() throws Exception {
+        Path path = File.createTempFile("mgr-async", ".csv").toPath();
+        try (AsyncTaskManager async = new AsyncTaskManager(
+                new FileBackedTaskManager(new InMemoryHistoryManager(), path))) {
+            async.createTask(new Task("Persisted", "d", TaskStatus.NEW)).join();
+
+            assertTrue(Files.readString(path).contains("Persisted"));
+        }
+    }
+
+    @Test
+    void concurrentCallsAreSerializedForNonThreadSafeDelegate() {
+        try (AsyncTaskManager async = new AsyncTaskManager(new InMemoryTaskManager(new InMemoryHistoryManager()))) {
+            List<CompletableFuture<Task>> futures = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                futures.add(async.createTask(new Task("T" + i, "d", TaskStatus.NEW)));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+            assertEquals(500, async.getAllTasks().join().size());
+        }
+    }
+}
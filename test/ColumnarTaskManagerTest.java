@@ -0,0 +1,139 @@
+import history.InMemoryHistoryManager;
+import manager.ColumnarTaskManager;
+import manager.InMemoryTaskManager;
+import manager.TaskManager;
+import model.Epic;
+import model.Subtask;
+import model.Task;
+import model.TaskStatus;
+import model.TaskType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarTaskManagerTest extends TaskManagerTest<ColumnarTaskManager> {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 8, 26, 9, 0);
+
+    @Override
+    protected ColumnarTaskManager makeManager() {
+        return new ColumnarTaskManager(new InMemoryHistoryManager());
+    }
+
+    @Test
+    void scansCountStatusesAndScheduledMinutes() {
+        manager.createTask(new Task("A", "", TaskStatus.DONE, Duration.ofMinutes(30), BASE));
+        manager.createTask(new Task("B", "", TaskStatus.DONE));
+        Task c = manager.createTask(new Task("C", "", TaskStatus.NEW, Duration.ofMinutes(45), BASE.plusHours(1)));
+        Epic e = manager.createEpic(new Epic("E", ""));
+        manager.createSubtask(new Subtask("S1", "", TaskStatus.IN_PROGRESS, e.getId(),
+                Duration.ofMinutes(15), BASE.plusHours(2)));
+        manager.createSubtask(new Subtask("S2", "", TaskStatus.NEW, e.getId(), Duration.ofMinutes(20), null));
+
+        assertEquals(3, manager.getCount(TaskType.TASK));
+        assertEquals(2, manager.countByStatus(TaskType.TASK, TaskStatus.DONE));
+        assertEquals(1, manager.countByStatus(TaskType.EPIC, TaskStatus.IN_PROGRESS));
+        assertEquals(75, manager.getScheduledMinutes(TaskType.TASK));
+        // a duration without a start is not scheduled
+        assertEquals(15, manager.getScheduledMinutes(TaskType.SUBTASK));
+        assertEquals(35, manager.getScheduledMinutes(TaskType.EPIC));
+        assertFalse(manager.hasOverlappingTasks());
+
+        // returned items are copies: changes reach the store only through update
+        Task copy = manager.getTaskById(c.getId());
+        copy.setStatus(TaskStatus.DONE);
+        assertEquals(2, manager.countByStatus(TaskType.TASK, TaskStatus.DONE));
+        manager.updateTask(copy);
+        assertEquals(3, manager.countByStatus(TaskType.TASK, TaskStatus.DONE));
+    }
+
+    @Test
+    void behavesLikeInMemoryManagerUnderRandomOperations() {
+        InMemoryTaskManager expected = new InMemoryTaskManager(new InMemoryHistoryManager());
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            int id = 1 + random.nextInt(Math.max(1, i / 2 + 1));
+            int pick = random.nextInt(100);
+            // long texts that change on every update, so the string arena is compacted as well
+            String text = "описание " + i + " " + "x".repeat(random.nextInt(200));
+            TaskStatus status = TaskStatus.values()[random.nextInt(3)];
+            Duration duration = random.nextInt(4) == 0 ? null : Duration.ofMinutes(1 + random.nextInt(90));
+            LocalDateTime start = random.nextInt(3) == 0 ? null : BASE.plusMinutes(random.nextInt(200_000));
+            Consumer<TaskManager> operation;
+            if (pick < 25) {
+                operation = m -> m.createTask(new Task("T" + id, text, status, duration, start));
+            } else if (pick < 32) {
+                operation = m -> m.createEpic(new Epic("E" + id, text));
+            } else if (pick < 55) {
+                operation = m -> m.createSubtask(new Subtask("S" + id, text, status, id, duration, start));
+            } else if (pick < 65) {
+                operation = m -> m.updateTask(new Task(id, "T" + id, text, status, duration, start));
+            } else if (pick < 75) {
+                operation = m -> m.updateSubtask(new Subtask(id, "S" + id, text, status, id / 2 + 1, duration, start));
+            } else if (pick < 78) {
+                operation = m -> m.updateEpic(new Epic(id, "E" + id, text, TaskStatus.DONE, null, null));
+            } else if (pick < 85) {
+                operation = m -> m.deleteTaskById(id);
+            } else if (pick < 90) {
+                operation = m -> m.deleteSubtaskById(id);
+            } else if (pick < 93) {
+                operation = m -> m.deleteEpicById(id);
+            } else if (pick < 97) {
+                operation = m -> m.deleteByIds(List.of(id, id + 1, id + 2));
+            } else if (pick < 99) {
+                List<Task> batch = List.of(new Task("A" + id, text, status, duration, start),
+                        new Task("B" + id, text, status, duration, start == null ? null : start.plusHours(3)));
+                operation = m -> m.createTasks(batch.stream().map(ColumnarTaskManagerTest::copyOf).toList());
+            } else {
+                // frees most slots at once, so the columns are compacted
+                operation = i % 2 == 0 ? TaskManager::removeAllTasks : TaskManager::removeAllSubtasks;
+            }
+            assertEquals(outcome(expected, operation), outcome(manager, operation), "operation " + i);
+            if (i % 500 == 0) {
+                assertSameState(expected, manager);
+            }
+        }
+        assertSameState(expected, manager);
+    }
+
+    /** Runs an operation and describes whether it threw. */
+    private static String outcome(TaskManager target, Consumer<TaskManager> operation) {
+        try {
+            operation.accept(target);
+            return "ok";
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static void assertSameState(TaskManager expected, TaskManager actual) {
+        assertEquals(describe(expected.getAllTasks(), true), describe(actual.getAllTasks(), false));
+        assertEquals(describe(expected.getAllEpics(), true), describe(actual.getAllEpics(), false));
+        assertEquals(describe(expected.getAllSubtasks(), true), describe(actual.getAllSubtasks(), false));
+        assertEquals(describe(expected.getPrioritizedTasks(), false), describe(actual.getPrioritizedTasks(), false));
+    }
+
+    /** Describes items; hash map order of the in-memory manager is unspecified, so it is sorted by ID first. */
+    private static List<String> describe(List<? extends Task> items, boolean sortById) {
+        List<Task> ordered = new ArrayList<>(items);
+        if (sortById) {
+            ordered.sort(Comparator.comparingInt(Task::getId));
+        }
+        List<String> result = new ArrayList<>();
+        ordered.forEach(item -> result.add(item.toString()));
+        return result;
+    }
+
+    private static Task copyOf(Task task) {
+        return new Task(task.getName(), task.getDescription(), task.getStatus(), task.getDuration(),
+                task.getStartTime());
+    }
+}
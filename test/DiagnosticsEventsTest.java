@@ -0,0 +1,76 @@
+import history.InMemoryHistoryManager;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import manager.FileBackedTaskManager;
+import model.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiagnosticsEventsTest {
+
+    @Test
+    void hotPathsEmitEventsWithSizes() throws Exception {
+        Path path = File.createTempFile("jfr", ".csv").toPath();
+        Path dump = File.createTempFile("kanban", ".jfr").toPath();
+        try (Recording recording = new Recording()) {
+            for (String name : List.of("kanban.Save", "kanban.Load", "kanban.OverlapCheck",
+                    "kanban.EpicRecalculation", "kanban.RebuildDerivedState")) {
+                recording.enable(name).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+
+            FileBackedTaskManager manager = new FileBackedTaskManager(new InMemoryHistoryManager(), path);
+            manager.createTask(new Task("A", "d", TaskStatus.NEW,
+                    Duration.ofMinutes(30), LocalDateTime.of(2025, 8, 26, 10, 0)));
+            Epic epic = manager.createEpic(new Epic("E", "d"));
+            manager.createSubtask(new Subtask("S", "d", TaskStatus.DONE, epic.getId(),
+                    Duration.ofMinutes(30), LocalDateTime.of(2025, 8, 26, 11, 0)));
+            manager.getEpicById(epic.getId());
+            FileBackedTaskManager.loadFromFile(path);
+
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump).stream()
+                .filter(e -> e.getEventType().getName().startsWith("kanban."))
+                .collect(Collectors.toList());
+        Files.deleteIfExists(dump);
+
+        RecordedEvent lastSave = last(events, "kanban.Save");
+        assertEquals(3, lastSave.getInt("rowsWritten"));
+        assertEquals(path.toString(), lastSave.getString("path"));
+
+        RecordedEvent load = last(events, "kanban.Load");
+        assertEquals(3, load.getInt("rowsRead"));
+        assertEquals(1, load.getInt("historyEntries"));
+
+        RecordedEvent rebuild = last(events, "kanban.RebuildDerivedState");
+        assertEquals(1, rebuild.getInt("subtasks"));
+        assertEquals(2, rebuild.getInt("prioritized"));
+
+        RecordedEvent overlap = last(events, "kanban.OverlapCheck");
+        assertEquals(1, overlap.getInt("itemsScanned"));
+        assertFalse(overlap.getBoolean("overlapFound"));
+
+        assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("kanban.EpicRecalculation")
+                && "status".equals(e.getString("aspect")) && e.getInt("subtasksScanned") == 1), events::toString);
+    }
+
+    private static RecordedEvent last(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(e -> e.getEventType().getName().equals(name))
+                .reduce((first, second) -> second)
+                .orElseThrow(() -> new AssertionError("No " + name + " event"));
+    }
+}
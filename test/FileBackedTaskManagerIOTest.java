@@ -2,10 +2,13 @@ import exception.ManagerSaveException;
 import history.InMemoryHistoryManager;
 import manager.FileBackedTaskManager;
 import model.*;
+import util.StringPool;
 import org.junit.jupiter.api.*;
 
 import java.io.File;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -49,10 +52,33 @@ class FileBackedTaskManagerIOTest {
         assertEquals("T",  p.get(2).getName());
     }
 
+    @Test
+    void load_withStringPool_shouldShareEqualText() throws Exception {
+        Path path = File.createTempFile("mgr-pool", ".csv").toPath();
+        FileBackedTaskManager mgr = new FileBackedTaskManager(new InMemoryHistoryManager(), path);
+        Epic e = mgr.createEpic(new Epic("Релиз", "Шаблон"));
+        for (int i = 0; i < 5; i++) {
+            mgr.createTask(new Task("Ревью", "Шаблон", TaskStatus.NEW));
+            mgr.createSubtask(new Subtask("Ревью", "Шаблон", TaskStatus.NEW, e.getId()));
+        }
+
+        StringPool pool = new StringPool();
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(path, new InMemoryHistoryManager(), pool);
+
+        String description = loaded.getAllEpics().getFirst().getDescription();
+        assertEquals("Шаблон", description);
+        loaded.getAllTasks().forEach(t -> assertSame(description, t.getDescription()));
+        loaded.getAllSubtasks().forEach(s -> assertSame(description, s.getDescription()));
+        assertSame(loaded.getAllTasks().getFirst().getName(), loaded.getAllSubtasks().getFirst().getName());
+        assertEquals(22, pool.stats().lookups());
+        assertEquals(19, pool.stats().hits());
+        assertSame(pool, loaded.getStringPool());
+    }
+
     @Test
     void load_malformedFile_shouldThrow() throws Exception {
         Path path = File.createTempFile("mgr-bad", ".csv").toPath();
-        java.nio.file.Files.writeString(path, "id,type,name,status,description,duration,start,epic\nBROKEN,LINE");
+        Files.writeString(path, "id,type,name,status,description,duration,start,epic\nBROKEN,LINE");
 
         assertThrows(ManagerSaveException.class, () -> FileBackedTaskManager.loadFromFile(path));
     }
@@ -61,8 +87,64 @@ class FileBackedTaskManagerIOTest {
     void load_emptyFile_shouldNotThrow() throws Exception {
         Path path = File.createTempFile("mgr-empty", ".csv").toPath();
         // заголовок и ничего больше
-        java.nio.file.Files.writeString(path, "id,type,name,status,description,duration,start,epic\n");
+        Files.writeString(path, "id,type,name,status,description,duration,start,epic\n");
 
         assertDoesNotThrow(() -> FileBackedTaskManager.loadFromFile(path));
     }
+
+    @Test
+    void transaction_shouldSaveOnceOnCommit_andNothingOnRollback() throws Exception {
+        Path path = File.createTempFile("mgr-tx", ".csv").toPath();
+        FileBackedTaskManager mgr = new FileBackedTaskManager(new InMemoryHistoryManager(), path);
+        mgr.createTask(new Task("Before", "d", TaskStatus.NEW));
+        String afterFirstSave = Files.readString(path);
+
+        assertThrows(IllegalArgumentException.class, () -> mgr.inTransaction(tx -> {
+            tx.createTask(new Task("A", "d", TaskStatus.NEW,
+                    Duration.ofMinutes(60), LocalDateTime.of(2025, 8, 26, 10, 0)));
+            tx.createTask(new Task("B", "d", TaskStatus.NEW,
+                    Duration.ofMinutes(60), LocalDateTime.of(2025, 8, 26, 10, 30)));
+        }));
+        assertEquals(afterFirstSave, Files.readString(path));
+        assertEquals(1, mgr.getAllTasks().size());
+
+        mgr.inTransaction(tx -> {
+            Epic e = tx.createEpic(new Epic("E", "d"));
+            tx.createSubtask(new Subtask("S", "d", TaskStatus.DONE, e.getId()));
+        });
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(path);
+        assertEquals(1, loaded.getAllSubtasks().size());
+        assertEquals(TaskStatus.DONE, loaded.getAllEpics().getFirst().getStatus());
+    }
+
+    @Test
+    void history_shouldBeAppendedOnView_compactedOnSave_andReplayedOnLoad() throws Exception {
+        Path path = File.createTempFile("mgr-history", ".csv").toPath();
+        Path log = FileBackedTaskManager.historyPathOf(path);
+        FileBackedTaskManager mgr = new FileBackedTaskManager(new InMemoryHistoryManager(), path);
+        Task t = mgr.createTask(new Task("T", "d", TaskStatus.NEW));
+        Epic e = mgr.createEpic(new Epic("E", "d"));
+        Subtask s = mgr.createSubtask(new Subtask("S", "d", TaskStatus.NEW, e.getId()));
+        String snapshot = Files.readString(path);
+
+        mgr.getTaskById(t.getId());
+        mgr.getSubtaskById(s.getId());
+        mgr.getEpicById(e.getId());
+        mgr.getTaskById(t.getId());
+        assertEquals(snapshot, Files.readString(path), "views must not rewrite the snapshot");
+        assertEquals(4, Files.readAllLines(log).size());
+
+        InMemoryHistoryManager restored = new InMemoryHistoryManager();
+        FileBackedTaskManager.loadFromFile(path, restored);
+        assertEquals(List.of(s.getId(), e.getId(), t.getId()),
+                restored.getHistory().stream().map(Task::getId).toList());
+
+        mgr.deleteSubtaskById(s.getId()); // drops it from history; save() compacts the log
+        assertEquals(2, Files.readAllLines(log).size());
+        Files.writeString(log, s.getId() + "\n", StandardOpenOption.APPEND);
+        InMemoryHistoryManager reloaded = new InMemoryHistoryManager();
+        FileBackedTaskManager.loadFromFile(path, reloaded);
+        assertEquals(List.of(e.getId(), t.getId()),
+                reloaded.getHistory().stream().map(Task::getId).toList(), "unknown IDs are skipped");
+    }
 }
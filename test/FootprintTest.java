@@ -0,0 +1,40 @@
+import diagnostics.FootprintAnalyzer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Guards the bytes-per-item budgets published by {@link FootprintAnalyzer}.
+ */
+class FootprintTest {
+
+    /** Large enough to average out per-structure overhead, small enough to keep G1 humongous regions out. */
+    private static final int ITEMS = 15_000;
+
+    @Test
+    void managerItemsStayWithinBudget() {
+        Map<String, Double> sizes = FootprintAnalyzer.managerItems(ITEMS);
+
+        assertWithin(FootprintAnalyzer.TARGET_UNTIMED_TASK, sizes.get("task, untimed"), "untimed task");
+        assertWithin(FootprintAnalyzer.TARGET_TIMED_TASK, sizes.get("task, timed"), "timed task");
+        assertWithin(FootprintAnalyzer.TARGET_EPIC, sizes.get("epic, no subtasks"), "epic");
+        assertWithin(FootprintAnalyzer.TARGET_TIMED_SUBTASK, sizes.get("subtask, timed"), "timed subtask");
+    }
+
+    @Test
+    void pooledTemplateTextIsStoredOnce() {
+        Map<String, Double> sizes = FootprintAnalyzer.templatedItems(ITEMS);
+        double copies = sizes.get("task, template text");
+        double pooled = sizes.get("task, template text, pooled");
+
+        assertWithin(FootprintAnalyzer.TARGET_UNTIMED_TASK, pooled, "pooled template task");
+        assertTrue(pooled < copies / 2, () -> String.format("pooled %.1f vs copies %.1f bytes", pooled, copies));
+    }
+
+    private static void assertWithin(int target, double measured, String item) {
+        assertTrue(measured > 0 && measured <= target,
+                () -> String.format("%s: %.1f bytes, budget %d", item, measured, target));
+    }
+}
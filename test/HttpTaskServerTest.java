@@ -0,0 +1,223 @@
+import history.InMemoryHistoryManager;
+import http.HttpTaskServer;
+import manager.InMemoryTaskManager;
+import manager.TaskManager;
+import manager.VersionedTaskManager;
+import model.Epic;
+import model.Subtask;
+import model.Task;
+import model.TaskStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpTaskServerTest {
+
+    private TaskManager manager;
+    private HttpTaskServer server;
+    private HttpClient client;
+
+    @BeforeAll
+    static void enableNoDelay() {
+        // the launch flag HttpTaskServer.main sets; read when the first server of the JVM is created
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        manager = new InMemoryTaskManager(new InMemoryHistoryManager());
+        server = new HttpTaskServer(manager, 0);
+        server.start();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+        client.close();
+    }
+
+    @Test
+    void tasksCanBeCreatedReadUpdatedAndDeleted() throws Exception {
+        HttpResponse<String> created = post("/tasks",
+                "{\"name\":\"Write \\\"docs\\\"\",\"description\":\"d\",\"status\":\"NEW\","
+                        + "\"duration\":30,\"startTime\":\"2025-08-26T10:00\"}");
+        assertEquals(201, created.statusCode());
+        int id = manager.getAllTasks().getFirst().getId();
+        assertTrue(created.body().contains("\"id\":" + id));
+        assertEquals("Write \"docs\"", manager.getAllTasks().getFirst().getName());
+
+        HttpResponse<String> one = get("/tasks/" + id);
+        assertEquals(200, one.statusCode());
+        assertTrue(one.body().contains("\"endTime\":\"2025-08-26T10:30\""));
+        assertEquals(404, get("/tasks/" + (id + 100)).statusCode());
+        assertEquals(404, get("/tasks/abc").statusCode());
+
+        HttpResponse<String> updated = post("/tasks",
+                "{\"id\":" + id + ",\"name\":\"T\",\"description\":\"d\",\"status\":\"DONE\"}");
+        assertEquals(200, updated.statusCode());
+        assertEquals(TaskStatus.DONE, manager.getAllTasks().getFirst().getStatus());
+
+        assertEquals(200, send(HttpRequest.newBuilder(uri("/tasks/" + id)).DELETE()).statusCode());
+        assertTrue(manager.getAllTasks().isEmpty());
+    }
+
+    @Test
+    void overlapsAndMalformedBodiesAreRejected() throws Exception {
+        manager.createTask(new Task("A", "d", TaskStatus.NEW,
+                Duration.ofMinutes(60), LocalDateTime.of(2025, 8, 26, 10, 0)));
+
+        assertEquals(406, post("/tasks", "{\"name\":\"B\",\"duration\":60,"
+                + "\"startTime\":\"2025-08-26T10:30\"}").statusCode());
+        assertEquals(400, post("/tasks", "{\"name\":").statusCode());
+        assertEquals(400, post("/subtasks", "{\"name\":\"S\"}").statusCode(), "epicId is required");
+        assertEquals(406, post("/subtasks", "{\"name\":\"S\",\"epicId\":999}").statusCode());
+        // 2^32 + 1 must not wrap to ID 1
+        assertEquals(400, post("/tasks", "{\"id\":4294967297,\"name\":\"B\"}").statusCode());
+        assertEquals(400, post("/subtasks", "{\"name\":\"S\",\"epicId\":-2147483649}").statusCode());
+        assertEquals(400, post("/tasks", "{\"name\":\"B\",\"x\":" + "[".repeat(100_000)).statusCode());
+        assertEquals("A", manager.getAllTasks().getFirst().getName());
+        assertEquals(405, send(HttpRequest.newBuilder(uri("/history"))
+                .DELETE()).statusCode());
+    }
+
+    @Test
+    void epicsSubtasksHistoryAndPrioritizedAreExposed() throws Exception {
+        Epic epic = manager.createEpic(new Epic("E", "d"));
+        Subtask subtask = manager.createSubtask(new Subtask("S", "d", TaskStatus.DONE, epic.getId(),
+                Duration.ofMinutes(15), LocalDateTime.of(2025, 8, 25, 9, 0)));
+
+        HttpResponse<String> epicJson = get("/epics/" + epic.getId());
+        assertTrue(epicJson.body().contains("\"status\":\"DONE\""));
+        assertTrue(epicJson.body().contains("\"subtaskIds\":[" + subtask.getId() + "]"));
+        assertTrue(get("/epics/" + epic.getId() + "/subtasks").body().contains("\"epicId\":" + epic.getId()));
+        assertTrue(get("/prioritized").body().contains("\"id\":" + subtask.getId()));
+        assertTrue(get("/history").body().startsWith("[{\"id\":" + epic.getId()));
+
+        assertEquals(200, send(HttpRequest.newBuilder(uri("/epics")).DELETE()).statusCode());
+        assertEquals("[]", get("/subtasks").body());
+        assertEquals("[]", get("/history").body());
+    }
+
+    @Test
+    void listsLongerThanOneBatchAreStreamedWhole() throws Exception {
+        Epic epic = manager.createEpic(new Epic("E", "d"));
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            ids.add(manager.createSubtask(new Subtask("S" + i, "d", TaskStatus.NEW, epic.getId())).getId());
+        }
+
+        String body = get("/subtasks").body();
+        assertEquals(600, body.split("\"epicId\"", -1).length - 1);
+        assertTrue(body.contains("\"name\":\"S599\""));
+        String allIds = ids.stream().map(String::valueOf).reduce((x, y) -> x + "," + y).orElseThrow();
+        assertTrue(get("/epics").body().contains("\"subtaskIds\":[" + allIds + "]"));
+    }
+
+    @Test
+    void unchangedStateIsAnsweredWithNotModified() throws Exception {
+        Task task = manager.createTask(new Task("T", "d", TaskStatus.NEW));
+
+        HttpResponse<String> list = get("/tasks");
+        String etag = list.headers().firstValue("ETag").orElseThrow();
+        assertEquals(304, send(HttpRequest.newBuilder(uri("/tasks")).header("If-None-Match", etag).GET())
+                .statusCode());
+        String itemTag = get("/tasks/" + task.getId()).headers().firstValue("ETag").orElseThrow();
+
+        manager.createTask(new Task("U", "d", TaskStatus.NEW));
+        HttpResponse<String> changed = send(HttpRequest.newBuilder(uri("/tasks"))
+                .header("If-None-Match", etag).GET());
+        assertEquals(200, changed.statusCode());
+        assertNotEquals(etag, changed.headers().firstValue("ETag").orElseThrow());
+        assertEquals(304, send(HttpRequest.newBuilder(uri("/tasks/" + task.getId()))
+                .header("If-None-Match", itemTag).GET()).statusCode(), "the item itself did not change");
+    }
+
+    @Test
+    void changesEndpointReturnsDeltaSinceRevision() throws Exception {
+        manager.createTask(new Task("A", "d", TaskStatus.NEW));
+        HttpResponse<String> full = get("/changes?since=-1");
+        assertEquals(200, full.statusCode());
+        assertTrue(full.body().contains("\"fullResync\":true"));
+        String epoch = full.body().replaceAll(".*\"epoch\":\"([0-9a-f]+)\".*", "$1");
+        long revision = ((VersionedTaskManager) manager).getRevision();
+
+        Task b = manager.createTask(new Task("B", "d", TaskStatus.NEW));
+        HttpResponse<String> delta = get("/changes?since=" + revision + "&epoch=" + epoch);
+        assertTrue(delta.body().contains("\"fullResync\":false"), delta.body());
+        assertTrue(delta.body().contains("\"id\":" + b.getId()));
+        assertFalse(delta.body().contains("\"name\":\"A\""));
+
+        assertTrue(get("/changes?since=" + revision + "&epoch=other").body().contains("\"fullResync\":true"));
+        assertEquals(400, get("/changes?since=x").statusCode());
+    }
+
+    /**
+     * Concurrent creates and reads over keep-alive connections all succeed and every create lands on the board.
+     * This is a functional check only; {@code benchmark.HttpLoadDriver} in {@code bench} measures the request rate.
+     */
+    @Test
+    void concurrentRequestsAreAllServed() throws Exception {
+        Task task = manager.createTask(new Task("T", "d", TaskStatus.NEW));
+        HttpRequest read = HttpRequest.newBuilder(uri("/tasks/" + task.getId())).GET().build();
+        int workers = 8;
+        int perWorker = 25;
+        AtomicInteger ok = new AtomicInteger();
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(workers)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < workers; w++) {
+                int worker = w;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < perWorker; i++) {
+                        HttpRequest create = HttpRequest.newBuilder(uri("/tasks")).POST(HttpRequest.BodyPublishers
+                                .ofString("{\"name\":\"W" + worker + "-" + i + "\",\"status\":\"NEW\"}")).build();
+                        if (client.send(create, HttpResponse.BodyHandlers.ofString()).statusCode() == 201
+                                && client.send(read, HttpResponse.BodyHandlers.ofString()).statusCode() == 200) {
+                            ok.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        assertEquals(workers * perWorker, ok.get());
+        assertEquals(workers * perWorker + 1, manager.getAllTasks().size());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getPort() + path);
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return send(HttpRequest.newBuilder(uri(path)).GET());
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        return send(HttpRequest.newBuilder(uri(path)).POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -1,15 +1,22 @@
 import history.HistoryManager;
 import history.InMemoryHistoryManager;
+import model.Epic;
 import model.Task;
 import model.TaskStatus;
+import model.TaskType;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Unit tests for {@link InMemoryHistoryManager}.
- * Tests the new version of history storage (custom linked list with O(1) removals and no duplicates).
+ * Tests the bounded history storage (array-backed linked list with O(1) removals and evictions, no duplicates).
  */
 class InMemoryHistoryManagerTest {
 
@@ -86,4 +93,117 @@ class InMemoryHistoryManagerTest {
         h1.clear();
         Assertions.assertFalse(historyManager.getHistory().isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void fullHistoryShouldEvictLeastRecentlyViewed() {
+        InMemoryHistoryManager bounded = new InMemoryHistoryManager(3);
+        for (int id = 1; id <= 3; id++) {
+            bounded.add(task(id));
+        }
+        bounded.add(task(1)); // 2 is now the oldest
+        bounded.add(task(4));
+
+        Assertions.assertEquals(List.of(3, 1, 4), ids(bounded.getHistory()));
+        Assertions.assertEquals(3, bounded.size());
+        Assertions.assertEquals(3, bounded.getCapacity());
+    }
+
+    @Test
+    void slotsShouldBeReusedAfterRemovalsAndEvictions() {
+        InMemoryHistoryManager bounded = new InMemoryHistoryManager(4);
+        for (int id = 1; id <= 1000; id++) {
+            bounded.add(task(id));
+            if (id % 3 == 0) {
+                bounded.remove(id - 1);
+            }
+        }
+
+        Assertions.assertEquals(List.of(996, 997, 999, 1000), ids(bounded.getHistory()));
+        Assertions.assertEquals(4, bounded.size());
+        for (int id = 1; id <= 1000; id++) {
+            bounded.remove(id);
+        }
+        Assertions.assertTrue(bounded.getHistory().isEmpty());
+        bounded.add(task(7));
+        Assertions.assertEquals(List.of(7), ids(bounded.getHistory()));
+    }
+
+    @Test
+    void storageShouldGrowWithTheHistoryUpToTheCapacity() {
+        InMemoryHistoryManager growing = new InMemoryHistoryManager(100);
+        for (int id = 1; id <= 150; id++) {
+            growing.add(task(id));
+            if (id % 10 == 0) {
+                growing.add(task(id - 5)); // moves an entry that was stored before a growth step
+            }
+        }
+
+        List<Integer> history = ids(growing.getHistory());
+        Assertions.assertEquals(100, history.size());
+        Assertions.assertEquals(List.of(147, 148, 149, 150, 145), history.subList(95, 100));
+        Assertions.assertEquals(history.stream().distinct().count(), history.size());
+        growing.remove(150);
+        Assertions.assertFalse(ids(growing.getHistory()).contains(150));
+    }
+
+    @Test
+    void defaultCapacityShouldBeUsedAndInvalidCapacityRejected() {
+        Assertions.assertEquals(InMemoryHistoryManager.DEFAULT_CAPACITY,
+                new InMemoryHistoryManager().getCapacity());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new InMemoryHistoryManager(0));
+    }
+
+    @Test
+    void windowedReadsShouldReturnOnlyTheMostRecentEntries() {
+        for (int id = 1; id <= 5; id++) {
+            historyManager.add(task(id));
+        }
+        historyManager.add(task(2));
+
+        Assertions.assertEquals(List.of(5, 2), ids(historyManager.getHistory(2)));
+        Assertions.assertEquals(List.of(1, 3, 4, 5, 2), ids(historyManager.getHistory(100)));
+        Assertions.assertTrue(historyManager.getHistory(0).isEmpty());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> historyManager.getHistory(-1));
+
+        List<Integer> visited = new ArrayList<>();
+        historyManager.forEachRecent(3, t -> visited.add(t.getId()));
+        Assertions.assertEquals(List.of(2, 5, 4), visited);
+
+        Iterator<Task> it = historyManager.descendingIterator();
+        Assertions.assertEquals(2, it.next().getId());
+        Assertions.assertEquals(5, it.next().getId());
+        historyManager.remove(1);
+        Assertions.assertThrows(ConcurrentModificationException.class, it::next);
+    }
+
+    @Test
+    void bulkRemovalShouldDropMatchingEntriesOnly() {
+        for (int id = 1; id <= 6; id++) {
+            historyManager.add(task(id));
+        }
+        Epic epic = new Epic("Epic", "Desc");
+        epic.setId(7);
+        historyManager.add(epic);
+
+        Set<Integer> many = new HashSet<>();
+        for (int id = 2; id <= 100; id += 2) {
+            many.add(id); // larger than the history: removed by one sweep
+        }
+        historyManager.removeAll(many);
+        Assertions.assertEquals(List.of(1, 3, 5, 7), ids(historyManager.getHistory()));
+
+        historyManager.removeAll(List.of(3, 42));
+        historyManager.removeAllOfType(TaskType.TASK);
+        Assertions.assertEquals(List.of(7), ids(historyManager.getHistory()));
+    }
+
+    private static Task task(int id) {
+        Task task = new Task("Task " + id, "Desc", TaskStatus.NEW);
+        task.setId(id);
+        return task;
+    }
+
+    private static List<Integer> ids(List<Task> history) {
+        return history.stream().map(Task::getId).toList();
+    }
+}
@@ -1,9 +1,12 @@
 import manager.InMemoryTaskManager;
+import manager.TaskEvent;
 import manager.TaskManager;
+import manager.VersionedTaskManager;
 import model.Epic;
 import model.Subtask;
 import model.Task;
 import model.TaskStatus;
+import util.StringPool;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,7 +15,12 @@ import history.InMemoryHistoryManager;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Unit tests for {@link InMemoryTaskManager}.
@@ -27,6 +35,47 @@ class InMemoryTaskManagerTest {
         taskManager = new InMemoryTaskManager(new InMemoryHistoryManager());
     }
 
+    @Test
+    void deletedItemsShouldDisappearFromHistory() {
+        InMemoryHistoryManager history = new InMemoryHistoryManager();
+        TaskManager manager = new InMemoryTaskManager(history);
+        Task task = manager.createTask(new Task("T", "d", TaskStatus.NEW));
+        Task other = manager.createTask(new Task("T2", "d", TaskStatus.NEW));
+        Epic epic = manager.createEpic(new Epic("E", "d"));
+        Subtask subtask = manager.createSubtask(new Subtask("S", "d", TaskStatus.NEW, epic.getId()));
+        List.of(task.getId(), other.getId()).forEach(manager::getTaskById);
+        manager.getEpicById(epic.getId());
+        manager.getSubtaskById(subtask.getId());
+
+        manager.deleteTaskById(task.getId());
+        manager.deleteEpicById(epic.getId()); // cascades to the subtask
+        Assertions.assertEquals(List.of(other), history.getHistory());
+
+        manager.removeAllTasks();
+        Assertions.assertTrue(history.getHistory().isEmpty());
+    }
+
+    @Test
+    void historyPurgeShouldBeDeferredToCommit() {
+        InMemoryHistoryManager history = new InMemoryHistoryManager();
+        InMemoryTaskManager manager = new InMemoryTaskManager(history);
+        Epic epic = manager.createEpic(new Epic("E", "d"));
+        Subtask subtask = manager.createSubtask(new Subtask("S", "d", TaskStatus.NEW, epic.getId()));
+        manager.getSubtaskById(subtask.getId());
+
+        Assertions.assertThrows(IllegalStateException.class, () -> manager.inTransaction(tx -> {
+            tx.removeAllSubtasks();
+            throw new IllegalStateException("abort");
+        }));
+        Assertions.assertEquals(List.of(subtask), history.getHistory());
+
+        manager.inTransaction(tx -> {
+            tx.removeAllSubtasks();
+            Assertions.assertEquals(List.of(subtask), history.getHistory());
+        });
+        Assertions.assertTrue(history.getHistory().isEmpty());
+    }
+
     @Test
     void shouldAddTasksAndFindThemById() {
         Task task = taskManager.createTask(new Task("Test Task", "Desc Task", TaskStatus.NEW));
@@ -166,4 +215,245 @@ class InMemoryTaskManagerTest {
         Task finalT = t2;
         Assertions.assertThrows(IllegalArgumentException.class, () -> taskManager.updateTask(finalT));
     }
+
+    // --- Transactions ---
+
+    @Test
+    void failedTransaction_shouldRollBackEarlierOperations() {
+        InMemoryTaskManager mgr = new InMemoryTaskManager(new InMemoryHistoryManager());
+        Epic epic = mgr.createEpic(new Epic("E", ""));
+        Subtask existing = mgr.createSubtask(new Subtask("existing", "", TaskStatus.DONE, epic.getId(),
+                Duration.ofMinutes(60), LocalDateTime.of(2025, 8, 25, 10, 0)));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> mgr.inTransaction(tx -> {
+            tx.createSubtask(new Subtask("s1", "", TaskStatus.NEW, epic.getId(),
+                    Duration.ofMinutes(30), LocalDateTime.of(2025, 8, 25, 12, 0)));
+            tx.deleteSubtaskById(existing.getId());
+            tx.createSubtask(new Subtask("s3", "", TaskStatus.NEW, epic.getId(),
+                    Duration.ofMinutes(30), LocalDateTime.of(2025, 8, 25, 12, 15)));
+        }));
+
+        Assertions.assertEquals(List.of(existing), mgr.getAllSubtasks());
+        Assertions.assertEquals(List.of(existing.getId()), mgr.getEpicById(epic.getId()).getSubtaskIds());
+        Assertions.assertEquals(TaskStatus.DONE, mgr.getEpicById(epic.getId()).getStatus());
+        Assertions.assertEquals(List.of(existing), mgr.getPrioritizedTasks());
+
+        Task next = mgr.createTask(new Task("next", "", TaskStatus.NEW));
+        Assertions.assertEquals(existing.getId() + 1, next.getId());
+    }
+
+    @Test
+    void committedTransaction_shouldRecalculateEpics() {
+        InMemoryTaskManager mgr = new InMemoryTaskManager(new InMemoryHistoryManager());
+        Epic epic = mgr.createEpic(new Epic("E", ""));
+
+        mgr.inTransaction(tx -> {
+            tx.createSubtask(new Subtask("s1", "", TaskStatus.DONE, epic.getId(),
+                    Duration.ofMinutes(30), LocalDateTime.of(2025, 8, 25, 10, 0)));
+            tx.createSubtask(new Subtask("s2", "", TaskStatus.DONE, epic.getId(),
+                    Duration.ofMinutes(30), LocalDateTime.of(2025, 8, 25, 11, 0)));
+        });
+
+        Epic stored = mgr.getEpicById(epic.getId());
+        Assertions.assertEquals(TaskStatus.DONE, stored.getStatus());
+        Assertions.assertEquals(Duration.ofMinutes(60), stored.getDuration());
+        Assertions.assertEquals(LocalDateTime.of(2025, 8, 25, 11, 30), stored.getEndTime());
+    }
+
+    @Test
+    void rolledBackEpicDeletion_shouldRestoreEpicAndSubtasks() {
+        InMemoryTaskManager mgr = new InMemoryTaskManager(new InMemoryHistoryManager());
+        Epic epic = mgr.createEpic(new Epic("E", "d"));
+        Subtask s = mgr.createSubtask(new Subtask("s", "", TaskStatus.IN_PROGRESS, epic.getId()));
+
+        Assertions.assertThrows(IllegalStateException.class, () -> mgr.inTransaction(tx -> {
+            tx.deleteEpicById(epic.getId());
+            throw new IllegalStateException("abort");
+        }));
+
+        Assertions.assertEquals(epic, mgr.getEpicById(epic.getId()));
+        Assertions.assertEquals(List.of(s), mgr.getEpicSubtasks(epic.getId()));
+        Assertions.assertEquals(TaskStatus.IN_PROGRESS, mgr.getEpicById(epic.getId()).getStatus());
+    }
+
+    @Test
+    void nestedTransaction_shouldBeRejected() {
+        InMemoryTaskManager mgr = new InMemoryTaskManager(new InMemoryHistoryManager());
+
+        Assertions.assertThrows(IllegalStateException.class, () -> mgr.inTransaction(tx -> {
+            tx.createTask(new Task("T", "", TaskStatus.NEW));
+            mgr.inTransaction(inner -> { });
+        }));
+        Assertions.assertTrue(mgr.getAllTasks().isEmpty());
+    }
+
+    // --- Change events ---
+
+    @Test
+    void subscriber_shouldReceiveCreatedAndDerivedEpicEvents() throws Exception {
+        InMemoryTaskManager mgr = new InMemoryTaskManager(new InMemoryHistoryManager());
+        BlockingQueue<TaskEvent> received = subscribe(mgr);
+
+        Epic epic = mgr.createEpic(new Epic("E", ""));
+        Subtask s = mgr.createSubtask(new Subtask("s", "", TaskStatus.DONE, epic.getId()));
+
+        TaskEvent first = received.poll(5, TimeUnit.SECONDS);
+        TaskEvent second = received.poll(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(first);
+        Assertions.assertNotNull(second);
+        Assertions.assertEquals(TaskEvent.Kind.CREATED, first.kind());
+        Assertions.assertEquals(epic.getId(), first.id());
+        Assertions.assertEquals(TaskEvent.Kind.CREATED, second.kind());
+        Assertions.assertEquals(s.getId(), second.id());
+        Assertions.assertEquals(first.sequence() + 1, second.sequence());
+
+        List<TaskEvent.Kind> derived = new ArrayList<>();
+        TaskEvent next;
+        while ((next = received.poll(500, TimeUnit.MILLISECONDS)) != null) {
+            derived.add(next.kind());
+        }
+        Assertions.assertTrue(derived.contains(TaskEvent.Kind.EPIC_STATUS_CHANGED));
+    }
+
+    @Test
+    void rolledBackTransaction_shouldNotPublishEvents() throws Exception {
+        InMemoryTaskManager mgr = new InMemoryTaskManager(new InMemoryHistoryManager());
+        BlockingQueue<TaskEvent> received = subscribe(mgr);
+
+        Assertions.assertThrows(IllegalStateException.class, () -> mgr.inTransaction(tx -> {
+            tx.createTask(new Task("rolled back", "", TaskStatus.NEW));
+            throw new IllegalStateException("abort");
+        }));
+        mgr.inTransaction(tx -> tx.createTask(new Task("committed", "", TaskStatus.NEW)));
+
+        TaskEvent event = received.poll(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(event);
+        Assertions.assertEquals("committed", event.task().getName());
+        Assertions.assertNull(received.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void events_shouldCarrySnapshotsOfTheChangedItem() throws Exception {
+        InMemoryTaskManager mgr = new InMemoryTaskManager(new InMemoryHistoryManager());
+        BlockingQueue<TaskEvent> received = subscribe(mgr);
+        Epic epic = mgr.createEpic(new Epic("Эпик", ""));
+        mgr.createSubtask(new Subtask("Подзадача", "", TaskStatus.DONE, epic.getId()));
+
+        TaskEvent created = received.poll(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(created);
+        Assertions.assertEquals(TaskStatus.NEW, created.task().getStatus());
+        Assertions.assertTrue(((Epic) created.task()).getSubtaskIds().isEmpty());
+
+        created.task().setName("changed by a subscriber");
+        Assertions.assertEquals("Эпик", created.task().getName());
+        Assertions.assertEquals("Эпик", mgr.getEpicById(epic.getId()).getName());
+    }
+
+    // --- Versioning ---
+
+    @Test
+    void changesSince_shouldCollapseChangesPerItem_andReportDeletions() {
+        InMemoryTaskManager mgr = new InMemoryTaskManager(new InMemoryHistoryManager());
+        Task kept = mgr.createTask(new Task("kept", "", TaskStatus.NEW));
+        long seen = mgr.getRevision();
+
+        Task changed = mgr.createTask(new Task("changed", "", TaskStatus.NEW));
+        mgr.updateTask(new Task(changed.getId(), "changed twice", "", TaskStatus.DONE, null, null));
+        Task removed = mgr.createTask(new Task("removed", "", TaskStatus.NEW));
+        mgr.deleteTaskById(removed.getId());
+
+        VersionedTaskManager.ChangeSet changes = mgr.getChangesSince(seen);
+        Assertions.assertFalse(changes.fullResync());
+        Assertions.assertEquals(mgr.getRevision(), changes.revision());
+        Assertions.assertEquals(List.of(changed.getId(), removed.getId()),
+                changes.changes().stream().map(VersionedTaskManager.Change::id).toList());
+        Assertions.assertEquals("changed twice", changes.changes().getFirst().task().getName());
+        Assertions.assertTrue(changes.changes().get(1).deleted());
+
+        Assertions.assertTrue(mgr.getRevision(changed.getId()) > mgr.getRevision(kept.getId()));
+        Assertions.assertEquals(0, mgr.getRevision(removed.getId()));
+        Assertions.assertTrue(mgr.getChangesSince(mgr.getRevision()).changes().isEmpty());
+    }
+
+    @Test
+    void changesSince_shouldRequireFullResync_whenLogDoesNotReachBack() {
+        InMemoryTaskManager mgr = new InMemoryTaskManager(new InMemoryHistoryManager());
+        mgr.setChangeLogCapacity(2);
+        for (int i = 0; i < 3; i++) {
+            mgr.createTask(new Task("T" + i, "", TaskStatus.NEW));
+        }
+
+        Assertions.assertTrue(mgr.getChangesSince(0).fullResync());
+        Assertions.assertFalse(mgr.getChangesSince(1).fullResync());
+        Assertions.assertTrue(mgr.getChangesSince(mgr.getRevision() + 1).fullResync(), "revision from the future");
+    }
+
+    @Test
+    void rolledBackTransaction_shouldRestoreRevisions() {
+        InMemoryTaskManager mgr = new InMemoryTaskManager(new InMemoryHistoryManager());
+        Task task = mgr.createTask(new Task("T", "", TaskStatus.NEW));
+        long revision = mgr.getRevision();
+        long taskRevision = mgr.getRevision(task.getId());
+
+        Assertions.assertThrows(IllegalStateException.class, () -> mgr.inTransaction(tx -> {
+            tx.updateTask(new Task(task.getId(), "T2", "", TaskStatus.DONE, null, null));
+            tx.createTask(new Task("rolled back", "", TaskStatus.NEW));
+            throw new IllegalStateException("abort");
+        }));
+
+        Assertions.assertEquals(revision, mgr.getRevision());
+        Assertions.assertEquals(taskRevision, mgr.getRevision(task.getId()));
+        Assertions.assertTrue(mgr.getChangesSince(revision).changes().isEmpty());
+    }
+
+    @Test
+    void stringPoolShouldDeduplicateNamesAndDescriptions() {
+        InMemoryTaskManager mgr = new InMemoryTaskManager(new InMemoryHistoryManager());
+        String title = "Шаблон";
+        String description = "Описание";
+        Task before = mgr.createTask(new Task(copy(title), copy(description), TaskStatus.NEW));
+        StringPool pool = new StringPool();
+        mgr.setStringPool(pool);
+
+        Task created = mgr.createTasks(List.of(new Task(copy(title), copy(description), TaskStatus.NEW))).getFirst();
+        Epic epic = mgr.createEpic(new Epic(copy(title), copy(description)));
+        Subtask subtask = mgr.createSubtask(new Subtask(copy(title), copy(description), TaskStatus.NEW, epic.getId()));
+        mgr.updateTask(new Task(before.getId(), copy(title), copy(description), TaskStatus.DONE, null, null));
+
+        String name = mgr.getTaskById(before.getId()).getName();
+        Assertions.assertSame(name, created.getName());
+        Assertions.assertSame(name, mgr.getEpicById(epic.getId()).getName());
+        Assertions.assertSame(name, mgr.getSubtaskById(subtask.getId()).getName());
+        Assertions.assertSame(created.getDescription(), mgr.getSubtaskById(subtask.getId()).getDescription());
+        Assertions.assertSame(pool, mgr.getStringPool());
+        Assertions.assertTrue(pool.stats().hits() >= 6, pool.stats().toString());
+    }
+
+    private static String copy(String value) {
+        return new String(value.toCharArray());
+    }
+
+    private static BlockingQueue<TaskEvent> subscribe(InMemoryTaskManager mgr) {
+        BlockingQueue<TaskEvent> received = new LinkedBlockingQueue<>();
+        mgr.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(TaskEvent item) {
+                received.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        return received;
+    }
 }
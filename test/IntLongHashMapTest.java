@@ -0,0 +1,51 @@
+import org.junit.jupiter.api.Test;
+import util.IntLongHashMap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntLongHashMapTest {
+
+    @Test
+    void behavesLikeHashMapUnderRandomOperations() {
+        IntLongHashMap map = new IntLongHashMap();
+        Map<Integer, Long> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(5_000) - 100; // includes 0 and negative keys
+            switch (random.nextInt(3)) {
+                case 0, 1 -> {
+                    long value = random.nextLong();
+                    map.put(key, value);
+                    expected.put(key, value);
+                }
+                default -> assertEquals(expected.remove(key) != null, map.remove(key));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (int key = -100; key < 4_900; key++) {
+            assertEquals(expected.containsKey(key), map.containsKey(key), "key " + key);
+            assertEquals(expected.getOrDefault(key, -1L), map.get(key, -1L), "key " + key);
+        }
+    }
+
+    @Test
+    void clearKeepsMapUsable() {
+        IntLongHashMap map = new IntLongHashMap(4);
+        for (int key = 0; key < 100; key++) {
+            map.put(key, key * 10L);
+        }
+        map.clear();
+
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(0));
+        map.put(0, 1);
+        map.put(42, 2);
+        assertEquals(1, map.get(0, 0));
+        assertEquals(2, map.get(42, 0));
+        assertEquals(2, map.size());
+    }
+}
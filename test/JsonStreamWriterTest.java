@@ -0,0 +1,92 @@
+import http.JsonStreamWriter;
+import model.Epic;
+import model.Subtask;
+import model.Task;
+import model.TaskStatus;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonStreamWriterTest {
+
+    @Test
+    void writesTasksEpicsAndSubtasks() throws IOException {
+        Task task = new Task(1, "Name \"q\" \\ é €", "line\nbreak\u0001", TaskStatus.NEW,
+                Duration.ofMinutes(90), LocalDateTime.of(2025, 8, 26, 10, 0));
+        Epic epic = new Epic(2, "E", null, TaskStatus.DONE, null, null);
+        epic.addSubtaskId(3);
+        epic.addSubtaskId(4);
+        Subtask subtask = new Subtask(3, "S😀", "", TaskStatus.IN_PROGRESS, 2, null, null);
+
+        assertEquals("{\"id\":1,\"type\":\"TASK\",\"name\":\"Name \\\"q\\\" \\\\ é €\","
+                        + "\"description\":\"line\\nbreak\\u0001\",\"status\":\"NEW\",\"duration\":90,"
+                        + "\"startTime\":\"2025-08-26T10:00\",\"endTime\":\"2025-08-26T11:30\"}",
+                write(List.of(task)).replaceAll("^\\[|]$", ""));
+        assertEquals("[{\"id\":2,\"type\":\"EPIC\",\"name\":\"E\",\"description\":null,\"status\":\"DONE\","
+                        + "\"duration\":null,\"startTime\":null,\"endTime\":null,\"subtaskIds\":[3,4]},"
+                        + "{\"id\":3,\"type\":\"SUBTASK\",\"name\":\"S😀\",\"description\":\"\","
+                        + "\"status\":\"IN_PROGRESS\",\"duration\":null,\"startTime\":null,\"endTime\":null,"
+                        + "\"epicId\":2}]",
+                write(List.of(epic, subtask)));
+    }
+
+    @Test
+    void timesMatchLocalDateTimeToStringOfTheMinute() throws IOException {
+        List<LocalDateTime> times = List.of(
+                LocalDateTime.of(2025, 1, 2, 3, 4),
+                LocalDateTime.of(2025, 1, 2, 3, 4, 5),
+                LocalDateTime.of(2025, 1, 2, 3, 4, 0, 120_000_000),
+                LocalDateTime.of(2025, 1, 2, 3, 4, 5, 123_456_000),
+                LocalDateTime.of(2025, 1, 2, 3, 4, 5, 1),
+                LocalDateTime.of(999, 12, 31, 23, 59),
+                LocalDateTime.of(-42, 1, 1, 0, 0),
+                LocalDateTime.of(12345, 6, 7, 8, 9),
+                LocalDateTime.of(-12345, 6, 7, 8, 9),
+                LocalDateTime.of(2024, 2, 29, 23, 59),
+                LocalDateTime.of(1969, 12, 31, 23, 59),
+                LocalDateTime.of(1600, 3, 1, 0, 0));
+        for (LocalDateTime time : times) {
+            Task task = new Task(1, "T", "d", TaskStatus.NEW, Duration.ZERO, time);
+            LocalDateTime minute = time.truncatedTo(ChronoUnit.MINUTES);
+            assertTrue(write(List.of(task)).contains("\"startTime\":\"" + minute + "\""), time.toString());
+        }
+    }
+
+    @Test
+    void largeOutputIsWrittenInBufferSizedChunks() throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            tasks.add(new Task(i, "Task " + i, "Description " + i, TaskStatus.NEW,
+                    Duration.ofMinutes(i), LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(i)));
+        }
+        int[] largestWrite = new int[1];
+        ByteArrayOutputStream sink = new ByteArrayOutputStream() {
+            @Override
+            public synchronized void write(byte[] b, int off, int len) {
+                largestWrite[0] = Math.max(largestWrite[0], len);
+                super.write(b, off, len);
+            }
+        };
+
+        new JsonStreamWriter(sink, 1024).writeArray(tasks).flush();
+
+        assertTrue(sink.size() > 1_000_000);
+        assertTrue(largestWrite[0] <= 1024);
+        assertEquals(write(tasks), sink.toString(StandardCharsets.UTF_8));
+    }
+
+    private static String write(List<? extends Task> tasks) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new JsonStreamWriter(out, 64).writeArray(tasks).flush();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,166 @@
+import exception.ManagerSaveException;
+import history.InMemoryHistoryManager;
+import http.KVServer;
+import http.KVTaskClient;
+import manager.KVTaskManager;
+import model.*;
+import org.junit.jupiter.api.*;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KVTaskManagerTest extends TaskManagerTest<KVTaskManager> {
+
+    private static KVServer server;
+    private static KVTaskClient client;
+
+    @BeforeAll
+    static void startServer() throws Exception {
+        server = new KVServer(0);
+        server.start();
+        client = new KVTaskClient(URI.create("http://localhost:" + server.getPort()));
+    }
+
+    @AfterAll
+    static void stopServer() {
+        client.close();
+        server.stop();
+    }
+
+    @AfterEach
+    void closeManager() {
+        manager.close();
+    }
+
+    @Override
+    protected KVTaskManager makeManager() {
+        return new KVTaskManager(new InMemoryHistoryManager(), client);
+    }
+
+    @Test
+    void flushAndLoad_shouldRestoreItemsDerivedDataAndHistory() throws Exception {
+        try (KVServer store = new KVServer(0); KVTaskClient storeClient = client(store)) {
+            KVTaskManager mgr = new KVTaskManager(new InMemoryHistoryManager(), storeClient);
+            Task t = mgr.createTask(new Task("T \"quoted\"", "d", TaskStatus.NEW,
+                    Duration.ofMinutes(30), LocalDateTime.of(2025, 8, 26, 10, 0)));
+            Epic e = mgr.createEpic(new Epic("E", "d"));
+            Subtask s = mgr.createSubtask(new Subtask("S", "d", TaskStatus.DONE, e.getId(),
+                    Duration.ofMinutes(15), LocalDateTime.of(2025, 8, 25, 9, 0)));
+            Task removed = mgr.createTask(new Task("removed", "d", TaskStatus.NEW));
+            mgr.getSubtaskById(s.getId());
+            mgr.getTaskById(t.getId());
+            mgr.deleteTaskById(removed.getId());
+            mgr.close();
+
+            KVTaskManager loaded = KVTaskManager.load(storeClient);
+            assertEquals(List.of(t), loaded.getAllTasks());
+            assertEquals("T \"quoted\"", loaded.getAllTasks().getFirst().getName());
+            assertEquals(TaskStatus.DONE, loaded.getAllEpics().getFirst().getStatus());
+            assertEquals(List.of(s.getId()), loaded.getAllEpics().getFirst().getSubtaskIds());
+            assertEquals(List.of(s, t), loaded.getHistory());
+            assertNull(store.get("item/" + removed.getId()));
+
+            Task next = loaded.createTask(new Task("next", "d", TaskStatus.NEW));
+            assertTrue(next.getId() > s.getId());
+            loaded.close();
+        }
+    }
+
+    @Test
+    void mutations_shouldBeCoalescedWhileABatchIsInFlight() throws Exception {
+        try (KVServer store = new KVServer(0); HeldClient storeClient = new HeldClient(start(store));
+             KVTaskManager mgr = new KVTaskManager(new InMemoryHistoryManager(), storeClient)) {
+            Task task = mgr.createTask(new Task("T", "d", TaskStatus.NEW));
+            assertTrue(storeClient.holding.await(5, TimeUnit.SECONDS), "the flusher sends the first batch");
+            int updates = 200;
+            for (int i = 0; i < updates; i++) {
+                mgr.updateTask(new Task(task.getId(), "T" + i, "d", TaskStatus.IN_PROGRESS, null, null));
+            }
+            mgr.inTransaction(tx -> {
+                for (int i = 0; i < 50; i++) {
+                    tx.createTask(new Task("tx" + i, "d", TaskStatus.NEW));
+                }
+            });
+            storeClient.release.countDown();
+            mgr.flush();
+
+            // the create, then everything staged while it was held
+            assertEquals(2, mgr.getBatchCount());
+            assertEquals(2, store.getWriteRequestCount());
+            assertTrue(store.get("item/" + task.getId()).contains("T" + (updates - 1)));
+            assertEquals(51, storeClient.loadAll("item/").size());
+        }
+    }
+
+    @Test
+    void flush_shouldFail_whenStoreIsUnreachable() throws Exception {
+        KVServer store = new KVServer(0);
+        KVTaskClient storeClient = client(store);
+        store.close(); // nothing listens on the port any more
+
+        KVTaskManager mgr = new KVTaskManager(new InMemoryHistoryManager(), storeClient);
+        mgr.createTask(new Task("T", "d", TaskStatus.NEW));
+        assertEquals(1, mgr.getAllTasks().size(), "mutations do not wait for the store");
+        assertThrows(ManagerSaveException.class, mgr::flush);
+        assertThrows(ManagerSaveException.class, mgr::close);
+        storeClient.close();
+    }
+
+    @Test
+    void load_shouldNotLeaveAFlusherBehind_whenStoreHoldsMalformedData() throws Exception {
+        try (KVServer store = new KVServer(0); KVTaskClient storeClient = client(store)) {
+            storeClient.putAll(Map.of("item/1", "1,TASK"));
+            long before = flusherThreads();
+
+            assertThrows(ManagerSaveException.class, () -> KVTaskManager.load(storeClient));
+            assertEquals(before, flusherThreads());
+        }
+    }
+
+    private static long flusherThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("kv-flusher"))
+                .count();
+    }
+
+    private static KVTaskClient client(KVServer store) {
+        return new KVTaskClient(start(store));
+    }
+
+    private static URI start(KVServer store) {
+        store.start();
+        return URI.create("http://localhost:" + store.getPort());
+    }
+
+    /** Client whose first {@code putAll} waits until released, so that the writes staged meanwhile pile up. */
+    private static final class HeldClient extends KVTaskClient {
+        final CountDownLatch holding = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        private final AtomicBoolean held = new AtomicBoolean();
+
+        HeldClient(URI baseUri) {
+            super(baseUri);
+        }
+
+        @Override
+        public void putAll(Map<String, String> values) {
+            if (held.compareAndSet(false, true)) {
+                holding.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS); // bounded, so a failed test still closes
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            super.putAll(values);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 import history.HistoryManager;
+import manager.InMemoryTaskManager;
 import manager.Managers;
+import manager.ShardedTaskManager;
 import manager.TaskManager;
 import model.Task;
 import model.TaskStatus;
@@ -69,4 +71,23 @@ class ManagersTest {
         Assertions.assertFalse(history.isEmpty());
         Assertions.assertEquals(task.getId(), history.getLast().getId());
     }
+
+    /**
+     * Factory methods should create independent managers, each with its own history.
+     */
+    @Test
+    void factoriesShouldCreateIndependentManagers() {
+        InMemoryTaskManager first = Managers.inMemory();
+        InMemoryTaskManager second = Managers.inMemory();
+        Task task = first.createTask(new Task("Only in first", "Desc", TaskStatus.NEW));
+        first.getTaskById(task.getId());
+
+        Assertions.assertTrue(second.getAllTasks().isEmpty());
+        Assertions.assertTrue(second.getHistory().isEmpty());
+        Assertions.assertFalse(Managers.isThreadSafe(first));
+
+        ShardedTaskManager sharded = Managers.sharded(4);
+        Assertions.assertEquals(4, sharded.getShardCount());
+        Assertions.assertTrue(Managers.isThreadSafe(sharded));
+    }
 }
@@ -0,0 +1,113 @@
+import history.InMemoryHistoryManager;
+import manager.FileBackedTaskManager;
+import manager.InMemoryTaskManager;
+import metrics.LatencyHistogram;
+import metrics.MeteredHistoryManager;
+import metrics.MeteredTaskManager;
+import metrics.MetricsRegistry;
+import model.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MeteredTaskManagerTest extends TaskManagerTest<MeteredTaskManager> {
+
+    private MetricsRegistry registry;
+
+    @Override
+    protected MeteredTaskManager makeManager() {
+        registry = new MetricsRegistry();
+        return new MeteredTaskManager(
+                new InMemoryTaskManager(new MeteredHistoryManager(new InMemoryHistoryManager(), registry)), registry);
+    }
+
+    @Test
+    void callsErrorsAndGaugesAreRecorded() {
+        manager.createTask(new Task("A", "d", TaskStatus.NEW,
+                Duration.ofMinutes(60), LocalDateTime.of(2025, 8, 26, 10, 0)));
+        assertThrows(IllegalArgumentException.class, () -> manager.createTask(new Task("B", "d", TaskStatus.NEW,
+                Duration.ofMinutes(60), LocalDateTime.of(2025, 8, 26, 10, 30))));
+        Epic epic = manager.createEpic(new Epic("E", "d"));
+        manager.getEpicById(epic.getId());
+
+        assertEquals(2, registry.timer("taskManager.createTask").getCount());
+        assertEquals(1, registry.timer("taskManager.createTask").getErrorCount());
+        assertEquals(1, registry.timer("history.add").getCount());
+        assertEquals(1L, registry.getGaugeValues().get("taskManager.tasks"));
+        assertEquals(1L, registry.getGaugeValues().get("taskManager.epics"));
+        assertEquals(1L, registry.getGaugeValues().get("taskManager.prioritized"));
+        assertEquals(1L, registry.getGaugeValues().get("history.size"));
+
+        String json = registry.toJson();
+        assertTrue(json.contains("\"taskManager.createTask\":{\"count\":2,\"errors\":1,"), json);
+        assertTrue(json.contains("\"p99.9\":"), json);
+        assertTrue(registry.toText().contains("taskManager.createTask"));
+    }
+
+    @Test
+    void fileBackedManagerReportsLastSaveDuration() throws Exception {
+        Path path = File.createTempFile("metered", ".csv").toPath();
+        MetricsRegistry metrics = new MetricsRegistry();
+        MeteredTaskManager metered = new MeteredTaskManager(
+                new FileBackedTaskManager(new InMemoryHistoryManager(), path), metrics);
+
+        assertEquals(0L, metrics.getGaugeValues().get("taskManager.lastSaveNanos"));
+        metered.createTask(new Task("T", "d", TaskStatus.NEW));
+        assertTrue(metrics.getGaugeValues().get("taskManager.lastSaveNanos") > 0);
+    }
+
+    @Test
+    void histogramPercentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1_000);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(100_000, snapshot.getCount());
+        assertEquals(100_000_000, snapshot.getMax());
+        assertEquals(50_000_500.0, snapshot.getMean(), 1e-6);
+        for (double percentile : new double[]{1, 50, 90, 99, 99.9}) {
+            double exact = percentile / 100 * 100_000_000;
+            long reported = snapshot.getValueAtPercentile(percentile);
+            assertTrue(reported >= exact && reported <= exact * (1 + 1.0 / 16),
+                    "p" + percentile + ": " + reported + " vs " + exact);
+        }
+        assertEquals(100_000_000, snapshot.getValueAtPercentile(100));
+        assertEquals(0, new LatencyHistogram().snapshot().getValueAtPercentile(50));
+    }
+
+    @Test
+    void histogramCountsConcurrentRecordsExactly() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        int threads = 4;
+        int perThread = 100_000;
+        try (ExecutorService pool = Executors.newFixedThreadPool(threads)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long base = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        histogram.record(base * 1_000_000 + i);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals((long) threads * perThread, snapshot.getCount());
+        assertEquals((threads - 1) * 1_000_000L + perThread - 1, snapshot.getMax());
+    }
+}
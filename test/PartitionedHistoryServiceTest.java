@@ -0,0 +1,99 @@
+import history.HistoryManager;
+import history.PartitionedHistoryService;
+import model.Task;
+import model.TaskStatus;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * Unit tests for {@link PartitionedHistoryService}.
+ */
+class PartitionedHistoryServiceTest {
+
+    @Test
+    void usersShouldHaveSeparateBoundedHistories() {
+        PartitionedHistoryService service = new PartitionedHistoryService(2, 1_000_000);
+        HistoryManager alice = service.forUser("alice");
+        HistoryManager bob = service.forUser("bob");
+
+        alice.add(task(1));
+        alice.add(task(2));
+        alice.add(task(3));
+        bob.add(task(1));
+
+        Assertions.assertEquals(List.of(2, 3), ids(alice.getHistory()));
+        Assertions.assertEquals(List.of(1), ids(bob.getHistory()));
+        Assertions.assertEquals(2, service.getPartitionCount());
+        Assertions.assertEquals(2 * service.getPartitionBytes(), service.getEstimatedBytes());
+
+        service.removeFromAll(1);
+        Assertions.assertTrue(bob.getHistory().isEmpty());
+    }
+
+    @Test
+    void budgetShouldEvictTheMostIdlePartitionFirst() {
+        PartitionedHistoryService probe = new PartitionedHistoryService(10, Long.MAX_VALUE);
+        PartitionedHistoryService service =
+                new PartitionedHistoryService(10, 3 * probe.getPartitionBytes());
+        HistoryManager a = service.forUser("a");
+        HistoryManager b = service.forUser("b");
+        HistoryManager c = service.forUser("c");
+        for (int id = 1; id <= 10; id++) { // full partitions
+            a.add(task(id));
+            b.add(task(id));
+            c.add(task(id));
+        }
+        a.getHistory(); // "b" is now idle for the longest time
+
+        HistoryManager d = service.forUser("d");
+        for (int id = 1; id <= 10; id++) {
+            d.add(task(id));
+        }
+
+        Assertions.assertEquals(3, service.getPartitionCount());
+        Assertions.assertEquals(1, service.getEvictionCount());
+        Assertions.assertTrue(b.getHistory().isEmpty());
+        Assertions.assertEquals(10, a.getHistory().size());
+        Assertions.assertTrue(service.getEstimatedBytes() <= service.getMemoryBudgetBytes());
+    }
+
+    @Test
+    void budgetShouldBeChargedForActualOccupancy() {
+        PartitionedHistoryService service = new PartitionedHistoryService(1000, 2 * fullPartitionBytes(1000));
+        for (int user = 0; user < 100; user++) {
+            service.forUser("user" + user).add(task(user));
+        }
+        Assertions.assertEquals(100, service.getPartitionCount(), "idle sessions with one view each are small");
+        Assertions.assertEquals(0, service.getEvictionCount());
+
+        HistoryManager busy = service.forUser("busy");
+        for (int id = 0; id < 1000; id++) {
+            busy.add(task(id));
+        }
+        Assertions.assertEquals(1000, busy.getHistory().size());
+        Assertions.assertTrue(service.getEvictionCount() > 0);
+        Assertions.assertTrue(service.getEstimatedBytes() <= service.getMemoryBudgetBytes());
+        Assertions.assertEquals(List.of(99), ids(service.forUser("user99").getHistory()), "most recent idle user stays");
+    }
+
+    private static long fullPartitionBytes(int capacity) {
+        return new PartitionedHistoryService(capacity, Long.MAX_VALUE).getPartitionBytes();
+    }
+
+    @Test
+    void budgetSmallerThanOnePartitionShouldBeRejected() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PartitionedHistoryService(10, 100));
+    }
+
+    private static Task task(int id) {
+        Task task = new Task("Task " + id, "Desc", TaskStatus.NEW);
+        task.setId(id);
+        return task;
+    }
+
+    private static List<Integer> ids(List<Task> history) {
+        return history.stream().map(Task::getId).toList();
+    }
+}
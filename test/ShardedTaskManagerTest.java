@@ -0,0 +1,252 @@
+import history.InMemoryHistoryManager;
+import manager.ShardedTaskManager;
+import model.Epic;
+import model.Subtask;
+import model.Task;
+import model.TaskStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedTaskManagerTest extends TaskManagerTest<ShardedTaskManager> {
+
+    @Override
+    protected ShardedTaskManager makeManager() {
+        return new ShardedTaskManager(new InMemoryHistoryManager(), 4);
+    }
+
+    @Test
+    void overlapIsDetectedAcrossShards() {
+        // consecutive creates are placed round-robin, so these land in different shards
+        manager.createTask(new Task("A", "", TaskStatus.NEW,
+                Duration.ofMinutes(60), LocalDateTime.of(2025, 8, 26, 10, 0)));
+        Epic e = manager.createEpic(new Epic("E", ""));
+
+        Subtask s = new Subtask("S", "", TaskStatus.NEW, e.getId(),
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 8, 26, 10, 30));
+        assertThrows(IllegalArgumentException.class, () -> manager.createSubtask(s));
+        assertTrue(manager.getAllSubtasks().isEmpty());
+    }
+
+    @Test
+    void deletedWindowIsReleased() {
+        Task a = manager.createTask(new Task("A", "", TaskStatus.NEW,
+                Duration.ofMinutes(60), LocalDateTime.of(2025, 8, 26, 10, 0)));
+        manager.deleteTaskById(a.getId());
+
+        assertDoesNotThrow(() -> manager.createTask(new Task("B", "", TaskStatus.NEW,
+                Duration.ofMinutes(60), LocalDateTime.of(2025, 8, 26, 10, 0))));
+    }
+
+    @Test
+    void deletingSubtaskIdAsTaskKeepsItsWindowAndRelocation() {
+        Epic e1 = manager.createEpic(new Epic("E1", ""));
+        Epic e2 = manager.createEpic(new Epic("E2", ""));
+        Subtask s = manager.createSubtask(new Subtask("S", "", TaskStatus.NEW, e1.getId(),
+                Duration.ofMinutes(60), LocalDateTime.of(2025, 8, 26, 10, 0)));
+        manager.updateSubtask(new Subtask(s.getId(), "S", "", TaskStatus.NEW, e2.getId(),
+                Duration.ofMinutes(60), LocalDateTime.of(2025, 8, 26, 10, 0)));
+
+        manager.deleteTaskById(s.getId());
+
+        assertNotNull(manager.getSubtaskById(s.getId()));
+        assertThrows(IllegalArgumentException.class, () -> manager.createTask(new Task("B", "", TaskStatus.NEW,
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 8, 26, 10, 30))));
+        assertFalse(manager.hasOverlappingTasks());
+    }
+
+    @Test
+    void deletingTaskIdAsSubtaskKeepsItsWindow() {
+        Task a = manager.createTask(new Task("A", "", TaskStatus.NEW,
+                Duration.ofMinutes(60), LocalDateTime.of(2025, 8, 26, 10, 0)));
+
+        manager.deleteSubtaskById(a.getId());
+        manager.deleteByIds(List.of(a.getId() + 1000));
+
+        assertNotNull(manager.getTaskById(a.getId()));
+        assertThrows(IllegalArgumentException.class, () -> manager.createTask(new Task("B", "", TaskStatus.NEW,
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 8, 26, 10, 30))));
+        assertFalse(manager.hasOverlappingTasks());
+    }
+
+    @Test
+    void updatingSubtaskIdAsTaskKeepsItsWindow() {
+        Epic e = manager.createEpic(new Epic("E", ""));
+        Subtask s = manager.createSubtask(new Subtask("S", "", TaskStatus.NEW, e.getId(),
+                Duration.ofMinutes(60), LocalDateTime.of(2025, 8, 26, 10, 0)));
+
+        manager.updateTask(new Task(s.getId(), "T", "", TaskStatus.NEW, null, null));
+
+        assertNull(manager.getTaskById(s.getId()));
+        assertThrows(IllegalArgumentException.class, () -> manager.createTask(new Task("B", "", TaskStatus.NEW,
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 8, 26, 10, 30))));
+        assertFalse(manager.hasOverlappingTasks());
+    }
+
+    @Test
+    void rejectedMoveLeavesSubtaskInPlace() {
+        Epic e1 = manager.createEpic(new Epic("E1", ""));
+        Epic e2 = manager.createEpic(new Epic("E2", ""));
+        Subtask s = manager.createSubtask(new Subtask("S", "", TaskStatus.NEW, e1.getId()));
+
+        Subtask moved = new Subtask(s.getId(), "S", "", TaskStatus.NEW, e2.getId(),
+                Duration.ofMinutes(30), LocalDateTime.of(7000, 1, 1, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> manager.updateSubtask(moved));
+        assertThrows(IllegalArgumentException.class, () -> manager.updateSubtasks(List.of(moved)));
+
+        assertEquals(e1.getId(), manager.getSubtaskById(s.getId()).getEpicId());
+        assertEquals(List.of(s.getId()), manager.getEpicById(e1.getId()).getSubtaskIds());
+        assertTrue(manager.getEpicSubtasks(e2.getId()).isEmpty());
+    }
+
+    @Test
+    void subtasksMovingBetweenShardsCanTradeWindows() {
+        Epic e1 = manager.createEpic(new Epic("E1", ""));
+        Epic e2 = manager.createEpic(new Epic("E2", ""));
+        LocalDateTime ten = LocalDateTime.of(2025, 8, 26, 10, 0);
+        LocalDateTime noon = LocalDateTime.of(2025, 8, 26, 12, 0);
+        Subtask a = manager.createSubtask(new Subtask("A", "", TaskStatus.NEW, e1.getId(), Duration.ofMinutes(60), ten));
+        Subtask b = manager.createSubtask(new Subtask("B", "", TaskStatus.NEW, e2.getId(), Duration.ofMinutes(60), noon));
+
+        manager.updateSubtasks(List.of(
+                new Subtask(a.getId(), "A", "", TaskStatus.NEW, e2.getId(), Duration.ofMinutes(60), noon),
+                new Subtask(b.getId(), "B", "", TaskStatus.NEW, e1.getId(), Duration.ofMinutes(60), ten)));
+
+        assertEquals(e2.getId(), manager.getSubtaskById(a.getId()).getEpicId());
+        assertEquals(e1.getId(), manager.getSubtaskById(b.getId()).getEpicId());
+        assertThrows(IllegalArgumentException.class, () -> manager.createTask(new Task("C", "", TaskStatus.NEW,
+                Duration.ofMinutes(30), noon)));
+        assertThrows(IllegalArgumentException.class, () -> manager.createTask(new Task("D", "", TaskStatus.NEW,
+                Duration.ofMinutes(30), ten)));
+        assertFalse(manager.hasOverlappingTasks());
+    }
+
+    @Test
+    void tasksOfOneBatchCanSwapStartTimes() {
+        ShardedTaskManager sharded = new ShardedTaskManager(new InMemoryHistoryManager(), 2);
+        LocalDateTime ten = LocalDateTime.of(2025, 8, 26, 10, 0);
+        LocalDateTime noon = LocalDateTime.of(2025, 8, 26, 12, 0);
+        Task a = sharded.createTask(new Task("A", "", TaskStatus.NEW, Duration.ofMinutes(60), ten));
+        Task b = sharded.createTask(new Task("B", "", TaskStatus.NEW, Duration.ofMinutes(60), noon));
+
+        sharded.updateTasks(List.of(
+                new Task(a.getId(), "A", "", TaskStatus.NEW, Duration.ofMinutes(60), noon),
+                new Task(b.getId(), "B", "", TaskStatus.NEW, Duration.ofMinutes(60), ten)));
+
+        for (LocalDateTime start : List.of(ten, noon)) {
+            assertThrows(IllegalArgumentException.class, () -> sharded.createTask(new Task("C", "", TaskStatus.NEW,
+                    Duration.ofMinutes(30), start)));
+        }
+        assertEquals(List.of("B", "A"), sharded.getPrioritizedTasks().stream().map(Task::getName).toList());
+        assertFalse(sharded.hasOverlappingTasks());
+    }
+
+    @Test
+    void readsReturnSnapshots() {
+        Epic e = manager.createEpic(new Epic("E", ""));
+        Epic read = manager.getEpicById(e.getId());
+        manager.createSubtask(new Subtask("S", "", TaskStatus.DONE, e.getId()));
+
+        assertTrue(read.getSubtaskIds().isEmpty());
+        assertEquals(TaskStatus.NEW, read.getStatus());
+        assertEquals(TaskStatus.DONE, manager.getEpicById(e.getId()).getStatus());
+        assertEquals(TaskStatus.DONE, manager.getAllEpics().get(0).getStatus());
+        assertEquals(TaskStatus.DONE, manager.getHistory().get(0).getStatus());
+    }
+
+    @Test
+    void createsStoreAndReturnCopies() {
+        LocalDateTime start = LocalDateTime.of(2025, 8, 26, 10, 0);
+        Task passed = new Task("T", "", TaskStatus.NEW, Duration.ofMinutes(30), start);
+        Task returned = manager.createTask(passed);
+        List<Task> batch = manager.createTasks(List.of(
+                new Task("B", "", TaskStatus.NEW, Duration.ofMinutes(30), start.plusHours(1))));
+
+        assertEquals(returned.getId(), passed.getId());
+        assertEquals("B", manager.getTaskById(batch.get(0).getId()).getName());
+        passed.setName("passed");
+        returned.setStartTime(start.plusHours(5));
+        batch.get(0).setStartTime(start.plusHours(5));
+
+        assertEquals("T", manager.getTaskById(passed.getId()).getName());
+        assertEquals(start, manager.getTaskById(passed.getId()).getStartTime());
+        assertThrows(IllegalArgumentException.class, () -> manager.createTask(
+                new Task("C", "", TaskStatus.NEW, Duration.ofMinutes(10), start.plusHours(1))));
+        manager.createTask(new Task("D", "", TaskStatus.NEW, Duration.ofMinutes(10), start.plusHours(5)));
+    }
+
+    @Test
+    void prioritizedTasksAreMergedAcrossShards() {
+        for (int i = 7; i >= 0; i--) {
+            manager.createTask(new Task("t" + i, "", TaskStatus.NEW,
+                    Duration.ofMinutes(10), LocalDateTime.of(2025, 8, 26, 10 + i, 0)));
+        }
+
+        List<Task> p = manager.getPrioritizedTasks();
+        assertEquals(8, p.size());
+        for (int i = 0; i < 8; i++) {
+            assertEquals("t" + i, p.get(i).getName());
+        }
+    }
+
+    @Test
+    void subtaskCanMoveToEpicInAnotherShard() {
+        Epic e1 = manager.createEpic(new Epic("E1", ""));
+        Epic e2 = manager.createEpic(new Epic("E2", ""));
+        Subtask s = manager.createSubtask(new Subtask("S", "", TaskStatus.DONE, e1.getId()));
+
+        Subtask moved = new Subtask(s.getId(), "S", "", TaskStatus.DONE, e2.getId(), null, null);
+        manager.updateSubtask(moved);
+
+        assertTrue(manager.getEpicSubtasks(e1.getId()).isEmpty());
+        assertEquals(List.of(moved), manager.getEpicSubtasks(e2.getId()));
+        assertEquals(e2.getId(), manager.getSubtaskById(s.getId()).getEpicId());
+        assertEquals(TaskStatus.NEW, manager.getEpicById(e1.getId()).getStatus());
+        assertEquals(TaskStatus.DONE, manager.getEpicById(e2.getId()).getStatus());
+    }
+
+    @Test
+    void movingSubtaskKeepsItsHistoryEntry_deletingRemovesIt() {
+        InMemoryHistoryManager history = new InMemoryHistoryManager();
+        ShardedTaskManager sharded = new ShardedTaskManager(history, 4);
+        Epic e1 = sharded.createEpic(new Epic("E1", ""));
+        Epic e2 = sharded.createEpic(new Epic("E2", ""));
+        Subtask s = sharded.createSubtask(new Subtask("S", "", TaskStatus.NEW, e1.getId()));
+        sharded.getSubtaskById(s.getId());
+
+        sharded.updateSubtask(new Subtask(s.getId(), "S", "", TaskStatus.NEW, e2.getId(), null, null));
+        assertEquals(List.of(s.getId()), history.getHistory().stream().map(Task::getId).toList());
+
+        sharded.deleteEpicById(e2.getId());
+        assertTrue(history.getHistory().isEmpty());
+    }
+
+    @Test
+    void concurrentCreatesProduceUniqueIds() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> ids = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                ids.add(pool.submit(() -> manager.createTask(new Task("T", "d", TaskStatus.NEW)).getId()));
+            }
+            Set<Integer> unique = new HashSet<>();
+            for (Future<Integer> id : ids) {
+                unique.add(id.get());
+            }
+            assertEquals(400, unique.size());
+            assertEquals(400, manager.getAllTasks().size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+import org.junit.jupiter.api.Test;
+import util.SortedLongMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortedLongMapTest {
+
+    @Test
+    void behavesLikeTreeMapUnderRandomOperations() {
+        SortedLongMap<String> map = new SortedLongMap<>();
+        TreeMap<Long, String> expected = new TreeMap<>();
+        Random random = new Random(11);
+        for (int round = 0; round < 4; round++) {
+            // grow to several thousand entries, then shrink, so blocks split, merge and disappear
+            boolean growing = round % 2 == 0;
+            for (int i = 0; i < 60_000; i++) {
+                long key = random.nextInt(20_000) - 10_000L;
+                if (random.nextInt(3) != 0 == growing) {
+                    String value = "v" + i;
+                    assertEquals(expected.put(key, value), map.put(key, value));
+                } else {
+                    assertEquals(expected.remove(key), map.remove(key));
+                }
+            }
+            assertEquals(expected.size(), map.size());
+            List<String> values = new ArrayList<>();
+            map.forEach(values::add);
+            assertEquals(new ArrayList<>(expected.values()), values);
+        }
+        for (long key = -10_000; key < 10_000; key++) {
+            assertEquals(expected.get(key), map.get(key), "key " + key);
+            assertEquals(expected.containsKey(key), map.containsKey(key), "key " + key);
+        }
+    }
+
+    @Test
+    void keysAddedInOrderThenThinnedOutStaySorted() {
+        SortedLongMap<Long> map = new SortedLongMap<>();
+        for (long key = 0; key < 10_000; key++) {
+            map.put(key * 3, key * 3);
+        }
+        for (long key = 0; key < 30_000; key += 6) {
+            assertEquals(key, map.remove(key));
+        }
+        for (long key = -5; key < 30_000; key += 6) {
+            map.put(key, key);
+        }
+        List<Long> values = new ArrayList<>();
+        map.forEach(values::add);
+        assertEquals(10_001, values.size());
+        for (int i = 1; i < values.size(); i++) {
+            assertTrue(values.get(i - 1) < values.get(i), "at " + i);
+        }
+    }
+
+    @Test
+    void extremeKeysAndClear() {
+        SortedLongMap<String> map = new SortedLongMap<>();
+        map.put(Long.MAX_VALUE, "max");
+        map.put(Long.MIN_VALUE, "min");
+        map.put(0, "zero");
+        List<String> values = new ArrayList<>();
+        map.forEach(values::add);
+        assertEquals(List.of("min", "zero", "max"), values);
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.iterator().hasNext());
+        assertNull(map.remove(0));
+        assertThrows(NullPointerException.class, () -> map.put(1, null));
+    }
+}
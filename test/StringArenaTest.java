@@ -0,0 +1,49 @@
+import org.junit.jupiter.api.Test;
+import util.StringArena;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringArenaTest {
+
+    @Test
+    void storedTextIsReturnedAndCompared() {
+        StringArena arena = new StringArena();
+        long name = arena.add("Переезд");
+        long empty = arena.add("");
+        long none = arena.add(null);
+
+        assertEquals("Переезд", arena.get(name));
+        assertEquals("", arena.get(empty));
+        assertNull(arena.get(none));
+        assertTrue(arena.matches(name, "Переезд"));
+        assertFalse(arena.matches(name, "Переезд!"));
+        assertFalse(arena.matches(empty, null));
+        assertTrue(arena.matches(none, null));
+        assertEquals(7, arena.length());
+    }
+
+    @Test
+    void compactionKeepsLiveTextAndDropsGarbage() {
+        StringArena arena = new StringArena();
+        long[] handles = new long[1000];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = arena.add("text " + i + " " + "y".repeat(i % 50));
+        }
+        for (int i = 0; i < handles.length; i++) {
+            if (i % 3 == 0) continue;
+            arena.free(handles[i]);
+            handles[i] = StringArena.NONE;
+        }
+        assertTrue(arena.needsCompaction());
+        int live = arena.length() - arena.garbage();
+
+        arena.compact(handles, handles.length);
+
+        assertEquals(live, arena.length());
+        assertEquals(0, arena.garbage());
+        assertFalse(arena.needsCompaction());
+        for (int i = 0; i < handles.length; i++) {
+            assertEquals(i % 3 != 0 ? null : "text " + i + " " + "y".repeat(i % 50), arena.get(handles[i]));
+        }
+    }
+}
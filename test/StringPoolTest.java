@@ -0,0 +1,88 @@
+import org.junit.jupiter.api.Test;
+import util.StringPool;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringPoolTest {
+
+    @Test
+    void equalStringsShareOneInstance() {
+        StringPool pool = new StringPool();
+        String first = pool.intern(copy("описание"));
+        String second = pool.intern(copy("описание"));
+        String latin = pool.intern(copy("description"));
+
+        assertSame(first, second);
+        assertSame(latin, pool.intern(copy("description")));
+        assertNull(pool.intern(null));
+
+        StringPool.Stats stats = pool.stats();
+        assertEquals(4, stats.lookups());
+        assertEquals(2, stats.hits());
+        assertEquals(0.5, stats.hitRate());
+        // 24-byte String plus byte[] with a 16-byte header: 8 Cyrillic chars take 16 bytes, 11 Latin-1 ones 11
+        assertEquals((24 + 32) + (24 + 32), stats.bytesSaved());
+    }
+
+    @Test
+    void poolDoesNotKeepStringsAlive() throws InterruptedException {
+        StringPool pool = new StringPool();
+        WeakReference<String> pooled = new WeakReference<>(pool.intern(copy("temporary")));
+        for (int i = 0; i < 20 && pooled.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(pooled.get());
+
+        String fresh = copy("temporary");
+        assertSame(fresh, pool.intern(fresh));
+    }
+
+    @Test
+    void fullPoolStillReturnsEqualStrings() {
+        StringPool pool = new StringPool(2);
+        List<String> kept = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            String value = "value " + i;
+            kept.add(value);
+            assertEquals(value, pool.intern(copy(value)));
+        }
+        assertEquals(2, pool.capacity());
+        assertEquals(1_000, pool.stats().lookups());
+        assertThrows(IllegalArgumentException.class, () -> new StringPool(1));
+    }
+
+    @Test
+    void concurrentLookupsReturnEqualStrings() throws Exception {
+        StringPool pool = new StringPool(1024);
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        String value = "template " + i % 100;
+                        assertEquals(value, pool.intern(value));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        StringPool.Stats stats = pool.stats();
+        assertEquals(80_000, stats.lookups());
+        assertTrue(stats.hitRate() > 0.9, () -> "hit rate " + stats.hitRate());
+    }
+
+    /** A string equal to the argument but not the same instance. */
+    private static String copy(String value) {
+        return new String(value.toCharArray());
+    }
+}
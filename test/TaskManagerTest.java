@@ -107,6 +107,28 @@ public abstract class TaskManagerTest<T extends TaskManager> {
         assertEquals("t",  p.get(2).getName());
     }
 
+    @Test
+    void prioritizedTasks_updateThatMovesStartTime_leavesOneEntry() {
+        Epic e = manager.createEpic(new Epic("E", ""));
+        Task t = manager.createTask(new Task("t", "d", TaskStatus.NEW,
+                Duration.ofMinutes(20), LocalDateTime.of(2025, 8, 26, 9, 0)));
+        Subtask s = manager.createSubtask(new Subtask("s", "", TaskStatus.NEW, e.getId(),
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 8, 25, 10, 0)));
+
+        manager.updateTask(new Task(t.getId(), "t", "d", TaskStatus.NEW,
+                Duration.ofMinutes(20), LocalDateTime.of(2025, 8, 24, 9, 0)));
+        manager.updateSubtask(new Subtask(s.getId(), "s", "", TaskStatus.NEW, e.getId(),
+                Duration.ofMinutes(30), LocalDateTime.of(2025, 8, 27, 10, 0)));
+
+        List<Task> p = manager.getPrioritizedTasks();
+        assertEquals(2, p.size());
+        assertEquals(LocalDateTime.of(2025, 8, 24, 9, 0), p.get(0).getStartTime());
+        assertEquals(LocalDateTime.of(2025, 8, 27, 10, 0), p.get(1).getStartTime());
+
+        manager.updateTask(new Task(t.getId(), "t", "d", TaskStatus.NEW, null, null));
+        assertEquals(List.of(s.getId()), manager.getPrioritizedTasks().stream().map(Task::getId).toList());
+    }
+
     // --- Overlap checks ---
 
     @Test
@@ -142,4 +164,122 @@ public abstract class TaskManagerTest<T extends TaskManager> {
         assertThrows(IllegalArgumentException.class, () -> manager.createSubtask(s),
                 "Expected IllegalArgumentException when epic is missing");
     }
+
+    // --- Bulk operations ---
+
+    @Test
+    void history_recordsReadsById_andDropsDeletedItems() {
+        Task t = manager.createTask(new Task("T", "d", TaskStatus.NEW));
+        Epic e = manager.createEpic(new Epic("E", "d"));
+        manager.getEpicById(e.getId());
+        manager.getTaskById(t.getId());
+        manager.getTaskById(-1);
+        assertEquals(List.of(e.getId(), t.getId()), manager.getHistory().stream().map(Task::getId).toList());
+
+        manager.deleteTaskById(t.getId());
+        assertEquals(List.of(e.getId()), manager.getHistory().stream().map(Task::getId).toList());
+    }
+
+    @Test
+    void createSubtasks_storesBatch_andRecalculatesEpic() {
+        Epic e = manager.createEpic(new Epic("E", ""));
+        List<Subtask> created = manager.createSubtasks(List.of(
+                new Subtask("s1", "", TaskStatus.DONE, e.getId(),
+                        Duration.ofMinutes(30), LocalDateTime.of(2025, 8, 25, 12, 0)),
+                new Subtask("s2", "", TaskStatus.NEW, e.getId(),
+                        Duration.ofMinutes(15), LocalDateTime.of(2025, 8, 25, 10, 0))));
+
+        assertEquals(2, created.size());
+        assertTrue(created.get(0).getId() > 0 && created.get(1).getId() > 0);
+        assertEquals(2, manager.getEpicSubtasks(e.getId()).size());
+
+        Epic stored = manager.getEpicById(e.getId());
+        assertEquals(TaskStatus.IN_PROGRESS, stored.getStatus());
+        assertEquals(LocalDateTime.of(2025, 8, 25, 10, 0), stored.getStartTime());
+        assertEquals(LocalDateTime.of(2025, 8, 25, 12, 30), stored.getEndTime());
+        assertEquals("s2", manager.getPrioritizedTasks().getFirst().getName());
+    }
+
+    @Test
+    void createTasks_overlapInsideBatch_createsNothing() {
+        List<Task> batch = List.of(
+                new Task("A", "", TaskStatus.NEW, Duration.ofMinutes(60), LocalDateTime.of(2025, 8, 26, 10, 0)),
+                new Task("B", "", TaskStatus.NEW, Duration.ofMinutes(60), LocalDateTime.of(2025, 8, 26, 12, 0)),
+                new Task("C", "", TaskStatus.NEW, Duration.ofMinutes(30), LocalDateTime.of(2025, 8, 26, 10, 30)));
+
+        assertThrows(IllegalArgumentException.class, () -> manager.createTasks(batch));
+        assertTrue(manager.getAllTasks().isEmpty());
+    }
+
+    @Test
+    void createTasks_overlapWithExisting_throws() {
+        manager.createTask(new Task("A", "", TaskStatus.NEW,
+                Duration.ofMinutes(60), LocalDateTime.of(2025, 8, 26, 10, 0)));
+
+        List<Task> batch = List.of(
+                new Task("B", "", TaskStatus.NEW, Duration.ofMinutes(30), LocalDateTime.of(2025, 8, 26, 9, 0)),
+                new Task("C", "", TaskStatus.NEW, Duration.ofMinutes(30), LocalDateTime.of(2025, 8, 26, 9, 45)));
+        assertThrows(IllegalArgumentException.class, () -> manager.createTasks(batch));
+        assertEquals(1, manager.getAllTasks().size());
+    }
+
+    @Test
+    void updateTasks_canSwapTimeWindows() {
+        Task a = manager.createTask(new Task("A", "", TaskStatus.NEW,
+                Duration.ofMinutes(60), LocalDateTime.of(2025, 8, 26, 10, 0)));
+        Task b = manager.createTask(new Task("B", "", TaskStatus.NEW,
+                Duration.ofMinutes(60), LocalDateTime.of(2025, 8, 26, 12, 0)));
+
+        Task movedA = new Task(a.getId(), "A", "", TaskStatus.NEW,
+                Duration.ofMinutes(60), LocalDateTime.of(2025, 8, 26, 12, 0));
+        Task movedB = new Task(b.getId(), "B", "", TaskStatus.NEW,
+                Duration.ofMinutes(60), LocalDateTime.of(2025, 8, 26, 10, 0));
+        manager.updateTasks(List.of(movedA, movedB));
+
+        List<Task> p = manager.getPrioritizedTasks();
+        assertEquals(2, p.size());
+        assertEquals("B", p.get(0).getName());
+        assertEquals("A", p.get(1).getName());
+    }
+
+    @Test
+    void batchUpdates_keepTheLastOccurrenceOfARepeatedId() {
+        LocalDateTime start = LocalDateTime.of(2025, 8, 26, 10, 0);
+        Task t = manager.createTask(new Task("T", "", TaskStatus.NEW, Duration.ofMinutes(60), start));
+        Epic e = manager.createEpic(new Epic("E", ""));
+        Subtask s = manager.createSubtask(new Subtask("S", "", TaskStatus.NEW, e.getId(),
+                Duration.ofMinutes(60), start.plusHours(2)));
+
+        manager.updateTasks(List.of(
+                new Task(t.getId(), "first", "", TaskStatus.NEW, Duration.ofMinutes(60), start),
+                new Task(t.getId(), "last", "", TaskStatus.DONE, Duration.ofMinutes(30), start.plusMinutes(15))));
+        manager.updateSubtasks(List.of(
+                new Subtask(s.getId(), "first", "", TaskStatus.NEW, e.getId(),
+                        Duration.ofMinutes(60), start.plusHours(2)),
+                new Subtask(s.getId(), "last", "", TaskStatus.DONE, e.getId(),
+                        Duration.ofMinutes(60), start.plusHours(2))));
+
+        assertEquals("last", manager.getTaskById(t.getId()).getName());
+        assertEquals(start.plusMinutes(15), manager.getTaskById(t.getId()).getStartTime());
+        assertEquals("last", manager.getSubtaskById(s.getId()).getName());
+        assertEquals(TaskStatus.DONE, manager.getEpicById(e.getId()).getStatus());
+        assertEquals(2, manager.getPrioritizedTasks().size());
+    }
+
+    @Test
+    void deleteByIds_removesMixedItems_andCascadesEpics() {
+        Task t = manager.createTask(new Task("T", "", TaskStatus.NEW));
+        Epic kept = manager.createEpic(new Epic("Kept", ""));
+        Epic dropped = manager.createEpic(new Epic("Dropped", ""));
+        Subtask s1 = manager.createSubtask(new Subtask("s1", "", TaskStatus.DONE, kept.getId()));
+        Subtask s2 = manager.createSubtask(new Subtask("s2", "", TaskStatus.NEW, kept.getId()));
+        manager.createSubtask(new Subtask("s3", "", TaskStatus.NEW, dropped.getId()));
+
+        manager.deleteByIds(List.of(t.getId(), dropped.getId(), s2.getId(), 9999));
+
+        assertTrue(manager.getAllTasks().isEmpty());
+        assertEquals(List.of(kept), manager.getAllEpics());
+        assertEquals(List.of(s1), manager.getAllSubtasks());
+        assertEquals(TaskStatus.DONE, manager.getEpicById(kept.getId()).getStatus());
+    }
 }
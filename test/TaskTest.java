@@ -6,6 +6,10 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * Unit tests for the {@link Task} class and its equals/hashCode semantics.
  */
@@ -67,5 +71,69 @@ class TaskTest {
         String expected = "Task{id=1, name='Task 1', description='Description 1', status=NEW, startTime=null, duration=null, endTime=null}";
         Assertions.assertEquals(expected, task1.toString());
     }
-}
 
+    @Test
+    void timeFieldsAreMinutesWithPrecomputedEnd() {
+        LocalDateTime start = LocalDateTime.of(2025, 3, 1, 9, 15);
+        Task task = new Task(1, "T", "d", TaskStatus.NEW, Duration.ofMinutes(90), start);
+
+        Assertions.assertEquals(start, task.getStartTime());
+        Assertions.assertEquals(Duration.ofMinutes(90), task.getDuration());
+        Assertions.assertEquals(start.plusMinutes(90), task.getEndTime());
+        Assertions.assertEquals(Task.toEpochMinute(start), task.getStartMinute());
+        Assertions.assertEquals(task.getStartMinute() + 90, task.getEndMinute());
+        Assertions.assertSame(task.getDuration(), new Task("U", "d", TaskStatus.NEW,
+                Duration.ofMinutes(90), start).getDuration());
+
+        task.setStartTime(start.plusDays(1));
+        Assertions.assertEquals(start.plusDays(1).plusMinutes(90), task.getEndTime());
+        task.setDuration(null);
+        Assertions.assertEquals(Task.NO_TIME, task.getEndMinute());
+        Assertions.assertNull(task.getEndTime());
+        Assertions.assertFalse(task.hasTimeWindow());
+    }
+
+    @Test
+    void timesAreTruncatedToTheMinute() {
+        Task task = new Task(1, "T", "d", TaskStatus.NEW, Duration.ofSeconds(119),
+                LocalDateTime.of(1969, 12, 31, 23, 59, 30, 5));
+
+        Assertions.assertEquals(LocalDateTime.of(1969, 12, 31, 23, 59), task.getStartTime());
+        Assertions.assertEquals(-1, task.getStartMinute());
+        Assertions.assertEquals(Duration.ofMinutes(1), task.getDuration());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> task.setDuration(Duration.ofDays(2_000_000)));
+    }
+
+    @Test
+    void epicEndIsSetIndependentlyOfStartAndDuration() {
+        Epic epic = new Epic(1, "E", "d", TaskStatus.NEW, Duration.ofMinutes(30), LocalDateTime.of(2025, 1, 1, 10, 0));
+        Assertions.assertNull(epic.getEndTime());
+
+        epic.setEndTime(LocalDateTime.of(2025, 1, 2, 10, 0));
+        epic.setDuration(Duration.ofMinutes(60));
+        Assertions.assertEquals(LocalDateTime.of(2025, 1, 2, 10, 0), epic.getEndTime());
+    }
+
+    @Test
+    void copiesAreDetached() {
+        Epic epic = new Epic(1, "E", "d", TaskStatus.IN_PROGRESS, Duration.ofMinutes(30), LocalDateTime.of(2025, 1, 1, 10, 0));
+        epic.setEndTime(LocalDateTime.of(2025, 1, 2, 10, 0));
+        epic.addSubtaskId(2);
+        Subtask subtask = new Subtask(2, "S", "d", TaskStatus.DONE, 1, Duration.ofMinutes(15), null);
+
+        Epic epicCopy = epic.copy();
+        Subtask subtaskCopy = subtask.copy();
+        epic.addSubtaskId(3);
+        epic.setEndTime(null);
+        subtask.setStartTime(LocalDateTime.of(2025, 1, 1, 12, 0));
+
+        Assertions.assertEquals(epic.getId(), epicCopy.getId());
+        Assertions.assertEquals(TaskStatus.IN_PROGRESS, epicCopy.getStatus());
+        Assertions.assertEquals(LocalDateTime.of(2025, 1, 1, 10, 0), epicCopy.getStartTime());
+        Assertions.assertEquals(LocalDateTime.of(2025, 1, 2, 10, 0), epicCopy.getEndTime());
+        Assertions.assertEquals(List.of(2), epicCopy.getSubtaskIds());
+        Assertions.assertEquals(1, subtaskCopy.getEpicId());
+        Assertions.assertEquals(Duration.ofMinutes(15), subtaskCopy.getDuration());
+        Assertions.assertNull(subtaskCopy.getStartTime());
+    }
+}